@@ -285,9 +285,29 @@ CREATE INDEX idx_work_order ON work(order_id);
 CREATE INDEX idx_work_client ON work(client_id);
 CREATE INDEX idx_work_family ON work(work_family);
 CREATE INDEX idx_work_type ON work(type);
+-- Paginación por cursor (keyset): (created_at, work_id) y por cliente
+CREATE INDEX idx_work_created ON work(created_at, work_id);
+CREATE INDEX idx_work_client_created ON work(client_id, created_at, work_id);
 CREATE INDEX idx_work_profile_year_seq
   ON work(client_profile_id, internal_year, internal_seq);
 
+-- Secuencia de codigos internos por perfil y año (work_code_sequence).
+-- next_seq es el primer numero aun no entregado; solo crece. WorkCodeSequenceAllocator
+-- reserva numeros (uno o un bloque) avanzandolo con el row bloqueado, en su propia transaccion.
+-- La primera vez se siembra con MAX(work.internal_seq) + 1 del perfil y año.
+
+CREATE TABLE work_code_sequence (
+  profile_prefix     CHAR(1) NOT NULL,          -- D / S / T
+  client_profile_id  BIGINT NOT NULL,
+  seq_year           INT NOT NULL,
+
+  next_seq           INT NOT NULL,
+
+  updated_at         TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
+
+  PRIMARY KEY (profile_prefix, client_profile_id, seq_year)
+) ENGINE=InnoDB;
+
 CREATE TABLE work_step_template (
   template_id BIGINT PRIMARY KEY AUTO_INCREMENT,
   work_type   VARCHAR(50) NOT NULL,        -- e.g. 'CROWN', 'BRIDGE', 'INLAY'
@@ -408,6 +428,13 @@ CREATE TABLE bridge_work (
   connector_type VARCHAR(50),
   pontic_design VARCHAR(50),
   notes TEXT,
+
+  -- Denormalized from bridge_tooth, maintained by the bridge upsert in the same
+  -- transaction. NULL = not backfilled yet (pricing falls back to COUNT(bridge_tooth)).
+  prosthetic_units INT NULL
+    COMMENT 'Number of rows in bridge_tooth for this bridge',
+  teeth_span_mask BIGINT NULL
+    COMMENT 'FDI span bitmask: bit (quadrant-1)*8 + (position-1) per tooth',
   
   FOREIGN KEY (work_id) REFERENCES work(work_id) ON DELETE CASCADE,
   FOREIGN KEY (core_material_id) REFERENCES material(material_id),
@@ -601,6 +628,11 @@ CREATE TABLE work_price (
     price_id BIGINT PRIMARY KEY AUTO_INCREMENT,
     work_id BIGINT NOT NULL,
     price DECIMAL(12,2) NOT NULL,
+    -- Materializados: override_total = SUM(work_item_price_override.adjustment),
+    -- final_price = price + override_total. Se mantienen en la misma transaccion que
+    -- los overrides (WorkPriceOverrideService). NULL = fila anterior, se recalcula.
+    override_total DECIMAL(12,2) NULL,
+    final_price DECIMAL(12,2) NULL,
     price_group VARCHAR(50) NOT NULL DEFAULT 'DEFAULT',
     currency CHAR(3) DEFAULT 'MXN',
     notes VARCHAR(255),
@@ -731,6 +763,10 @@ CREATE TABLE client_balance (
   updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
                  ON UPDATE CURRENT_TIMESTAMP,
 
+  -- Version para bloqueo optimista (payment.balance.locking=OPTIMISTIC): cada UPDATE
+  -- verifica y aumenta la version en vez de bloquear el row desde la lectura.
+  version    BIGINT NOT NULL DEFAULT 0,
+
   FOREIGN KEY (client_id)
       REFERENCES client(client_id)
       ON DELETE CASCADE
@@ -787,6 +823,76 @@ CREATE TABLE client_balance_movement (
 CREATE INDEX idx_cbm_client ON client_balance_movement(client_id, created_at);
 CREATE INDEX idx_cbm_payment ON client_balance_movement(payment_id);
 CREATE INDEX idx_cbm_work ON client_balance_movement(work_id);
+-- Cola de movimientos posteriores a un checkpoint (movement_id > last_movement_id)
+CREATE INDEX idx_cbm_client_movement ON client_balance_movement(client_id, movement_id);
+
+-- Checkpoints del ledger por cliente (client_balance_checkpoint).
+-- balance = Sum(amount_change) de los movimientos del cliente con movement_id <= last_movement_id.
+-- El saldo autoritativo es balance + Sum(amount_change) de los movimientos posteriores (la "cola"),
+-- sin recorrer todo el historial. Los crea ClientBalanceCheckpointJob con el row de client_balance
+-- bloqueado; su modo de verificacion compara checkpoint + cola contra la suma completa.
+
+CREATE TABLE client_balance_checkpoint (
+  client_id         BIGINT PRIMARY KEY,
+
+  last_movement_id  BIGINT NOT NULL,
+  balance           DECIMAL(12,2) NOT NULL,
+  movement_count    BIGINT NOT NULL,
+
+  created_at        TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+
+  FOREIGN KEY (client_id)
+      REFERENCES client(client_id)
+      ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+-- Proyeccion por trabajo de lo pagado (work_payment_summary).
+-- Derivada de payment_allocation (solo pagos RECEIVED), client_balance_movement (APPLY_WORK)
+-- y work_price.final_price. Se actualiza en la misma transaccion que escribe en los ledgers;
+-- se regenera con WorkPaymentSummaryJob (rebuild) si alguna escritura la evita.
+--   unpaid = final_price - cash_paid - balance_paid   (NULL mientras el trabajo no tiene precio)
+
+CREATE TABLE work_payment_summary (
+  work_id       BIGINT PRIMARY KEY,
+  client_id     BIGINT NOT NULL,
+
+  final_price   DECIMAL(12,2) NULL,
+  cash_paid     DECIMAL(12,2) NOT NULL DEFAULT 0,
+  balance_paid  DECIMAL(12,2) NOT NULL DEFAULT 0,
+  unpaid        DECIMAL(12,2) NULL,
+
+  updated_at    TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+
+  FOREIGN KEY (work_id)
+      REFERENCES work(work_id)
+      ON DELETE CASCADE
+) ENGINE=InnoDB;
+CREATE INDEX idx_wps_client_unpaid ON work_payment_summary(client_id, unpaid);
+
+-- Antiguedad de saldos por cliente (receivables_aging_snapshot).
+-- Foto diaria de lo no pagado (work_payment_summary.unpaid) por cliente, repartido por la
+-- antiguedad del trabajo (work.created_at): 0-30, 31-60, 61-90 y mas de 90 dias.
+-- La escribe ReceivablesAgingService (cron o a pedido); cada fecha se reemplaza completa.
+
+CREATE TABLE receivables_aging_snapshot (
+  snapshot_id     BIGINT PRIMARY KEY AUTO_INCREMENT,
+  snapshot_date   DATE NOT NULL,
+  client_id       BIGINT NOT NULL,
+
+  current_amount  DECIMAL(12,2) NOT NULL,
+  days_31_60      DECIMAL(12,2) NOT NULL,
+  days_61_90      DECIMAL(12,2) NOT NULL,
+  over_90         DECIMAL(12,2) NOT NULL,
+  total_unpaid    DECIMAL(12,2) NOT NULL,
+
+  created_at      TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+
+  CONSTRAINT uq_ras_date_client UNIQUE (snapshot_date, client_id),
+
+  FOREIGN KEY (client_id)
+      REFERENCES client(client_id)
+      ON DELETE CASCADE
+) ENGINE=InnoDB;
 
 -- ===================================================
 -- 10) Security (Refresh Tokens)
@@ -0,0 +1,375 @@
+package com.dentallab.benchmark;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dentallab.api.enums.BuildingTechnique;
+import com.dentallab.domain.enums.FixProstheticConstitution;
+import com.dentallab.domain.payment.persistence.WorkPaymentSummaryJob;
+import com.dentallab.domain.pricing.model.BasePriceResult;
+import com.dentallab.domain.pricing.model.PriceResolutionRequest;
+import com.dentallab.domain.pricing.service.WorkBasePriceService;
+import com.dentallab.domain.pricing.service.WorkPriceOverrideService;
+import com.dentallab.persistence.entity.BridgeToothEntity;
+import com.dentallab.persistence.entity.BridgeWorkEntity;
+import com.dentallab.persistence.entity.ClientEntity;
+import com.dentallab.persistence.entity.CrownWorkEntity;
+import com.dentallab.persistence.entity.PaymentAllocationEntity;
+import com.dentallab.persistence.entity.PaymentEntity;
+import com.dentallab.persistence.entity.ToothRefEntity;
+import com.dentallab.persistence.entity.WorkEntity;
+import com.dentallab.persistence.entity.WorkFamilyRefEntity;
+import com.dentallab.persistence.entity.WorkOrderEntity;
+import com.dentallab.persistence.entity.WorkTypePriceEntity;
+import com.dentallab.persistence.entity.WorkTypeRefEntity;
+import com.dentallab.util.ToothSpanUtils;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Seeds the benchmark database with a realistic data set:
+ *
+ *  - thousands of work_type_price rules over several groups, attribute
+ *    combinations and valid_from dates (plus one wildcard rule per
+ *    type / group, so every lookup matches)
+ *  - crowns and bridges of 3 to 14 teeth, with fixed base prices
+ *  - overrides on a fraction of the works
+ *  - partial payments on a fraction of the works
+ *
+ * Data is generated from a fixed seed so runs are comparable.
+ */
+final class PricingBenchmarkData {
+
+    private static final Logger log = LoggerFactory.getLogger(PricingBenchmarkData.class);
+
+    static final String FAMILY = "FIXED_PROSTHESIS";
+    static final String[] TYPES = { "CROWN", "BRIDGE" };
+    static final String[] GROUPS = {
+            "DEFAULT", "UNIVERSITY", "CLINIC_A", "CLINIC_B",
+            "CLINIC_C", "PARTNER", "PROMO", "INTERNAL"
+    };
+    static final LocalDate[] VALID_FROM = {
+            LocalDate.of(2019, 1, 1),
+            LocalDate.of(2020, 7, 1),
+            LocalDate.of(2021, 1, 1),
+            LocalDate.of(2022, 3, 1),
+            LocalDate.of(2023, 9, 1),
+            LocalDate.of(2025, 1, 1)
+    };
+
+    /** Upper then lower arch, in mesio-distal order across the midline. */
+    private static final String[] ARCH_ORDER = {
+            "18", "17", "16", "15", "14", "13", "12", "11",
+            "21", "22", "23", "24", "25", "26", "27", "28",
+            "48", "47", "46", "45", "44", "43", "42", "41",
+            "31", "32", "33", "34", "35", "36", "37", "38"
+    };
+
+    private static final int CHUNK = 500;
+
+    /** Work ids per client, in creation order. */
+    final Map<Long, List<Long>> worksByClient = new LinkedHashMap<>();
+
+    /** Every seeded work id. */
+    final List<Long> workIds = new ArrayList<>();
+
+    private final Random random = new Random(20240611L);
+
+    private final EntityManager em;
+    private final TransactionTemplate tx;
+    private final WorkBasePriceService basePriceService;
+    private final WorkPriceOverrideService overrideService;
+    private final WorkPaymentSummaryJob paymentSummaryJob;
+
+    PricingBenchmarkData(ApplicationContext context) {
+        this.em = context.getBean(EntityManager.class);
+        this.tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        this.basePriceService = context.getBean(WorkBasePriceService.class);
+        this.overrideService = context.getBean(WorkPriceOverrideService.class);
+        this.paymentSummaryJob = context.getBean(WorkPaymentSummaryJob.class);
+    }
+
+    void seed(int ruleCount, int clientCount, int crownCount, int bridgeCount) {
+
+        long start = System.nanoTime();
+
+        tx.executeWithoutResult(status -> seedRules(ruleCount));
+        tx.executeWithoutResult(status -> seedWorks(clientCount, crownCount, bridgeCount));
+        fixBasePrices();
+        tx.executeWithoutResult(status -> seedOverridesAndPayments());
+
+        // Allocations are inserted directly: project them into work_payment_summary
+        paymentSummaryJob.rebuild();
+
+        log.info(
+                "Benchmark data seeded: rules={}, clients={}, crowns={}, bridges={}, tookMs={}",
+                ruleCount, clientCount, crownCount, bridgeCount,
+                (System.nanoTime() - start) / 1_000_000
+        );
+    }
+
+    // ---------------------------------------------------------------------
+    // Pricing rules
+    // ---------------------------------------------------------------------
+
+    private void seedRules(int ruleCount) {
+
+        int persisted = 0;
+
+        // Wildcard fallback per type / group: every lookup finds a rule
+        for (String type : TYPES) {
+            for (String group : GROUPS) {
+                em.persist(rule(type, group, null, null, null, VALID_FROM[0]));
+                persisted++;
+            }
+        }
+
+        while (persisted < ruleCount) {
+            em.persist(rule(
+                    pick(TYPES),
+                    pick(GROUPS),
+                    random.nextBoolean() ? pick(FixProstheticConstitution.values()).name() : null,
+                    random.nextBoolean() ? pick(BuildingTechnique.values()).name() : null,
+                    random.nextInt(3) == 0 ? null : (long) (1 + random.nextInt(6)),
+                    pick(VALID_FROM)));
+
+            if (++persisted % CHUNK == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+    }
+
+    private WorkTypePriceEntity rule(String type,
+                                     String group,
+                                     String constitution,
+                                     String technique,
+                                     Long coreMaterialId,
+                                     LocalDate validFrom) {
+
+        WorkTypePriceEntity rule = new WorkTypePriceEntity();
+        rule.setWorkFamily(FAMILY);
+        rule.setWorkType(type);
+        rule.setPriceGroup(group);
+        rule.setConstitution(constitution);
+        rule.setBuildingTechnique(technique);
+        rule.setCoreMaterialId(coreMaterialId);
+        rule.setCurrency("MXN");
+        rule.setValidFrom(validFrom);
+
+        BigDecimal amount = BigDecimal.valueOf(50 + random.nextInt(450)).setScale(2);
+        if ("BRIDGE".equals(type)) {
+            rule.setPricePerUnit(amount);
+        } else {
+            rule.setBasePrice(amount);
+        }
+        return rule;
+    }
+
+    // ---------------------------------------------------------------------
+    // Works
+    // ---------------------------------------------------------------------
+
+    private void seedWorks(int clientCount, int crownCount, int bridgeCount) {
+
+        WorkFamilyRefEntity family = new WorkFamilyRefEntity();
+        family.setCode(FAMILY);
+        family.setLabel("Fixed Prosthesis");
+        em.persist(family);
+
+        Map<String, WorkTypeRefEntity> types = new HashMap<>();
+        for (String code : TYPES) {
+            WorkTypeRefEntity type = new WorkTypeRefEntity();
+            type.setCode(code);
+            type.setLabel(code);
+            type.setFamily(family);
+            em.persist(type);
+            types.put(code, type);
+        }
+
+        Map<String, ToothRefEntity> teeth = new HashMap<>();
+        for (String number : ARCH_ORDER) {
+            ToothRefEntity tooth = new ToothRefEntity(Long.valueOf(number), number);
+            em.persist(tooth);
+            teeth.put(number, tooth);
+        }
+
+        List<WorkOrderEntity> orders = new ArrayList<>();
+        for (int c = 0; c < clientCount; c++) {
+            ClientEntity client = new ClientEntity();
+            client.setDisplayName("Benchmark Client " + c);
+            client.setFirstName("Benchmark");
+            client.setLastName("Client " + c);
+            client.setPrimaryEmail("client" + c + "@benchmark.local");
+            em.persist(client);
+
+            WorkOrderEntity order = new WorkOrderEntity();
+            order.setClient(client);
+            order.setDueDate(LocalDateTime.now().plusDays(7));
+            em.persist(order);
+            orders.add(order);
+        }
+        em.flush();
+
+        List<Long> orderIds = orders.stream().map(WorkOrderEntity::getId).toList();
+        List<Long> clientIds = orders.stream().map(o -> o.getClient().getId()).toList();
+
+        int total = crownCount + bridgeCount;
+
+        for (int i = 0; i < total; i++) {
+
+            int owner = i % orderIds.size();
+            boolean bridge = i >= crownCount;
+
+            WorkEntity work = new WorkEntity();
+            work.setWorkFamily(em.getReference(WorkFamilyRefEntity.class, FAMILY));
+            work.setType(em.getReference(WorkTypeRefEntity.class, bridge ? "BRIDGE" : "CROWN"));
+            work.setClient(em.getReference(ClientEntity.class, clientIds.get(owner)));
+            work.setOrder(em.getReference(WorkOrderEntity.class, orderIds.get(owner)));
+            em.persist(work);
+
+            if (bridge) {
+                persistBridge(work);
+            } else {
+                persistCrown(work);
+            }
+
+            em.flush();
+            workIds.add(work.getId());
+            worksByClient.computeIfAbsent(clientIds.get(owner), k -> new ArrayList<>()).add(work.getId());
+
+            if ((i + 1) % CHUNK == 0) {
+                em.clear();
+            }
+        }
+    }
+
+    private void persistCrown(WorkEntity work) {
+        CrownWorkEntity crown = new CrownWorkEntity();
+        crown.setWork(work);
+        crown.setToothNumber(pick(ARCH_ORDER));
+        crown.setConstitution(pick(FixProstheticConstitution.values()));
+        crown.setBuildingTechnique(pick(BuildingTechnique.values()));
+        crown.setCoreMaterialId((long) (1 + random.nextInt(6)));
+        em.persist(crown);
+    }
+
+    private void persistBridge(WorkEntity work) {
+
+        // 3..14 contiguous teeth within one arch
+        int span = 3 + random.nextInt(12);
+        int arch = random.nextBoolean() ? 0 : 16;
+        int first = arch + random.nextInt(16 - span + 1);
+
+        List<String> numbers = new ArrayList<>(span);
+        for (int i = 0; i < span; i++) {
+            numbers.add(ARCH_ORDER[first + i]);
+        }
+
+        BridgeWorkEntity bridge = new BridgeWorkEntity();
+        bridge.setWork(work);
+        bridge.setConstitution(pick(FixProstheticConstitution.values()));
+        bridge.setBuildingTechnique(pick(BuildingTechnique.values()));
+        bridge.setCoreMaterialId((long) (1 + random.nextInt(6)));
+        bridge.setProstheticUnits(span);
+        bridge.setTeethSpanMask(ToothSpanUtils.spanMask(numbers));
+        em.persist(bridge);
+
+        for (int i = 0; i < span; i++) {
+            boolean abutment = i == 0 || i == span - 1 || random.nextInt(3) == 0;
+            em.persist(new BridgeToothEntity(
+                    bridge,
+                    em.getReference(ToothRefEntity.class, Long.valueOf(numbers.get(i))),
+                    abutment ? BridgeToothEntity.Role.ABUTMENT : BridgeToothEntity.Role.PONTIC,
+                    i + 1));
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Fixed prices, overrides, payments
+    // ---------------------------------------------------------------------
+
+    private void fixBasePrices() {
+
+        for (int from = 0; from < workIds.size(); from += CHUNK) {
+
+            List<PriceResolutionRequest> requests = new ArrayList<>();
+            for (Long workId : workIds.subList(from, Math.min(from + CHUNK, workIds.size()))) {
+                requests.add(new PriceResolutionRequest(workId, LocalDate.now(), "DEFAULT"));
+            }
+
+            tx.executeWithoutResult(status -> {
+                Map<Long, BasePriceResult> prices = basePriceService.previewBasePrices(requests);
+                basePriceService.fixBasePrices(prices);
+            });
+        }
+    }
+
+    private void seedOverridesAndPayments() {
+
+        int index = 0;
+
+        for (Map.Entry<Long, List<Long>> entry : worksByClient.entrySet()) {
+
+            PaymentEntity payment = null;
+
+            for (Long workId : entry.getValue()) {
+
+                if (index % 5 == 0) {
+                    overrideService.addOverride(workId, new BigDecimal("-10.00"), "Benchmark discount", null);
+                } else if (index % 7 == 0) {
+                    overrideService.addOverride(workId, new BigDecimal("35.00"), "Benchmark surcharge", null);
+                }
+
+                if (index % 3 == 0) {
+                    if (payment == null) {
+                        payment = new PaymentEntity();
+                        payment.setClientId(entry.getKey());
+                        payment.setReceivedAt(Instant.now());
+                        payment.setMethod("CASH");
+                        payment.setAmountTotal(BigDecimal.ZERO);
+                        payment.setIdempotencyKey(UUID.randomUUID().toString());
+                        em.persist(payment);
+                        em.flush();
+                    }
+
+                    BigDecimal applied = new BigDecimal("20.00");
+
+                    PaymentAllocationEntity allocation = new PaymentAllocationEntity();
+                    allocation.setPaymentId(payment.getId());
+                    allocation.setWorkId(workId);
+                    allocation.setAmountApplied(applied);
+                    allocation.setCreatedAt(Instant.now());
+                    em.persist(allocation);
+
+                    payment.setAmountTotal(payment.getAmountTotal().add(applied));
+                }
+
+                if (++index % CHUNK == 0) {
+                    em.flush();
+                    em.clear();
+                    payment = payment != null ? em.find(PaymentEntity.class, payment.getId()) : null;
+                }
+            }
+        }
+    }
+
+    private <T> T pick(T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,153 @@
+package com.dentallab.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.dentallab.DentalLabAppApplication;
+import com.dentallab.domain.payment.dto.PaymentPreviewRequest;
+import com.dentallab.domain.payment.dto.PaymentPreviewResult;
+import com.dentallab.domain.payment.service.PaymentPreviewService;
+import com.dentallab.domain.pricing.model.BasePriceResult;
+import com.dentallab.domain.pricing.model.PriceResolution;
+import com.dentallab.domain.pricing.model.PriceResolutionRequest;
+import com.dentallab.domain.pricing.service.FinalWorkPriceResolver;
+import com.dentallab.domain.pricing.service.WorkTypePriceResolver;
+
+/**
+ * Throughput of the three pricing entry points on a seeded H2 database:
+ *
+ *  - basePrice:      WorkTypePriceResolver.resolveBasePrice
+ *                    (pricing view query + in-memory rule selection)
+ *  - finalPrice:     FinalWorkPriceResolver.resolve
+ *                    (fixed base price + materialized overrides)
+ *  - paymentPreview: PaymentPreviewService.preview over 20 works of a client
+ *
+ * Run with the "benchmark" Maven profile (see pom.xml). The default
+ * arguments add the GC profiler, which reports the allocation rate
+ * (gc.alloc.rate.norm = bytes allocated per operation).
+ *
+ * Absolute numbers depend on H2 and the machine; compare runs of the
+ * same data set before and after a change.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class PricingPipelineBenchmark {
+
+    private static final int PREVIEW_WORKS = 20;
+
+    @Param({ "3000" })
+    public int ruleCount;
+
+    @Param({ "2000" })
+    public int crownCount;
+
+    @Param({ "1000" })
+    public int bridgeCount;
+
+    private ConfigurableApplicationContext context;
+
+    private WorkTypePriceResolver basePriceResolver;
+    private FinalWorkPriceResolver finalPriceResolver;
+    private PaymentPreviewService paymentPreviewService;
+
+    private long[] workIds;
+    private List<PaymentPreviewRequest> previewRequests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        context = new SpringApplicationBuilder(DentalLabAppApplication.class)
+                .profiles("test", "benchmark")
+                .run();
+
+        PricingBenchmarkData data = new PricingBenchmarkData(context);
+        data.seed(ruleCount, 100, crownCount, bridgeCount);
+
+        basePriceResolver = context.getBean(WorkTypePriceResolver.class);
+        finalPriceResolver = context.getBean(FinalWorkPriceResolver.class);
+        paymentPreviewService = context.getBean(PaymentPreviewService.class);
+
+        workIds = data.workIds.stream().mapToLong(Long::longValue).toArray();
+
+        previewRequests = new ArrayList<>();
+        data.worksByClient.forEach((clientId, works) -> {
+            PaymentPreviewRequest request = new PaymentPreviewRequest();
+            request.setClientId(clientId);
+            request.setPaymentAmount(new BigDecimal("1500.00"));
+            request.setSelectedWorkIds(List.copyOf(works.subList(0, Math.min(PREVIEW_WORKS, works.size()))));
+            previewRequests.add(request);
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    /**
+     * Per-thread input picker, so threads do not contend on a shared random.
+     */
+    @State(Scope.Thread)
+    public static class Picker {
+
+        private final SplittableRandom random = new SplittableRandom(42L);
+
+        int next(int bound) {
+            return random.nextInt(bound);
+        }
+    }
+
+    @Benchmark
+    public BasePriceResult basePrice(Picker picker) {
+
+        long workId = workIds[picker.next(workIds.length)];
+        String group = PricingBenchmarkData.GROUPS[picker.next(PricingBenchmarkData.GROUPS.length)];
+
+        // Historical dates exercise every effective range of the rules
+        LocalDate pricingDate = LocalDate.of(2019, 6, 1).plusDays(picker.next(2500));
+
+        return basePriceResolver.resolveBasePrice(
+                new PriceResolutionRequest(workId, pricingDate, group));
+    }
+
+    @Benchmark
+    public PriceResolution finalPrice(Picker picker) {
+
+        long workId = workIds[picker.next(workIds.length)];
+
+        return finalPriceResolver.resolve(PriceResolutionRequest.forWork(workId));
+    }
+
+    @Benchmark
+    public PaymentPreviewResult paymentPreview(Picker picker) {
+
+        return paymentPreviewService.preview(
+                previewRequests.get(picker.next(previewRequests.size())));
+    }
+}
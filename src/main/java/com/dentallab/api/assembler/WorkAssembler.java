@@ -10,6 +10,7 @@ import com.dentallab.api.controller.WorkController;
 import com.dentallab.api.model.ClientSummaryModel;
 import com.dentallab.api.model.WorkModel;
 import com.dentallab.persistence.entity.WorkEntity;
+import com.dentallab.persistence.repository.WorkListQueryRepository.WorkListRow;
 import com.dentallab.service.LookupService;
 
 /**
@@ -85,6 +86,60 @@ public class WorkAssembler extends RepresentationModelAssemblerSupport<WorkEntit
         return model;
     }
 
+    // ==========================================================
+    // LIST ROW (projection) → MODEL
+    // ==========================================================
+    /**
+     * Same model as {@link #toModel(WorkEntity)}, built from a projected
+     * list row; reads no entity, so no lazy association is loaded.
+     */
+    public WorkModel toModel(WorkListRow row) {
+        WorkModel model = new WorkModel();
+
+        model.setId(row.id());
+        model.setDescription(row.description());
+        model.setShade(row.shade());
+        model.setNotes(row.notes());
+        model.setCreatedAt(row.createdAt());
+        model.setUpdatedAt(row.updatedAt());
+
+        model.setInternalCode(row.internalCode());
+        model.setInternalSeq(row.internalSeq());
+        model.setInternalYear(row.internalYear());
+        model.setProfilePrefix(row.profilePrefix());
+        model.setClientProfileId(row.clientProfileId());
+
+        model.setWorkFamily(row.familyCode());
+        model.setType(row.typeCode());
+        model.setFamilyLabel(row.familyLabel());
+        model.setTypeLabel(row.typeLabel());
+        model.setStatus(row.statusCode());
+        model.setStatusLabel(row.statusLabel());
+
+        model.setClientId(row.clientId());
+        model.setOrderId(row.orderId());
+
+        model.add(linkTo(methodOn(WorkController.class).getById(row.id())).withSelfRel());
+        model.add(linkTo(methodOn(WorkController.class).getAll(0, 10, "createdAt,desc")).withRel("collection"));
+
+        if (row.clientId() != null) {
+            ClientSummaryModel clientModel = new ClientSummaryModel();
+            clientModel.setId(row.clientId());
+            clientModel.setDisplayName(row.clientDisplayName());
+            clientModel.setFirstName(row.clientFirstName());
+            clientModel.setSecondName(row.clientSecondName());
+            clientModel.setLastName(row.clientLastName());
+            clientModel.setSecondLastName(row.clientSecondLastName());
+            clientModel.setPrimaryEmail(row.clientPrimaryEmail());
+            clientModel.setPrimaryPhone(row.clientPrimaryPhone());
+            clientModel.setPrimaryAddress(row.clientPrimaryAddress());
+            clientModel.setActive(row.clientActive());
+            model.setClient(clientModel);
+        }
+
+        return model;
+    }
+
     // ==========================================================
     // MODEL → ENTITY
     // ==========================================================
@@ -4,11 +4,14 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -20,10 +23,12 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.dentallab.api.model.ClientFullModel;
 import com.dentallab.api.model.ClientModel;
 import com.dentallab.api.model.ClientSummaryModel;
+import com.dentallab.domain.payment.service.ClientStatementExporter;
 import com.dentallab.service.ClientService;
 
 /**
@@ -41,9 +46,11 @@ public class ClientController {
     private static final Logger log = LoggerFactory.getLogger(ClientController.class);
 
     private final ClientService clientService;
+    private final ClientStatementExporter statementExporter;
 
-    public ClientController(ClientService clientService) {
+    public ClientController(ClientService clientService, ClientStatementExporter statementExporter) {
         this.clientService = clientService;
+        this.statementExporter = statementExporter;
     }
     
     /* -------------------- READ ALL (with pagination) -------------------- */
@@ -81,6 +88,44 @@ public class ClientController {
         return ResponseEntity.ok(model);
     }
     
+    /* -------------------- STATEMENT (streamed) -------------------- */
+    /**
+     * Streams the client's account statement (work charges, payments,
+     * allocations and balance movements in date order, with a running
+     * balance) as CSV or NDJSON.
+     *
+     * <p>
+     * Rows are written while the database cursor is read, so the response
+     * size is not bounded by memory.
+     * </p>
+     *
+     * @param id     client id
+     * @param format {@code csv} (default) or {@code ndjson}
+     */
+    @GetMapping(value = "/{id}/statement", produces = { "text/csv", "application/x-ndjson" })
+    public ResponseEntity<StreamingResponseBody> getStatement(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "csv") String format) {
+
+        log.debug("GET /api/clients/{}/statement?format={} - streaming statement", id, format);
+
+        ClientStatementExporter.Format parsed = ClientStatementExporter.parseFormat(format);
+        clientService.getById(id); // 404 before the response is committed
+
+        MediaType contentType = parsed == ClientStatementExporter.Format.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+
+        StreamingResponseBody body = out -> statementExporter.export(id, parsed, out);
+
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header("Content-Disposition",
+                        "attachment; filename=\"client-" + id + "-statement."
+                                + parsed.name().toLowerCase(Locale.ROOT) + "\"")
+                .body(body);
+    }
+
     /**
      * Search clients by name, email, or phone.
      * 
@@ -0,0 +1,46 @@
+package com.dentallab.api.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.dentallab.service.cache.ReferenceDataCache;
+
+/**
+ * LookupAdminController
+ * -------------------------------------------------------------------------
+ * Diagnostics of the reference data cache (work families, types, statuses,
+ * teeth), for administrators only (/admin/** requires ROLE_ADMIN).
+ *
+ * It does NOT change reference data.
+ */
+@RestController
+@RequestMapping("/admin/lookups")
+public class LookupAdminController {
+
+    private final ReferenceDataCache referenceCache;
+
+    public LookupAdminController(ReferenceDataCache referenceCache) {
+        this.referenceCache = referenceCache;
+    }
+
+    /**
+     * GET cache hits, misses, LRU evictions and current size.
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<ReferenceDataCache.Stats> getCacheStats() {
+        return ResponseEntity.ok(referenceCache.stats());
+    }
+
+    /**
+     * DELETE every cached entry, e.g. after editing reference tables
+     * directly in the database.
+     */
+    @DeleteMapping("/cache")
+    public ResponseEntity<Void> clearCache() {
+        referenceCache.evictAll();
+        return ResponseEntity.noContent().build();
+    }
+}
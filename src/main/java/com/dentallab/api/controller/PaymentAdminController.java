@@ -0,0 +1,120 @@
+package com.dentallab.api.controller;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.dentallab.domain.payment.persistence.ClientBalanceCheckpointJob;
+import com.dentallab.domain.payment.persistence.ClientBalanceReconciliationJob;
+import com.dentallab.domain.payment.persistence.WorkPaymentSummaryJob;
+import com.dentallab.domain.payment.service.ReceivablesAgingService;
+
+/**
+ * PaymentAdminController
+ * -------------------------------------------------------------------------
+ * Maintenance of the payment projections, ledger checkpoints and balance
+ * caches, for administrators only
+ * (/admin/** requires ROLE_ADMIN).
+ *
+ * It does NOT register payments or change the ledgers.
+ */
+@RestController
+@RequestMapping("/admin/payments")
+public class PaymentAdminController {
+
+    private final WorkPaymentSummaryJob summaryJob;
+    private final ClientBalanceCheckpointJob checkpointJob;
+    private final ClientBalanceReconciliationJob reconciliationJob;
+    private final ReceivablesAgingService agingService;
+
+    public PaymentAdminController(WorkPaymentSummaryJob summaryJob,
+                                  ClientBalanceCheckpointJob checkpointJob,
+                                  ClientBalanceReconciliationJob reconciliationJob,
+                                  ReceivablesAgingService agingService) {
+        this.summaryJob = summaryJob;
+        this.checkpointJob = checkpointJob;
+        this.reconciliationJob = reconciliationJob;
+        this.agingService = agingService;
+    }
+
+    /**
+     * GET a comparison of work_payment_summary with the payment ledgers,
+     * without writing anything.
+     */
+    @GetMapping("/work-summary/verify")
+    public ResponseEntity<WorkPaymentSummaryJob.Report> verifyWorkSummary() {
+        return ResponseEntity.ok(summaryJob.verify());
+    }
+
+    /**
+     * POST to regenerate the missing or stale rows of work_payment_summary
+     * from the payment ledgers.
+     */
+    @PostMapping("/work-summary/rebuild")
+    public ResponseEntity<WorkPaymentSummaryJob.Report> rebuildWorkSummary() {
+        return ResponseEntity.ok(summaryJob.rebuild());
+    }
+
+    /**
+     * POST to create or advance the client ledger checkpoints now,
+     * instead of waiting for the scheduled run.
+     */
+    @PostMapping("/ledger-checkpoints")
+    public ResponseEntity<ClientBalanceCheckpointJob.Report> checkpointLedgers() {
+        return ResponseEntity.ok(checkpointJob.checkpoint());
+    }
+
+    /**
+     * GET a comparison of checkpoint + tail with the full ledger scan,
+     * without writing anything.
+     */
+    @GetMapping("/ledger-checkpoints/verify")
+    public ResponseEntity<ClientBalanceCheckpointJob.Report> verifyLedgerCheckpoints() {
+        return ResponseEntity.ok(checkpointJob.verify());
+    }
+
+    /**
+     * POST to delete the checkpoints that disagree with the full ledger scan
+     * (balances fall back to the full history until the next checkpoint run).
+     */
+    @PostMapping("/ledger-checkpoints/repair")
+    public ResponseEntity<ClientBalanceCheckpointJob.Report> repairLedgerCheckpoints() {
+        return ResponseEntity.ok(checkpointJob.repair());
+    }
+
+    /**
+     * GET the drift report of client_balance.amount against the movement
+     * ledger, without writing anything.
+     */
+    @GetMapping("/balance-reconciliation")
+    public ResponseEntity<ClientBalanceReconciliationJob.Report> reconcileBalances() {
+        return ResponseEntity.ok(reconciliationJob.verify());
+    }
+
+    /**
+     * POST to recompute the cached balances that drifted from the ledger.
+     */
+    @PostMapping("/balance-reconciliation/repair")
+    public ResponseEntity<ClientBalanceReconciliationJob.Report> repairBalances() {
+        return ResponseEntity.ok(reconciliationJob.repair());
+    }
+
+    /**
+     * POST to store today's (or {@code date}'s) receivables aging snapshot
+     * now, replacing an earlier one of the same day.
+     */
+    @PostMapping("/aging-snapshot")
+    public ResponseEntity<Map<String, Object>> takeAgingSnapshot(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        LocalDate asOf = date != null ? date : LocalDate.now();
+        long clients = agingService.takeSnapshot(asOf);
+        return ResponseEntity.ok(Map.of("snapshotDate", asOf, "clients", clients));
+    }
+}
@@ -1,8 +1,11 @@
 package com.dentallab.api.controller;
 
+import com.dentallab.domain.payment.dto.PaymentImportResult;
 import com.dentallab.domain.payment.dto.PaymentPreviewRequest;
 import com.dentallab.domain.payment.dto.PaymentPreviewResult;
 import com.dentallab.domain.payment.dto.RegisterPaymentRequest;
+import com.dentallab.domain.payment.dto.RegisterPaymentResult;
+import com.dentallab.domain.payment.service.PaymentImportPipeline;
 import com.dentallab.domain.payment.service.PaymentPreviewService;
 import com.dentallab.domain.payment.service.PaymentService;
 
@@ -50,13 +53,16 @@ public class PaymentController {
 
     private final PaymentPreviewService paymentPreviewService;
     private final PaymentService paymentService;
+    private final PaymentImportPipeline importPipeline;
 
     public PaymentController(
             PaymentPreviewService paymentPreviewService,
-            PaymentService paymentService
+            PaymentService paymentService,
+            PaymentImportPipeline importPipeline
     ) {
         this.paymentPreviewService = paymentPreviewService;
         this.paymentService = paymentService;
+        this.importPipeline = importPipeline;
     }
 
     /**
@@ -119,15 +125,16 @@ public class PaymentController {
      * <p>
      * Return value:
      * <ul>
-     *   <li><strong>204 No Content</strong> on success (including idempotent replays)</li>
+     *   <li><strong>200 OK</strong> with the payment id on success; idempotent replays
+     *       return the id of the existing payment</li>
      * </ul>
      * </p>
      *
      * @param request confirmed payment registration command
-     * @return 204 No Content
+     * @return 200 OK with the registered payment id
      */
     @PostMapping
-    public ResponseEntity<Void> register(@Valid @RequestBody RegisterPaymentRequest request) {
+    public ResponseEntity<RegisterPaymentResult> register(@Valid @RequestBody RegisterPaymentRequest request) {
 
         Objects.requireNonNull(request, "request must not be null");
 
@@ -143,16 +150,50 @@ public class PaymentController {
                 keySafe
         );
 
-        paymentService.registerPayment(request);
+        Long paymentId = paymentService.registerPayment(request);
 
         log.info(
-                "Payment register completed: clientId={}, amount={}, idempotencyKey={}",
+                "Payment register completed: paymentId={}, clientId={}, amount={}, idempotencyKey={}",
+                paymentId,
                 request.getClientId(),
                 request.getPaymentAmount(),
                 keySafe
         );
 
-        return ResponseEntity.noContent().build();
+        return ResponseEntity.ok(new RegisterPaymentResult(paymentId));
+    }
+
+    /**
+     * Imports a CSV of payments (e.g. month-end bank transfers).
+     *
+     * <p>
+     * Each row is validated and registered with the same invariants as
+     * {@link #register}; the response carries one result per row
+     * (imported, duplicate, rejected or failed). Valid rows are committed
+     * even when others are rejected.
+     * </p>
+     *
+     * @param csv header row plus one payment per row
+     *            (see {@link PaymentImportPipeline} for the columns)
+     * @return 200 OK with per-row results
+     */
+    @PostMapping(value = "/import", consumes = { "text/csv", "text/plain" })
+    public ResponseEntity<PaymentImportResult> importPayments(@RequestBody String csv) {
+
+        log.info("Payment import requested: bytes={}", csv.length());
+
+        PaymentImportResult result = importPipeline.importCsv(csv);
+
+        log.info(
+                "Payment import completed: total={}, imported={}, duplicates={}, rejected={}, failed={}",
+                result.getTotal(),
+                result.getImported(),
+                result.getDuplicates(),
+                result.getRejected(),
+                result.getFailed()
+        );
+
+        return ResponseEntity.ok(result);
     }
 
     /**
@@ -0,0 +1,132 @@
+package com.dentallab.api.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.dentallab.api.dto.PricingRuleSnapshotInfo;
+import com.dentallab.domain.pricing.persistence.BridgeProstheticUnitsBackfillJob;
+import com.dentallab.domain.pricing.persistence.IndexedWorkTypePriceQuery;
+import com.dentallab.domain.pricing.persistence.WorkTypePriceRuleSnapshots;
+import com.dentallab.domain.pricing.service.RepricingSimulator;
+import com.dentallab.domain.pricing.service.WorkPriceConsistencyChecker;
+
+/**
+ * PricingAdminController
+ * -------------------------------------------------------------------------
+ * Diagnostics of the pricing engine, repricing simulations over the whole
+ * work table and maintenance of the materialized final prices and bridge
+ * unit counts, for administrators only (/admin/** requires ROLE_ADMIN).
+ *
+ * It does NOT change pricing rules, base prices or overrides.
+ */
+@RestController
+@RequestMapping("/admin/pricing")
+public class PricingAdminController {
+
+    private static final Logger log = LoggerFactory.getLogger(PricingAdminController.class);
+
+    private final IndexedWorkTypePriceQuery ruleQuery;
+    private final WorkPriceConsistencyChecker finalPriceChecker;
+    private final RepricingSimulator repricingSimulator;
+    private final BridgeProstheticUnitsBackfillJob bridgeUnitsJob;
+
+    public PricingAdminController(IndexedWorkTypePriceQuery ruleQuery,
+                                  WorkPriceConsistencyChecker finalPriceChecker,
+                                  RepricingSimulator repricingSimulator,
+                                  BridgeProstheticUnitsBackfillJob bridgeUnitsJob) {
+        this.ruleQuery = ruleQuery;
+        this.finalPriceChecker = finalPriceChecker;
+        this.repricingSimulator = repricingSimulator;
+        this.bridgeUnitsJob = bridgeUnitsJob;
+    }
+
+    /**
+     * GET the active pricing rule snapshots: version, build time and
+     * effective date ranges.
+     *
+     * Builds the snapshots first if they are stale, so the response
+     * always describes what lookups currently use.
+     */
+    @GetMapping("/rule-snapshots")
+    public ResponseEntity<PricingRuleSnapshotInfo> getRuleSnapshots() {
+
+        WorkTypePriceRuleSnapshots current = ruleQuery.currentSnapshots();
+
+        return ResponseEntity.ok(new PricingRuleSnapshotInfo(
+                current.getVersion(),
+                current.getBuiltAt(),
+                current.getRuleCount(),
+                current.getSnapshotCount(),
+                current.getEffectiveDates()
+        ));
+    }
+
+    /**
+     * GET a comparison of the materialized override_total / final_price
+     * of work_price with the sum of its overrides, without writing anything.
+     */
+    @GetMapping("/final-prices/verify")
+    public ResponseEntity<WorkPriceConsistencyChecker.Report> verifyFinalPrices() {
+        return ResponseEntity.ok(finalPriceChecker.check());
+    }
+
+    /**
+     * POST to recalculate the final prices that are missing (rows written
+     * before they were materialized) or drifted from the overrides.
+     */
+    @PostMapping("/final-prices/repair")
+    public ResponseEntity<WorkPriceConsistencyChecker.Report> repairFinalPrices() {
+        return ResponseEntity.ok(finalPriceChecker.checkAndRepair());
+    }
+
+    /**
+     * GET a comparison of the stored bridge_work.prosthetic_units /
+     * teeth_span_mask with bridge_tooth, without writing anything.
+     */
+    @GetMapping("/bridge-units/verify")
+    public ResponseEntity<BridgeProstheticUnitsBackfillJob.Report> verifyBridgeUnits() {
+        return ResponseEntity.ok(bridgeUnitsJob.verify());
+    }
+
+    /**
+     * POST to rewrite the bridge unit counts and span masks that are
+     * missing (rows written before the columns existed) or drifted
+     * from bridge_tooth.
+     */
+    @PostMapping("/bridge-units/backfill")
+    public ResponseEntity<BridgeProstheticUnitsBackfillJob.Report> backfillBridgeUnits() {
+
+        log.info("POST /admin/pricing/bridge-units/backfill");
+
+        return ResponseEntity.ok(bridgeUnitsJob.backfill());
+    }
+
+    /**
+     * POST to SIMULATE a candidate set of pricing rules over every work.
+     *
+     * Body: candidate rules (not persisted), whether they replace the
+     * current rules, the price groups and the pricing date to evaluate.
+     *
+     * Scans the whole work table on a parallel pool, hence admin only.
+     * It does NOT persist the candidate rules nor touch fixed base
+     * prices (work_price).
+     *
+     * Response: deltas per price group / work type and the works
+     * no candidate rule matches.
+     */
+    @PostMapping("/simulate")
+    public ResponseEntity<RepricingSimulator.Report> simulate(
+            @RequestBody RepricingSimulator.Request request) {
+
+        log.info("POST /admin/pricing/simulate - {} candidate rules",
+                request.candidateRules() != null ? request.candidateRules().size() : 0);
+
+        return ResponseEntity.ok(repricingSimulator.simulate(request));
+    }
+}
@@ -0,0 +1,87 @@
+package com.dentallab.api.controller;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.dentallab.domain.payment.service.ReceivablesAgingService;
+import com.dentallab.domain.payment.service.ReceivablesAgingService.AgingPage;
+import com.dentallab.domain.payment.service.ReceivablesAgingService.AgingTotals;
+import com.dentallab.domain.payment.service.ReceivablesAgingService.Source;
+
+/**
+ * REST controller for receivables reports.
+ * Exposes endpoints under /api/receivables.
+ *
+ * <p>
+ * The aging report is paged by client id ({@code after} is the
+ * {@code nextAfterClientId} of the previous page). {@code source=live}
+ * computes it now; {@code source=snapshot} reads the stored daily snapshot
+ * ({@code date}, or the latest one).
+ * </p>
+ */
+@RestController
+@RequestMapping(
+    value = "/api/receivables",
+    produces = "application/json"
+)
+public class ReceivablesController {
+
+    private static final Logger log = LoggerFactory.getLogger(ReceivablesController.class);
+
+    private final ReceivablesAgingService agingService;
+
+    public ReceivablesController(ReceivablesAgingService agingService) {
+        this.agingService = agingService;
+    }
+
+    /* -------------------- AGING (paged by client) -------------------- */
+    @GetMapping("/aging")
+    public ResponseEntity<AgingPage> getAging(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(defaultValue = "live") String source,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        log.debug("GET /api/receivables/aging?after={}&size={}&source={}&date={}", after, size, source, date);
+
+        AgingPage page = parseSource(source) == Source.LIVE
+                ? agingService.livePage(date != null ? date : LocalDate.now(), after, size)
+                : agingService.snapshotPage(date, after, size);
+
+        log.info("GET /api/receivables/aging returned {} clients (source={}, asOf={})",
+                page.rows().size(), page.source(), page.asOf());
+        return ResponseEntity.ok(page);
+    }
+
+    /* -------------------- AGING TOTALS (lab-wide) -------------------- */
+    @GetMapping("/aging/totals")
+    public ResponseEntity<AgingTotals> getAgingTotals(
+            @RequestParam(defaultValue = "live") String source,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        log.debug("GET /api/receivables/aging/totals?source={}&date={}", source, date);
+
+        AgingTotals totals = parseSource(source) == Source.LIVE
+                ? agingService.liveTotals(date != null ? date : LocalDate.now())
+                : agingService.snapshotTotals(date);
+
+        return ResponseEntity.ok(totals);
+    }
+
+    private static Source parseSource(String source) {
+        try {
+            return Source.valueOf(source.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported source: " + source + " (live or snapshot)");
+        }
+    }
+}
@@ -5,6 +5,9 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,7 +18,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.dentallab.api.model.CursorPage;
 import com.dentallab.api.model.FullWorkModel;
 import com.dentallab.api.model.WorkModel;
 import com.dentallab.service.WorkService;
@@ -61,6 +66,49 @@ public class WorkController {
         return ResponseEntity.ok(worksPage);
     }
 
+    // ==========================================================
+    // FILTERED, CURSOR-PAGINATED GET
+    // ==========================================================
+    /**
+     * Keyset mode of {@code GET /api/works}, selected by the presence of the
+     * {@code cursor} parameter (empty for the first page). Follow the
+     * {@code next} / {@code prev} links; {@code count=true} adds the total.
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<WorkModel>> getAllByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt,desc") String sort,
+            @RequestParam(defaultValue = "false") boolean count,
+            @RequestParam(required = false) String type,      // code
+            @RequestParam(required = false) String status,    // code
+            @RequestParam(required = false) Long clientId,
+            @RequestParam(required = false) String family,    // code
+            @RequestParam(required = false) List<String> categories
+    ) {
+
+        SortValidationUtils.validateWorkSortFields(new String[] { sort });
+
+        log.debug("Fetching works by cursor size={} sort={} count={} filters: type={} family={} status={} client={} categories={}",
+                size, sort, count, type, family, status, clientId, categories);
+
+        CursorPage<WorkModel> worksPage =
+                workService.getFilteredByCursor(cursor, size, sort, count, type, status, clientId, family, categories);
+
+        addCursorLink(worksPage, worksPage.getNextCursor(), IanaLinkRelations.NEXT);
+        addCursorLink(worksPage, worksPage.getPrevCursor(), IanaLinkRelations.PREV);
+
+        return ResponseEntity.ok(worksPage);
+    }
+
+    private static void addCursorLink(CursorPage<WorkModel> page, String cursor, LinkRelation rel) {
+        if (cursor != null) {
+            page.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", cursor)
+                    .toUriString(), rel));
+        }
+    }
+
     // Legacy overload for HATEOAS links (required!)
     public ResponseEntity<?> getAll(int page, int size, String sort) {
         return getAll(page, size, sort, null, null, null, null, null);
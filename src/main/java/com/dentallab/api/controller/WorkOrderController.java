@@ -16,9 +16,12 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.dentallab.api.dto.WorkBatchResult;
+import com.dentallab.api.model.FullWorkModel;
 import com.dentallab.api.model.FullWorkOrderModel;
 import com.dentallab.api.model.WorkModel;
 import com.dentallab.api.model.WorkOrderModel;
+import com.dentallab.service.WorkBatchIntakeService;
 import com.dentallab.service.WorkOrderService;
 import com.dentallab.service.WorkService;
 
@@ -33,12 +36,15 @@ public class WorkOrderController {
 
     private final WorkOrderService orderService;
     private final WorkService workService;
+    private final WorkBatchIntakeService batchIntakeService;
 
     public WorkOrderController(
     		WorkOrderService orderService,
-    		WorkService workService) {
+    		WorkService workService,
+    		WorkBatchIntakeService batchIntakeService) {
         this.orderService = orderService;
         this.workService = workService;
+        this.batchIntakeService = batchIntakeService;
     }
 
     /* ============================================================
@@ -86,6 +92,30 @@ public class WorkOrderController {
 		return ResponseEntity.ok(works);
 	}
 
+    /**
+     * Bulk intake of works (multi-unit cases) into an existing order.
+     * Items are validated one by one; the response reports CREATED /
+     * REJECTED per item, in request order.
+     *
+     * @param id    the order ID
+     * @param items works to create (same payload as {@code POST /api/works})
+     * @return per-item results and counters
+     */
+    @PostMapping(value = "/{id}/works:batch", consumes = "application/json")
+    public ResponseEntity<WorkBatchResult> createWorksBatch(
+            @PathVariable Long id,
+            @RequestBody List<FullWorkModel> items
+    ) {
+        log.debug("POST /api/orders/{}/works:batch - {} items", id, items != null ? items.size() : 0);
+
+        WorkBatchResult result = batchIntakeService.createBatch(id, items);
+
+        log.info("POST /api/orders/{}/works:batch created={} rejected={}",
+                id, result.getCreated(), result.getRejected());
+
+        return ResponseEntity.ok(result);
+    }
+
     /* ============================================================
        GET OVERDUE ORDERS
        ============================================================ */
@@ -0,0 +1,57 @@
+package com.dentallab.api.controller;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.dentallab.domain.pricing.model.BasePriceResult;
+import com.dentallab.domain.pricing.service.WorkBasePriceService;
+
+/**
+ * WorkOrderPricingController
+ * -------------------------------------------------------------------------
+ * Pricing operations scoped to one work order.
+ *
+ * Same rules as {@link WorkPricingController} apply:
+ *  - this controller exposes USER INTENT, not pricing internals
+ *  - no pricing logic here
+ *  - all work is delegated to domain services
+ */
+@RestController
+@RequestMapping("/api/orders/{orderId}/pricing")
+public class WorkOrderPricingController {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkOrderPricingController.class);
+
+    private final WorkBasePriceService basePriceService;
+
+    public WorkOrderPricingController(WorkBasePriceService basePriceService) {
+        this.basePriceService = basePriceService;
+    }
+
+    /**
+     * FIX base prices of many works of the order using previously
+     * previewed results (see POST /api/works/pricing/preview).
+     *
+     * Body: previewed base prices keyed by workId.
+     *
+     * This endpoint:
+     *  - represents an explicit COMMITMENT, like the single-work /fix
+     *  - rejects works that belong to another order
+     *  - fails as a whole if any work already has a base price
+     */
+    @PostMapping("/fix")
+    public ResponseEntity<Void> fixBasePrices(
+            @PathVariable Long orderId,
+            @RequestBody Map<Long, BasePriceResult> previewedPrices) {
+
+        log.debug("POST /api/orders/{}/pricing/fix - {} works", orderId, previewedPrices.size());
+
+        basePriceService.fixOrderBasePrices(orderId, previewedPrices);
+
+        return ResponseEntity.ok().build();
+    }
+}
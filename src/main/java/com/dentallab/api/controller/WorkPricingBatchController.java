@@ -0,0 +1,64 @@
+package com.dentallab.api.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.dentallab.domain.pricing.model.BasePriceResult;
+import com.dentallab.domain.pricing.model.PriceResolutionRequest;
+import com.dentallab.domain.pricing.service.WorkBasePriceService;
+
+/**
+ * WorkPricingBatchController
+ * -------------------------------------------------------------------------
+ * Bulk counterpart of {@link WorkPricingController}.
+ *
+ * Exposes pricing operations that span many works in a single request,
+ * so that clients (e.g. the order screen) do not need one HTTP call
+ * — and one set of queries — per work.
+ *
+ * Same rules as WorkPricingController apply:
+ *  - no pricing logic here
+ *  - all work is delegated to domain services
+ */
+@RestController
+@RequestMapping("/api/works/pricing")
+public class WorkPricingBatchController {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkPricingBatchController.class);
+
+    private final WorkBasePriceService basePriceService;
+
+    public WorkPricingBatchController(WorkBasePriceService basePriceService) {
+        this.basePriceService = basePriceService;
+    }
+
+    /**
+     * PREVIEW base prices for many works according to pricing rules.
+     *
+     * Body: a list of pricing requests, each one with its own
+     * workId, pricingDate and priceGroup.
+     *
+     * This endpoint:
+     *  - evaluates pricing rules for every work
+     *  - does NOT persist anything
+     *  - fails as a whole if any work cannot be priced
+     *
+     * Response: base prices keyed by workId, in request order.
+     */
+    @PostMapping("/preview")
+    public ResponseEntity<Map<Long, BasePriceResult>> previewBasePrices(
+            @RequestBody List<PriceResolutionRequest> requests) {
+
+        log.debug("POST /api/works/pricing/preview - {} works", requests.size());
+
+        Map<Long, BasePriceResult> results =
+                basePriceService.previewBasePrices(requests);
+
+        return ResponseEntity.ok(results);
+    }
+}
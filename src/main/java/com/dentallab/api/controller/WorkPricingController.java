@@ -3,10 +3,12 @@ package com.dentallab.api.controller;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.dentallab.api.dto.PriceOverrideRequest;
 import com.dentallab.domain.pricing.model.BasePriceResult;
 import com.dentallab.domain.pricing.model.PriceResolution;
 import com.dentallab.domain.pricing.model.PriceResolutionRequest;
 import com.dentallab.domain.pricing.service.WorkBasePriceService;
+import com.dentallab.domain.pricing.service.WorkPriceOverrideService;
 import com.dentallab.domain.pricing.service.WorkPricingService;
 
 /**
@@ -30,13 +32,16 @@ public class WorkPricingController {
 
     private final WorkBasePriceService basePriceService;
     private final WorkPricingService pricingService;
+    private final WorkPriceOverrideService overrideService;
 
     public WorkPricingController(
             WorkBasePriceService basePriceService,
-            WorkPricingService pricingService) {
+            WorkPricingService pricingService,
+            WorkPriceOverrideService overrideService) {
 
         this.basePriceService = basePriceService;
         this.pricingService = pricingService;
+        this.overrideService = overrideService;
     }
 
     /**
@@ -86,6 +91,8 @@ public class WorkPricingController {
      *  - uses stored base price
      *  - applies all overrides
      *  - reflects the current final amount
+     *  - lists the individual overrides unless includeOverrides=false
+     *    (totals only, served from the materialized work_price row)
      *
      * Safe for:
      *  - UI display
@@ -94,14 +101,57 @@ public class WorkPricingController {
      */
     @GetMapping("/final")
     public ResponseEntity<PriceResolution> getFinalPrice(
-            @PathVariable Long workId) {
+            @PathVariable Long workId,
+            @RequestParam(defaultValue = "true") boolean includeOverrides) {
 
         PriceResolutionRequest request =
                 PriceResolutionRequest.forWork(workId);
 
+        if (includeOverrides) {
+            request = request.withOverrideDetails();
+        }
+
         PriceResolution resolution =
                 pricingService.resolveFinalPrice(request);
 
         return ResponseEntity.ok(resolution);
     }
+
+    /**
+     * ADD a price override (surcharge or discount) to the fixed base price.
+     *
+     * The override and the work's materialized final price are updated
+     * atomically. Responds with the resulting final price, overrides included.
+     */
+    @PostMapping("/overrides")
+    public ResponseEntity<PriceResolution> addOverride(
+            @PathVariable Long workId,
+            @RequestBody PriceOverrideRequest request) {
+
+        overrideService.addOverride(
+                workId,
+                request.getAdjustment(),
+                request.getReason(),
+                request.getCreatedBy()
+        );
+
+        return ResponseEntity.ok(
+                pricingService.resolveFinalPrice(
+                        PriceResolutionRequest.forWork(workId).withOverrideDetails()
+                )
+        );
+    }
+
+    /**
+     * REMOVE a price override. The work's final price is updated atomically.
+     */
+    @DeleteMapping("/overrides/{overrideId}")
+    public ResponseEntity<Void> removeOverride(
+            @PathVariable Long workId,
+            @PathVariable Long overrideId) {
+
+        overrideService.removeOverride(workId, overrideId);
+
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -0,0 +1,27 @@
+package com.dentallab.api.dto;
+
+import java.math.BigDecimal;
+
+public class PriceOverrideRequest {
+
+    private BigDecimal adjustment;   // signed: > 0 surcharge, < 0 discount
+    private String reason;
+    private Long createdBy;
+
+    public PriceOverrideRequest() {}
+
+    public PriceOverrideRequest(BigDecimal adjustment, String reason, Long createdBy) {
+        this.adjustment = adjustment;
+        this.reason = reason;
+        this.createdBy = createdBy;
+    }
+
+    public BigDecimal getAdjustment() { return adjustment; }
+    public void setAdjustment(BigDecimal adjustment) { this.adjustment = adjustment; }
+
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+
+    public Long getCreatedBy() { return createdBy; }
+    public void setCreatedBy(Long createdBy) { this.createdBy = createdBy; }
+}
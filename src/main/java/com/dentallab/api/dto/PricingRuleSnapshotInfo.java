@@ -0,0 +1,36 @@
+package com.dentallab.api.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+public class PricingRuleSnapshotInfo {
+
+    private final long version;
+    private final Instant builtAt;
+    private final int ruleCount;
+    private final int snapshotCount;
+    private final List<LocalDate> effectiveDates;   // start of each snapshot's range
+
+    public PricingRuleSnapshotInfo(long version,
+                                   Instant builtAt,
+                                   int ruleCount,
+                                   int snapshotCount,
+                                   List<LocalDate> effectiveDates) {
+        this.version = version;
+        this.builtAt = builtAt;
+        this.ruleCount = ruleCount;
+        this.snapshotCount = snapshotCount;
+        this.effectiveDates = effectiveDates;
+    }
+
+    public long getVersion() { return version; }
+
+    public Instant getBuiltAt() { return builtAt; }
+
+    public int getRuleCount() { return ruleCount; }
+
+    public int getSnapshotCount() { return snapshotCount; }
+
+    public List<LocalDate> getEffectiveDates() { return effectiveDates; }
+}
@@ -0,0 +1,91 @@
+package com.dentallab.api.dto;
+
+/**
+ * Outcome of one item of a bulk work intake.
+ *
+ * <p>
+ * {@code index} is the 0-based position of the item in the request.
+ * {@code workId} and {@code internalCode} are set for created items;
+ * {@code message} explains a rejection.
+ * </p>
+ */
+public class WorkBatchItemResult {
+
+    public enum Status {
+        /** Work (and its extension) inserted. */
+        CREATED,
+        /** Item failed validation; nothing written for it. */
+        REJECTED
+    }
+
+    private int index;
+    private Status status;
+    private Long workId;
+    private String internalCode;
+    private String message;
+
+    public WorkBatchItemResult() {
+    }
+
+    public WorkBatchItemResult(int index, Status status) {
+        this.index = index;
+        this.status = status;
+    }
+
+    public static WorkBatchItemResult rejected(int index, String message) {
+        WorkBatchItemResult result = new WorkBatchItemResult(index, Status.REJECTED);
+        result.setMessage(message);
+        return result;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Long getWorkId() {
+        return workId;
+    }
+
+    public void setWorkId(Long workId) {
+        this.workId = workId;
+    }
+
+    public String getInternalCode() {
+        return internalCode;
+    }
+
+    public void setInternalCode(String internalCode) {
+        this.internalCode = internalCode;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkBatchItemResult{" +
+                "index=" + index +
+                ", status=" + status +
+                ", workId=" + workId +
+                ", internalCode='" + internalCode + '\'' +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,81 @@
+package com.dentallab.api.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk work intake into an order: counters and one
+ * {@link WorkBatchItemResult} per requested work, in request order.
+ */
+public class WorkBatchResult {
+
+    private Long orderId;
+    private int total;
+    private int created;
+    private int rejected;
+    private List<WorkBatchItemResult> items;
+
+    public WorkBatchResult() {
+    }
+
+    public WorkBatchResult(Long orderId, List<WorkBatchItemResult> items) {
+        this.orderId = orderId;
+        this.items = items;
+        this.total = items.size();
+        for (WorkBatchItemResult item : items) {
+            switch (item.getStatus()) {
+                case CREATED -> created++;
+                case REJECTED -> rejected++;
+            }
+        }
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<WorkBatchItemResult> getItems() {
+        return items;
+    }
+
+    public void setItems(List<WorkBatchItemResult> items) {
+        this.items = items;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkBatchResult{" +
+                "orderId=" + orderId +
+                ", total=" + total +
+                ", created=" + created +
+                ", rejected=" + rejected +
+                '}';
+    }
+}
@@ -0,0 +1,15 @@
+package com.dentallab.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs.
+ *
+ * Each job reads its own cron property and is disabled with {@code "-"}
+ * (e.g. {@code payment.ledger-checkpoints.cron}).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,92 @@
+package com.dentallab.domain.payment.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk payment import: counters and one
+ * {@link PaymentImportRowResult} per data row, in file order.
+ */
+public class PaymentImportResult {
+
+    private int total;
+    private int imported;
+    private int duplicates;
+    private int rejected;
+    private int failed;
+    private List<PaymentImportRowResult> rows;
+
+    public PaymentImportResult() {
+    }
+
+    public PaymentImportResult(List<PaymentImportRowResult> rows) {
+        this.rows = rows;
+        this.total = rows.size();
+        for (PaymentImportRowResult row : rows) {
+            switch (row.getStatus()) {
+                case IMPORTED -> imported++;
+                case DUPLICATE -> duplicates++;
+                case REJECTED -> rejected++;
+                case FAILED -> failed++;
+            }
+        }
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(int duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<PaymentImportRowResult> getRows() {
+        return rows;
+    }
+
+    public void setRows(List<PaymentImportRowResult> rows) {
+        this.rows = rows;
+    }
+
+    @Override
+    public String toString() {
+        return "PaymentImportResult{" +
+                "total=" + total +
+                ", imported=" + imported +
+                ", duplicates=" + duplicates +
+                ", rejected=" + rejected +
+                ", failed=" + failed +
+                '}';
+    }
+}
@@ -0,0 +1,112 @@
+package com.dentallab.domain.payment.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Outcome of one row of a bulk payment import.
+ *
+ * <p>
+ * {@code line} is the 1-based line of the CSV (the header is line 1).
+ * {@code paymentId} is set for imported rows and for duplicates (the
+ * payment already registered under the row's idempotency key).
+ * </p>
+ */
+public class PaymentImportRowResult {
+
+    public enum Status {
+        /** Payment registered by this import. */
+        IMPORTED,
+        /** Idempotency key already registered; nothing written. */
+        DUPLICATE,
+        /** Row failed parsing or validation; nothing written. */
+        REJECTED,
+        /** Row passed validation but the commit failed; nothing written. */
+        FAILED
+    }
+
+    private int line;
+    private String idempotencyKey;
+    private Status status;
+    private Long paymentId;
+    private BigDecimal allocatedAmount;
+    private BigDecimal remainderToBalance;
+    private String message;
+
+    public PaymentImportRowResult() {
+    }
+
+    public PaymentImportRowResult(int line, String idempotencyKey, Status status) {
+        this.line = line;
+        this.idempotencyKey = idempotencyKey;
+        this.status = status;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public void setLine(int line) {
+        this.line = line;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Long getPaymentId() {
+        return paymentId;
+    }
+
+    public void setPaymentId(Long paymentId) {
+        this.paymentId = paymentId;
+    }
+
+    public BigDecimal getAllocatedAmount() {
+        return allocatedAmount;
+    }
+
+    public void setAllocatedAmount(BigDecimal allocatedAmount) {
+        this.allocatedAmount = allocatedAmount;
+    }
+
+    public BigDecimal getRemainderToBalance() {
+        return remainderToBalance;
+    }
+
+    public void setRemainderToBalance(BigDecimal remainderToBalance) {
+        this.remainderToBalance = remainderToBalance;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "PaymentImportRowResult{" +
+                "line=" + line +
+                ", idempotencyKey='" + idempotencyKey + '\'' +
+                ", status=" + status +
+                ", paymentId=" + paymentId +
+                ", allocatedAmount=" + allocatedAmount +
+                ", remainderToBalance=" + remainderToBalance +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
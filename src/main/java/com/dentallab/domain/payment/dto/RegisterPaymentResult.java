@@ -0,0 +1,36 @@
+package com.dentallab.domain.payment.dto;
+
+/**
+ * Outcome of a payment registration.
+ *
+ * <p>
+ * {@code paymentId} is the payment registered for the request's
+ * idempotency key: the new one, or the existing one on a replay.
+ * </p>
+ */
+public class RegisterPaymentResult {
+
+    private Long paymentId;
+
+    public RegisterPaymentResult() {
+    }
+
+    public RegisterPaymentResult(Long paymentId) {
+        this.paymentId = paymentId;
+    }
+
+    public Long getPaymentId() {
+        return paymentId;
+    }
+
+    public void setPaymentId(Long paymentId) {
+        this.paymentId = paymentId;
+    }
+
+    @Override
+    public String toString() {
+        return "RegisterPaymentResult{" +
+                "paymentId=" + paymentId +
+                '}';
+    }
+}
@@ -5,12 +5,18 @@ import java.util.Objects;
 
 /**
  * Suggestion for an unpaid work that could receive remaining payment.
+ *
+ * <p>
+ * {@code suggestedAmount} is the part of the remainder this work would
+ * take if suggestions are accepted in order (oldest work first).
+ * </p>
  */
 public class WorkSuggestion {
 
     private Long workId;
     private String workLabel;
     private BigDecimal unpaidAmount;
+    private BigDecimal suggestedAmount;
 
     public WorkSuggestion() {
     }
@@ -39,6 +45,14 @@ public class WorkSuggestion {
         this.unpaidAmount = unpaidAmount;
     }
 
+    public BigDecimal getSuggestedAmount() {
+        return suggestedAmount;
+    }
+
+    public void setSuggestedAmount(BigDecimal suggestedAmount) {
+        this.suggestedAmount = suggestedAmount;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -57,6 +71,7 @@ public class WorkSuggestion {
         return "WorkSuggestion{" +
                 "workId=" + workId +
                 ", unpaidAmount=" + unpaidAmount +
+                ", suggestedAmount=" + suggestedAmount +
                 '}';
     }
 }
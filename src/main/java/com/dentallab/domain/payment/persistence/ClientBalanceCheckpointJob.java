@@ -0,0 +1,458 @@
+package com.dentallab.domain.payment.persistence;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dentallab.persistence.entity.ClientBalanceCheckpointEntity;
+import com.dentallab.persistence.entity.ClientBalanceEntity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * <h2>ClientBalanceCheckpointJob</h2>
+ *
+ * <hr/>
+ *
+ * <p>
+ * Maintains the per-client ledger checkpoints
+ * ({@code client_balance_checkpoint}) read by {@link JpaClientBalanceQuery}:
+ * the balance as of movement id N, so the authoritative balance is the
+ * checkpoint plus a short tail of movements instead of the whole history.
+ * </p>
+ *
+ * <h3>Checkpoint mode</h3>
+ *
+ * <ol>
+ *   <li>clients with a {@code client_balance} row are scanned in keyset
+ *       pages ordered by {@code client_id}</li>
+ *   <li>the tail length of each client (movements after its checkpoint)
+ *       is counted with one grouped statement per page</li>
+ *   <li>clients whose tail has at least {@code minTail} movements are
+ *       advanced in a second transaction that <strong>first locks their
+ *       {@code client_balance} rows</strong> (PESSIMISTIC_WRITE), then
+ *       re-reads the tail and writes {@code checkpoint + tail}</li>
+ * </ol>
+ *
+ * <p>
+ * Movements are only written together with an update of that row
+ * ({@code ClientBalanceServiceImpl}): under the lock in PESSIMISTIC mode,
+ * or version-checked in OPTIMISTIC mode, where a writer that raced another
+ * one rolls back with its movement. Either way the committed movements of
+ * a client follow {@code movement_id} order, so no lower id can commit
+ * after the checkpoint.
+ * Taking the lock before any other read also gives the transaction a view
+ * that already contains the latest checkpoint.
+ * </p>
+ *
+ * <h3>Verification mode</h3>
+ *
+ * <p>
+ * For every checkpointed client, {@code checkpoint + tail} is compared with
+ * the full-scan SUM(amount_change), both read in the page's transaction.
+ * {@link #repair()} deletes the mismatching checkpoints: balance reads fall
+ * back to the full history until the next checkpoint run.
+ * </p>
+ *
+ * <p>
+ * Checkpoints run on {@code payment.ledger-checkpoints.cron} (disabled with
+ * {@code "-"}) or on demand.
+ * </p>
+ *
+ * <h3>What this class does not do</h3>
+ *
+ * <ul>
+ *   <li>it does <strong>not</strong> modify movements or the
+ *       {@code client_balance.amount} cache</li>
+ *   <li>it does <strong>not</strong> checkpoint movements of clients without
+ *       a {@code client_balance} row (nothing to lock; reads use the full
+ *       history)</li>
+ * </ul>
+ */
+@Component
+public class ClientBalanceCheckpointJob {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(ClientBalanceCheckpointJob.class);
+
+    /** Max mismatching client ids kept in a report (the counters are exact). */
+    private static final int MAX_REPORTED_IDS = 100;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final TransactionTemplate tx;
+    private final int batchSize;
+    private final int minTail;
+
+    public ClientBalanceCheckpointJob(
+            PlatformTransactionManager transactionManager,
+            @Value("${payment.ledger-checkpoints.batch-size:200}") int batchSize,
+            @Value("${payment.ledger-checkpoints.min-tail:100}") int minTail) {
+
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("payment.ledger-checkpoints.batch-size must be >= 1");
+        }
+        if (minTail < 1) {
+            throw new IllegalArgumentException("payment.ledger-checkpoints.min-tail must be >= 1");
+        }
+
+        this.tx = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.minTail = minTail;
+    }
+
+    /**
+     * Outcome of a checkpoint / verification run.
+     *
+     * @param scanned             clients inspected
+     * @param checkpointed        checkpoints created or advanced (checkpoint mode)
+     * @param mismatched          checkpoints whose balance differed from the full scan (verification mode)
+     * @param repaired            mismatching checkpoints deleted (always 0 in verify-only mode)
+     * @param mismatchedClientIds first mismatching client ids (capped at 100)
+     */
+    public record Report(
+            long scanned,
+            long checkpointed,
+            long mismatched,
+            long repaired,
+            List<Long> mismatchedClientIds) { }
+
+    @Scheduled(cron = "${payment.ledger-checkpoints.cron:-}")
+    public void scheduledCheckpoint() {
+        checkpoint();
+    }
+
+    /**
+     * Creates or advances the checkpoints of clients whose tail reached
+     * {@code minTail} movements.
+     */
+    public Report checkpoint() {
+
+        long start = System.nanoTime();
+
+        long scanned = 0;
+        long checkpointed = 0;
+        long afterClientId = 0L;
+
+        while (true) {
+
+            final long cursor = afterClientId;
+            List<Long> clientIds = tx.execute(status -> nextBalanceClientIds(cursor));
+
+            if (clientIds == null || clientIds.isEmpty()) {
+                break;
+            }
+
+            List<Long> candidates = tx.execute(status -> clientsWithLongTail(clientIds));
+
+            if (candidates != null && !candidates.isEmpty()) {
+                Integer written = tx.execute(status -> advanceCheckpoints(candidates));
+                checkpointed += written == null ? 0 : written;
+            }
+
+            scanned += clientIds.size();
+            afterClientId = clientIds.get(clientIds.size() - 1);
+
+            if (clientIds.size() < batchSize) {
+                break;
+            }
+        }
+
+        log.info(
+                "Client balance checkpoint run finished: scanned={}, checkpointed={}, minTail={}, tookMs={}",
+                scanned,
+                checkpointed,
+                minTail,
+                (System.nanoTime() - start) / 1_000_000
+        );
+
+        return new Report(scanned, checkpointed, 0, 0, List.of());
+    }
+
+    /**
+     * Compares checkpoint + tail with the full-scan ledger sum, without writing.
+     */
+    public Report verify() {
+        return verify(false);
+    }
+
+    /**
+     * Compares checkpoint + tail with the full-scan ledger sum and deletes
+     * the mismatching checkpoints.
+     */
+    public Report repair() {
+        return verify(true);
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal — checkpoint mode
+    // ---------------------------------------------------------------------
+
+    private List<Long> nextBalanceClientIds(long afterClientId) {
+        return em.createQuery("""
+                select cb.clientId
+                from ClientBalanceEntity cb
+                where cb.clientId > :after
+                order by cb.clientId
+                """, Long.class)
+                .setParameter("after", afterClientId)
+                .setMaxResults(batchSize)
+                .getResultList();
+    }
+
+    private List<Long> clientsWithLongTail(List<Long> clientIds) {
+
+        List<Long> candidates = new ArrayList<>();
+
+        for (TailStats tail : tailStats(clientIds).values()) {
+            if (tail.count() >= minTail) {
+                candidates.add(tail.clientId());
+            }
+        }
+
+        return candidates;
+    }
+
+    private int advanceCheckpoints(List<Long> clientIds) {
+
+        // ------------------------------------------------------------
+        // 1) Lock the balance rows first (serializes with movement writers)
+        // ------------------------------------------------------------
+        em.createQuery("""
+                select cb
+                from ClientBalanceEntity cb
+                where cb.clientId in :clientIds
+                """, ClientBalanceEntity.class)
+                .setParameter("clientIds", clientIds)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+
+        // ------------------------------------------------------------
+        // 2) Tails re-read under the lock, with the current checkpoints
+        // ------------------------------------------------------------
+        Map<Long, TailStats> tails = tailStats(clientIds);
+
+        Map<Long, ClientBalanceCheckpointEntity> checkpoints = new HashMap<>();
+        em.createQuery("""
+                select cp
+                from ClientBalanceCheckpointEntity cp
+                where cp.clientId in :clientIds
+                """, ClientBalanceCheckpointEntity.class)
+                .setParameter("clientIds", clientIds)
+                .getResultList()
+                .forEach(cp -> checkpoints.put(cp.getClientId(), cp));
+
+        // ------------------------------------------------------------
+        // 3) checkpoint := checkpoint + tail
+        // ------------------------------------------------------------
+        Instant now = Instant.now();
+        int written = 0;
+
+        for (TailStats tail : tails.values()) {
+
+            // Another run advanced it in the meantime
+            if (tail.count() < minTail) {
+                continue;
+            }
+
+            ClientBalanceCheckpointEntity cp = checkpoints.get(tail.clientId());
+            boolean missing = cp == null;
+
+            if (missing) {
+                cp = new ClientBalanceCheckpointEntity();
+                cp.setClientId(tail.clientId());
+                cp.setBalance(BigDecimal.ZERO);
+                cp.setMovementCount(0L);
+            }
+
+            cp.setBalance(cp.getBalance().add(tail.sum()));
+            cp.setMovementCount(cp.getMovementCount() + tail.count());
+            cp.setLastMovementId(tail.lastMovementId());
+            cp.setCreatedAt(now);
+
+            if (missing) {
+                em.persist(cp);
+            }
+            written++;
+
+            log.debug(
+                    "Client balance checkpoint advanced: clientId={}, lastMovementId={}, balance={}, tailMovements={}",
+                    cp.getClientId(), cp.getLastMovementId(), cp.getBalance(), tail.count()
+            );
+        }
+
+        return written;
+    }
+
+    private record TailStats(Long clientId, long count, BigDecimal sum, Long lastMovementId) { }
+
+    /**
+     * Movements after each client's checkpoint (the whole history when it
+     * has none), one grouped statement. Clients without tail are absent.
+     */
+    private Map<Long, TailStats> tailStats(List<Long> clientIds) {
+
+        Map<Long, TailStats> tails = new HashMap<>();
+
+        em.createQuery("""
+                select m.clientId, count(m), coalesce(sum(m.amountChange), 0), max(m.movementId)
+                from ClientBalanceMovementEntity m
+                left join ClientBalanceCheckpointEntity cp on cp.clientId = m.clientId
+                where m.clientId in :clientIds
+                  and m.movementId > coalesce(cp.lastMovementId, 0)
+                group by m.clientId
+                """, Object[].class)
+                .setParameter("clientIds", clientIds)
+                .getResultList()
+                .forEach(row -> tails.put((Long) row[0], new TailStats(
+                        (Long) row[0], (Long) row[1], (BigDecimal) row[2], (Long) row[3])));
+
+        return tails;
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal — verification mode
+    // ---------------------------------------------------------------------
+
+    private Report verify(boolean repair) {
+
+        long start = System.nanoTime();
+
+        long scanned = 0;
+        long mismatched = 0;
+        long repaired = 0;
+        List<Long> mismatchedIds = new ArrayList<>();
+
+        long afterClientId = 0L;
+
+        while (true) {
+
+            final long cursor = afterClientId;
+            VerifyPage page = tx.execute(status -> verifyPage(cursor, repair));
+
+            if (page == null || page.scanned() == 0) {
+                break;
+            }
+
+            scanned += page.scanned();
+            mismatched += page.mismatchedIds().size();
+            repaired += page.repaired();
+
+            for (Long id : page.mismatchedIds()) {
+                if (mismatchedIds.size() >= MAX_REPORTED_IDS) break;
+                mismatchedIds.add(id);
+            }
+
+            afterClientId = page.lastClientId();
+
+            if (page.scanned() < batchSize) {
+                break;
+            }
+        }
+
+        log.info(
+                "Client balance checkpoint {} finished: scanned={}, mismatched={}, repaired={}, tookMs={}",
+                repair ? "repair" : "verification",
+                scanned,
+                mismatched,
+                repaired,
+                (System.nanoTime() - start) / 1_000_000
+        );
+
+        return new Report(scanned, 0, mismatched, repaired, List.copyOf(mismatchedIds));
+    }
+
+    private record VerifyPage(int scanned, long lastClientId, List<Long> mismatchedIds, int repaired) { }
+
+    private VerifyPage verifyPage(long afterClientId, boolean repair) {
+
+        // ------------------------------------------------------------
+        // 1) Next page of checkpoints (scalars: never a cached entity)
+        // ------------------------------------------------------------
+        List<Object[]> checkpoints = em.createQuery("""
+                select cp.clientId, cp.balance
+                from ClientBalanceCheckpointEntity cp
+                where cp.clientId > :after
+                order by cp.clientId
+                """, Object[].class)
+                .setParameter("after", afterClientId)
+                .setMaxResults(batchSize)
+                .getResultList();
+
+        if (checkpoints.isEmpty()) {
+            return new VerifyPage(0, afterClientId, List.of(), 0);
+        }
+
+        List<Long> clientIds = new ArrayList<>(checkpoints.size());
+        for (Object[] row : checkpoints) {
+            clientIds.add((Long) row[0]);
+        }
+
+        // ------------------------------------------------------------
+        // 2) Tails and full-scan sums, one statement each
+        // ------------------------------------------------------------
+        Map<Long, TailStats> tails = tailStats(clientIds);
+
+        Map<Long, BigDecimal> fullSums = new HashMap<>();
+        em.createQuery("""
+                select m.clientId, sum(m.amountChange)
+                from ClientBalanceMovementEntity m
+                where m.clientId in :clientIds
+                group by m.clientId
+                """, Object[].class)
+                .setParameter("clientIds", clientIds)
+                .getResultList()
+                .forEach(row -> fullSums.put((Long) row[0], (BigDecimal) row[1]));
+
+        // ------------------------------------------------------------
+        // 3) Compare checkpoint + tail with the full scan
+        // ------------------------------------------------------------
+        List<Long> mismatchedIds = new ArrayList<>();
+
+        for (Object[] row : checkpoints) {
+
+            Long clientId = (Long) row[0];
+            BigDecimal checkpointed = ((BigDecimal) row[1]).add(
+                    tails.containsKey(clientId) ? tails.get(clientId).sum() : BigDecimal.ZERO);
+            BigDecimal fullScan = fullSums.getOrDefault(clientId, BigDecimal.ZERO);
+
+            if (checkpointed.compareTo(fullScan) != 0) {
+                log.warn(
+                        "Client balance checkpoint mismatch: clientId={}, checkpointed={}, fullScan={}",
+                        clientId, checkpointed, fullScan
+                );
+                mismatchedIds.add(clientId);
+            }
+        }
+
+        // ------------------------------------------------------------
+        // 4) Repair: drop mismatching checkpoints (reads fall back to full scan)
+        // ------------------------------------------------------------
+        int repaired = 0;
+
+        if (repair && !mismatchedIds.isEmpty()) {
+            repaired = em.createQuery("""
+                    delete from ClientBalanceCheckpointEntity cp
+                    where cp.clientId in :clientIds
+                    """)
+                    .setParameter("clientIds", mismatchedIds)
+                    .executeUpdate();
+        }
+
+        return new VerifyPage(checkpoints.size(), clientIds.get(clientIds.size() - 1), mismatchedIds, repaired);
+    }
+}
@@ -0,0 +1,324 @@
+package com.dentallab.domain.payment.persistence;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dentallab.domain.payment.service.ClientBalanceService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * <h2>ClientBalanceReconciliationJob</h2>
+ *
+ * <hr/>
+ *
+ * <p>
+ * Reconciles the {@code client_balance.amount} cache of every client with
+ * its ledger (SUM of {@code client_balance_movement.amount_change}) and
+ * reports the drift; in repair mode the drifting caches are recomputed.
+ * </p>
+ *
+ * <h3>How it works</h3>
+ *
+ * <ol>
+ *   <li>the calling thread streams client ids in keyset chunks of
+ *       {@code chunkSize} (ids only, no locks)</li>
+ *   <li>each chunk is reconciled on a bounded worker pool of
+ *       {@code parallelism} threads, with at most {@code 2 x parallelism}
+ *       chunks in flight</li>
+ *   <li>a worker reads cached amounts and ledger sums of its chunk with
+ *       <strong>one grouped statement</strong> in a read-only transaction,
+ *       so both come from the same snapshot</li>
+ *   <li>in repair mode, only drifting clients are passed to
+ *       {@link ClientBalanceService#recomputeBalanceCache(Long)}, which
+ *       re-reads the ledger under the client's balance lock (or version
+ *       check) before writing</li>
+ * </ol>
+ *
+ * <p>
+ * Clients whose cache is in sync are never locked or written, so a run over
+ * 100k clients costs {@code clients / chunkSize} grouped statements and
+ * does not block payments.
+ * </p>
+ *
+ * <p>
+ * The verification can also run on {@code payment.reconciliation.cron}
+ * (disabled with {@code "-"}); scheduled runs never repair.
+ * </p>
+ *
+ * <h3>What this class does not do</h3>
+ *
+ * <ul>
+ *   <li>it does <strong>not</strong> modify movements</li>
+ *   <li>it does <strong>not</strong> repair a cache whose ledger sum is
+ *       negative (reported as failed, see {@code recomputeBalanceCache})</li>
+ * </ul>
+ */
+@Component
+public class ClientBalanceReconciliationJob {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(ClientBalanceReconciliationJob.class);
+
+    /** Max drift entries kept in a report (the counters are exact). */
+    private static final int MAX_REPORTED_DRIFTS = 100;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final ClientBalanceService clientBalanceService;
+    private final TransactionTemplate readTx;
+    private final int chunkSize;
+    private final int parallelism;
+
+    public ClientBalanceReconciliationJob(
+            ClientBalanceService clientBalanceService,
+            PlatformTransactionManager transactionManager,
+            @Value("${payment.reconciliation.chunk-size:1000}") int chunkSize,
+            @Value("${payment.reconciliation.parallelism:4}") int parallelism) {
+
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("payment.reconciliation.chunk-size must be >= 1");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("payment.reconciliation.parallelism must be >= 1");
+        }
+
+        this.clientBalanceService = clientBalanceService;
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * One drifting client.
+     *
+     * @param clientId     client
+     * @param cachedAmount {@code client_balance.amount}
+     * @param ledgerAmount SUM of the client's movements
+     * @param difference   {@code cachedAmount - ledgerAmount}
+     * @param repaired     whether the cache was recomputed
+     */
+    public record Drift(
+            Long clientId,
+            BigDecimal cachedAmount,
+            BigDecimal ledgerAmount,
+            BigDecimal difference,
+            boolean repaired) { }
+
+    /**
+     * Outcome of a reconciliation run.
+     *
+     * @param scanned    clients reconciled
+     * @param drifted    clients whose cache differed from the ledger
+     * @param repaired   caches recomputed (always 0 in verify-only mode)
+     * @param failed     drifting caches that could not be recomputed
+     * @param netDrift   SUM of the differences (cache - ledger)
+     * @param drifts     first drifting clients (capped at 100)
+     * @param tookMs     duration of the run
+     */
+    public record Report(
+            long scanned,
+            long drifted,
+            long repaired,
+            long failed,
+            BigDecimal netDrift,
+            List<Drift> drifts,
+            long tookMs) { }
+
+    @Scheduled(cron = "${payment.reconciliation.cron:-}")
+    public void scheduledVerify() {
+        verify();
+    }
+
+    /**
+     * Reports the clients whose cached balance differs from the ledger,
+     * without writing.
+     */
+    public Report verify() {
+        return execute(false);
+    }
+
+    /**
+     * Reports and recomputes the cached balances that differ from the ledger.
+     */
+    public Report repair() {
+        return execute(true);
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal
+    // ---------------------------------------------------------------------
+
+    private record ChunkResult(int scanned, List<Drift> drifts) { }
+
+    private Report execute(boolean repair) {
+
+        long start = System.nanoTime();
+
+        long scanned = 0;
+        long drifted = 0;
+        long repaired = 0;
+        long failed = 0;
+        BigDecimal netDrift = BigDecimal.ZERO;
+        List<Drift> reported = new ArrayList<>();
+
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        CompletionService<ChunkResult> completion = new ExecutorCompletionService<>(pool);
+        int maxInFlight = parallelism * 2;
+        int inFlight = 0;
+
+        try {
+            long afterClientId = 0L;
+            boolean more = true;
+
+            while (more || inFlight > 0) {
+
+                // ------------------------------------------------------------
+                // 1) Stream the next chunk of client ids to the pool
+                // ------------------------------------------------------------
+                if (more && inFlight < maxInFlight) {
+
+                    final long cursor = afterClientId;
+                    List<Long> clientIds = readTx.execute(status -> nextClientIds(cursor));
+
+                    if (clientIds == null || clientIds.isEmpty()) {
+                        more = false;
+                        continue;
+                    }
+
+                    completion.submit(() -> reconcileChunk(clientIds, repair));
+                    inFlight++;
+
+                    afterClientId = clientIds.get(clientIds.size() - 1);
+                    more = clientIds.size() == chunkSize;
+                    continue;
+                }
+
+                // ------------------------------------------------------------
+                // 2) Collect a finished chunk
+                // ------------------------------------------------------------
+                ChunkResult chunk = completion.take().get();
+                inFlight--;
+
+                scanned += chunk.scanned();
+
+                for (Drift drift : chunk.drifts()) {
+                    drifted++;
+                    netDrift = netDrift.add(drift.difference());
+                    if (drift.repaired()) {
+                        repaired++;
+                    } else if (repair) {
+                        failed++;
+                    }
+                    if (reported.size() < MAX_REPORTED_DRIFTS) {
+                        reported.add(drift);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Client balance reconciliation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Client balance reconciliation failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long tookMs = (System.nanoTime() - start) / 1_000_000;
+
+        log.info(
+                "Client balance reconciliation {} finished: scanned={}, drifted={}, repaired={}, failed={}, netDrift={}, parallelism={}, tookMs={}",
+                repair ? "repair" : "verification",
+                scanned,
+                drifted,
+                repaired,
+                failed,
+                netDrift,
+                parallelism,
+                tookMs
+        );
+
+        reported.sort((a, b) -> a.clientId().compareTo(b.clientId()));
+
+        return new Report(scanned, drifted, repaired, failed, netDrift, List.copyOf(reported), tookMs);
+    }
+
+    private List<Long> nextClientIds(long afterClientId) {
+        return em.createQuery("""
+                select cb.clientId
+                from ClientBalanceEntity cb
+                where cb.clientId > :after
+                order by cb.clientId
+                """, Long.class)
+                .setParameter("after", afterClientId)
+                .setMaxResults(chunkSize)
+                .getResultList();
+    }
+
+    /**
+     * Runs on a worker thread: one grouped statement for the chunk, then
+     * (in repair mode) one recompute per drifting client.
+     */
+    private ChunkResult reconcileChunk(List<Long> clientIds, boolean repair) {
+
+        List<Object[]> rows = readTx.execute(status -> em.createQuery("""
+                select cb.clientId, cb.amount, coalesce(sum(m.amountChange), 0)
+                from ClientBalanceEntity cb
+                left join ClientBalanceMovementEntity m on m.clientId = cb.clientId
+                where cb.clientId in :clientIds
+                group by cb.clientId, cb.amount
+                """, Object[].class)
+                .setParameter("clientIds", clientIds)
+                .getResultList());
+
+        List<Drift> drifts = new ArrayList<>();
+
+        for (Object[] row : rows) {
+
+            Long clientId = (Long) row[0];
+            BigDecimal cached = (BigDecimal) row[1];
+            BigDecimal ledger = (BigDecimal) row[2];
+
+            if (cached.compareTo(ledger) == 0) {
+                continue;
+            }
+
+            log.warn(
+                    "Client balance drift: clientId={}, cachedAmount={}, ledgerAmount={}",
+                    clientId, cached, ledger
+            );
+
+            boolean repaired = false;
+
+            if (repair) {
+                try {
+                    clientBalanceService.recomputeBalanceCache(clientId);
+                    repaired = true;
+                } catch (RuntimeException e) {
+                    log.error("Client balance repair failed: clientId={}, error={}", clientId, e.getMessage());
+                }
+            }
+
+            drifts.add(new Drift(clientId, cached, ledger, cached.subtract(ledger), repaired));
+        }
+
+        return new ChunkResult(rows.size(), drifts);
+    }
+}
@@ -1,6 +1,7 @@
 package com.dentallab.domain.payment.persistence;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import org.springframework.stereotype.Component;
 
@@ -9,6 +10,24 @@ import com.dentallab.domain.payment.query.ClientBalanceQuery;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 
+/**
+ * <h2>JpaClientBalanceQuery</h2>
+ *
+ * <p>
+ * Ledger balance read as <strong>checkpoint plus tail</strong>: the
+ * client's {@code client_balance_checkpoint} (balance as of movement id N,
+ * see {@link ClientBalanceCheckpointJob}) plus the movements with
+ * {@code movement_id > N}. Without a checkpoint the tail is the whole
+ * history, so the result is always SUM(amount_change).
+ * </p>
+ *
+ * <p>
+ * Both statements are index lookups (primary key, then
+ * {@code idx_cbm_client_movement}); the cost follows the tail length,
+ * not the client's history. Checkpoint values are read as scalars, never
+ * from a cached entity.
+ * </p>
+ */
 @Component
 public class JpaClientBalanceQuery implements ClientBalanceQuery {
 
@@ -21,12 +40,33 @@ public class JpaClientBalanceQuery implements ClientBalanceQuery {
             throw new IllegalArgumentException("clientId must not be null");
         }
 
-        return em.createQuery("""
+        // ------------------------------------------------------------
+        // 1) Latest checkpoint (if any)
+        // ------------------------------------------------------------
+        List<Object[]> checkpoint = em.createQuery("""
+            select cp.lastMovementId, cp.balance
+            from ClientBalanceCheckpointEntity cp
+            where cp.clientId = :clientId
+        """, Object[].class)
+        .setParameter("clientId", clientId)
+        .getResultList();
+
+        long afterMovementId = checkpoint.isEmpty() ? 0L : (Long) checkpoint.get(0)[0];
+        BigDecimal base = checkpoint.isEmpty() ? BigDecimal.ZERO : (BigDecimal) checkpoint.get(0)[1];
+
+        // ------------------------------------------------------------
+        // 2) Tail: movements after the checkpoint
+        // ------------------------------------------------------------
+        BigDecimal tail = em.createQuery("""
             select coalesce(sum(m.amountChange), 0)
             from ClientBalanceMovementEntity m
             where m.clientId = :clientId
+              and m.movementId > :afterMovementId
         """, BigDecimal.class)
         .setParameter("clientId", clientId)
+        .setParameter("afterMovementId", afterMovementId)
         .getSingleResult();
+
+        return base.add(tail);
     }
 }
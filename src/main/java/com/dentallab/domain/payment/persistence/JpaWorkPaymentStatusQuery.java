@@ -8,6 +8,7 @@ import java.util.Map;
 
 import org.springframework.stereotype.Component;
 
+import com.dentallab.domain.enums.PaymentStatus;
 import com.dentallab.domain.payment.query.WorkPaymentStatusQuery;
 
 import jakarta.persistence.EntityManager;
@@ -15,6 +16,13 @@ import jakarta.persistence.PersistenceContext;
 
 /**
  * JPA-backed implementation of {@link WorkPaymentStatusQuery}.
+ *
+ * <p>
+ * Aggregates the ledgers on every call. Request paths read the
+ * {@code work_payment_summary} projection instead
+ * ({@link SummaryWorkPaymentStatusQuery}, primary); this implementation is
+ * the source of truth used by {@link WorkPaymentSummaryJob}.
+ * </p>
  */
 @Component
 public class JpaWorkPaymentStatusQuery implements WorkPaymentStatusQuery {
@@ -29,14 +37,15 @@ public class JpaWorkPaymentStatusQuery implements WorkPaymentStatusQuery {
         }
 
         List<Object[]> rows = em.createQuery("""
-            select pa.work.id, coalesce(sum(pa.amountApplied), 0)
+            select pa.workId, sum(pa.amountApplied)
             from PaymentAllocationEntity pa
-            join pa.payment p
-            where pa.work.id in :workIds
-              and p.status = 'RECEIVED'
-            group by pa.work.id
+            join PaymentEntity p on p.id = pa.paymentId
+            where pa.workId in :workIds
+              and p.status = :status
+            group by pa.workId
         """, Object[].class)
         .setParameter("workIds", workIds)
+        .setParameter("status", PaymentStatus.RECEIVED)
         .getResultList();
 
         return toMap(rows);
@@ -49,11 +58,11 @@ public class JpaWorkPaymentStatusQuery implements WorkPaymentStatusQuery {
         }
 
         List<Object[]> rows = em.createQuery("""
-            select m.work.id, coalesce(sum(abs(m.amountChange)), 0)
+            select m.workId, sum(abs(m.amountChange))
             from ClientBalanceMovementEntity m
-            where m.work.id in :workIds
+            where m.workId in :workIds
               and m.type = 'APPLY_WORK'
-            group by m.work.id
+            group by m.workId
         """, Object[].class)
         .setParameter("workIds", workIds)
         .getResultList();
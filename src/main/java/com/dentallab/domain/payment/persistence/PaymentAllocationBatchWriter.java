@@ -0,0 +1,85 @@
+package com.dentallab.domain.payment.persistence;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * <h2>PaymentAllocationBatchWriter</h2>
+ *
+ * <hr/>
+ *
+ * <p>
+ * Inserts every {@code payment_allocation} row of one payment with a single
+ * JDBC batch.
+ * </p>
+ *
+ * <h3>Why not JPA</h3>
+ *
+ * <p>
+ * {@code PaymentAllocationEntity} uses {@code IDENTITY} keys, so Hibernate
+ * executes one {@code INSERT} per allocation. Allocations are not read back
+ * in the same unit of work, so the generated ids are not needed and a plain
+ * JDBC batch joining the current transaction is safe.
+ * </p>
+ *
+ * <h3>What this class does not do</h3>
+ *
+ * <ul>
+ *   <li>it does <strong>not</strong> validate amounts against unpaid
+ *       balances (the payment service does)</li>
+ *   <li>it does <strong>not</strong> update the persistence context</li>
+ * </ul>
+ */
+@Component
+public class PaymentAllocationBatchWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO payment_allocation
+                (payment_id, work_id, amount_applied, created_at)
+            VALUES (?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PaymentAllocationBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts one allocation per entry.
+     *
+     * @param paymentId   owning payment
+     * @param allocations applied amount keyed by workId
+     */
+    public void insertAll(Long paymentId, Map<Long, BigDecimal> allocations) {
+
+        List<Map.Entry<Long, BigDecimal>> rows = new ArrayList<>(allocations.entrySet());
+        Timestamp createdAt = Timestamp.from(Instant.now());
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, paymentId);
+                ps.setLong(2, rows.get(i).getKey());
+                ps.setBigDecimal(3, rows.get(i).getValue());
+                ps.setTimestamp(4, createdAt);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+}
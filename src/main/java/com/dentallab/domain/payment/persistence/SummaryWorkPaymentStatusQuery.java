@@ -0,0 +1,86 @@
+package com.dentallab.domain.payment.persistence;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import com.dentallab.domain.payment.query.WorkPaymentStatusQuery;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * <h2>SummaryWorkPaymentStatusQuery</h2>
+ *
+ * <hr/>
+ *
+ * <p>
+ * {@link WorkPaymentStatusQuery} backed by the {@code work_payment_summary}
+ * projection: one primary-key lookup per work instead of summing
+ * {@code payment_allocation} and {@code client_balance_movement}.
+ * </p>
+ *
+ * <p>
+ * Marked {@link Primary}, so every consumer of the interface reads the
+ * projection. {@link JpaWorkPaymentStatusQuery} remains the ledger-based
+ * source of truth, used by {@link WorkPaymentSummaryJob} to verify and
+ * rebuild the projection.
+ * </p>
+ *
+ * <p>
+ * Works without a summary row have paid nothing (rows are created with
+ * the fixed price or the first payment).
+ * </p>
+ */
+@Primary
+@Component
+public class SummaryWorkPaymentStatusQuery implements WorkPaymentStatusQuery {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public Map<Long, BigDecimal> findCashPaidAmountsByWorkIds(Collection<Long> workIds) {
+        if (workIds == null || workIds.isEmpty()) {
+            return Map.of();
+        }
+
+        return toMap(em.createQuery("""
+            select s.workId, s.cashPaid
+            from WorkPaymentSummaryEntity s
+            where s.workId in :workIds
+              and s.cashPaid <> 0
+        """, Object[].class)
+        .setParameter("workIds", workIds)
+        .getResultList());
+    }
+
+    @Override
+    public Map<Long, BigDecimal> findBalancePaidAmountsByWorkIds(Collection<Long> workIds) {
+        if (workIds == null || workIds.isEmpty()) {
+            return Map.of();
+        }
+
+        return toMap(em.createQuery("""
+            select s.workId, s.balancePaid
+            from WorkPaymentSummaryEntity s
+            where s.workId in :workIds
+              and s.balancePaid <> 0
+        """, Object[].class)
+        .setParameter("workIds", workIds)
+        .getResultList());
+    }
+
+    private Map<Long, BigDecimal> toMap(List<Object[]> rows) {
+        Map<Long, BigDecimal> map = new HashMap<>();
+        for (Object[] row : rows) {
+            map.put((Long) row[0], (BigDecimal) row[1]);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,375 @@
+package com.dentallab.domain.payment.persistence;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dentallab.persistence.entity.WorkPaymentSummaryEntity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * <h2>WorkPaymentSummaryJob</h2>
+ *
+ * <hr/>
+ *
+ * <p>
+ * Verifies (and optionally rebuilds) the {@code work_payment_summary}
+ * projection against its sources of truth: the ledgers
+ * ({@code payment_allocation} of RECEIVED payments,
+ * {@code client_balance_movement} of type {@code APPLY_WORK}) and the final
+ * price materialized in {@code work_price}.
+ * </p>
+ *
+ * <h3>Why this exists</h3>
+ *
+ * <ul>
+ *   <li>{@link SummaryWorkPaymentStatusQuery} and the unpaid-work queries
+ *       read the projection instead of aggregating the ledgers</li>
+ *   <li>ledger rows written before the projection existed must be
+ *       projected once</li>
+ *   <li>any write path that bypasses {@link WorkPaymentSummaryWriter}
+ *       (manual SQL, imports) can leave the projection stale</li>
+ * </ul>
+ *
+ * <h3>How it works</h3>
+ *
+ * <ol>
+ *   <li>works are scanned in keyset pages ordered by {@code work_id}</li>
+ *   <li>each page costs a constant number of statements: works with their
+ *       price, cash sums, balance sums and the stored summary rows
+ *       ({@code IN (...)})</li>
+ *   <li>expected values are recomputed in memory and compared</li>
+ *   <li>in rebuild mode, only mismatching (or missing) rows are written,
+ *       in the page's own transaction</li>
+ * </ol>
+ *
+ * <h3>Concurrency (rebuild)</h3>
+ *
+ * <p>
+ * Rows are overwritten with absolute values, so the ledgers and the stored
+ * row must be read as one consistent pair. Before reading the ledgers a
+ * rebuild page creates the missing rows and locks all the page's rows
+ * ({@code SELECT ... FOR UPDATE}), in a {@code READ_COMMITTED} transaction.
+ * A payment either committed before the lock (its ledger rows are read) or
+ * waits for the page to commit and then applies its relative update on top
+ * of the rebuilt row. A page that races the writer creating the same row
+ * is retried once.
+ * </p>
+ *
+ * <p>
+ * Verification takes no locks: a payment committing during the page may be
+ * reported as a (transient) mismatch.
+ * </p>
+ *
+ * <p>
+ * The job can be triggered on demand (see {@link #verify()} and
+ * {@link #rebuild()}) or once at startup with
+ * {@code payment.summary.rebuild-on-startup=true}.
+ * </p>
+ *
+ * <h3>What this class does not do</h3>
+ *
+ * <ul>
+ *   <li>it does <strong>not</strong> modify the ledgers or {@code work_price}</li>
+ *   <li>it does <strong>not</strong> delete summary rows of removed works
+ *       ({@code ON DELETE CASCADE} does)</li>
+ * </ul>
+ */
+@Component
+public class WorkPaymentSummaryJob implements ApplicationRunner {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(WorkPaymentSummaryJob.class);
+
+    /** Max mismatching work ids kept in a report (the counters are exact). */
+    private static final int MAX_REPORTED_IDS = 100;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final JpaWorkPaymentStatusQuery ledgerQuery;
+    private final WorkPaymentSummaryWriter summaryWriter;
+    private final TransactionTemplate tx;
+    private final int batchSize;
+    private final boolean rebuildOnStartup;
+
+    public WorkPaymentSummaryJob(
+            JpaWorkPaymentStatusQuery ledgerQuery,
+            WorkPaymentSummaryWriter summaryWriter,
+            PlatformTransactionManager transactionManager,
+            @Value("${payment.summary.batch-size:1000}") int batchSize,
+            @Value("${payment.summary.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("payment.summary.batch-size must be >= 1");
+        }
+
+        this.ledgerQuery = ledgerQuery;
+        this.summaryWriter = summaryWriter;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tx.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.batchSize = batchSize;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    /**
+     * Outcome of a verification / rebuild run.
+     *
+     * @param scanned           works inspected
+     * @param mismatched        works whose summary row was missing or differed from the ledgers
+     * @param repaired          summary rows written (always 0 in verify-only mode)
+     * @param mismatchedWorkIds first mismatching work ids (capped at 100)
+     */
+    public record Report(
+            long scanned,
+            long mismatched,
+            long repaired,
+            List<Long> mismatchedWorkIds) { }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Compares the projection with the ledgers without writing.
+     */
+    public Report verify() {
+        return execute(false);
+    }
+
+    /**
+     * Compares the projection with the ledgers and rewrites the
+     * missing or mismatching rows.
+     */
+    public Report rebuild() {
+        return execute(true);
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal
+    // ---------------------------------------------------------------------
+
+    private Report execute(boolean repair) {
+
+        long start = System.nanoTime();
+
+        long scanned = 0;
+        long mismatched = 0;
+        long repaired = 0;
+        List<Long> mismatchedIds = new ArrayList<>();
+
+        long afterWorkId = 0L;
+
+        while (true) {
+
+            final long cursor = afterWorkId;
+            PageResult page;
+            try {
+                page = tx.execute(status -> processPage(cursor, repair));
+            } catch (DuplicateKeyException e) {
+                // A payment created one of the page's missing rows first: it exists now
+                log.debug("Work payment summary row created concurrently, retrying page after workId={}", cursor);
+                page = tx.execute(status -> processPage(cursor, repair));
+            }
+
+            if (page == null || page.scanned() == 0) {
+                break;
+            }
+
+            scanned += page.scanned();
+            mismatched += page.mismatchedIds().size();
+            repaired += page.repaired();
+
+            for (Long id : page.mismatchedIds()) {
+                if (mismatchedIds.size() >= MAX_REPORTED_IDS) break;
+                mismatchedIds.add(id);
+            }
+
+            afterWorkId = page.lastWorkId();
+
+            if (page.scanned() < batchSize) {
+                break;
+            }
+        }
+
+        log.info(
+                "Work payment summary {} finished: scanned={}, mismatched={}, repaired={}, tookMs={}",
+                repair ? "rebuild" : "verification",
+                scanned,
+                mismatched,
+                repaired,
+                (System.nanoTime() - start) / 1_000_000
+        );
+
+        return new Report(scanned, mismatched, repaired, List.copyOf(mismatchedIds));
+    }
+
+    private record PageResult(int scanned, long lastWorkId, List<Long> mismatchedIds, int repaired) { }
+
+    private PageResult processPage(long afterWorkId, boolean repair) {
+
+        // ------------------------------------------------------------
+        // 1) Next page of works, with their fixed price (if any)
+        // ------------------------------------------------------------
+        List<Object[]> works = em.createQuery("""
+                select w.id, w.client.id, wp.priceId, wp.price, wp.finalPrice
+                from WorkEntity w
+                left join WorkPriceEntity wp on wp.work.id = w.id
+                where w.id > :after
+                order by w.id
+                """, Object[].class)
+                .setParameter("after", afterWorkId)
+                .setMaxResults(batchSize)
+                .getResultList();
+
+        if (works.isEmpty()) {
+            return new PageResult(0, afterWorkId, List.of(), 0);
+        }
+
+        List<Long> workIds = new ArrayList<>(works.size());
+        List<Long> unmaterializedPriceIds = new ArrayList<>();
+
+        for (Object[] row : works) {
+            workIds.add((Long) row[0]);
+            if (row[2] != null && row[4] == null) {
+                unmaterializedPriceIds.add((Long) row[2]);
+            }
+        }
+
+        // ------------------------------------------------------------
+        // 2) Override sums of prices without materialized totals
+        // ------------------------------------------------------------
+        Map<Long, BigDecimal> overridesByPriceId = new HashMap<>();
+
+        if (!unmaterializedPriceIds.isEmpty()) {
+            em.createQuery("""
+                    select o.workPriceId, sum(o.adjustment)
+                    from WorkItemPriceOverrideEntity o
+                    where o.workPriceId in :priceIds
+                    group by o.workPriceId
+                    """, Object[].class)
+                    .setParameter("priceIds", unmaterializedPriceIds)
+                    .getResultList()
+                    .forEach(row -> overridesByPriceId.put((Long) row[0], (BigDecimal) row[1]));
+        }
+
+        // ------------------------------------------------------------
+        // 3) Stored summary rows, then ledger sums, one statement each.
+        //    Rebuild: create the missing rows and lock the page's rows
+        //    first, so no payment commits between the two reads.
+        // ------------------------------------------------------------
+        Map<Long, WorkPaymentSummaryEntity> stored = findSummaries(workIds, repair);
+        Set<Long> created = Set.of();
+
+        if (repair && stored.size() < workIds.size()) {
+            List<Long> missing = workIds.stream().filter(id -> !stored.containsKey(id)).toList();
+            summaryWriter.createMissingRows(missing);
+            stored.putAll(findSummaries(missing, true));
+            created = Set.copyOf(missing);
+        }
+
+        Map<Long, BigDecimal> cashPaid = ledgerQuery.findCashPaidAmountsByWorkIds(workIds);
+        Map<Long, BigDecimal> balancePaid = ledgerQuery.findBalancePaidAmountsByWorkIds(workIds);
+
+        // ------------------------------------------------------------
+        // 4) Compare and (optionally) rebuild
+        // ------------------------------------------------------------
+        List<Long> mismatchedIds = new ArrayList<>();
+        int repaired = 0;
+        Instant now = Instant.now();
+
+        for (Object[] row : works) {
+
+            Long workId = (Long) row[0];
+            Long clientId = (Long) row[1];
+            Long priceId = (Long) row[2];
+            BigDecimal price = (BigDecimal) row[3];
+            BigDecimal materializedFinal = (BigDecimal) row[4];
+
+            BigDecimal finalPrice = priceId == null
+                    ? null
+                    : materializedFinal != null
+                            ? materializedFinal
+                            : price.add(overridesByPriceId.getOrDefault(priceId, BigDecimal.ZERO));
+
+            BigDecimal cash = cashPaid.getOrDefault(workId, BigDecimal.ZERO);
+            BigDecimal balance = balancePaid.getOrDefault(workId, BigDecimal.ZERO);
+            BigDecimal unpaid = finalPrice == null ? null : finalPrice.subtract(cash).subtract(balance);
+
+            WorkPaymentSummaryEntity summary = stored.get(workId);
+
+            if (summary != null
+                    && !created.contains(workId)
+                    && Objects.equals(summary.getClientId(), clientId)
+                    && sameAmount(summary.getFinalPrice(), finalPrice)
+                    && sameAmount(summary.getCashPaid(), cash)
+                    && sameAmount(summary.getBalancePaid(), balance)
+                    && sameAmount(summary.getUnpaid(), unpaid)) {
+                continue;
+            }
+
+            log.debug(
+                    "Work payment summary mismatch: workId={}, stored={}, expectedCash={}, expectedBalance={}, expectedUnpaid={}",
+                    workId, summary, cash, balance, unpaid
+            );
+            mismatchedIds.add(workId);
+
+            if (repair && summary != null) {
+                summary.setClientId(clientId);
+                summary.setFinalPrice(finalPrice);
+                summary.setCashPaid(cash);
+                summary.setBalancePaid(balance);
+                summary.setUnpaid(unpaid);
+                summary.setUpdatedAt(now);
+                repaired++;
+            }
+        }
+
+        return new PageResult(works.size(), workIds.get(workIds.size() - 1), mismatchedIds, repaired);
+    }
+
+    /**
+     * Stored rows of the given works; locked ({@code FOR UPDATE}) when
+     * {@code lock} is set.
+     */
+    private Map<Long, WorkPaymentSummaryEntity> findSummaries(List<Long> workIds, boolean lock) {
+
+        Map<Long, WorkPaymentSummaryEntity> stored = new HashMap<>();
+        em.createQuery("""
+                select s
+                from WorkPaymentSummaryEntity s
+                where s.workId in :workIds
+                """, WorkPaymentSummaryEntity.class)
+                .setParameter("workIds", workIds)
+                .setLockMode(lock ? LockModeType.PESSIMISTIC_WRITE : LockModeType.NONE)
+                .getResultList()
+                .forEach(s -> stored.put(s.getWorkId(), s));
+        return stored;
+    }
+
+    private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+}
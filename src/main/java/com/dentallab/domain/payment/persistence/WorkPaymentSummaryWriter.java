@@ -0,0 +1,178 @@
+package com.dentallab.domain.payment.persistence;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+
+import com.dentallab.domain.pricing.model.WorkFinalPricesChangedEvent;
+
+/**
+ * <h2>WorkPaymentSummaryWriter</h2>
+ *
+ * <hr/>
+ *
+ * <p>
+ * Keeps the {@code work_payment_summary} projection in step with the
+ * payment ledgers and the materialized final price, inside the transaction
+ * that writes them.
+ * </p>
+ *
+ * <h3>How it works</h3>
+ *
+ * <ul>
+ *   <li>amounts are applied as relative {@code UPDATE}s
+ *       ({@code cash_paid = cash_paid + ?}), so concurrent payments on the
+ *       same work serialize on the summary row instead of losing updates</li>
+ *   <li>each call is one batch, whatever the number of works</li>
+ *   <li>a missing row is created first (work and client from {@code work},
+ *       final price from {@code work_price}, nothing paid)</li>
+ *   <li>final price changes arrive as {@link WorkFinalPricesChangedEvent},
+ *       published synchronously by the pricing services</li>
+ * </ul>
+ *
+ * <p>
+ * Rows are normally created when the base price is fixed, before any
+ * payment exists. Ledger rows written before the projection existed (or by
+ * a path that bypasses this class) are picked up by
+ * {@link WorkPaymentSummaryJob#rebuild()}.
+ * </p>
+ *
+ * <h3>What this class does not do</h3>
+ *
+ * <ul>
+ *   <li>it does <strong>not</strong> validate amounts (callers do)</li>
+ *   <li>it does <strong>not</strong> read the ledgers</li>
+ * </ul>
+ */
+@Component
+public class WorkPaymentSummaryWriter {
+
+    private static final String INSERT_MISSING_SQL = """
+            INSERT INTO work_payment_summary
+                (work_id, client_id, final_price, cash_paid, balance_paid, unpaid, updated_at)
+            SELECT w.work_id, w.client_id, wp.final_price, 0, 0, wp.final_price, :now
+            FROM work w
+            LEFT JOIN work_price wp ON wp.work_id = w.work_id
+            WHERE w.work_id IN (:workIds)
+              AND NOT EXISTS (
+                  SELECT 1 FROM work_payment_summary s WHERE s.work_id = w.work_id
+              )
+            """;
+
+    private static final String ADD_CASH_SQL = """
+            UPDATE work_payment_summary
+            SET cash_paid = cash_paid + :amount,
+                unpaid = unpaid - :amount,
+                updated_at = :now
+            WHERE work_id = :workId
+            """;
+
+    private static final String ADD_BALANCE_SQL = """
+            UPDATE work_payment_summary
+            SET balance_paid = balance_paid + :amount,
+                unpaid = unpaid - :amount,
+                updated_at = :now
+            WHERE work_id = :workId
+            """;
+
+    private static final String SET_FINAL_PRICE_SQL = """
+            UPDATE work_payment_summary
+            SET final_price = :amount,
+                unpaid = :amount - cash_paid - balance_paid,
+                updated_at = :now
+            WHERE work_id = :workId
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public WorkPaymentSummaryWriter(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds cash allocations of a RECEIVED payment.
+     *
+     * @param amounts applied amount keyed by workId
+     */
+    public void recordCashPaid(Map<Long, BigDecimal> amounts) {
+        apply(ADD_CASH_SQL, amounts);
+    }
+
+    /**
+     * Adds client balance applied to one work ({@code APPLY_WORK}).
+     *
+     * @param workId paid work
+     * @param amount absolute amount applied
+     */
+    public void recordBalancePaid(Long workId, BigDecimal amount) {
+        apply(ADD_BALANCE_SQL, Map.of(workId, amount));
+    }
+
+    /**
+     * Replaces the final price of the given works and recomputes unpaid.
+     *
+     * @param finalPrices new final price keyed by workId
+     */
+    public void recordFinalPrices(Map<Long, BigDecimal> finalPrices) {
+        apply(SET_FINAL_PRICE_SQL, finalPrices);
+    }
+
+    /**
+     * Creates the missing rows of the given works (nothing paid yet), in
+     * the caller's transaction. Used by the rebuild before locking a page.
+     *
+     * @return rows created
+     */
+    int createMissingRows(Collection<Long> workIds) {
+        if (workIds == null || workIds.isEmpty()) {
+            return 0;
+        }
+        return insertMissing(workIds, Timestamp.from(Instant.now()));
+    }
+
+    /**
+     * Runs synchronously inside the pricing transaction.
+     */
+    @EventListener
+    public void onFinalPricesChanged(WorkFinalPricesChangedEvent event) {
+        recordFinalPrices(event.finalPrices());
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal
+    // ---------------------------------------------------------------------
+
+    private void apply(String sql, Map<Long, BigDecimal> amounts) {
+
+        if (amounts == null || amounts.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+
+        insertMissing(amounts.keySet(), now);
+
+        SqlParameterSource[] batch = amounts.entrySet().stream()
+                .map(e -> new MapSqlParameterSource()
+                        .addValue("workId", e.getKey())
+                        .addValue("amount", e.getValue())
+                        .addValue("now", now))
+                .toArray(SqlParameterSource[]::new);
+
+        jdbcTemplate.batchUpdate(sql, batch);
+    }
+
+    private int insertMissing(Collection<Long> workIds, Timestamp now) {
+        return jdbcTemplate.update(INSERT_MISSING_SQL, new MapSqlParameterSource()
+                .addValue("workIds", workIds)
+                .addValue("now", now));
+    }
+}
@@ -8,7 +8,8 @@ import java.math.BigDecimal;
 public interface ClientBalanceQuery {
 
     /**
-     * Returns the authoritative ledger balance (SUM of movements).
+     * Returns the authoritative ledger balance (SUM of movements),
+     * computed as the client's ledger checkpoint plus the movements after it.
      */
     BigDecimal getLedgerBalance(Long clientId);
 }
@@ -0,0 +1,151 @@
+package com.dentallab.domain.payment.service;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * <h2>BalanceWriteExecutor</h2>
+ *
+ * <hr/>
+ *
+ * <p>
+ * Runs the write paths that touch {@code client_balance} (payments, credits,
+ * debits) in a transaction, according to the configured
+ * {@code payment.balance.locking} mode.
+ * </p>
+ *
+ * <h3>Locking modes</h3>
+ *
+ * <ul>
+ *   <li><strong>PESSIMISTIC</strong> (default): the balance row is read with
+ *       {@code SELECT ... FOR UPDATE} and stays locked until commit; the
+ *       work runs once.</li>
+ *   <li><strong>OPTIMISTIC</strong>: the balance row is read without a lock
+ *       and updated with a version check ({@code @Version}). The row is only
+ *       locked from that update to commit, so concurrent payments of the
+ *       same client no longer queue behind each other's reads and
+ *       validations. A transaction that loses the race fails with a
+ *       {@link ConcurrencyFailureException} and is re-run from the start, up
+ *       to {@code maxAttempts} times with a short jittered backoff.</li>
+ * </ul>
+ *
+ * <p>
+ * Retries only happen when this executor starts the transaction: inside a
+ * caller's transaction the work simply joins it, and a conflict propagates
+ * to whoever owns the transaction (which may retry it here).
+ * </p>
+ *
+ * <h3>What this class does not do</h3>
+ *
+ * <ul>
+ *   <li>it does <strong>not</strong> retry business failures
+ *       (insufficient balance, validation errors)</li>
+ *   <li>it does <strong>not</strong> retry in PESSIMISTIC mode</li>
+ * </ul>
+ */
+@Component
+public class BalanceWriteExecutor {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(BalanceWriteExecutor.class);
+
+    public enum LockingMode { PESSIMISTIC, OPTIMISTIC }
+
+    private final TransactionTemplate tx;
+    private final LockingMode mode;
+    private final int maxAttempts;
+    private final long backoffMs;
+
+    public BalanceWriteExecutor(
+            PlatformTransactionManager transactionManager,
+            @Value("${payment.balance.locking:PESSIMISTIC}") LockingMode mode,
+            @Value("${payment.balance.optimistic.max-attempts:5}") int maxAttempts,
+            @Value("${payment.balance.optimistic.backoff-ms:20}") long backoffMs) {
+
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("payment.balance.optimistic.max-attempts must be >= 1");
+        }
+        if (backoffMs < 0) {
+            throw new IllegalArgumentException("payment.balance.optimistic.backoff-ms must be >= 0");
+        }
+
+        this.tx = new TransactionTemplate(transactionManager);
+        this.mode = Objects.requireNonNull(mode, "mode must not be null");
+        this.maxAttempts = maxAttempts;
+        this.backoffMs = backoffMs;
+    }
+
+    /**
+     * Whether balance rows are read without a lock and version-checked on update.
+     */
+    public boolean isOptimistic() {
+        return mode == LockingMode.OPTIMISTIC;
+    }
+
+    /**
+     * Runs the work in a transaction, re-running it on optimistic conflicts
+     * when this call owns the transaction.
+     *
+     * @param operation name used in logs
+     * @param work      the transactional work; must be safe to re-run
+     * @return the work's result
+     */
+    public <T> T execute(String operation, Supplier<T> work) {
+
+        if (!isOptimistic() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return tx.execute(status -> work.get());
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return tx.execute(status -> work.get());
+            } catch (ConcurrencyFailureException e) {
+
+                if (attempt >= maxAttempts) {
+                    log.warn("Balance write conflict, giving up: operation={}, attempts={}",
+                            operation, attempt);
+                    throw e;
+                }
+
+                log.debug("Balance write conflict, retrying: operation={}, attempt={}, error={}",
+                        operation, attempt, e.getMessage());
+                backoff(attempt);
+            }
+        }
+    }
+
+    /**
+     * {@link #execute} for work without a result.
+     */
+    public void run(String operation, Runnable work) {
+        execute(operation, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    private void backoff(int attempt) {
+
+        if (backoffMs == 0) {
+            return;
+        }
+
+        long sleep = backoffMs * attempt + ThreadLocalRandom.current().nextLong(backoffMs);
+        try {
+            Thread.sleep(sleep);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying a balance write", e);
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package com.dentallab.domain.payment.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * <h2>ClientStatementExporter</h2>
+ *
+ * <hr/>
+ *
+ * <p>
+ * Writes a client's account statement — work charges, payments, payment
+ * allocations and balance movements — in date order, as CSV or NDJSON,
+ * with a running balance.
+ * </p>
+ *
+ * <h3>How it works</h3>
+ *
+ * <ul>
+ *   <li>one {@code UNION ALL} statement over {@code work_payment_summary},
+ *       {@code payment}, {@code payment_allocation} and
+ *       {@code client_balance_movement}, ordered by the database</li>
+ *   <li>read through a forward-only, read-only statement. On MySQL the
+ *       fetch size is {@link Integer#MIN_VALUE}, Connector/J's row-by-row
+ *       streaming, set on this statement only (no connection-wide
+ *       {@code useCursorFetch}); other drivers use
+ *       {@code payment.statement.fetch-size}</li>
+ *   <li>each row is written as soon as it is read, and the running balance
+ *       is a single accumulator: memory stays flat whatever the length of
+ *       the client's history</li>
+ *   <li>the whole export runs in one read-only transaction (one consistent
+ *       snapshot)</li>
+ * </ul>
+ *
+ * <h3>Running balance</h3>
+ *
+ * <p>
+ * Amount owed by the client (negative: in the client's favour):
+ * </p>
+ *
+ * <ul>
+ *   <li>{@code WORK_CHARGE}: + final price</li>
+ *   <li>{@code PAYMENT}: − amount received</li>
+ *   <li>{@code ALLOCATION}: 0 (moves a payment onto a work)</li>
+ *   <li>{@code BALANCE_MOVEMENT}: 0 for {@code PAY_EXCESS} and
+ *       {@code APPLY_WORK} (transfers of money already counted),
+ *       − amount change otherwise (promotions, manual adjustments)</li>
+ * </ul>
+ *
+ * <h3>What this class does not do</h3>
+ *
+ * <ul>
+ *   <li>it does <strong>not</strong> list works without a fixed price</li>
+ *   <li>it does <strong>not</strong> list cancelled payments</li>
+ * </ul>
+ */
+@Component
+public class ClientStatementExporter {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(ClientStatementExporter.class);
+
+    public enum Format { CSV, NDJSON }
+
+    static final String CSV_HEADER =
+            "date,type,entry_id,payment_id,work_id,detail,amount,balance_effect,running_balance";
+
+    /*
+     * The movement branch comes first so every column gets a concrete type
+     * before the NULL placeholders of the other branches; entry_order keeps
+     * charges, payments, allocations and movements of the same instant in
+     * that order.
+     */
+    private static final String STATEMENT_SQL = """
+            SELECT entry_at, entry_type, entry_id, payment_id, work_id, detail, amount
+            FROM (
+                SELECT m.created_at AS entry_at, 4 AS entry_order,
+                       'BALANCE_MOVEMENT' AS entry_type, m.movement_id AS entry_id,
+                       m.payment_id AS payment_id, m.work_id AS work_id,
+                       m.type AS detail, m.amount_change AS amount
+                FROM client_balance_movement m
+                WHERE m.client_id = ?
+
+                UNION ALL
+
+                SELECT COALESCE(w.created_at, s.updated_at), 1, 'WORK_CHARGE', w.work_id,
+                       NULL, w.work_id, NULL, s.final_price
+                FROM work_payment_summary s
+                JOIN work w ON w.work_id = s.work_id
+                WHERE s.client_id = ? AND s.final_price IS NOT NULL
+
+                UNION ALL
+
+                SELECT p.received_at, 2, 'PAYMENT', p.payment_id,
+                       p.payment_id, NULL, p.method, p.amount_total
+                FROM payment p
+                WHERE p.client_id = ? AND p.status = 'RECEIVED'
+
+                UNION ALL
+
+                SELECT pa.created_at, 3, 'ALLOCATION', pa.allocation_id,
+                       pa.payment_id, pa.work_id, NULL, pa.amount_applied
+                FROM payment_allocation pa
+                JOIN payment p ON p.payment_id = pa.payment_id
+                WHERE p.client_id = ? AND p.status = 'RECEIVED'
+            ) e
+            ORDER BY entry_at, entry_order, entry_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readTx;
+    private final int fetchSize;
+
+    public ClientStatementExporter(
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${payment.statement.fetch-size:500}") int fetchSize) {
+
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("payment.statement.fetch-size must be >= 1");
+        }
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * One statement line, as written to NDJSON.
+     */
+    public record StatementLine(
+            LocalDateTime date,
+            String type,
+            Long entryId,
+            Long paymentId,
+            Long workId,
+            String detail,
+            BigDecimal amount,
+            BigDecimal balanceEffect,
+            BigDecimal runningBalance) { }
+
+    /**
+     * Streams the statement of the client to {@code out} (not closed).
+     *
+     * @return number of lines written (header excluded)
+     */
+    public long export(Long clientId, Format format, OutputStream out) {
+
+        Objects.requireNonNull(clientId, "clientId must not be null");
+        Objects.requireNonNull(format, "format must not be null");
+
+        long start = System.nanoTime();
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        LineWriter lines = new LineWriter(writer, format);
+
+        Long written = readTx.execute(status -> {
+
+            lines.header();
+
+            jdbcTemplate.query(
+                    connection -> {
+                        PreparedStatement ps = connection.prepareStatement(
+                                STATEMENT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                        ps.setFetchSize(streamingFetchSize(connection));
+                        for (int i = 1; i <= 4; i++) {
+                            ps.setLong(i, clientId);
+                        }
+                        return ps;
+                    },
+                    lines::row
+            );
+
+            return lines.count();
+        });
+
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        log.info("Client statement exported: clientId={}, format={}, lines={}, tookMs={}",
+                clientId, format, written, (System.nanoTime() - start) / 1_000_000);
+
+        return written == null ? 0 : written;
+    }
+
+    /**
+     * Connector/J streams a forward-only, read-only result set row by row
+     * only with {@link Integer#MIN_VALUE}; other drivers take a real size.
+     */
+    private int streamingFetchSize(Connection connection) throws SQLException {
+        String product = connection.getMetaData().getDatabaseProductName();
+        return product != null && product.toLowerCase(Locale.ROOT).contains("mysql")
+                ? Integer.MIN_VALUE
+                : fetchSize;
+    }
+
+    /**
+     * Balance effect of a line on the amount owed by the client.
+     */
+    static BigDecimal balanceEffect(String type, String detail, BigDecimal amount) {
+        return switch (type) {
+            case "WORK_CHARGE" -> amount;
+            case "PAYMENT" -> amount.negate();
+            case "BALANCE_MOVEMENT" ->
+                    "PAY_EXCESS".equals(detail) || "APPLY_WORK".equals(detail) ? BigDecimal.ZERO : amount.negate();
+            default -> BigDecimal.ZERO;
+        };
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal
+    // ---------------------------------------------------------------------
+
+    /** Formats rows one at a time; holds nothing but the running balance. */
+    private final class LineWriter {
+
+        private final Writer writer;
+        private final Format format;
+        private BigDecimal running = BigDecimal.ZERO;
+        private long count;
+
+        LineWriter(Writer writer, Format format) {
+            this.writer = writer;
+            this.format = format;
+        }
+
+        long count() {
+            return count;
+        }
+
+        void header() {
+            if (format == Format.CSV) {
+                write(CSV_HEADER);
+            }
+        }
+
+        void row(ResultSet rs) throws SQLException {
+
+            Timestamp at = rs.getTimestamp("entry_at");
+            String type = rs.getString("entry_type");
+            String detail = rs.getString("detail");
+            BigDecimal amount = rs.getBigDecimal("amount");
+
+            BigDecimal effect = balanceEffect(type, detail, amount);
+            running = running.add(effect);
+
+            StatementLine line = new StatementLine(
+                    at == null ? null : at.toLocalDateTime(),
+                    type,
+                    nullableLong(rs, "entry_id"),
+                    nullableLong(rs, "payment_id"),
+                    nullableLong(rs, "work_id"),
+                    detail,
+                    amount,
+                    effect,
+                    running);
+
+            write(format == Format.CSV ? csv(line) : json(line));
+            count++;
+        }
+
+        private void write(String text) {
+            try {
+                writer.write(text);
+                writer.write('\n');
+            } catch (IOException e) {
+                // Client went away: abort the query instead of reading the rest
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private String json(StatementLine line) {
+            try {
+                return objectMapper.writeValueAsString(line);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Cannot serialize statement line", e);
+            }
+        }
+    }
+
+    private static String csv(StatementLine line) {
+        return String.join(",",
+                line.date() == null ? "" : line.date().toString(),
+                line.type(),
+                str(line.entryId()),
+                str(line.paymentId()),
+                str(line.workId()),
+                csvText(line.detail()),
+                line.amount().toPlainString(),
+                line.balanceEffect().toPlainString(),
+                line.runningBalance().toPlainString());
+    }
+
+    private static String csvText(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    private static String str(Long value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static Long nullableLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    /**
+     * Parses the {@code format} request parameter ({@code csv} / {@code ndjson}).
+     */
+    public static Format parseFormat(String value) {
+        try {
+            return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Unsupported statement format: " + value + " (csv or ndjson)");
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.dentallab.domain.payment.service;
+
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * <h2>PaymentIdempotencyCache</h2>
+ *
+ * <hr/>
+ *
+ * <p>
+ * In-process fast path for payment idempotency keys, in front of the
+ * {@code payment.idempotency_key} unique constraint.
+ * </p>
+ *
+ * <ul>
+ *   <li><strong>Positive cache</strong>: bounded LRU of recently committed
+ *       {@code key → paymentId}, each entry expiring after {@code ttl}.
+ *       Client retries after a timeout are answered without a DB round
+ *       trip.</li>
+ *   <li><strong>Negative fast path</strong>: a Bloom filter of every key this
+ *       instance has seen. A key the filter does not contain was
+ *       <em>definitely</em> never seen here, so the DB lookup can be
+ *       skipped.</li>
+ * </ul>
+ *
+ * <p>
+ * Neither side is authoritative: keys written by other instances (or before
+ * a restart) are unknown here. The unique constraint still rejects them, and
+ * {@code PaymentServiceImpl} then resolves the existing payment id.
+ * </p>
+ *
+ * <p>
+ * The Bloom filter is sized for {@code expectedKeys} keys at ~1% false
+ * positives and is cleared once that many keys were added; false positives
+ * and a cleared filter only cost the regular DB lookup.
+ * </p>
+ *
+ * <p>
+ * Thread-safe.
+ * </p>
+ */
+@Component
+public class PaymentIdempotencyCache {
+
+    private record Entry(Long paymentId, long expiresAtNanos) { }
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, Entry> entries;
+
+    private final int expectedKeys;
+    private final int bloomBits;
+    private final int bloomHashes;
+    private final BitSet bloom;
+    private int bloomInsertions;
+
+    @Autowired
+    public PaymentIdempotencyCache(
+            @Value("${payment.idempotency.max-entries:10000}") int maxEntries,
+            @Value("${payment.idempotency.ttl-seconds:600}") long ttlSeconds,
+            @Value("${payment.idempotency.expected-keys:100000}") int expectedKeys) {
+        this(maxEntries, ttlSeconds, expectedKeys, System::nanoTime);
+    }
+
+    PaymentIdempotencyCache(int maxEntries, long ttlSeconds, int expectedKeys, LongSupplier nanoClock) {
+
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("payment.idempotency.max-entries must be >= 0");
+        }
+        if (ttlSeconds < 1) {
+            throw new IllegalArgumentException("payment.idempotency.ttl-seconds must be >= 1");
+        }
+        if (expectedKeys < 1) {
+            throw new IllegalArgumentException("payment.idempotency.expected-keys must be >= 1");
+        }
+
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > PaymentIdempotencyCache.this.maxEntries;
+            }
+        };
+
+        // m = -n ln(0.01) / ln(2)^2, k = m/n ln(2)
+        this.expectedKeys = expectedKeys;
+        this.bloomBits = (int) Math.ceil(expectedKeys * 9.59);
+        this.bloomHashes = 7;
+        this.bloom = new BitSet(bloomBits);
+    }
+
+    /**
+     * Payment id committed for the key, if it is cached and not expired.
+     */
+    public synchronized Long findPaymentId(String key) {
+
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        if (nanoClock.getAsLong() - entry.expiresAtNanos() >= 0) {
+            entries.remove(key);
+            return null;
+        }
+
+        return entry.paymentId();
+    }
+
+    /**
+     * Whether this instance has definitely never seen the key (no false
+     * negatives; {@code false} may be a false positive).
+     */
+    public synchronized boolean isDefinitelyNew(String key) {
+
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        for (int i = 0; i < bloomHashes; i++) {
+            if (!bloom.get(bloomIndex(h1, h2, i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records a committed (or found) payment for the key.
+     */
+    public synchronized void record(String key, Long paymentId) {
+
+        if (key == null || paymentId == null) {
+            return;
+        }
+
+        if (maxEntries > 0) {
+            entries.put(key, new Entry(paymentId, nanoClock.getAsLong() + ttlNanos));
+        }
+
+        if (bloomInsertions >= expectedKeys) {
+            bloom.clear();
+            bloomInsertions = 0;
+        }
+
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        for (int i = 0; i < bloomHashes; i++) {
+            bloom.set(bloomIndex(h1, h2, i));
+        }
+        bloomInsertions++;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal
+    // ---------------------------------------------------------------------
+
+    /** Double hashing: index_i = h1 + i * h2 (Kirsch–Mitzenmacher). */
+    private int bloomIndex(int h1, int h2, int i) {
+        return Math.floorMod(h1 + i * h2, bloomBits);
+    }
+
+    /** 64-bit FNV-1a over the key's chars. */
+    private static long hash64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
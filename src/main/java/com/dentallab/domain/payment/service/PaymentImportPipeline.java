@@ -0,0 +1,660 @@
+package com.dentallab.domain.payment.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dentallab.domain.payment.dto.PaymentAllocationCommand;
+import com.dentallab.domain.payment.dto.PaymentImportResult;
+import com.dentallab.domain.payment.dto.PaymentImportRowResult;
+import com.dentallab.domain.payment.dto.PaymentImportRowResult.Status;
+import com.dentallab.domain.payment.dto.RegisterPaymentRequest;
+import com.dentallab.domain.payment.dto.WorkSuggestion;
+import com.dentallab.domain.payment.query.WorkPaymentStatusQuery;
+import com.dentallab.domain.pricing.model.PriceResolution;
+import com.dentallab.domain.pricing.service.WorkPricingService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * <h2>PaymentImportPipeline</h2>
+ *
+ * <hr/>
+ *
+ * <p>
+ * Imports a CSV of payments (bank transfers, terminal settlements) as a
+ * staged pipeline and reports an outcome per row.
+ * </p>
+ *
+ * <h3>File format</h3>
+ *
+ * <p>
+ * A header row naming the columns (any order), then one payment per row:
+ * </p>
+ *
+ * <ul>
+ *   <li>{@code client_id}, {@code amount}, {@code idempotency_key}: required</li>
+ *   <li>{@code method}, {@code reference}, {@code notes}: optional</li>
+ *   <li>{@code allocations}: optional, {@code workId:amount|workId:amount};
+ *       when empty the payment is allocated to the client's oldest unpaid
+ *       works</li>
+ *   <li>{@code move_remainder_to_balance}: optional {@code true}/{@code false}
+ *       (default {@code false}), same meaning as in
+ *       {@link RegisterPaymentRequest}</li>
+ * </ul>
+ *
+ * <h3>Stages</h3>
+ *
+ * <ol>
+ *   <li><strong>parse</strong>: malformed rows are rejected, the others become
+ *       import rows</li>
+ *   <li><strong>validate in bulk</strong>: keys repeated in the file, keys
+ *       already registered (reported as duplicates with their payment id),
+ *       unknown clients, works not owned by the client and final prices are
+ *       checked with a constant number of grouped queries for the whole
+ *       file</li>
+ *   <li><strong>allocate</strong>: in file order, against a running unpaid
+ *       amount per work, so two rows of the same file can never overpay a
+ *       work; rows without allocations take the oldest unpaid works
+ *       ({@link UnpaidWorkSuggestionEngine}), skipping works already used by
+ *       earlier rows</li>
+ *   <li><strong>commit</strong>: valid rows are registered through
+ *       {@link PaymentService#registerPayment}, {@code batchSize} rows per
+ *       transaction; a failing batch is rolled back and re-run one row per
+ *       transaction, so only the offending rows fail</li>
+ * </ol>
+ *
+ * <p>
+ * The commit stage deliberately goes through {@link PaymentService}: every
+ * invariant (idempotency, ownership, unpaid amounts, balance confirmation,
+ * summary and balance updates) is re-validated under the write transaction,
+ * and the stages above only keep invalid rows out of the batches.
+ * Re-importing the same file is harmless: every row comes back as
+ * {@link Status#DUPLICATE}.
+ * </p>
+ *
+ * <h3>What this class does not do</h3>
+ *
+ * <ul>
+ *   <li>it does <strong>not</strong> make the import atomic: valid rows are
+ *       committed even when other rows are rejected</li>
+ *   <li>it does <strong>not</strong> resolve clients by name or reference;
+ *       rows must carry the client id</li>
+ * </ul>
+ */
+@Component
+public class PaymentImportPipeline {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(PaymentImportPipeline.class);
+
+    private static final BigDecimal ZERO =
+            BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+
+    /** Max ids / keys per IN list of the bulk validation queries. */
+    private static final int IN_LIST_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final PaymentService paymentService;
+    private final UnpaidWorkSuggestionEngine suggestionEngine;
+    private final WorkPricingService workPricingService;
+    private final WorkPaymentStatusQuery paymentStatusQuery;
+    private final TransactionTemplate readTx;
+    private final TransactionTemplate writeTx;
+    private final int batchSize;
+    private final int maxRows;
+
+    public PaymentImportPipeline(
+            PaymentService paymentService,
+            UnpaidWorkSuggestionEngine suggestionEngine,
+            WorkPricingService workPricingService,
+            WorkPaymentStatusQuery paymentStatusQuery,
+            PlatformTransactionManager transactionManager,
+            @Value("${payment.import.batch-size:50}") int batchSize,
+            @Value("${payment.import.max-rows:5000}") int maxRows) {
+
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("payment.import.batch-size must be >= 1");
+        }
+        if (maxRows < 1) {
+            throw new IllegalArgumentException("payment.import.max-rows must be >= 1");
+        }
+
+        this.paymentService = paymentService;
+        this.suggestionEngine = suggestionEngine;
+        this.workPricingService = workPricingService;
+        this.paymentStatusQuery = paymentStatusQuery;
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+        this.writeTx = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Imports the payments of a CSV document.
+     *
+     * @throws IllegalArgumentException when the header is missing or
+     *         incomplete, or the file has more than {@code maxRows} rows
+     */
+    public PaymentImportResult importCsv(String csv) {
+
+        Objects.requireNonNull(csv, "csv must not be null");
+
+        long start = System.nanoTime();
+
+        // ------------------------------------------------------------
+        // 1) Parse
+        // ------------------------------------------------------------
+        List<ImportRow> rows = parse(csv);
+
+        // ------------------------------------------------------------
+        // 2) Validate in bulk, 3) allocate (one read-only transaction)
+        // ------------------------------------------------------------
+        readTx.executeWithoutResult(status -> {
+            validate(rows);
+            allocate(rows);
+        });
+
+        // ------------------------------------------------------------
+        // 4) Commit the valid rows in batches
+        // ------------------------------------------------------------
+        List<ImportRow> valid = rows.stream().filter(ImportRow::isPending).toList();
+        for (int from = 0; from < valid.size(); from += batchSize) {
+            commit(valid.subList(from, Math.min(from + batchSize, valid.size())));
+        }
+
+        PaymentImportResult result =
+                new PaymentImportResult(rows.stream().map(r -> r.result).toList());
+
+        log.info(
+                "Payment import finished: total={}, imported={}, duplicates={}, rejected={}, failed={}, batchSize={}, tookMs={}",
+                result.getTotal(),
+                result.getImported(),
+                result.getDuplicates(),
+                result.getRejected(),
+                result.getFailed(),
+                batchSize,
+                (System.nanoTime() - start) / 1_000_000
+        );
+
+        return result;
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal
+    // ---------------------------------------------------------------------
+
+    /** One data row travelling through the stages. */
+    private static final class ImportRow {
+
+        final PaymentImportRowResult result;
+
+        Long clientId;
+        BigDecimal amount;
+        String method;
+        String reference;
+        String notes;
+        /** {@code null}: allocate to the oldest unpaid works. */
+        List<PaymentAllocationCommand> allocations;
+        boolean moveRemainderToBalance;
+
+        RegisterPaymentRequest request;
+
+        ImportRow(int line) {
+            this.result = new PaymentImportRowResult(line, null, null);
+        }
+
+        String key() {
+            return result.getIdempotencyKey();
+        }
+
+        boolean isPending() {
+            return result.getStatus() == null;
+        }
+
+        void reject(String message) {
+            result.setStatus(Status.REJECTED);
+            result.setMessage(message);
+        }
+    }
+
+    private List<ImportRow> parse(String csv) {
+
+        String[] lines = csv.split("\r?\n");
+
+        int headerIndex = 0;
+        while (headerIndex < lines.length && lines[headerIndex].isBlank()) {
+            headerIndex++;
+        }
+        if (headerIndex == lines.length) {
+            throw new IllegalArgumentException("Payment import file is empty");
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = splitCsvLine(lines[headerIndex]);
+        if (header == null) {
+            throw new IllegalArgumentException("Payment import header is malformed");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("client_id", "amount", "idempotency_key")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("Payment import header is missing column: " + required);
+            }
+        }
+
+        List<ImportRow> rows = new ArrayList<>();
+
+        for (int i = headerIndex + 1; i < lines.length; i++) {
+
+            if (lines[i].isBlank()) {
+                continue;
+            }
+            if (rows.size() == maxRows) {
+                throw new IllegalArgumentException("Payment import exceeds " + maxRows + " rows");
+            }
+
+            ImportRow row = new ImportRow(i + 1);
+            rows.add(row);
+
+            List<String> fields = splitCsvLine(lines[i]);
+            if (fields == null) {
+                row.reject("Malformed CSV line (unterminated quote)");
+                continue;
+            }
+
+            parseRow(row, fields, columns);
+        }
+
+        return rows;
+    }
+
+    private void parseRow(ImportRow row, List<String> fields, Map<String, Integer> columns) {
+
+        String key = field(fields, columns, "idempotency_key");
+        row.result.setIdempotencyKey(key);
+
+        if (key == null || key.length() < 8 || key.length() > 64) {
+            row.reject("idempotency_key must have 8 to 64 characters");
+            return;
+        }
+
+        try {
+            row.clientId = Long.valueOf(Objects.requireNonNull(field(fields, columns, "client_id")));
+        } catch (RuntimeException e) {
+            row.reject("Invalid client_id");
+            return;
+        }
+
+        try {
+            row.amount = normalize(new BigDecimal(Objects.requireNonNull(field(fields, columns, "amount"))));
+        } catch (RuntimeException e) {
+            row.reject("Invalid amount");
+            return;
+        }
+        if (row.amount.compareTo(ZERO) <= 0) {
+            row.reject("amount must be positive");
+            return;
+        }
+
+        row.method = field(fields, columns, "method");
+        row.reference = field(fields, columns, "reference");
+        row.notes = field(fields, columns, "notes");
+
+        String move = field(fields, columns, "move_remainder_to_balance");
+        if (move != null && !move.equalsIgnoreCase("true") && !move.equalsIgnoreCase("false")) {
+            row.reject("move_remainder_to_balance must be true or false");
+            return;
+        }
+        row.moveRemainderToBalance = Boolean.parseBoolean(move);
+
+        String allocations = field(fields, columns, "allocations");
+        if (allocations == null) {
+            return;
+        }
+
+        row.allocations = new ArrayList<>();
+        for (String part : allocations.split("\\|")) {
+            String[] pair = part.split(":");
+            try {
+                PaymentAllocationCommand cmd = new PaymentAllocationCommand();
+                cmd.setWorkId(Long.valueOf(pair[0].trim()));
+                cmd.setAllocatedAmount(normalize(new BigDecimal(pair[1].trim())));
+                if (pair.length != 2 || cmd.getAllocatedAmount().compareTo(ZERO) < 0) {
+                    throw new IllegalArgumentException();
+                }
+                row.allocations.add(cmd);
+            } catch (RuntimeException e) {
+                row.reject("Invalid allocation '" + part + "' (expected workId:amount)");
+                return;
+            }
+        }
+    }
+
+    private void validate(List<ImportRow> rows) {
+
+        // ------------------------------------------------------------
+        // a) Keys repeated within the file: the first row wins
+        // ------------------------------------------------------------
+        Map<String, Integer> firstLineByKey = new HashMap<>();
+        for (ImportRow row : rows) {
+            if (!row.isPending()) {
+                continue;
+            }
+            Integer first = firstLineByKey.putIfAbsent(row.key(), row.result.getLine());
+            if (first != null) {
+                row.reject("Duplicate idempotency_key in file (line " + first + ")");
+            }
+        }
+
+        // ------------------------------------------------------------
+        // b) Keys already registered: replays, reported with their payment
+        // ------------------------------------------------------------
+        Map<String, Long> existing = new HashMap<>();
+        for (List<String> keys : partition(pendingValues(rows, ImportRow::key))) {
+            for (Object[] r : em.createQuery("""
+                    select p.idempotencyKey, p.id
+                    from PaymentEntity p
+                    where p.idempotencyKey in :keys
+                    """, Object[].class)
+                    .setParameter("keys", keys)
+                    .getResultList()) {
+                existing.put((String) r[0], (Long) r[1]);
+            }
+        }
+        for (ImportRow row : rows) {
+            Long paymentId = row.isPending() ? existing.get(row.key()) : null;
+            if (paymentId != null) {
+                row.result.setStatus(Status.DUPLICATE);
+                row.result.setPaymentId(paymentId);
+                row.result.setMessage("Payment already registered with this idempotency_key");
+            }
+        }
+
+        // ------------------------------------------------------------
+        // c) Clients
+        // ------------------------------------------------------------
+        Set<Long> clients = new HashSet<>();
+        for (List<Long> ids : partition(pendingValues(rows, r -> r.clientId))) {
+            clients.addAll(em.createQuery(
+                    "select c.id from ClientEntity c where c.id in :ids", Long.class)
+                    .setParameter("ids", ids)
+                    .getResultList());
+        }
+        for (ImportRow row : rows) {
+            if (row.isPending() && !clients.contains(row.clientId)) {
+                row.reject("Client not found with id=" + row.clientId);
+            }
+        }
+
+        // ------------------------------------------------------------
+        // d) Explicitly allocated works: ownership
+        // ------------------------------------------------------------
+        List<Long> workIds = new ArrayList<>(explicitWorkIds(rows));
+        Map<Long, Long> ownerByWork = new HashMap<>();
+        for (List<Long> ids : partition(workIds)) {
+            for (Object[] r : em.createQuery(
+                    "select w.id, w.client.id from WorkEntity w where w.id in :ids", Object[].class)
+                    .setParameter("ids", ids)
+                    .getResultList()) {
+                ownerByWork.put((Long) r[0], (Long) r[1]);
+            }
+        }
+        for (ImportRow row : rows) {
+            if (row.isPending() && row.allocations != null
+                    && row.allocations.stream()
+                            .anyMatch(a -> !row.clientId.equals(ownerByWork.get(a.getWorkId())))) {
+                row.reject("Some works do not exist or do not belong to the client");
+            }
+        }
+    }
+
+    private void allocate(List<ImportRow> rows) {
+
+        // ------------------------------------------------------------
+        // Unpaid amount per explicitly allocated work (grouped queries),
+        // then consumed row by row in file order
+        // ------------------------------------------------------------
+        Set<Long> workIds = explicitWorkIds(rows);
+
+        Map<Long, BigDecimal> unpaid = new HashMap<>();
+        if (!workIds.isEmpty()) {
+            Map<Long, PriceResolution> prices = workPricingService.resolveFinalPrices(workIds);
+            Map<Long, BigDecimal> cashPaid = paymentStatusQuery.findCashPaidAmountsByWorkIds(workIds);
+            Map<Long, BigDecimal> balancePaid = paymentStatusQuery.findBalancePaidAmountsByWorkIds(workIds);
+
+            for (Long workId : workIds) {
+                PriceResolution price = prices.get(workId);
+                if (price != null) {
+                    unpaid.put(workId, normalize(normalize(price.getFinalPrice())
+                            .subtract(cashPaid.getOrDefault(workId, ZERO))
+                            .subtract(balancePaid.getOrDefault(workId, ZERO))));
+                }
+            }
+        }
+
+        // Works already allocated by an earlier row of this file
+        Set<Long> used = new HashSet<>();
+
+        for (ImportRow row : rows) {
+
+            if (!row.isPending()) {
+                continue;
+            }
+
+            Map<Long, BigDecimal> allocations = new LinkedHashMap<>();
+
+            if (row.allocations != null) {
+                String error = explicitAllocations(row, unpaid, allocations);
+                if (error != null) {
+                    row.reject(error);
+                    continue;
+                }
+            } else {
+                for (WorkSuggestion s : suggestionEngine.suggest(row.clientId, row.amount, used)) {
+                    allocations.put(s.getWorkId(), s.getSuggestedAmount());
+                    unpaid.putIfAbsent(s.getWorkId(), normalize(s.getUnpaidAmount()));
+                }
+            }
+
+            BigDecimal allocated = allocations.values().stream().reduce(ZERO, BigDecimal::add);
+            BigDecimal remainder = normalize(row.amount.subtract(allocated));
+
+            if (remainder.compareTo(ZERO) > 0 && !row.moveRemainderToBalance) {
+                row.reject("Remaining amount " + remainder
+                        + " exists but move_remainder_to_balance is not true");
+                continue;
+            }
+
+            allocations.forEach((workId, amount) -> {
+                unpaid.merge(workId, amount, (left, a) -> normalize(left.subtract(a)));
+                used.add(workId);
+            });
+
+            row.result.setAllocatedAmount(allocated);
+            row.result.setRemainderToBalance(remainder);
+            row.request = toRequest(row, allocations);
+        }
+    }
+
+    /**
+     * Checks the row's allocations against the running unpaid amounts and
+     * fills {@code allocations}; returns the rejection message, if any.
+     */
+    private static String explicitAllocations(
+            ImportRow row, Map<Long, BigDecimal> unpaid, Map<Long, BigDecimal> allocations) {
+
+        for (PaymentAllocationCommand cmd : row.allocations) {
+            if (cmd.getAllocatedAmount().compareTo(ZERO) != 0) {
+                allocations.merge(cmd.getWorkId(), cmd.getAllocatedAmount(), BigDecimal::add);
+            }
+        }
+
+        BigDecimal total = ZERO;
+        for (Map.Entry<Long, BigDecimal> entry : allocations.entrySet()) {
+            BigDecimal left = unpaid.get(entry.getKey());
+            if (left == null) {
+                return "No final price available for workId=" + entry.getKey();
+            }
+            if (entry.getValue().compareTo(left) > 0) {
+                return "Allocation exceeds unpaid amount for workId=" + entry.getKey()
+                        + " (unpaid " + left + ")";
+            }
+            total = total.add(entry.getValue());
+        }
+
+        if (total.compareTo(row.amount) > 0) {
+            return "Allocated total exceeds payment amount";
+        }
+        return null;
+    }
+
+    private void commit(List<ImportRow> batch) {
+
+        try {
+            List<Long> paymentIds = writeTx.execute(status -> batch.stream()
+                    .map(row -> paymentService.registerPayment(row.request))
+                    .toList());
+
+            for (int i = 0; i < batch.size(); i++) {
+                imported(batch.get(i), paymentIds.get(i));
+            }
+            return;
+
+        } catch (RuntimeException e) {
+            log.warn("Payment import batch failed, retrying row by row: rows={}, error={}",
+                    batch.size(), e.getMessage());
+        }
+
+        for (ImportRow row : batch) {
+            try {
+                imported(row, paymentService.registerPayment(row.request));
+            } catch (RuntimeException e) {
+                log.warn("Payment import row failed: line={}, error={}", row.result.getLine(), e.getMessage());
+                row.result.setStatus(Status.FAILED);
+                row.result.setMessage(e.getMessage());
+            }
+        }
+    }
+
+    private static void imported(ImportRow row, Long paymentId) {
+        row.result.setStatus(Status.IMPORTED);
+        row.result.setPaymentId(paymentId);
+    }
+
+    private static RegisterPaymentRequest toRequest(ImportRow row, Map<Long, BigDecimal> allocations) {
+
+        List<PaymentAllocationCommand> commands = new ArrayList<>();
+        allocations.forEach((workId, amount) -> {
+            PaymentAllocationCommand cmd = new PaymentAllocationCommand();
+            cmd.setWorkId(workId);
+            cmd.setAllocatedAmount(amount);
+            commands.add(cmd);
+        });
+
+        RegisterPaymentRequest request = new RegisterPaymentRequest();
+        request.setClientId(row.clientId);
+        request.setPaymentAmount(row.amount);
+        request.setMethod(row.method);
+        request.setReference(row.reference);
+        request.setNotes(row.notes);
+        request.setAllocations(commands);
+        request.setMoveRemainderToBalance(row.moveRemainderToBalance);
+        request.setIdempotencyKey(row.key());
+        return request;
+    }
+
+    private static Set<Long> explicitWorkIds(List<ImportRow> rows) {
+        Set<Long> workIds = new HashSet<>();
+        for (ImportRow row : rows) {
+            if (row.isPending() && row.allocations != null) {
+                row.allocations.forEach(a -> workIds.add(a.getWorkId()));
+            }
+        }
+        return workIds;
+    }
+
+    private static <T> List<T> pendingValues(List<ImportRow> rows, Function<ImportRow, T> value) {
+        return rows.stream().filter(ImportRow::isPending).map(value).distinct().toList();
+    }
+
+    private static <T> List<List<T>> partition(List<T> values) {
+        List<List<T>> parts = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += IN_LIST_SIZE) {
+            parts.add(values.subList(from, Math.min(from + IN_LIST_SIZE, values.size())));
+        }
+        return parts;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Splits one CSV line (RFC 4180 quoting, no embedded line breaks);
+     * {@code null} when a quote is left open.
+     */
+    static List<String> splitCsvLine(String line) {
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+
+        if (quoted) {
+            return null;
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static BigDecimal normalize(BigDecimal v) {
+        return v == null ? ZERO : v.setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -27,7 +27,13 @@ public interface PaymentService {
     /**
      * Registers a payment and applies its allocations.
      *
+     * <p>
+     * Idempotent on {@code request.idempotencyKey}: a replay registers
+     * nothing and returns the id of the existing payment.
+     * </p>
+     *
      * @param request confirmed payment registration request
+     * @return id of the payment registered for the idempotency key
      */
-    void registerPayment(RegisterPaymentRequest request);
+    Long registerPayment(RegisterPaymentRequest request);
 }
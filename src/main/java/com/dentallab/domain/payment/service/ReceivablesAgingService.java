@@ -0,0 +1,426 @@
+package com.dentallab.domain.payment.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * <h2>ReceivablesAgingService</h2>
+ *
+ * <hr/>
+ *
+ * <p>
+ * Receivables aging: unpaid amounts per client in 0–30, 31–60, 61–90 and
+ * 90+ day buckets, by the age of the work ({@code work.created_at}; works
+ * without a creation date are counted as 90+).
+ * </p>
+ *
+ * <h3>How it works</h3>
+ *
+ * <ul>
+ *   <li>unpaid amounts come from the {@code work_payment_summary} projection
+ *       (fixed price minus cash and balance paid), so no price is resolved
+ *       and no work entity is loaded</li>
+ *   <li>the four buckets of a page of clients are computed by <strong>one
+ *       grouped statement</strong> ({@code SUM(CASE ...)} against cut-off
+ *       dates computed once in Java), keyset-paged by client id; the whole
+ *       lab is a single pass over the unpaid rows of the projection</li>
+ *   <li>lab-wide totals are one more grouped statement</li>
+ * </ul>
+ *
+ * <h3>Daily snapshot</h3>
+ *
+ * <p>
+ * {@link #takeSnapshot(LocalDate)} stores the report of a day in
+ * {@code receivables_aging_snapshot} (replacing that day's rows), on
+ * {@code payment.aging.snapshot-cron} ({@code "-"} disables it) or on
+ * demand. Pages and totals can then be read from the snapshot instead of
+ * being recomputed; snapshots older than {@code retentionDays} are
+ * removed.
+ * </p>
+ *
+ * <h3>What this class does not do</h3>
+ *
+ * <ul>
+ *   <li>it does <strong>not</strong> age works without a fixed price
+ *       (nothing is owed on them yet)</li>
+ *   <li>it does <strong>not</strong> net the client's balance credit
+ *       against the buckets</li>
+ * </ul>
+ */
+@Component
+public class ReceivablesAgingService {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(ReceivablesAgingService.class);
+
+    private static final BigDecimal ZERO =
+            BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+
+    /** Age of works without {@code created_at}: older than any bucket. */
+    private static final LocalDateTime UNDATED = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /** Page size used when the snapshot is written. */
+    private static final int SNAPSHOT_PAGE_SIZE = 1000;
+
+    /** Max page size accepted from callers. */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /*
+     * Bucket sums over (s = WorkPaymentSummaryEntity, w = WorkEntity). Each
+     * CASE starts with the unpaid branch so the sums stay decimal.
+     */
+    private static final String BUCKETS = """
+            sum(case when coalesce(w.createdAt, :undated) >= :cut30 then s.unpaid else 0 end),
+            sum(case when coalesce(w.createdAt, :undated) < :cut30
+                      and coalesce(w.createdAt, :undated) >= :cut60 then s.unpaid else 0 end),
+            sum(case when coalesce(w.createdAt, :undated) < :cut60
+                      and coalesce(w.createdAt, :undated) >= :cut90 then s.unpaid else 0 end),
+            sum(case when coalesce(w.createdAt, :undated) < :cut90 then s.unpaid else 0 end),
+            sum(s.unpaid)
+            """;
+
+    public enum Source { LIVE, SNAPSHOT }
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readTx;
+    private final TransactionTemplate writeTx;
+    private final int retentionDays;
+
+    public ReceivablesAgingService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${payment.aging.snapshot-retention-days:35}") int retentionDays) {
+
+        if (retentionDays < 1) {
+            throw new IllegalArgumentException("payment.aging.snapshot-retention-days must be >= 1");
+        }
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+        this.writeTx = new TransactionTemplate(transactionManager);
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * Aging buckets of one client.
+     *
+     * @param current    unpaid on works 0–30 days old
+     * @param days31To60 unpaid on works 31–60 days old
+     * @param days61To90 unpaid on works 61–90 days old
+     * @param over90     unpaid on works older than 90 days
+     * @param total      sum of the buckets
+     */
+    public record AgingRow(
+            Long clientId,
+            BigDecimal current,
+            BigDecimal days31To60,
+            BigDecimal days61To90,
+            BigDecimal over90,
+            BigDecimal total) { }
+
+    /**
+     * One page of the report, ordered by client id.
+     *
+     * @param nextAfterClientId cursor of the next page; {@code null} on the
+     *                          last page
+     */
+    public record AgingPage(
+            LocalDate asOf,
+            Source source,
+            List<AgingRow> rows,
+            Long nextAfterClientId) { }
+
+    /**
+     * Lab-wide totals.
+     *
+     * @param clients clients owing anything
+     */
+    public record AgingTotals(
+            LocalDate asOf,
+            Source source,
+            long clients,
+            BigDecimal current,
+            BigDecimal days31To60,
+            BigDecimal days61To90,
+            BigDecimal over90,
+            BigDecimal total) { }
+
+    // ---------------------------------------------------------------------
+    // Live report
+    // ---------------------------------------------------------------------
+
+    /**
+     * Clients with unpaid works after {@code afterClientId}, computed now.
+     */
+    public AgingPage livePage(LocalDate asOf, long afterClientId, int size) {
+
+        Objects.requireNonNull(asOf, "asOf must not be null");
+        checkPageSize(size);
+
+        List<AgingRow> rows = readTx.execute(status -> liveRows(asOf, afterClientId, size));
+
+        return new AgingPage(asOf, Source.LIVE, rows, nextCursor(rows, size));
+    }
+
+    public AgingTotals liveTotals(LocalDate asOf) {
+
+        Objects.requireNonNull(asOf, "asOf must not be null");
+
+        Object[] row = readTx.execute(status -> withCutoffs(em.createQuery(
+                "select count(distinct s.clientId), " + BUCKETS + """
+                from WorkPaymentSummaryEntity s
+                join WorkEntity w on w.id = s.workId
+                where s.unpaid > 0
+                """, Object[].class), asOf)
+                .getSingleResult());
+
+        return totals(asOf, Source.LIVE, row);
+    }
+
+    // ---------------------------------------------------------------------
+    // Snapshot
+    // ---------------------------------------------------------------------
+
+    @Scheduled(cron = "${payment.aging.snapshot-cron:-}")
+    public void scheduledSnapshot() {
+        takeSnapshot(LocalDate.now());
+    }
+
+    /**
+     * Stores the report as of {@code asOf}, replacing an earlier snapshot
+     * of the same day, and drops snapshots past the retention.
+     *
+     * @return clients stored
+     */
+    public long takeSnapshot(LocalDate asOf) {
+
+        Objects.requireNonNull(asOf, "asOf must not be null");
+
+        long start = System.nanoTime();
+
+        Long stored = writeTx.execute(status -> {
+
+            // ------------------------------------------------------------
+            // 1) Replace the day's snapshot as a unit
+            // ------------------------------------------------------------
+            jdbcTemplate.update("DELETE FROM receivables_aging_snapshot WHERE snapshot_date = ?",
+                    Date.valueOf(asOf));
+
+            // ------------------------------------------------------------
+            // 2) One pass over the projection, a JDBC batch per page
+            // ------------------------------------------------------------
+            Timestamp createdAt = Timestamp.from(Instant.now());
+            long count = 0;
+            long after = 0L;
+
+            while (true) {
+                List<AgingRow> page = liveRows(asOf, after, SNAPSHOT_PAGE_SIZE);
+                if (page.isEmpty()) {
+                    break;
+                }
+
+                jdbcTemplate.batchUpdate("""
+                        INSERT INTO receivables_aging_snapshot
+                            (snapshot_date, client_id, current_amount, days_31_60, days_61_90,
+                             over_90, total_unpaid, created_at)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                        """,
+                        page,
+                        page.size(),
+                        (ps, r) -> {
+                            ps.setDate(1, Date.valueOf(asOf));
+                            ps.setLong(2, r.clientId());
+                            ps.setBigDecimal(3, r.current());
+                            ps.setBigDecimal(4, r.days31To60());
+                            ps.setBigDecimal(5, r.days61To90());
+                            ps.setBigDecimal(6, r.over90());
+                            ps.setBigDecimal(7, r.total());
+                            ps.setTimestamp(8, createdAt);
+                        });
+
+                count += page.size();
+                after = page.get(page.size() - 1).clientId();
+
+                if (page.size() < SNAPSHOT_PAGE_SIZE) {
+                    break;
+                }
+            }
+
+            // ------------------------------------------------------------
+            // 3) Retention
+            // ------------------------------------------------------------
+            jdbcTemplate.update("DELETE FROM receivables_aging_snapshot WHERE snapshot_date < ?",
+                    Date.valueOf(asOf.minusDays(retentionDays)));
+
+            return count;
+        });
+
+        log.info("Receivables aging snapshot taken: asOf={}, clients={}, tookMs={}",
+                asOf, stored, (System.nanoTime() - start) / 1_000_000);
+
+        return stored == null ? 0 : stored;
+    }
+
+    /**
+     * A page of a stored snapshot ({@code date == null}: the latest one).
+     *
+     * @throws EntityNotFoundException when no such snapshot exists
+     */
+    public AgingPage snapshotPage(LocalDate date, long afterClientId, int size) {
+
+        checkPageSize(size);
+
+        return readTx.execute(status -> {
+
+            LocalDate snapshotDate = resolveSnapshotDate(date);
+
+            List<AgingRow> rows = em.createQuery("""
+                    select a.clientId, a.currentAmount, a.days31To60, a.days61To90, a.over90, a.totalUnpaid
+                    from ReceivablesAgingSnapshotEntity a
+                    where a.snapshotDate = :date
+                      and a.clientId > :after
+                    order by a.clientId
+                    """, Object[].class)
+                    .setParameter("date", snapshotDate)
+                    .setParameter("after", afterClientId)
+                    .setMaxResults(size)
+                    .getResultList()
+                    .stream()
+                    .map(ReceivablesAgingService::toRow)
+                    .toList();
+
+            return new AgingPage(snapshotDate, Source.SNAPSHOT, rows, nextCursor(rows, size));
+        });
+    }
+
+    /**
+     * Totals of a stored snapshot ({@code date == null}: the latest one).
+     *
+     * @throws EntityNotFoundException when no such snapshot exists
+     */
+    public AgingTotals snapshotTotals(LocalDate date) {
+
+        return readTx.execute(status -> {
+
+            LocalDate snapshotDate = resolveSnapshotDate(date);
+
+            Object[] row = em.createQuery("""
+                    select count(a), sum(a.currentAmount), sum(a.days31To60), sum(a.days61To90),
+                           sum(a.over90), sum(a.totalUnpaid)
+                    from ReceivablesAgingSnapshotEntity a
+                    where a.snapshotDate = :date
+                    """, Object[].class)
+                    .setParameter("date", snapshotDate)
+                    .getSingleResult();
+
+            return totals(snapshotDate, Source.SNAPSHOT, row);
+        });
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal
+    // ---------------------------------------------------------------------
+
+    private List<AgingRow> liveRows(LocalDate asOf, long afterClientId, int size) {
+        return withCutoffs(em.createQuery(
+                "select s.clientId, " + BUCKETS + """
+                from WorkPaymentSummaryEntity s
+                join WorkEntity w on w.id = s.workId
+                where s.unpaid > 0
+                  and s.clientId > :after
+                group by s.clientId
+                order by s.clientId
+                """, Object[].class), asOf)
+                .setParameter("after", afterClientId)
+                .setMaxResults(size)
+                .getResultList()
+                .stream()
+                .map(ReceivablesAgingService::toRow)
+                .toList();
+    }
+
+    /** Works created on or after {@code asOf - n days} are at most n days old. */
+    private static <T> TypedQuery<T> withCutoffs(TypedQuery<T> query, LocalDate asOf) {
+        return query
+                .setParameter("undated", UNDATED)
+                .setParameter("cut30", asOf.minusDays(30).atStartOfDay())
+                .setParameter("cut60", asOf.minusDays(60).atStartOfDay())
+                .setParameter("cut90", asOf.minusDays(90).atStartOfDay());
+    }
+
+    private LocalDate resolveSnapshotDate(LocalDate date) {
+
+        if (date != null) {
+            Long rows = em.createQuery(
+                    "select count(a) from ReceivablesAgingSnapshotEntity a where a.snapshotDate = :date",
+                    Long.class)
+                    .setParameter("date", date)
+                    .getSingleResult();
+            if (rows == 0) {
+                throw new EntityNotFoundException("Aging snapshot not found for date=" + date);
+            }
+            return date;
+        }
+
+        LocalDate latest = em.createQuery(
+                "select max(a.snapshotDate) from ReceivablesAgingSnapshotEntity a", LocalDate.class)
+                .getSingleResult();
+        if (latest == null) {
+            throw new EntityNotFoundException("Aging snapshot not found");
+        }
+        return latest;
+    }
+
+    private static void checkPageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private static Long nextCursor(List<AgingRow> rows, int size) {
+        return rows.size() < size ? null : rows.get(rows.size() - 1).clientId();
+    }
+
+    private static AgingRow toRow(Object[] r) {
+        return new AgingRow((Long) r[0], money(r[1]), money(r[2]), money(r[3]), money(r[4]), money(r[5]));
+    }
+
+    private static AgingTotals totals(LocalDate asOf, Source source, Object[] r) {
+        return new AgingTotals(asOf, source, ((Number) r[0]).longValue(),
+                money(r[1]), money(r[2]), money(r[3]), money(r[4]), money(r[5]));
+    }
+
+    /** Sums come back as BigDecimal, or null when nothing was summed. */
+    private static BigDecimal money(Object value) {
+        if (value == null) {
+            return ZERO;
+        }
+        BigDecimal amount = value instanceof BigDecimal bd ? bd : new BigDecimal(value.toString());
+        return amount.setScale(2, RoundingMode.HALF_UP);
+    }
+}
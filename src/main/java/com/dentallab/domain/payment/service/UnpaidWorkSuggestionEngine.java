@@ -0,0 +1,250 @@
+package com.dentallab.domain.payment.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dentallab.domain.payment.dto.WorkSuggestion;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * <h2>UnpaidWorkSuggestionEngine</h2>
+ *
+ * <hr/>
+ *
+ * <p>
+ * Suggests where the unallocated remainder of a payment preview could go:
+ * the client's <strong>oldest unpaid works first</strong>, each taking as
+ * much of the remainder as it still owes (greedy fill).
+ * </p>
+ *
+ * <h3>How it works</h3>
+ *
+ * <ol>
+ *   <li>unpaid works are read from the {@code work_payment_summary}
+ *       projection ({@code client_id, unpaid > 0}), as scalar rows
+ *       (id, creation time, unpaid amount) — no entity is loaded</li>
+ *   <li>the scan is a keyset pagination ordered by
+ *       {@code (created_at, work_id)}, {@code pageSize} rows per statement.
+ *       It seeks on the raw columns of {@code work} filtered by client, so
+ *       MySQL walks {@code idx_work_client_created} and a page costs the
+ *       same however long the client's history. Legacy works without
+ *       {@code created_at} are a separate leading segment (ordered by id),
+ *       as NULLs sort first in the index.</li>
+ *   <li>it stops as soon as the remainder is covered, the client has no
+ *       more unpaid works, or {@code maxScanned} works have been read</li>
+ * </ol>
+ *
+ * <p>
+ * A client with thousands of works therefore costs a few small statements,
+ * usually one.
+ * </p>
+ *
+ * <h3>What this class does not do</h3>
+ *
+ * <ul>
+ *   <li>it does <strong>not</strong> allocate anything: suggestions are
+ *       only returned to the caller</li>
+ *   <li>it does <strong>not</strong> resolve prices (the projection holds
+ *       the unpaid amount against the current final price)</li>
+ *   <li>works without a fixed price are never suggested</li>
+ * </ul>
+ */
+@Component
+public class UnpaidWorkSuggestionEngine {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(UnpaidWorkSuggestionEngine.class);
+
+    private static final BigDecimal ZERO =
+            BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final int pageSize;
+    private final int maxScanned;
+
+    public UnpaidWorkSuggestionEngine(
+            @Value("${payment.suggestions.page-size:50}") int pageSize,
+            @Value("${payment.suggestions.max-scanned:1000}") int maxScanned) {
+
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("payment.suggestions.page-size must be >= 1");
+        }
+        if (maxScanned < pageSize) {
+            throw new IllegalArgumentException("payment.suggestions.max-scanned must be >= page-size");
+        }
+
+        this.pageSize = pageSize;
+        this.maxScanned = maxScanned;
+    }
+
+    /**
+     * Suggests unpaid works of the client covering (as far as possible)
+     * the given remainder.
+     *
+     * @param clientId        owner of the works
+     * @param remainder       amount left after the selected works
+     * @param excludedWorkIds works already part of the preview
+     * @return suggestions, oldest work first; empty when nothing remains
+     */
+    @Transactional(readOnly = true)
+    public List<WorkSuggestion> suggest(Long clientId, BigDecimal remainder, Collection<Long> excludedWorkIds) {
+
+        Objects.requireNonNull(clientId, "clientId must not be null");
+
+        BigDecimal remaining = normalize(remainder);
+        if (remaining.compareTo(ZERO) <= 0) {
+            return List.of();
+        }
+
+        Set<Long> excluded = excludedWorkIds == null ? Set.of() : Set.copyOf(excludedWorkIds);
+
+        List<WorkSuggestion> suggestions = new ArrayList<>();
+
+        // Undated (legacy) works first, then dated ones by (created_at, id)
+        boolean undatedSegment = true;
+        LocalDateTime afterCreatedAt = null;
+        long afterWorkId = 0L;
+        int scanned = 0;
+
+        while (remaining.compareTo(ZERO) > 0 && scanned < maxScanned) {
+
+            // ------------------------------------------------------------
+            // 1) Next page of unpaid works, oldest first (scalar rows)
+            // ------------------------------------------------------------
+            int limit = Math.min(pageSize, maxScanned - scanned);
+            List<Object[]> page = undatedSegment
+                    ? undatedPage(clientId, afterWorkId, limit)
+                    : datedPage(clientId, afterCreatedAt, afterWorkId, limit);
+
+            // ------------------------------------------------------------
+            // 2) Greedy fill, stopping as soon as the remainder is covered
+            // ------------------------------------------------------------
+            for (Object[] row : page) {
+
+                Long workId = (Long) row[0];
+                afterCreatedAt = (LocalDateTime) row[1];
+                afterWorkId = workId;
+                scanned++;
+
+                if (excluded.contains(workId)) {
+                    continue;
+                }
+
+                BigDecimal unpaid = normalize((BigDecimal) row[2]);
+                BigDecimal suggested = normalize(unpaid.min(remaining));
+
+                WorkSuggestion suggestion = new WorkSuggestion();
+                suggestion.setWorkId(workId);
+                suggestion.setUnpaidAmount(unpaid);
+                suggestion.setSuggestedAmount(suggested);
+                suggestions.add(suggestion);
+
+                remaining = normalize(remaining.subtract(suggested));
+                if (remaining.compareTo(ZERO) == 0) {
+                    break;
+                }
+            }
+
+            // ------------------------------------------------------------
+            // 3) Segment exhausted: move on to dated works, or stop
+            // ------------------------------------------------------------
+            if (page.size() < limit) {
+                if (!undatedSegment) {
+                    break;
+                }
+                undatedSegment = false;
+                afterCreatedAt = null;
+                afterWorkId = 0L;
+            }
+        }
+
+        log.debug(
+                "Unpaid work suggestions: clientId={}, remainder={}, suggested={}, uncovered={}, scanned={}",
+                clientId,
+                remainder,
+                suggestions.size(),
+                remaining,
+                scanned
+        );
+
+        return suggestions;
+    }
+
+    /**
+     * Unpaid works without {@code created_at}, by id.
+     */
+    private List<Object[]> undatedPage(Long clientId, long afterWorkId, int limit) {
+        return em.createQuery("""
+                select w.id, w.createdAt, s.unpaid
+                from WorkEntity w
+                join WorkPaymentSummaryEntity s on s.workId = w.id
+                where w.client.id = :clientId
+                  and w.createdAt is null
+                  and w.id > :afterWorkId
+                  and s.unpaid > 0
+                order by w.id
+                """, Object[].class)
+                .setParameter("clientId", clientId)
+                .setParameter("afterWorkId", afterWorkId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Unpaid dated works after {@code (afterCreatedAt, afterWorkId)}
+     * ({@code afterCreatedAt == null}: from the oldest).
+     */
+    private List<Object[]> datedPage(Long clientId, LocalDateTime afterCreatedAt, long afterWorkId, int limit) {
+
+        if (afterCreatedAt == null) {
+            return em.createQuery("""
+                    select w.id, w.createdAt, s.unpaid
+                    from WorkEntity w
+                    join WorkPaymentSummaryEntity s on s.workId = w.id
+                    where w.client.id = :clientId
+                      and w.createdAt is not null
+                      and s.unpaid > 0
+                    order by w.createdAt, w.id
+                    """, Object[].class)
+                    .setParameter("clientId", clientId)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+
+        return em.createQuery("""
+                select w.id, w.createdAt, s.unpaid
+                from WorkEntity w
+                join WorkPaymentSummaryEntity s on s.workId = w.id
+                where w.client.id = :clientId
+                  and (w.createdAt > :afterCreatedAt
+                       or (w.createdAt = :afterCreatedAt and w.id > :afterWorkId))
+                  and s.unpaid > 0
+                order by w.createdAt, w.id
+                """, Object[].class)
+                .setParameter("clientId", clientId)
+                .setParameter("afterCreatedAt", afterCreatedAt)
+                .setParameter("afterWorkId", afterWorkId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static BigDecimal normalize(BigDecimal v) {
+        return v == null ? ZERO : v.setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -9,9 +9,13 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.dentallab.domain.payment.persistence.WorkPaymentSummaryWriter;
+import com.dentallab.domain.payment.query.ClientBalanceQuery;
+import com.dentallab.domain.payment.service.BalanceWriteExecutor;
 import com.dentallab.domain.payment.service.ClientBalanceService;
 import com.dentallab.persistence.entity.ClientBalanceEntity;
 import com.dentallab.persistence.entity.ClientBalanceMovementEntity;
@@ -27,16 +31,31 @@ import com.dentallab.persistence.repository.ClientBalanceRepository;
  * <ul>
  *   <li>{@code client_balance_movement} is the ledger (source of truth).</li>
  *   <li>{@code client_balance.amount} is a cache (fast read).</li>
+ *   <li>ledger sums go through {@link ClientBalanceQuery}: the client's
+ *       {@code client_balance_checkpoint} plus the movements after it,
+ *       instead of the whole history.</li>
+ *   <li>{@code work_payment_summary.balance_paid} projects {@code APPLY_WORK}
+ *       movements per work, updated in the same transaction.</li>
  * </ul>
  *
  * <h3>Concurrency strategy</h3>
  * <p>
- * All mutations acquire a PESSIMISTIC_WRITE lock on the {@code client_balance} row
- * for the client. This prevents concurrent updates from producing incorrect totals.
+ * Mutations run through {@link BalanceWriteExecutor}, according to
+ * {@code payment.balance.locking}:
+ * </p>
+ * <ul>
+ *   <li>PESSIMISTIC (default): acquire a PESSIMISTIC_WRITE lock on the
+ *       {@code client_balance} row for the client.</li>
+ *   <li>OPTIMISTIC: read the row without a lock and flush the update with a
+ *       version check; a conflicting transaction is re-run by the executor
+ *       (when it owns the transaction).</li>
+ * </ul>
+ * <p>
+ * Either way, concurrent updates cannot produce incorrect totals, and the
+ * movements of a client commit in {@code movement_id} order.
  * </p>
  */
 @Service
-@Transactional
 public class ClientBalanceServiceImpl implements ClientBalanceService {
 
     private static final Logger log = LoggerFactory.getLogger(ClientBalanceServiceImpl.class);
@@ -46,13 +65,22 @@ public class ClientBalanceServiceImpl implements ClientBalanceService {
 
     private final ClientBalanceRepository clientBalanceRepository;
     private final ClientBalanceMovementRepository movementRepository;
+    private final WorkPaymentSummaryWriter summaryWriter;
+    private final ClientBalanceQuery ledgerQuery;
+    private final BalanceWriteExecutor writeExecutor;
 
     public ClientBalanceServiceImpl(
             ClientBalanceRepository clientBalanceRepository,
-            ClientBalanceMovementRepository movementRepository
+            ClientBalanceMovementRepository movementRepository,
+            WorkPaymentSummaryWriter summaryWriter,
+            ClientBalanceQuery ledgerQuery,
+            BalanceWriteExecutor writeExecutor
     ) {
         this.clientBalanceRepository = clientBalanceRepository;
         this.movementRepository = movementRepository;
+        this.summaryWriter = summaryWriter;
+        this.ledgerQuery = ledgerQuery;
+        this.writeExecutor = writeExecutor;
     }
 
     /**
@@ -77,10 +105,7 @@ public class ClientBalanceServiceImpl implements ClientBalanceService {
     public BigDecimal getLedgerBalance(Long clientId) {
         Objects.requireNonNull(clientId, "clientId must not be null");
 
-        BigDecimal sum =
-            movementRepository.sumLedgerBalanceByClientId(clientId);
-
-        return normalize(sum == null ? ZERO : sum);
+        return normalize(ledgerQuery.getLedgerBalance(clientId));
     }
 
     /**
@@ -105,7 +130,18 @@ public class ClientBalanceServiceImpl implements ClientBalanceService {
         log.info("Crediting client balance: clientId={}, amount={}, type={}, paymentId={}, workId={}",
                 clientId, credit, type, paymentId, workId);
 
-        ClientBalanceEntity cb = lockOrCreateBalanceRow(clientId);
+        writeExecutor.run("creditBalance",
+                () -> doCreditBalance(clientId, credit, type, paymentId, workId, note));
+    }
+
+    private void doCreditBalance(Long clientId,
+                                 BigDecimal credit,
+                                 String type,
+                                 Long paymentId,
+                                 Long workId,
+                                 String note) {
+
+        ClientBalanceEntity cb = loadBalanceRowForWrite(clientId);
 
         assertBalanceActive(cb);
 
@@ -123,9 +159,7 @@ public class ClientBalanceServiceImpl implements ClientBalanceService {
         // 2) Update cache
         BigDecimal newAmount = normalize(cb.getAmount().add(credit));
         cb.setAmount(newAmount);
-        
-        cb.setAmount(newAmount);
-        clientBalanceRepository.save(cb);
+        saveBalanceRow(cb);
 
         log.debug("Client balance credited: clientId={}, newBalance={}", clientId, newAmount);
     }
@@ -151,7 +185,17 @@ public class ClientBalanceServiceImpl implements ClientBalanceService {
         log.info("Applying client balance to work: clientId={}, workId={}, amount={}, paymentId={}",
                 clientId, workId, debit, paymentId);
 
-        ClientBalanceEntity cb = lockOrCreateBalanceRow(clientId);
+        writeExecutor.run("applyBalanceToWork",
+                () -> doApplyBalanceToWork(clientId, workId, debit, paymentId, note));
+    }
+
+    private void doApplyBalanceToWork(Long clientId,
+                                      Long workId,
+                                      BigDecimal debit,
+                                      Long paymentId,
+                                      String note) {
+
+        ClientBalanceEntity cb = loadBalanceRowForWrite(clientId);
 
         assertBalanceActive(cb);
 
@@ -176,7 +220,10 @@ public class ClientBalanceServiceImpl implements ClientBalanceService {
         // 2) Update cache
         BigDecimal newAmount = normalize(current.subtract(debit));
         cb.setAmount(newAmount);
-        clientBalanceRepository.save(cb);
+        saveBalanceRow(cb);
+
+        // 3) Update the per-work payment summary (same transaction)
+        summaryWriter.recordBalancePaid(workId, debit);
 
         log.debug("Client balance applied: clientId={}, workId={}, newBalance={}",
                 clientId, workId, newAmount);
@@ -191,10 +238,14 @@ public class ClientBalanceServiceImpl implements ClientBalanceService {
 
         log.info("Recomputing client balance cache from ledger: clientId={}", clientId);
 
-        ClientBalanceEntity cb = lockOrCreateBalanceRow(clientId);
+        writeExecutor.run("recomputeBalanceCache", () -> doRecomputeBalanceCache(clientId));
+    }
+
+    private void doRecomputeBalanceCache(Long clientId) {
 
-        BigDecimal rawSum = movementRepository.sumLedgerBalanceByClientId(clientId);
-        BigDecimal ledgerSum = normalize(rawSum == null ? ZERO : rawSum);
+        ClientBalanceEntity cb = loadBalanceRowForWrite(clientId);
+
+        BigDecimal ledgerSum = normalize(ledgerQuery.getLedgerBalance(clientId));
 
         if (ledgerSum.compareTo(ZERO) < 0) {
             // By your schema, client_balance.amount has CHECK(amount >= 0).
@@ -206,7 +257,7 @@ public class ClientBalanceServiceImpl implements ClientBalanceService {
 
         BigDecimal old = normalize(cb.getAmount());
         cb.setAmount(ledgerSum);
-        clientBalanceRepository.save(cb);
+        saveBalanceRow(cb);
 
         log.debug("Balance cache recomputed: clientId={}, oldBalance={}, newBalance={}",
                 clientId, old, ledgerSum);
@@ -217,17 +268,18 @@ public class ClientBalanceServiceImpl implements ClientBalanceService {
     // ---------------------------------------------------------------------
 
     /**
-     * Loads the {@code client_balance} row using a pessimistic lock,
-     * or creates it if missing (lazy creation).
+     * Loads the {@code client_balance} row for a mutation, or creates it if
+     * missing (lazy creation).
      *
      * <p>
-     * This ensures all balance mutations serialize for a given client.
+     * PESSIMISTIC mode locks the row here, so all balance mutations serialize
+     * for a given client. OPTIMISTIC mode reads it without a lock; the
+     * version check in {@link #saveBalanceRow} rejects concurrent updates.
      * </p>
      */
-    private ClientBalanceEntity lockOrCreateBalanceRow(Long clientId) {
+    private ClientBalanceEntity loadBalanceRowForWrite(Long clientId) {
 
-        Optional<ClientBalanceEntity> existing =
-                clientBalanceRepository.findByClientIdForUpdate(clientId);
+        Optional<ClientBalanceEntity> existing = findBalanceRowForWrite(clientId);
 
         if (existing.isPresent()) {
             return existing.get();
@@ -250,12 +302,36 @@ public class ClientBalanceServiceImpl implements ClientBalanceService {
                     clientId, saved.getBalanceId());
             return saved;
         } catch (DataIntegrityViolationException e) {
+            if (writeExecutor.isOptimistic()) {
+                // Let the executor re-run the transaction against the existing row
+                throw new OptimisticLockingFailureException(
+                        "client_balance row created concurrently: clientId=" + clientId, e);
+            }
             // Another transaction created it first
-            return clientBalanceRepository.findByClientIdForUpdate(clientId)
+            return findBalanceRowForWrite(clientId)
                     .orElseThrow();
         }
     }
 
+    private Optional<ClientBalanceEntity> findBalanceRowForWrite(Long clientId) {
+        return writeExecutor.isOptimistic()
+                ? clientBalanceRepository.findByClientId(clientId)
+                : clientBalanceRepository.findByClientIdForUpdate(clientId);
+    }
+
+    /**
+     * Writes the balance row. In OPTIMISTIC mode the update is flushed
+     * immediately, so a version conflict surfaces here (and the row lock is
+     * only held from this point to commit).
+     */
+    private void saveBalanceRow(ClientBalanceEntity cb) {
+        if (writeExecutor.isOptimistic()) {
+            clientBalanceRepository.saveAndFlush(cb);
+        } else {
+            clientBalanceRepository.save(cb);
+        }
+    }
+
     /**
      * Ensures the client is allowed to use the balance feature.
      */
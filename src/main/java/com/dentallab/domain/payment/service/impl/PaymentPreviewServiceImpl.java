@@ -4,10 +4,11 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,10 +18,11 @@ import org.springframework.transaction.annotation.Transactional;
 import com.dentallab.domain.payment.dto.PaymentPreviewRequest;
 import com.dentallab.domain.payment.dto.PaymentPreviewResult;
 import com.dentallab.domain.payment.dto.WorkAllocationPreview;
+import com.dentallab.domain.payment.dto.WorkSuggestion;
 import com.dentallab.domain.payment.query.WorkPaymentStatusQuery;
 import com.dentallab.domain.payment.service.PaymentPreviewService;
+import com.dentallab.domain.payment.service.UnpaidWorkSuggestionEngine;
 import com.dentallab.domain.pricing.model.PriceResolution;
-import com.dentallab.domain.pricing.model.PriceResolutionRequest;
 import com.dentallab.domain.pricing.service.WorkPricingService;
 import com.dentallab.persistence.entity.WorkEntity;
 import com.dentallab.persistence.repository.WorkRepository;
@@ -49,6 +51,11 @@ import com.dentallab.persistence.repository.WorkRepository;
  * All results are made explicit in {@link PaymentPreviewResult}, including
  * unallocated remainders and required confirmations.
  * </p>
+ *
+ * <p>
+ * When a remainder is left, other unpaid works of the client are
+ * <em>suggested</em> (never allocated) by {@link UnpaidWorkSuggestionEngine}.
+ * </p>
  */
 @Service
 @Transactional(readOnly = true)
@@ -67,15 +74,18 @@ public class PaymentPreviewServiceImpl implements PaymentPreviewService {
     private final WorkRepository workRepository;
     private final WorkPricingService workPricingService;
     private final WorkPaymentStatusQuery paymentStatusQuery;
+    private final UnpaidWorkSuggestionEngine suggestionEngine;
 
     public PaymentPreviewServiceImpl(
             WorkRepository workRepository,
             WorkPricingService workPricingService,
-            WorkPaymentStatusQuery paymentStatusQuery
+            WorkPaymentStatusQuery paymentStatusQuery,
+            UnpaidWorkSuggestionEngine suggestionEngine
     ) {
         this.workRepository = workRepository;
         this.workPricingService = workPricingService;
         this.paymentStatusQuery = paymentStatusQuery;
+        this.suggestionEngine = suggestionEngine;
     }
 
     /**
@@ -116,6 +126,8 @@ public class PaymentPreviewServiceImpl implements PaymentPreviewService {
                 request.getSelectedWorkIds()
         );
 
+        Set<Long> workIds = new LinkedHashSet<>(request.getSelectedWorkIds());
+
         // ------------------------------------------------------------
         // 1. Load works and enforce ownership
         // ------------------------------------------------------------
@@ -127,7 +139,7 @@ public class PaymentPreviewServiceImpl implements PaymentPreviewService {
 
         // If the number of loaded works does not match the number of requested IDs,
         // then at least one work either does not exist or belongs to another client.
-        if (works.size() != new HashSet<>(request.getSelectedWorkIds()).size()) {
+        if (works.size() != workIds.size()) {
             log.warn(
                     "Payment preview rejected: ownership or existence violation " +
                     "(clientId={}, requestedWorks={}, loadedWorks={})",
@@ -147,14 +159,16 @@ public class PaymentPreviewServiceImpl implements PaymentPreviewService {
         // 2. Load already-paid amounts (cash + balance)
         // ------------------------------------------------------------
         Map<Long, BigDecimal> cashPaid =
-                paymentStatusQuery.findCashPaidAmountsByWorkIds(
-                        request.getSelectedWorkIds()
-                );
+                paymentStatusQuery.findCashPaidAmountsByWorkIds(workIds);
 
         Map<Long, BigDecimal> balancePaid =
-                paymentStatusQuery.findBalancePaidAmountsByWorkIds(
-                        request.getSelectedWorkIds()
-                );
+                paymentStatusQuery.findBalancePaidAmountsByWorkIds(workIds);
+
+        // ------------------------------------------------------------
+        // 2b. Resolve final prices for all works at once
+        // ------------------------------------------------------------
+        Map<Long, PriceResolution> prices =
+                workPricingService.resolveFinalPrices(workIds);
 
         BigDecimal remaining = normalize(request.getPaymentAmount());
 
@@ -169,12 +183,7 @@ public class PaymentPreviewServiceImpl implements PaymentPreviewService {
         // ------------------------------------------------------------
         for (WorkEntity work : works) {
 
-            log.debug("Resolving price for workId={}", work.getId());
-
-            PriceResolution price =
-                    workPricingService.resolveFinalPrice(
-                            PriceResolutionRequest.forWork(work.getId())
-                    );
+            PriceResolution price = prices.get(work.getId());
 
             BigDecimal finalPrice = normalize(price.getFinalPrice());
 
@@ -238,15 +247,22 @@ public class PaymentPreviewServiceImpl implements PaymentPreviewService {
         result.setRequiresBalanceConfirmation(remaining.compareTo(ZERO) > 0);
         result.setWarnings(warnings);
 
+        // ------------------------------------------------------------
+        // 5. Suggest other unpaid works for the remainder
+        // ------------------------------------------------------------
+        List<WorkSuggestion> suggestions = List.of();
+
         if (remaining.compareTo(ZERO) > 0) {
             log.info(
                     "Payment preview requires balance confirmation: remainingUnallocated={}",
                     remaining
             );
+
+            suggestions = suggestionEngine.suggest(request.getClientId(), remaining, workIds);
+            suggestions.forEach(s -> s.setWorkLabel(workLabel(s.getWorkId())));
         }
 
-        // TODO: implement unpaid-work suggestions when remaining > 0
-        //       (non-blocking enhancement; preview logic is complete without it)
+        result.setSuggestedAdditionalWorks(suggestions);
 
         log.debug(
                 "Payment preview completed: totalAllocated={}, remainingUnallocated={}",
@@ -271,6 +287,10 @@ public class PaymentPreviewServiceImpl implements PaymentPreviewService {
      *       (e.g. type + internal sequence, order reference, etc.).
      */
     private static String workLabel(WorkEntity work) {
-        return "Work " + work.getId();
+        return workLabel(work.getId());
+    }
+
+    private static String workLabel(Long workId) {
+        return "Work " + workId;
     }
 }
@@ -4,29 +4,31 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.dentallab.domain.enums.PaymentStatus;
 import com.dentallab.domain.payment.dto.PaymentAllocationCommand;
 import com.dentallab.domain.payment.dto.RegisterPaymentRequest;
+import com.dentallab.domain.payment.persistence.PaymentAllocationBatchWriter;
+import com.dentallab.domain.payment.persistence.WorkPaymentSummaryWriter;
 import com.dentallab.domain.payment.query.WorkPaymentStatusQuery;
+import com.dentallab.domain.payment.service.BalanceWriteExecutor;
 import com.dentallab.domain.payment.service.ClientBalanceService;
+import com.dentallab.domain.payment.service.PaymentIdempotencyCache;
 import com.dentallab.domain.payment.service.PaymentService;
 import com.dentallab.domain.pricing.model.PriceResolution;
-import com.dentallab.domain.pricing.model.PriceResolutionRequest;
 import com.dentallab.domain.pricing.service.WorkPricingService;
-import com.dentallab.persistence.entity.PaymentAllocationEntity;
 import com.dentallab.persistence.entity.PaymentEntity;
 import com.dentallab.persistence.entity.WorkEntity;
-import com.dentallab.persistence.repository.PaymentAllocationRepository;
 import com.dentallab.persistence.repository.PaymentRepository;
 import com.dentallab.persistence.repository.WorkRepository;
 
@@ -43,15 +45,36 @@ import com.dentallab.persistence.repository.WorkRepository;
  * <ul>
  *   <li>Persist payment header</li>
  *   <li>Persist payment allocations</li>
+ *   <li>Keep the per-work payment summary in step with the allocations</li>
  *   <li>Delegate balance handling to {@link ClientBalanceService}</li>
  * </ul>
  *
  * <p>
- * All operations run inside a single transaction.
+ * All operations run inside a single transaction, started by
+ * {@link BalanceWriteExecutor}: with {@code payment.balance.locking=OPTIMISTIC}
+ * a payment that loses a {@code client_balance} version race is re-run
+ * from the start (idempotency check included).
+ * </p>
+ *
+ * <p>
+ * Allocations are validated set-based before anything is written: final
+ * prices, cash-paid and balance-paid amounts of all allocated works are
+ * loaded with a constant number of grouped queries, every allocation is
+ * checked in memory, and the allocation rows are inserted with one JDBC
+ * batch. Registering a payment therefore costs the same number of round
+ * trips whether it covers one work or fifty.
+ * </p>
+ *
+ * <p>
+ * Idempotency keys go through {@link PaymentIdempotencyCache} first:
+ * replays seen recently by this instance are answered from memory, and the
+ * DB lookup is skipped for keys this instance has definitely never seen.
+ * The {@code idempotency_key} unique constraint stays the guard: when a
+ * registration that owns its transaction fails, the key is looked up again
+ * and an existing payment wins over the error.
  * </p>
  */
 @Service
-@Transactional
 public class PaymentServiceImpl implements PaymentService {
 
     private static final Logger log =
@@ -62,33 +85,81 @@ public class PaymentServiceImpl implements PaymentService {
 
     private final WorkRepository workRepository;
     private final PaymentRepository paymentRepository;
-    private final PaymentAllocationRepository paymentAllocationRepository;
+    private final PaymentAllocationBatchWriter allocationBatchWriter;
+    private final WorkPaymentSummaryWriter summaryWriter;
     private final WorkPricingService workPricingService;
     private final WorkPaymentStatusQuery paymentStatusQuery;
     private final ClientBalanceService clientBalanceService;
+    private final BalanceWriteExecutor writeExecutor;
+    private final PaymentIdempotencyCache idempotencyCache;
 
     public PaymentServiceImpl(
             WorkRepository workRepository,
             PaymentRepository paymentRepository,
-            PaymentAllocationRepository paymentAllocationRepository,
+            PaymentAllocationBatchWriter allocationBatchWriter,
+            WorkPaymentSummaryWriter summaryWriter,
             WorkPricingService workPricingService,
             WorkPaymentStatusQuery paymentStatusQuery,
-            ClientBalanceService clientBalanceService
+            ClientBalanceService clientBalanceService,
+            BalanceWriteExecutor writeExecutor,
+            PaymentIdempotencyCache idempotencyCache
     ) {
         this.workRepository = workRepository;
         this.paymentRepository = paymentRepository;
-        this.paymentAllocationRepository = paymentAllocationRepository;
+        this.allocationBatchWriter = allocationBatchWriter;
+        this.summaryWriter = summaryWriter;
         this.workPricingService = workPricingService;
         this.paymentStatusQuery = paymentStatusQuery;
         this.clientBalanceService = clientBalanceService;
+        this.writeExecutor = writeExecutor;
+        this.idempotencyCache = idempotencyCache;
     }
 
     @Override
-    public void registerPayment(RegisterPaymentRequest request) {
+    public Long registerPayment(RegisterPaymentRequest request) {
+
+        Objects.requireNonNull(request, "request must not be null");
+        String key = Objects.requireNonNull(request.getIdempotencyKey(), "idempotencyKey must not be null");
+
+        // ------------------------------------------------------------
+        // Fast path: replay of a payment committed recently on this instance
+        // ------------------------------------------------------------
+        Long cachedPaymentId = idempotencyCache.findPaymentId(key);
+        if (cachedPaymentId != null) {
+            log.warn(
+                    "Idempotent payment request detected (cached), returning existing payment: paymentId={}",
+                    cachedPaymentId
+            );
+            return cachedPaymentId;
+        }
+
+        // Failures can only be re-checked when this call owns the transaction
+        boolean ownsTransaction = !TransactionSynchronizationManager.isActualTransactionActive();
+        boolean skipLookup = ownsTransaction && idempotencyCache.isDefinitelyNew(key);
+
+        try {
+            return writeExecutor.execute("registerPayment", () -> doRegisterPayment(request, skipLookup));
+        } catch (RuntimeException e) {
+
+            if (!ownsTransaction) {
+                throw e;
+            }
+
+            // Lost against a payment with the same key (concurrent, or unknown to the cache)
+            PaymentEntity existing = paymentRepository.findByIdempotencyKey(key).orElse(null);
+            if (existing == null) {
+                throw e;
+            }
+
+            log.warn("Idempotency race resolved, returning existing payment: paymentId={}, error={}",
+                    existing.getId(), e.getMessage());
+            idempotencyCache.record(key, existing.getId());
+            return existing.getId();
+        }
+    }
+
+    private Long doRegisterPayment(RegisterPaymentRequest request, boolean skipLookup) {
 
-    	Objects.requireNonNull(request, "request must not be null");
-    	Objects.requireNonNull(request.getIdempotencyKey(), "idempotencyKey must not be null");
-    	
     	if (request.getAllocations().isEmpty() && !request.isMoveRemainderToBalance()) {
     	    throw new IllegalArgumentException("Payment has no allocations and no balance destination");
     	}
@@ -101,18 +172,20 @@ public class PaymentServiceImpl implements PaymentService {
     	);
 
     	// ------------------------------------------------------------
-    	// 0. Idempotency check (MUST be first)
+    	// 0. Idempotency check (MUST be first; skipped for keys the cache
+    	//    has definitely never seen)
     	// ------------------------------------------------------------
-    	PaymentEntity existing =
-    	        paymentRepository.findByIdempotencyKey(request.getIdempotencyKey())
-    	                .orElse(null);
+    	PaymentEntity existing = skipLookup
+    	        ? null
+    	        : paymentRepository.findByIdempotencyKey(request.getIdempotencyKey()).orElse(null);
 
     	if (existing != null) {
     	    log.warn(
     	            "Idempotent payment request detected, returning existing payment: paymentId={}",
     	            existing.getId()
     	    );
-    	    return; // <-- REAL early exit
+    	    idempotencyCache.record(request.getIdempotencyKey(), existing.getId());
+    	    return existing.getId(); // <-- REAL early exit
     	}
 
     	BigDecimal paymentAmount = normalize(request.getPaymentAmount());
@@ -139,89 +212,99 @@ public class PaymentServiceImpl implements PaymentService {
         }
 
         // ------------------------------------------------------------
-        // 2. Persist payment header
+        // 2. Validate allocations in memory (constant number of queries)
         // ------------------------------------------------------------
-        PaymentEntity payment = new PaymentEntity();
-        payment.setClientId(request.getClientId());
-        payment.setReceivedAt(Instant.now());
-        payment.setMethod(request.getMethod());
-        payment.setReference(request.getReference());
-        payment.setNotes(request.getNotes());
-        payment.setAmountTotal(paymentAmount);
-        payment.setStatus(PaymentStatus.RECEIVED);
-        payment.setIdempotencyKey(request.getIdempotencyKey());
-
-        try {
-            paymentRepository.save(payment);
-            log.debug("Payment persisted with id={}", payment.getId());
-        } catch (DataIntegrityViolationException ex) {
-            PaymentEntity existingRace =
-                    paymentRepository.findByIdempotencyKey(request.getIdempotencyKey())
-                            .orElseThrow();
-            log.warn("Idempotency race resolved, returning existing payment: {}", existingRace.getId());
-            return;
+        // Amount per work receiving a non-zero allocation; repeated
+        // commands for the same work are summed so they are validated
+        // (and stored) as one allocation
+        Map<Long, BigDecimal> allocations = new LinkedHashMap<>();
+        for (PaymentAllocationCommand cmd : request.getAllocations()) {
+            BigDecimal allocation = normalize(cmd.getAllocatedAmount());
+            if (allocation.compareTo(ZERO) < 0) {
+                throw new IllegalArgumentException(
+                        "Allocation must not be negative for workId=" + cmd.getWorkId()
+                );
+            }
+            if (allocation.compareTo(ZERO) != 0) {
+                allocations.merge(cmd.getWorkId(), allocation, BigDecimal::add);
+            }
         }
 
-        // ------------------------------------------------------------
-        // 3. Apply allocations (re-validate unpaid amounts)
-        // ------------------------------------------------------------
-        BigDecimal allocatedTotal = ZERO;
+        Map<Long, PriceResolution> prices =
+                workPricingService.resolveFinalPrices(allocations.keySet());
+        Map<Long, BigDecimal> cashPaid =
+                paymentStatusQuery.findCashPaidAmountsByWorkIds(allocations.keySet());
+        Map<Long, BigDecimal> balancePaid =
+                paymentStatusQuery.findBalancePaidAmountsByWorkIds(allocations.keySet());
 
-        for (PaymentAllocationCommand cmd : request.getAllocations()) {
+        BigDecimal allocatedTotal = ZERO;
 
-            BigDecimal allocation = normalize(cmd.getAllocatedAmount());
-            if (allocation.compareTo(ZERO) == 0) {
-                continue;
-            }
+        for (Map.Entry<Long, BigDecimal> entry : allocations.entrySet()) {
 
-            PriceResolution price =
-                    workPricingService.resolveFinalPrice(
-                            PriceResolutionRequest.forWork(cmd.getWorkId())
-                    );
+            Long workId = entry.getKey();
+            BigDecimal allocation = entry.getValue();
 
-            BigDecimal finalPrice = normalize(price.getFinalPrice());	
+            PriceResolution price = prices.get(workId);
+            if (price == null) {
+                throw new IllegalStateException(
+                        "No final price available for workId=" + workId
+                );
+            }
 
             BigDecimal alreadyPaid =
-                    paymentStatusQuery.findCashPaidAmountsByWorkIds(
-                            Set.of(cmd.getWorkId())
-                    ).getOrDefault(cmd.getWorkId(), ZERO)
-                    .add(
-                        paymentStatusQuery.findBalancePaidAmountsByWorkIds(
-                                Set.of(cmd.getWorkId())
-                        ).getOrDefault(cmd.getWorkId(), ZERO)
-                    );
+                    cashPaid.getOrDefault(workId, ZERO)
+                            .add(balancePaid.getOrDefault(workId, ZERO));
 
-            BigDecimal unpaid = normalize(finalPrice.subtract(alreadyPaid));
+            BigDecimal unpaid =
+                    normalize(normalize(price.getFinalPrice()).subtract(alreadyPaid));
 
             if (allocation.compareTo(unpaid) > 0) {
                 throw new IllegalStateException(
-                        "Allocation exceeds unpaid amount for workId=" + cmd.getWorkId()
+                        "Allocation exceeds unpaid amount for workId=" + workId
                 );
             }
 
-            PaymentAllocationEntity pa = new PaymentAllocationEntity();
-            pa.setPaymentId(payment.getId());
-            pa.setWorkId(cmd.getWorkId());
-            pa.setAmountApplied(allocation);
-
-            paymentAllocationRepository.save(pa);
-
             allocatedTotal = normalize(allocatedTotal.add(allocation));
-
-            log.debug(
-                    "Applied allocation: paymentId={}, workId={}, amount={}",
-                    payment.getId(),
-                    cmd.getWorkId(),
-                    allocation
-            );
         }
-        
+
         if (allocatedTotal.compareTo(paymentAmount) > 0) {
             throw new IllegalStateException(
                     "Allocated total exceeds payment amount"
             );
         }
 
+        // ------------------------------------------------------------
+        // 3. Persist payment header and allocations (one JDBC batch)
+        // ------------------------------------------------------------
+        PaymentEntity payment = new PaymentEntity();
+        payment.setClientId(request.getClientId());
+        payment.setReceivedAt(Instant.now());
+        payment.setMethod(request.getMethod());
+        payment.setReference(request.getReference());
+        payment.setNotes(request.getNotes());
+        payment.setAmountTotal(paymentAmount);
+        payment.setStatus(PaymentStatus.RECEIVED);
+        payment.setIdempotencyKey(request.getIdempotencyKey());
+
+        // A duplicate key fails here (unique constraint) and is resolved
+        // by registerPayment once this transaction has rolled back
+        paymentRepository.save(payment);
+        log.debug("Payment persisted with id={}", payment.getId());
+
+        rememberAfterCommit(request.getIdempotencyKey(), payment.getId());
+
+        if (!allocations.isEmpty()) {
+            allocationBatchWriter.insertAll(payment.getId(), allocations);
+            summaryWriter.recordCashPaid(allocations);
+        }
+
+        log.debug(
+                "Applied allocations: paymentId={}, works={}, amount={}",
+                payment.getId(),
+                allocations.size(),
+                allocatedTotal
+        );
+
         // ------------------------------------------------------------
         // 4. Handle remaining amount → client balance
         // ------------------------------------------------------------
@@ -258,6 +341,27 @@ public class PaymentServiceImpl implements PaymentService {
                 allocatedTotal,
                 remainder
         );
+
+        return payment.getId();
+    }
+
+    /**
+     * Caches the key once the payment is committed (never for a
+     * transaction that rolls back).
+     */
+    private void rememberAfterCommit(String key, Long paymentId) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            idempotencyCache.record(key, paymentId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                idempotencyCache.record(key, paymentId);
+            }
+        });
     }
 
     /**
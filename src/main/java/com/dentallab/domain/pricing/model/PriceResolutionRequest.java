@@ -9,12 +9,27 @@ public class PriceResolutionRequest {
     private final LocalDate pricingDate;
     private final String priceGroup;
 
+    /**
+     * Final price resolution only: whether the individual overrides
+     * must be loaded for traceability. When false, the materialized
+     * totals on work_price are enough.
+     */
+    private final boolean overrideDetailsRequested;
+
     public PriceResolutionRequest(Long workId,
                                   LocalDate pricingDate,
                                   String priceGroup) {
+        this(workId, pricingDate, priceGroup, false);
+    }
+
+    private PriceResolutionRequest(Long workId,
+                                   LocalDate pricingDate,
+                                   String priceGroup,
+                                   boolean overrideDetailsRequested) {
         this.workId = Objects.requireNonNull(workId);
         this.pricingDate = pricingDate;
         this.priceGroup = priceGroup;
+        this.overrideDetailsRequested = overrideDetailsRequested;
     }
     
     /**
@@ -30,8 +45,23 @@ public class PriceResolutionRequest {
 		return new PriceResolutionRequest(
 				Objects.requireNonNull(workId),
 				this.pricingDate,
-				this.priceGroup);
+				this.priceGroup,
+				this.overrideDetailsRequested);
 	}
+
+    /**
+     * Returns a copy of this request that also asks for the individual
+     * overrides (reason, author, timestamp) in the resolution.
+     *
+     * @return a new PriceResolutionRequest with override details requested
+     */
+    public PriceResolutionRequest withOverrideDetails() {
+        return new PriceResolutionRequest(
+                this.workId,
+                this.pricingDate,
+                this.priceGroup,
+                true);
+    }
     
     /**
 	 * Creates a PriceResolutionRequest for final price resolution.
@@ -61,4 +91,8 @@ public class PriceResolutionRequest {
     public String getPriceGroup() {
         return priceGroup;
     }
+
+    public boolean isOverrideDetailsRequested() {
+        return overrideDetailsRequested;
+    }
 }
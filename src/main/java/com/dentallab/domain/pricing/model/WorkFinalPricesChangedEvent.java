@@ -0,0 +1,27 @@
+package com.dentallab.domain.pricing.model;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Application event published, inside the modifying transaction, whenever
+ * the final price of one or more works changes: a base price is fixed, or
+ * an override is added, removed or recalculated.
+ *
+ * <p>
+ * Consumers holding projections that depend on the final price
+ * (e.g. the per-work payment summary) update them on receipt.
+ * </p>
+ *
+ * @param finalPrices new final price keyed by workId
+ */
+public record WorkFinalPricesChangedEvent(Map<Long, BigDecimal> finalPrices) {
+
+    public WorkFinalPricesChangedEvent {
+        finalPrices = Map.copyOf(finalPrices);
+    }
+
+    public static WorkFinalPricesChangedEvent of(Long workId, BigDecimal finalPrice) {
+        return new WorkFinalPricesChangedEvent(Map.of(workId, finalPrice));
+    }
+}
@@ -0,0 +1,272 @@
+package com.dentallab.domain.pricing.persistence;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dentallab.util.ToothSpanUtils;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * <h2>BridgeProstheticUnitsBackfillJob</h2>
+ *
+ * <hr/>
+ *
+ * <p>
+ * Verifies (and optionally repairs) the denormalized
+ * {@code bridge_work.prosthetic_units} and {@code bridge_work.teeth_span_mask}
+ * columns against the normalized source of truth, {@code bridge_tooth}.
+ * </p>
+ *
+ * <h3>Why this exists</h3>
+ *
+ * <ul>
+ *   <li>{@link FixedProsthesisPricingQuery} reads the stored unit count
+ *       instead of aggregating {@code bridge_tooth}</li>
+ *   <li>rows written before the columns existed hold {@code null}
+ *       and must be backfilled once</li>
+ *   <li>any write path that bypasses {@code BridgeWorkServiceImpl}
+ *       (manual SQL, imports) can leave the columns stale</li>
+ * </ul>
+ *
+ * <h3>How it works</h3>
+ *
+ * <ol>
+ *   <li>bridges are scanned in keyset pages ordered by {@code work_id}</li>
+ *   <li>each page costs two statements: the stored values, then the tooth
+ *       numbers of all bridges in the page ({@code IN (...)})</li>
+ *   <li>expected values are recomputed in memory and compared</li>
+ *   <li>in repair mode, only mismatching rows are updated, in the page's
+ *       own transaction</li>
+ * </ol>
+ *
+ * <p>
+ * The job can be triggered on demand ({@code GET /admin/pricing/bridge-units/verify}
+ * and {@code POST /admin/pricing/bridge-units/backfill}) or once at startup with
+ * {@code pricing.bridge-units.backfill-on-startup=true}.
+ * </p>
+ *
+ * <h3>What this class does not do</h3>
+ *
+ * <ul>
+ *   <li>it does <strong>not</strong> modify {@code bridge_tooth}</li>
+ *   <li>it does <strong>not</strong> reprice works already fixed in {@code work_price}</li>
+ * </ul>
+ */
+@Component
+public class BridgeProstheticUnitsBackfillJob implements ApplicationRunner {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(BridgeProstheticUnitsBackfillJob.class);
+
+    /** Max mismatching work ids kept in a report (the counters are exact). */
+    private static final int MAX_REPORTED_IDS = 100;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final TransactionTemplate tx;
+    private final int batchSize;
+    private final boolean backfillOnStartup;
+
+    public BridgeProstheticUnitsBackfillJob(
+            PlatformTransactionManager transactionManager,
+            @Value("${pricing.bridge-units.batch-size:500}") int batchSize,
+            @Value("${pricing.bridge-units.backfill-on-startup:false}") boolean backfillOnStartup) {
+
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("pricing.bridge-units.batch-size must be >= 1");
+        }
+
+        this.tx = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    /**
+     * Outcome of a verification / backfill run.
+     *
+     * @param scanned          bridges inspected
+     * @param mismatched       bridges whose stored values differed from {@code bridge_tooth}
+     * @param repaired         bridges updated (always 0 in verify-only mode)
+     * @param mismatchedWorkIds first mismatching work ids (capped at 100)
+     */
+    public record Report(
+            long scanned,
+            long mismatched,
+            long repaired,
+            List<Long> mismatchedWorkIds) { }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (backfillOnStartup) {
+            backfill();
+        }
+    }
+
+    /**
+     * Compares stored values with {@code bridge_tooth} without writing.
+     */
+    public Report verify() {
+        return execute(false);
+    }
+
+    /**
+     * Compares stored values with {@code bridge_tooth} and rewrites
+     * the mismatching rows.
+     */
+    public Report backfill() {
+        return execute(true);
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal
+    // ---------------------------------------------------------------------
+
+    private Report execute(boolean repair) {
+
+        long start = System.nanoTime();
+
+        long scanned = 0;
+        long mismatched = 0;
+        long repaired = 0;
+        List<Long> mismatchedIds = new ArrayList<>();
+
+        long afterWorkId = 0L;
+
+        while (true) {
+
+            final long cursor = afterWorkId;
+            PageResult page = tx.execute(status -> processPage(cursor, repair));
+
+            if (page == null || page.scanned() == 0) {
+                break;
+            }
+
+            scanned += page.scanned();
+            mismatched += page.mismatchedIds().size();
+            repaired += page.repaired();
+
+            for (Long id : page.mismatchedIds()) {
+                if (mismatchedIds.size() >= MAX_REPORTED_IDS) break;
+                mismatchedIds.add(id);
+            }
+
+            afterWorkId = page.lastWorkId();
+
+            if (page.scanned() < batchSize) {
+                break;
+            }
+        }
+
+        log.info(
+                "Bridge units {} finished: scanned={}, mismatched={}, repaired={}, tookMs={}",
+                repair ? "backfill" : "verification",
+                scanned,
+                mismatched,
+                repaired,
+                (System.nanoTime() - start) / 1_000_000
+        );
+
+        return new Report(scanned, mismatched, repaired, List.copyOf(mismatchedIds));
+    }
+
+    private record PageResult(int scanned, long lastWorkId, List<Long> mismatchedIds, int repaired) { }
+
+    private PageResult processPage(long afterWorkId, boolean repair) {
+
+        // ------------------------------------------------------------
+        // 1) Stored values for the next page of bridges
+        // ------------------------------------------------------------
+        List<Object[]> stored = em.createQuery("""
+                select bw.id, bw.prostheticUnits, bw.teethSpanMask
+                from BridgeWorkEntity bw
+                where bw.id > :after
+                order by bw.id
+                """, Object[].class)
+                .setParameter("after", afterWorkId)
+                .setMaxResults(batchSize)
+                .getResultList();
+
+        if (stored.isEmpty()) {
+            return new PageResult(0, afterWorkId, List.of(), 0);
+        }
+
+        List<Long> workIds = new ArrayList<>(stored.size());
+        for (Object[] row : stored) {
+            workIds.add((Long) row[0]);
+        }
+
+        // ------------------------------------------------------------
+        // 2) Tooth numbers of every bridge in the page, one statement
+        // ------------------------------------------------------------
+        Map<Long, List<String>> teethByWork = new HashMap<>();
+
+        em.createQuery("""
+                select bt.bridgeWork.id, bt.tooth.toothNumber
+                from BridgeToothEntity bt
+                where bt.bridgeWork.id in :workIds
+                """, Object[].class)
+                .setParameter("workIds", workIds)
+                .getResultList()
+                .forEach(row -> teethByWork
+                        .computeIfAbsent((Long) row[0], k -> new ArrayList<>())
+                        .add((String) row[1]));
+
+        // ------------------------------------------------------------
+        // 3) Compare and (optionally) repair
+        // ------------------------------------------------------------
+        List<Long> mismatchedIds = new ArrayList<>();
+        int repaired = 0;
+
+        for (Object[] row : stored) {
+
+            Long workId = (Long) row[0];
+            Integer storedUnits = (Integer) row[1];
+            Long storedMask = (Long) row[2];
+
+            List<String> teeth = teethByWork.getOrDefault(workId, List.of());
+            Integer expectedUnits = teeth.size();
+            Long expectedMask = ToothSpanUtils.spanMask(teeth);
+
+            if (Objects.equals(storedUnits, expectedUnits)
+                    && Objects.equals(storedMask, expectedMask)) {
+                continue;
+            }
+
+            log.debug(
+                    "Bridge units mismatch: workId={}, storedUnits={}, expectedUnits={}, storedMask={}, expectedMask={}",
+                    workId, storedUnits, expectedUnits, storedMask, expectedMask
+            );
+            mismatchedIds.add(workId);
+
+            if (repair) {
+                repaired += em.createQuery("""
+                        update BridgeWorkEntity bw
+                        set bw.prostheticUnits = :units,
+                            bw.teethSpanMask = :mask
+                        where bw.id = :workId
+                        """)
+                        .setParameter("units", expectedUnits)
+                        .setParameter("mask", expectedMask)
+                        .setParameter("workId", workId)
+                        .executeUpdate();
+            }
+        }
+
+        return new PageResult(stored.size(), workIds.get(workIds.size() - 1), mismatchedIds, repaired);
+    }
+}
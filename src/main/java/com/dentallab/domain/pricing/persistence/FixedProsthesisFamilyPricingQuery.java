@@ -0,0 +1,48 @@
+package com.dentallab.domain.pricing.persistence;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.dentallab.domain.pricing.model.WorkPricingView;
+import com.dentallab.domain.pricing.query.FamilyPricingQuery;
+
+/**
+ * {@link FamilyPricingQuery} strategy for the FIXED_PROSTHESIS family
+ * (crowns and bridges), backed by {@link FixedProsthesisPricingQuery}.
+ *
+ * <p>
+ * The underlying native query only joins {@code crown_work} and
+ * {@code bridge_work}, so it naturally returns nothing for works of
+ * other families.
+ * </p>
+ */
+@Component
+@Order(0)
+public class FixedProsthesisFamilyPricingQuery implements FamilyPricingQuery {
+
+    public static final String FAMILY_CODE = "FIXED_PROSTHESIS";
+
+    private final FixedProsthesisPricingQuery query;
+
+    public FixedProsthesisFamilyPricingQuery(FixedProsthesisPricingQuery query) {
+        this.query = query;
+    }
+
+    @Override
+    public String getFamilyCode() {
+        return FAMILY_CODE;
+    }
+
+    @Override
+    public WorkPricingView findByWorkId(Long workId) {
+        return query.findFixedPricing(workId);
+    }
+
+    @Override
+    public List<WorkPricingView> findByWorkIds(Collection<Long> workIds) {
+        return query.findFixedPricingByWorkIds(workIds);
+    }
+}
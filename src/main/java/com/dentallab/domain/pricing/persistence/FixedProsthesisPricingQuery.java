@@ -1,5 +1,8 @@
 package com.dentallab.domain.pricing.persistence;
 
+import java.util.Collection;
+import java.util.List;
+
 import com.dentallab.domain.pricing.model.WorkPricingView;
 import com.dentallab.persistence.entity.WorkEntity;
 
@@ -78,7 +81,8 @@ import org.springframework.stereotype.Repository;
  *
  * <p>FixedProsthesisPricingQuery is invoked by:</p>
  * <ul>
- *   <li>{@code WorkPricingQueryDispatcher}</li>
+ *   <li>{@code FixedProsthesisFamilyPricingQuery}, the FIXED_PROSTHESIS
+ *       strategy of {@code WorkPricingQueryDispatcher}</li>
  * </ul>
  *
  * <p>Which in turn is used by:</p>
@@ -136,8 +140,13 @@ public interface FixedProsthesisPricingQuery
 	 * <h3>Bridge pricing</h3>
 	 * <ul>
 	 *   <li>Bridge teeth are normalized and stored in the {@code bridge_tooth} table.</li>
-	 *   <li>The number of prosthetic units is calculated as:
+	 *   <li>The number of prosthetic units is read from the denormalized
+	 *       {@code bridge_work.prosthetic_units} column, maintained by the
+	 *       bridge upsert in the same transaction as the teeth.
+	 *       No join or {@code GROUP BY} over {@code bridge_tooth} is needed.</li>
+	 *   <li>Rows not yet backfilled ({@code prosthetic_units IS NULL}) fall back to
 	 *       <pre>COUNT(bridge_tooth.tooth_id)</pre>
+	 *       via a correlated subquery (see {@code BridgeProstheticUnitsBackfillJob}).
 	 *   </li>
 	 *   <li>Each bridge tooth is priced using crown pricing rules.</li>
 	 *   <li>For pricing purposes, the {@code workType} is forced to {@code CROWN}.</li>
@@ -182,18 +191,57 @@ public interface FixedProsthesisPricingQuery
 		        bw.constitution       AS constitution,
 		        bw.building_technique AS buildingTechnique,
 		        bw.core_material_id   AS coreMaterialId,
-		        COUNT(bt.tooth_id)    AS prostheticUnits
+		        COALESCE(
+		            bw.prosthetic_units,
+		            (SELECT COUNT(*) FROM bridge_tooth bt
+		              WHERE bt.bridge_work_id = bw.work_id)
+		        )                     AS prostheticUnits
 		    FROM work w
 		    JOIN bridge_work bw      ON bw.work_id = w.work_id
-		    JOIN bridge_tooth bt     ON bt.bridge_work_id = bw.work_id
 		    WHERE w.work_id = :workId
-		    GROUP BY
-		        w.work_id,
-		        w.work_family,
-		        bw.constitution,
-		        bw.building_technique,
-		        bw.core_material_id
 		""", nativeQuery = true)
 		WorkPricingView findFixedPricing(@Param("workId") Long workId);
 
+	/**
+	 * Set-based variant of {@link #findFixedPricing(Long)}.
+	 *
+	 * <p>
+	 * Same projection and same crown/bridge flattening rules, evaluated for
+	 * every work in {@code workIds} in a single statement.
+	 * Works that are neither crowns nor bridges are not returned.
+	 * </p>
+	 */
+	@Query(value = """
+		    SELECT
+		        w.work_id             AS workId,
+		        w.work_family         AS workFamily,
+		        w.type                AS workType,
+		        cw.constitution       AS constitution,
+		        cw.building_technique AS buildingTechnique,
+		        cw.core_material_id   AS coreMaterialId,
+		        1                     AS prostheticUnits
+		    FROM work w
+		    JOIN crown_work cw ON cw.work_id = w.work_id
+		    WHERE w.work_id IN (:workIds)
+
+		    UNION ALL
+
+		    SELECT
+		        w.work_id             AS workId,
+		        w.work_family         AS workFamily,
+		        'CROWN'               AS workType,
+		        bw.constitution       AS constitution,
+		        bw.building_technique AS buildingTechnique,
+		        bw.core_material_id   AS coreMaterialId,
+		        COALESCE(
+		            bw.prosthetic_units,
+		            (SELECT COUNT(*) FROM bridge_tooth bt
+		              WHERE bt.bridge_work_id = bw.work_id)
+		        )                     AS prostheticUnits
+		    FROM work w
+		    JOIN bridge_work bw      ON bw.work_id = w.work_id
+		    WHERE w.work_id IN (:workIds)
+		""", nativeQuery = true)
+		List<WorkPricingView> findFixedPricingByWorkIds(@Param("workIds") Collection<Long> workIds);
+
 }
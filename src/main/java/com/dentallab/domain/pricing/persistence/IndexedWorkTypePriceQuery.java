@@ -0,0 +1,246 @@
+package com.dentallab.domain.pricing.persistence;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dentallab.domain.pricing.query.WorkTypePriceQuery;
+import com.dentallab.persistence.entity.WorkTypePriceEntity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * <h2>IndexedWorkTypePriceQuery</h2>
+ *
+ * <hr/>
+ *
+ * <p>
+ * Primary {@link WorkTypePriceQuery} implementation. Resolves pricing rules
+ * from immutable in-memory {@link WorkTypePriceRuleSnapshots} (one
+ * {@link WorkTypePriceRuleIndex} per effective date range) instead of
+ * issuing one native query per lookup.
+ * </p>
+ *
+ * <p>
+ * The current snapshot set is held in an {@link AtomicReference}: lookups
+ * read it without locks or database access, and a rebuilt set replaces it
+ * atomically. Each build gets a new version number.
+ * </p>
+ *
+ * <h3>Relationship with {@link JpaWorkTypePriceQuery}</h3>
+ *
+ * <ul>
+ *   <li>{@link JpaWorkTypePriceQuery} remains the <strong>reference</strong>
+ *       definition of the pricing policy</li>
+ *   <li>this class <strong>must</strong> return the same rule for the same
+ *       input (see {@link WorkTypePriceRuleIndex} and
+ *       {@link WorkTypePriceRuleSnapshots})</li>
+ * </ul>
+ *
+ * <h3>Lifecycle of the snapshots</h3>
+ *
+ * <ol>
+ *   <li>built lazily on the first lookup, in its own read-only transaction
+ *       (only committed rules are indexed)</li>
+ *   <li>discarded whenever a {@link WorkTypePriceRulesChangedEvent} is
+ *       observed, and again once the changing transaction completes</li>
+ *   <li>rebuilt on the next lookup and swapped in atomically; concurrent
+ *       lookups wait only for that one rebuild</li>
+ * </ol>
+ *
+ * <p>
+ * A transaction that has itself modified pricing rules cannot be served
+ * from the shared index (it would not see its own uncommitted rows).
+ * For the remainder of such a transaction, lookups are delegated to
+ * {@link JpaWorkTypePriceQuery}.
+ * </p>
+ *
+ * <h3>What this class does not do</h3>
+ *
+ * <ul>
+ *   <li>it does <strong>not</strong> compute prices</li>
+ *   <li>it does <strong>not</strong> modify pricing rules</li>
+ * </ul>
+ */
+@Primary
+@Component
+public class IndexedWorkTypePriceQuery implements WorkTypePriceQuery {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(IndexedWorkTypePriceQuery.class);
+
+    /**
+     * Transaction-bound marker: "this transaction has modified pricing rules".
+     */
+    private static final Object RULES_DIRTY_KEY =
+            IndexedWorkTypePriceQuery.class.getName() + ".RULES_DIRTY";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final JpaWorkTypePriceQuery sqlQuery;
+    private final TransactionTemplate rebuildTx;
+
+    private final Object rebuildLock = new Object();
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong versions = new AtomicLong();
+
+    /** Current snapshots; {@code null} means "stale, rebuild on next lookup". */
+    private final AtomicReference<WorkTypePriceRuleSnapshots> snapshots = new AtomicReference<>();
+
+    public IndexedWorkTypePriceQuery(
+            JpaWorkTypePriceQuery sqlQuery,
+            PlatformTransactionManager transactionManager) {
+
+        this.sqlQuery = sqlQuery;
+
+        this.rebuildTx = new TransactionTemplate(transactionManager);
+        this.rebuildTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rebuildTx.setReadOnly(true);
+    }
+
+    @Override
+    public Optional<WorkTypePriceEntity> findBestMatch(
+            String workFamily,
+            String workType,
+            String priceGroup,
+            String constitution,
+            String buildingTechnique,
+            Long coreMaterialId,
+            LocalDate pricingDate) {
+
+        if (TransactionSynchronizationManager.hasResource(RULES_DIRTY_KEY)) {
+            log.debug("Pricing rules modified in current transaction; using SQL rule lookup");
+            return sqlQuery.findBestMatch(
+                    workFamily, workType, priceGroup,
+                    constitution, buildingTechnique, coreMaterialId,
+                    pricingDate);
+        }
+
+        return currentSnapshots().findBestMatch(
+                workFamily, workType, priceGroup,
+                constitution, buildingTechnique, coreMaterialId,
+                pricingDate);
+    }
+
+    /**
+     * Returns the current snapshots, rebuilding them if they have been
+     * invalidated. Lock-free unless a rebuild is needed.
+     */
+    public WorkTypePriceRuleSnapshots currentSnapshots() {
+
+        WorkTypePriceRuleSnapshots current = snapshots.get();
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (rebuildLock) {
+            current = snapshots.get();
+            if (current != null) {
+                return current;
+            }
+
+            long expectedGeneration = generation.get();
+            WorkTypePriceRuleSnapshots rebuilt = rebuild();
+
+            // Publish, then retract if rules changed while it was being built
+            // (invalidate() bumps the generation before clearing the reference)
+            if (snapshots.compareAndSet(null, rebuilt)
+                    && generation.get() != expectedGeneration) {
+                snapshots.compareAndSet(rebuilt, null);
+            }
+
+            return rebuilt;
+        }
+    }
+
+    /**
+     * Discards the current snapshots. The next lookup rebuilds them.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshots.set(null);
+    }
+
+    // ---------------------------------------------------------------------
+    // Change notifications
+    // ---------------------------------------------------------------------
+
+    /**
+     * Runs synchronously inside the modifying transaction.
+     */
+    @EventListener
+    public void onRulesChanged(WorkTypePriceRulesChangedEvent event) {
+
+        log.debug("Pricing rule changed (priceId={}); invalidating rule index", event.priceId());
+        invalidate();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(RULES_DIRTY_KEY)) {
+
+            TransactionSynchronizationManager.bindResource(RULES_DIRTY_KEY, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RULES_DIRTY_KEY);
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs once the modifying transaction has committed or rolled back,
+     * so an index built concurrently from pre-commit data is discarded.
+     */
+    @TransactionalEventListener(
+            phase = TransactionPhase.AFTER_COMPLETION,
+            fallbackExecution = true)
+    public void afterRulesChangeCompleted(WorkTypePriceRulesChangedEvent event) {
+        invalidate();
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal
+    // ---------------------------------------------------------------------
+
+    private WorkTypePriceRuleSnapshots rebuild() {
+
+        long start = System.nanoTime();
+
+        List<WorkTypePriceEntity> rules = rebuildTx.execute(status ->
+                em.createQuery("select r from WorkTypePriceEntity r", WorkTypePriceEntity.class)
+                  .getResultList()
+        );
+
+        WorkTypePriceRuleSnapshots rebuilt = WorkTypePriceRuleSnapshots.compile(
+                rules != null ? rules : List.of(),
+                versions.incrementAndGet());
+
+        log.info(
+                "Pricing rule snapshots rebuilt: version={}, rules={}, snapshots={}, tookMs={}",
+                rebuilt.getVersion(),
+                rebuilt.getRuleCount(),
+                rebuilt.getSnapshotCount(),
+                (System.nanoTime() - start) / 1_000_000
+        );
+
+        return rebuilt;
+    }
+}
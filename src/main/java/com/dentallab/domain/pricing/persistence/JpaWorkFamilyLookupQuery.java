@@ -1,5 +1,8 @@
 package com.dentallab.domain.pricing.persistence;
 
+import java.util.Collection;
+import java.util.List;
+
 import com.dentallab.domain.pricing.query.WorkFamilyLookupQuery;
 import com.dentallab.persistence.entity.WorkEntity;
 import com.dentallab.persistence.entity.WorkFamilyRefEntity;
@@ -21,4 +24,13 @@ public interface JpaWorkFamilyLookupQuery
 			""")
     @Override
     WorkFamilyRefEntity findFamilyByWorkId(@Param("workId") Long workId);
+
+	@Query("""
+			  select w.id as workId, wt.family.code as familyCode
+			  from WorkEntity w
+			  join w.type wt
+			  where w.id in :workIds
+			""")
+    @Override
+    List<WorkFamilyCode> findFamilyCodesByWorkIds(@Param("workIds") Collection<Long> workIds);
 }
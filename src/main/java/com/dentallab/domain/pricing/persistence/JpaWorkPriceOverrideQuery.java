@@ -1,7 +1,10 @@
 package com.dentallab.domain.pricing.persistence;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.dentallab.domain.pricing.query.WorkPriceOverrideQuery;
@@ -14,4 +17,17 @@ public interface JpaWorkPriceOverrideQuery
 
     @Override
     List<WorkItemPriceOverrideEntity> findByWorkPriceId(Long workPriceId);
+
+    /**
+     * Loads the overrides of many base prices in one query,
+     * in creation order so traceability lists stay stable.
+     */
+    @Override
+    @Query("""
+        select o
+        from WorkItemPriceOverrideEntity o
+        where o.workPriceId in :workPriceIds
+        order by o.workPriceId, o.overrideId
+        """)
+    List<WorkItemPriceOverrideEntity> findByWorkPriceIds(@Param("workPriceIds") Collection<Long> workPriceIds);
 }
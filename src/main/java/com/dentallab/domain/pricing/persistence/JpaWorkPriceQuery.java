@@ -1,7 +1,11 @@
 package com.dentallab.domain.pricing.persistence;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.dentallab.domain.pricing.query.WorkPriceQuery;
@@ -14,4 +18,16 @@ public interface JpaWorkPriceQuery
 
     @Override
     Optional<WorkPriceEntity> findByWorkId(Long workId);
+
+    /**
+     * Loads the fixed base prices of many works in one query.
+     * The associated work is not fetched; only its id is read.
+     */
+    @Override
+    @Query("""
+        select wp
+        from WorkPriceEntity wp
+        where wp.work.id in :workIds
+        """)
+    List<WorkPriceEntity> findByWorkIds(@Param("workIds") Collection<Long> workIds);
 }
@@ -53,6 +53,8 @@ import com.dentallab.persistence.entity.WorkTypePriceEntity;
  *     (i.e., the one with more non-null attributes)
  *   - If specificity ties, prefer the MOST RECENT rule
  *     (largest valid_from)
+ *   - If both tie, prefer the most recently created rule
+ *     (largest price_id)
  *
  * The query guarantees:
  *   - At most ONE rule is returned
@@ -70,7 +72,9 @@ import com.dentallab.persistence.entity.WorkTypePriceEntity;
  *   - WHERE conditions
  *   - ORDER BY clauses
  *
- * MUST be considered a change in PRICING POLICY and reviewed accordingly.
+ * MUST be considered a change in PRICING POLICY and reviewed accordingly,
+ * and MUST be mirrored in WorkTypePriceRuleIndex, which serves the same
+ * policy from memory (see IndexedWorkTypePriceQuery).
  */
 @Repository
 public interface JpaWorkTypePriceQuery
@@ -129,7 +133,10 @@ public interface JpaWorkTypePriceQuery
 
           -- Temporal ordering:
           -- Newer rules override older ones
-          wtp.valid_from DESC
+          wtp.valid_from DESC,
+
+          -- Deterministic tie-break
+          wtp.price_id DESC
 
         LIMIT 1
         """, nativeQuery = true)
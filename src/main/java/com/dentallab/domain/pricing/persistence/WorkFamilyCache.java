@@ -0,0 +1,57 @@
+package com.dentallab.domain.pricing.persistence;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Small, bounded LRU cache of {@code workId → work family code}.
+ *
+ * <p>
+ * A work's family is fixed at creation time, so entries never become
+ * stale in normal operation. Callers still {@link #evict(Long)} an entry
+ * when a lookup through the cached family finds nothing (e.g. the work
+ * was deleted).
+ * </p>
+ *
+ * <p>
+ * Thread-safe. Sized for the working set of recently priced works, not
+ * for the whole {@code work} table.
+ * </p>
+ */
+public class WorkFamilyCache {
+
+    private final int maxSize;
+    private final Map<Long, String> entries;
+
+    public WorkFamilyCache(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize must be >= 0");
+        }
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                return size() > WorkFamilyCache.this.maxSize;
+            }
+        };
+    }
+
+    public synchronized String get(Long workId) {
+        return entries.get(workId);
+    }
+
+    public synchronized void put(Long workId, String familyCode) {
+        if (maxSize == 0 || workId == null || familyCode == null) {
+            return;
+        }
+        entries.put(workId, familyCode);
+    }
+
+    public synchronized void evict(Long workId) {
+        entries.remove(workId);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,99 @@
+package com.dentallab.domain.pricing.persistence;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.dentallab.domain.pricing.model.BasePriceResult;
+
+/**
+ * <h2>WorkPriceBatchWriter</h2>
+ *
+ * <hr/>
+ *
+ * <p>
+ * Inserts many {@code work_price} rows with a single JDBC batch.
+ * </p>
+ *
+ * <h3>Why not JPA</h3>
+ *
+ * <p>
+ * {@code WorkPriceEntity} uses {@code IDENTITY} keys, so Hibernate must
+ * execute each insert immediately to obtain the generated id and cannot
+ * batch them. Fixed base prices are not read back in the same unit of work,
+ * so the generated ids are not needed here and a plain JDBC batch is safe.
+ * With {@code rewriteBatchedStatements=true} (MySQL) the batch is sent as
+ * one multi-row {@code INSERT}.
+ * </p>
+ *
+ * <p>
+ * The batch joins the current transaction (the JPA transaction manager
+ * exposes its connection to {@link JdbcTemplate}).
+ * </p>
+ *
+ * <h3>What this class does not do</h3>
+ *
+ * <ul>
+ *   <li>it does <strong>not</strong> check the fix-once invariant
+ *       (callers do; {@code UNIQUE(work_id)} is the last line of defense)</li>
+ *   <li>it does <strong>not</strong> update the persistence context</li>
+ * </ul>
+ */
+@Component
+public class WorkPriceBatchWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO work_price
+                (work_id, price, override_total, final_price, price_group, currency, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WorkPriceBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts one fixed base price per entry. Materialized totals start at
+     * {@code override_total = 0} and {@code final_price = price}.
+     *
+     * @param basePrices previewed base prices keyed by workId
+     */
+    public void insertAll(Map<Long, BasePriceResult> basePrices) {
+
+        List<Map.Entry<Long, BasePriceResult>> rows = new ArrayList<>(basePrices.entrySet());
+        Timestamp createdAt = Timestamp.from(Instant.now());
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Long workId = rows.get(i).getKey();
+                BasePriceResult price = rows.get(i).getValue();
+
+                ps.setLong(1, workId);
+                ps.setBigDecimal(2, price.getBasePrice());
+                ps.setBigDecimal(3, BigDecimal.ZERO);
+                ps.setBigDecimal(4, price.getBasePrice());
+                ps.setString(5, price.getPriceGroup());
+                ps.setString(6, price.getCurrency());
+                ps.setTimestamp(7, createdAt);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+}
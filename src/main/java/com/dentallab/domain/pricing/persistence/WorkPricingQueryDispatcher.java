@@ -1,11 +1,22 @@
 package com.dentallab.domain.pricing.persistence;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import com.dentallab.domain.pricing.model.WorkPricingView;
 import com.dentallab.domain.pricing.query.*;
+import com.dentallab.domain.pricing.query.WorkFamilyLookupQuery.WorkFamilyCode;
 import com.dentallab.persistence.entity.WorkFamilyRefEntity;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -36,6 +47,12 @@ import org.springframework.stereotype.Repository;
  * </ul>
  *
  * <p>
+ * Family-specific queries are {@link FamilyPricingQuery} strategies,
+ * collected from the Spring context. Supporting a new family means
+ * adding a strategy bean; this class does not change.
+ * </p>
+ *
+ * <p>
  * This ensures that:
  * </p>
  * <ul>
@@ -68,6 +85,32 @@ import org.springframework.stereotype.Repository;
  *   Which pricing query should be used to <em>describe</em> this work for pricing?
  * </blockquote>
  *
+ * <h3>Dispatch modes</h3>
+ *
+ * <p>
+ * Controlled by {@code pricing.dispatch.single-statement} (default {@code true}):
+ * </p>
+ *
+ * <ul>
+ *   <li>
+ *     <strong>single-statement</strong>: the family is taken from a bounded
+ *     {@code workId → family} cache; on a miss, strategies are probed in
+ *     {@code @Order} and the first non-empty view both answers the request
+ *     and reveals the family. The separate family lookup only runs to
+ *     explain a failure (work missing or family unsupported).
+ *   </li>
+ *   <li>
+ *     <strong>lookup</strong> (legacy): the family is always determined
+ *     first (cache, then {@link WorkFamilyLookupQuery}), then dispatched.
+ *   </li>
+ * </ul>
+ *
+ * <p>
+ * With a single supported family, the common path is exactly
+ * <strong>one</strong> statement per work (or per batch).
+ * The cache size is {@code pricing.dispatch.family-cache-size}.
+ * </p>
+ *
  * <h3>Where it fits in the pricing pipeline</h3>
  *
  * <pre>
@@ -100,10 +143,10 @@ public class WorkPricingQueryDispatcher implements WorkPricingQuery {
             LoggerFactory.getLogger(WorkPricingQueryDispatcher.class);
 
     /**
-     * Pricing query for FIXED_PROSTHESIS family.
-     * Handles crowns, bridges, and other fixed restorations.
+     * Family-specific pricing queries, keyed by family code,
+     * in probing order.
      */
-    private final FixedProsthesisPricingQuery fixedQuery;
+    private final Map<String, FamilyPricingQuery> strategies;
 
     /**
      * Lightweight lookup used to determine the work family
@@ -111,19 +154,49 @@ public class WorkPricingQueryDispatcher implements WorkPricingQuery {
      */
     private final WorkFamilyLookupQuery familyLookup;
 
+    /**
+     * Bounded workId → family code cache.
+     */
+    private final WorkFamilyCache familyCache;
+
+    private final boolean singleStatement;
+
     public WorkPricingQueryDispatcher(
-            FixedProsthesisPricingQuery fixedQuery,
-            WorkFamilyLookupQuery familyLookup) {
+            List<FamilyPricingQuery> strategies,
+            WorkFamilyLookupQuery familyLookup,
+            @Value("${pricing.dispatch.single-statement:true}") boolean singleStatement,
+            @Value("${pricing.dispatch.family-cache-size:10000}") int familyCacheSize) {
+
+        Map<String, FamilyPricingQuery> byFamily = new LinkedHashMap<>();
+        for (FamilyPricingQuery strategy : strategies) {
+            FamilyPricingQuery previous = byFamily.putIfAbsent(strategy.getFamilyCode(), strategy);
+            if (previous != null) {
+                throw new IllegalStateException(
+                        "Duplicate pricing query for family " + strategy.getFamilyCode()
+                                + ": " + previous.getClass().getSimpleName()
+                                + " and " + strategy.getClass().getSimpleName()
+                );
+            }
+        }
 
-        this.fixedQuery = fixedQuery;
+        this.strategies = byFamily;
         this.familyLookup = familyLookup;
+        this.familyCache = new WorkFamilyCache(familyCacheSize);
+        this.singleStatement = singleStatement;
+
+        log.info(
+                "Pricing dispatcher initialized: families={}, singleStatement={}, familyCacheSize={}",
+                byFamily.keySet(),
+                singleStatement,
+                familyCacheSize
+        );
     }
 
     /**
      * Retrieves a pricing identity (WorkPricingView) for a given work.
      *
      * Resolution steps:
-     *  1. Determine the work family
+     *  1. Determine the work family (cache, probe or lookup, see class doc)
      *  2. Dispatch to the family-specific pricing query
      *  3. Return a normalized pricing view
      *
@@ -132,8 +205,8 @@ public class WorkPricingQueryDispatcher implements WorkPricingQuery {
      *
      * @param workId the identifier of the work
      * @return a WorkPricingView describing pricing-relevant attributes
-     * @throws IllegalStateException if pricing is not implemented
-     *                               for the work family
+     * @throws IllegalStateException if the work does not exist, or pricing
+     *                               is not implemented for the work family
      */
     @Override
     public WorkPricingView findByWorkId(Long workId) {
@@ -141,38 +214,210 @@ public class WorkPricingQueryDispatcher implements WorkPricingQuery {
         log.debug("Dispatching pricing query for workId={}", workId);
 
         // -----------------------------------------------------------------
-        // 1) Determine work family
+        // 1) Known family: dispatch directly (one statement)
         // -----------------------------------------------------------------
-        WorkFamilyRefEntity family = familyLookup.findFamilyByWorkId(workId);
+        String cachedFamily = familyCache.get(workId);
 
-        if (family.getCode() == null) {
-            log.error("Cannot resolve pricing parameters: work not found (id={})", workId);
-            throw new IllegalStateException(
-                    "Cannot resolve pricing parameters: work not found (id=" + workId + ")"
-            );
+        if (cachedFamily != null) {
+            WorkPricingView view = strategyFor(cachedFamily).findByWorkId(workId);
+            if (view != null) {
+                return view;
+            }
+            // Work vanished (or cache is wrong): forget and resolve again
+            familyCache.evict(workId);
         }
 
-        log.debug("Work family resolved for workId={}: {}", workId, family.getCode());
+        // -----------------------------------------------------------------
+        // 2) Single-statement mode: probe strategies
+        // -----------------------------------------------------------------
+        if (singleStatement) {
+            for (FamilyPricingQuery strategy : strategies.values()) {
+                WorkPricingView view = strategy.findByWorkId(workId);
+                if (view != null) {
+                    familyCache.put(workId, familyOf(view, strategy));
+                    return view;
+                }
+            }
+        }
 
         // -----------------------------------------------------------------
-        // 2) Dispatch to family-specific pricing query
+        // 3) Determine family explicitly, then dispatch
         // -----------------------------------------------------------------
-        if ("FIXED_PROSTHESIS".equals(family.getCode())) {
-            log.debug("Using FixedProsthesisPricingQuery for workId={}", workId);
-            return fixedQuery.findFixedPricing(workId);
+        String familyCode = lookupFamily(workId);
+
+        log.debug("Work family resolved for workId={}: {}", workId, familyCode);
+
+        FamilyPricingQuery strategy = strategyFor(familyCode);
+
+        if (singleStatement) {
+            // Already probed with no result: family is supported, but the
+            // work has no pricing extension (e.g. crown_work row missing)
+            return null;
         }
 
+        WorkPricingView view = strategy.findByWorkId(workId);
+        if (view != null) {
+            familyCache.put(workId, familyCode);
+        }
+        return view;
+    }
+
+    /**
+     * Set-based variant of {@link #findByWorkId(Long)}.
+     *
+     * Resolution steps:
+     *  1. Group works whose family is cached and dispatch each group
+     *     (one query per family)
+     *  2. Resolve the remaining works by probing (single-statement mode)
+     *     or by one family lookup query followed by dispatch (lookup mode)
+     *  3. Return the views keyed by workId, in request order
+     *
+     * Works that do not exist are absent from the result.
+     *
+     * @throws IllegalStateException if any work belongs to a family
+     *                               for which pricing is not implemented
+     */
+    @Override
+    public Map<Long, WorkPricingView> findByWorkIds(Collection<Long> workIds) {
+
+        if (workIds == null || workIds.isEmpty()) {
+            return Map.of();
+        }
+
+        log.debug("Dispatching batch pricing query for {} works", workIds.size());
+
+        Map<Long, WorkPricingView> byId = new HashMap<>();
+        Set<Long> pending = new LinkedHashSet<>(workIds);
+
         // -----------------------------------------------------------------
-        // 3) Fail fast for unsupported families
+        // 1) Works with a cached family
         // -----------------------------------------------------------------
-        log.error(
-                "Pricing parameters extraction not implemented for work family={} (workId={})",
-                family,
-                workId
-        );
+        Map<String, List<Long>> cachedGroups = new LinkedHashMap<>();
+        for (Long workId : pending) {
+            String family = familyCache.get(workId);
+            if (family != null) {
+                cachedGroups.computeIfAbsent(family, f -> new ArrayList<>()).add(workId);
+            }
+        }
 
-        throw new IllegalStateException(
-                "Pricing not implemented for family: " + family.getCode()
-        );
+        for (Map.Entry<String, List<Long>> group : cachedGroups.entrySet()) {
+            collect(strategyFor(group.getKey()).findByWorkIds(group.getValue()), byId, pending, group.getKey());
+        }
+
+        // Cached works that returned nothing: forget them, resolve again
+        for (List<Long> ids : cachedGroups.values()) {
+            for (Long workId : ids) {
+                if (pending.contains(workId)) {
+                    familyCache.evict(workId);
+                }
+            }
+        }
+
+        // -----------------------------------------------------------------
+        // 2) Remaining works
+        // -----------------------------------------------------------------
+        if (!pending.isEmpty() && singleStatement) {
+            for (FamilyPricingQuery strategy : strategies.values()) {
+                if (pending.isEmpty()) {
+                    break;
+                }
+                collect(strategy.findByWorkIds(List.copyOf(pending)), byId, pending, strategy.getFamilyCode());
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            Map<String, List<Long>> lookedUp = new LinkedHashMap<>();
+
+            for (WorkFamilyCode row : familyLookup.findFamilyCodesByWorkIds(pending)) {
+                // Fails fast for unsupported families
+                strategyFor(row.getFamilyCode());
+                lookedUp.computeIfAbsent(row.getFamilyCode(), f -> new ArrayList<>()).add(row.getWorkId());
+            }
+
+            if (!singleStatement) {
+                for (Map.Entry<String, List<Long>> group : lookedUp.entrySet()) {
+                    collect(strategyFor(group.getKey()).findByWorkIds(group.getValue()), byId, pending, group.getKey());
+                }
+            }
+        }
+
+        // -----------------------------------------------------------------
+        // 3) Preserve request order
+        // -----------------------------------------------------------------
+        Map<Long, WorkPricingView> ordered = new LinkedHashMap<>();
+        for (Long workId : workIds) {
+            WorkPricingView view = byId.get(workId);
+            if (view != null) {
+                ordered.put(workId, view);
+            }
+        }
+
+        log.debug("Batch pricing query resolved {} of {} works", ordered.size(), workIds.size());
+
+        return ordered;
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal
+    // ---------------------------------------------------------------------
+
+    private void collect(List<WorkPricingView> views,
+                         Map<Long, WorkPricingView> byId,
+                         Set<Long> pending,
+                         String familyCode) {
+
+        for (WorkPricingView view : views) {
+            byId.put(view.getWorkId(), view);
+            pending.remove(view.getWorkId());
+            familyCache.put(view.getWorkId(), view.getWorkFamily() != null ? view.getWorkFamily() : familyCode);
+        }
+    }
+
+    private String familyOf(WorkPricingView view, FamilyPricingQuery strategy) {
+        return view.getWorkFamily() != null ? view.getWorkFamily() : strategy.getFamilyCode();
+    }
+
+    /**
+     * Resolves the family code through the cache or the lookup query.
+     *
+     * @throws IllegalStateException if the work does not exist
+     */
+    private String lookupFamily(Long workId) {
+
+        String cached = familyCache.get(workId);
+        if (cached != null) {
+            return cached;
+        }
+
+        WorkFamilyRefEntity family = familyLookup.findFamilyByWorkId(workId);
+
+        if (family == null || family.getCode() == null) {
+            log.error("Cannot resolve pricing parameters: work not found (id={})", workId);
+            throw new IllegalStateException(
+                    "Cannot resolve pricing parameters: work not found (id=" + workId + ")"
+            );
+        }
+
+        return family.getCode();
+    }
+
+    /**
+     * @throws IllegalStateException if no strategy exists for the family
+     */
+    private FamilyPricingQuery strategyFor(String familyCode) {
+
+        FamilyPricingQuery strategy = strategies.get(familyCode);
+
+        if (strategy == null) {
+            log.error(
+                    "Pricing parameters extraction not implemented for work family={}",
+                    familyCode
+            );
+            throw new IllegalStateException(
+                    "Pricing not implemented for family: " + familyCode
+            );
+        }
+
+        return strategy;
     }
 }
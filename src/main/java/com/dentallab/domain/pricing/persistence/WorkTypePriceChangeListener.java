@@ -0,0 +1,41 @@
+package com.dentallab.domain.pricing.persistence;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.dentallab.persistence.entity.WorkTypePriceEntity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA entity listener attached to {@link WorkTypePriceEntity}.
+ *
+ * <p>
+ * Translates persistence lifecycle callbacks into a
+ * {@link WorkTypePriceRulesChangedEvent} so that in-memory rule indexes
+ * can be invalidated without the entity depending on them.
+ * </p>
+ *
+ * <p>
+ * Hibernate obtains this listener from the Spring container, so it can
+ * use constructor injection like any other component.
+ * </p>
+ */
+@Component
+public class WorkTypePriceChangeListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    public WorkTypePriceChangeListener(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onRuleChanged(WorkTypePriceEntity rule) {
+        publisher.publishEvent(new WorkTypePriceRulesChangedEvent(rule.getPriceId()));
+    }
+}
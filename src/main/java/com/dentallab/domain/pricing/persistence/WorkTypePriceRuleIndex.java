@@ -0,0 +1,255 @@
+package com.dentallab.domain.pricing.persistence;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import com.dentallab.persistence.entity.WorkTypePriceEntity;
+
+/**
+ * <h2>WorkTypePriceRuleIndex</h2>
+ *
+ * <hr/>
+ *
+ * <p>
+ * Immutable, pre-compiled in-memory view of the {@code work_type_price}
+ * table, used to select the most applicable pricing rule without a
+ * database round-trip.
+ * </p>
+ *
+ * <h3>Structure</h3>
+ *
+ * <ul>
+ *   <li>rules are bucketed by their exact-match identity
+ *       {@code (work_family, work_type, price_group)}</li>
+ *   <li>each bucket is pre-sorted with {@link #SELECTION_ORDER}</li>
+ *   <li>a lookup walks its bucket and returns the <strong>first</strong>
+ *       eligible rule</li>
+ * </ul>
+ *
+ * <h3>Equivalence with the SQL policy</h3>
+ *
+ * <p>
+ * {@link #SELECTION_ORDER} mirrors the {@code ORDER BY} clause of
+ * {@link JpaWorkTypePriceQuery#findBestMatch} column by column:
+ * </p>
+ *
+ * <pre>
+ *   (constitution IS NOT NULL)       DESC
+ *   (building_technique IS NOT NULL) DESC
+ *   (core_material_id IS NOT NULL)   DESC
+ *   valid_from                       DESC
+ *   price_id                         DESC   (deterministic tie-break)
+ * </pre>
+ *
+ * <p>
+ * Eligibility mirrors the SQL {@code WHERE} clause: a {@code NULL} rule
+ * attribute is a wildcard, a non-null rule attribute only matches an
+ * equal, non-null requested value.
+ * </p>
+ *
+ * <p>
+ * Any change to the SQL policy <strong>must</strong> be reflected here
+ * (and vice versa). The equivalence test suite guards this contract.
+ * </p>
+ *
+ * <h3>Thread-safety</h3>
+ *
+ * <p>
+ * Instances are never mutated after {@link #compile(Collection)} and can be
+ * shared freely between threads.
+ * </p>
+ */
+public final class WorkTypePriceRuleIndex {
+
+    /**
+     * Rule ordering policy. The first eligible rule in this order wins.
+     */
+    public static final Comparator<WorkTypePriceEntity> SELECTION_ORDER =
+            Comparator.<WorkTypePriceEntity>comparingInt(r -> r.getConstitution() != null ? 0 : 1)
+                    .thenComparingInt(r -> r.getBuildingTechnique() != null ? 0 : 1)
+                    .thenComparingInt(r -> r.getCoreMaterialId() != null ? 0 : 1)
+                    .thenComparing(WorkTypePriceEntity::getValidFrom, Comparator.reverseOrder())
+                    .thenComparing(WorkTypePriceEntity::getPriceId,
+                            Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private static final WorkTypePriceRuleIndex EMPTY =
+            new WorkTypePriceRuleIndex(Map.of(), 0, Instant.EPOCH);
+
+    private final Map<RuleKey, List<WorkTypePriceEntity>> buckets;
+    private final int ruleCount;
+    private final Instant builtAt;
+
+    private WorkTypePriceRuleIndex(
+            Map<RuleKey, List<WorkTypePriceEntity>> buckets,
+            int ruleCount,
+            Instant builtAt) {
+
+        this.buckets = buckets;
+        this.ruleCount = ruleCount;
+        this.builtAt = builtAt;
+    }
+
+    /**
+     * @return an index with no rules (every lookup misses)
+     */
+    public static WorkTypePriceRuleIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Compiles an index from the full set of pricing rules.
+     *
+     * @param rules every row of {@code work_type_price}
+     * @return an immutable index
+     */
+    public static WorkTypePriceRuleIndex compile(Collection<WorkTypePriceEntity> rules) {
+
+        Map<RuleKey, List<WorkTypePriceEntity>> grouped = new HashMap<>();
+
+        for (WorkTypePriceEntity rule : rules) {
+            RuleKey key = new RuleKey(rule.getWorkFamily(), rule.getWorkType(), rule.getPriceGroup());
+            grouped.computeIfAbsent(key, k -> new ArrayList<>()).add(rule);
+        }
+
+        Map<RuleKey, List<WorkTypePriceEntity>> compiled = new HashMap<>(grouped.size() * 2);
+        for (Map.Entry<RuleKey, List<WorkTypePriceEntity>> e : grouped.entrySet()) {
+            List<WorkTypePriceEntity> bucket = e.getValue();
+            bucket.sort(SELECTION_ORDER);
+            compiled.put(e.getKey(), List.copyOf(bucket));
+        }
+
+        return new WorkTypePriceRuleIndex(Map.copyOf(compiled), rules.size(), Instant.now());
+    }
+
+    /**
+     * Compiles a new index made of this index's rules plus the given
+     * candidate rules. This index is left untouched.
+     *
+     * <p>
+     * A candidate <strong>supersedes</strong> every existing rule with the
+     * same full identity (family, type, group, constitution, technique,
+     * core material and {@code valid_from}); otherwise both are kept and
+     * {@link #SELECTION_ORDER} decides as usual.
+     * </p>
+     *
+     * @param candidates rules that are not (yet) persisted
+     * @return an immutable index
+     */
+    public WorkTypePriceRuleIndex withCandidates(Collection<WorkTypePriceEntity> candidates) {
+
+        Set<RuleIdentity> superseded = new HashSet<>();
+        for (WorkTypePriceEntity candidate : candidates) {
+            superseded.add(RuleIdentity.of(candidate));
+        }
+
+        List<WorkTypePriceEntity> merged = new ArrayList<>(ruleCount + candidates.size());
+        for (List<WorkTypePriceEntity> bucket : buckets.values()) {
+            for (WorkTypePriceEntity rule : bucket) {
+                if (!superseded.contains(RuleIdentity.of(rule))) {
+                    merged.add(rule);
+                }
+            }
+        }
+        merged.addAll(candidates);
+
+        return compile(merged);
+    }
+
+    /**
+     * Selects the most applicable rule, following exactly the contract of
+     * {@link JpaWorkTypePriceQuery#findBestMatch}.
+     */
+    public Optional<WorkTypePriceEntity> findBestMatch(
+            String workFamily,
+            String workType,
+            String priceGroup,
+            String constitution,
+            String buildingTechnique,
+            Long coreMaterialId,
+            LocalDate pricingDate) {
+
+        if (workFamily == null || workType == null || priceGroup == null || pricingDate == null) {
+            // Mirrors SQL semantics: "= NULL" / "<= NULL" never match
+            return Optional.empty();
+        }
+
+        List<WorkTypePriceEntity> bucket =
+                buckets.get(new RuleKey(workFamily, workType, priceGroup));
+
+        if (bucket == null) {
+            return Optional.empty();
+        }
+
+        for (WorkTypePriceEntity rule : bucket) {
+            if (rule.getValidFrom().isAfter(pricingDate)) continue;
+            if (!wildcardMatches(rule.getConstitution(), constitution)) continue;
+            if (!wildcardMatches(rule.getBuildingTechnique(), buildingTechnique)) continue;
+            if (!wildcardMatches(rule.getCoreMaterialId(), coreMaterialId)) continue;
+            return Optional.of(rule);
+        }
+
+        return Optional.empty();
+    }
+
+    public int getRuleCount() {
+        return ruleCount;
+    }
+
+    public int getBucketCount() {
+        return buckets.size();
+    }
+
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+
+    private static boolean wildcardMatches(Object ruleValue, Object requested) {
+        return ruleValue == null || ruleValue.equals(requested);
+    }
+
+    /**
+     * Full identity of a rule, used to let candidates supersede rules.
+     */
+    private record RuleIdentity(
+            String workFamily,
+            String workType,
+            String priceGroup,
+            String constitution,
+            String buildingTechnique,
+            Long coreMaterialId,
+            LocalDate validFrom) {
+
+        static RuleIdentity of(WorkTypePriceEntity rule) {
+            return new RuleIdentity(
+                    rule.getWorkFamily(),
+                    rule.getWorkType(),
+                    rule.getPriceGroup(),
+                    rule.getConstitution(),
+                    rule.getBuildingTechnique(),
+                    rule.getCoreMaterialId(),
+                    rule.getValidFrom());
+        }
+    }
+
+    /**
+     * Exact-match identity of a rule bucket.
+     */
+    private record RuleKey(String workFamily, String workType, String priceGroup) {
+
+        private RuleKey {
+            Objects.requireNonNull(workFamily);
+            Objects.requireNonNull(workType);
+            Objects.requireNonNull(priceGroup);
+        }
+    }
+}
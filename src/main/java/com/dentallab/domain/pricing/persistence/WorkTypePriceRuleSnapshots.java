@@ -0,0 +1,219 @@
+package com.dentallab.domain.pricing.persistence;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import com.dentallab.persistence.entity.WorkTypePriceEntity;
+
+/**
+ * <h2>WorkTypePriceRuleSnapshots</h2>
+ *
+ * <hr/>
+ *
+ * <p>
+ * Immutable, versioned set of date-effective rule snapshots compiled from
+ * the {@code work_type_price} table.
+ * </p>
+ *
+ * <h3>Structure</h3>
+ *
+ * <ul>
+ *   <li>the distinct {@code valid_from} dates split the timeline into
+ *       effective ranges {@code [d(i), d(i+1))}</li>
+ *   <li>each range has its own {@link WorkTypePriceRuleIndex}, holding only
+ *       the rules that can win in that range</li>
+ *   <li>a lookup picks the range with a binary search over the sorted
+ *       {@code valid_from} dates, then walks one bucket of that snapshot</li>
+ * </ul>
+ *
+ * <h3>Pruning</h3>
+ *
+ * <p>
+ * Two rules with the same family, type, group, constitution, technique
+ * and core material are eligible for exactly the same inputs, and
+ * {@link WorkTypePriceRuleIndex#SELECTION_ORDER} always prefers the newer
+ * {@code valid_from} (then the higher {@code price_id}). Within a range,
+ * only the preferred one of such rules is kept; superseded rules are only
+ * present in the snapshots of earlier ranges. Selection is therefore the
+ * same as with the full rule set.
+ * </p>
+ *
+ * <h3>Thread-safety</h3>
+ *
+ * <p>
+ * Instances are never mutated after {@link #compile(Collection, long)}
+ * and can be shared freely between threads.
+ * </p>
+ */
+public final class WorkTypePriceRuleSnapshots {
+
+    private static final WorkTypePriceRuleSnapshots EMPTY =
+            new WorkTypePriceRuleSnapshots(0L, Instant.EPOCH, 0, new LocalDate[0], new WorkTypePriceRuleIndex[0]);
+
+    private final long version;
+    private final Instant builtAt;
+    private final int ruleCount;
+
+    /** Start of each effective range, ascending. */
+    private final LocalDate[] effectiveFrom;
+
+    /** Snapshot of each range, aligned with {@link #effectiveFrom}. */
+    private final WorkTypePriceRuleIndex[] snapshots;
+
+    private WorkTypePriceRuleSnapshots(
+            long version,
+            Instant builtAt,
+            int ruleCount,
+            LocalDate[] effectiveFrom,
+            WorkTypePriceRuleIndex[] snapshots) {
+
+        this.version = version;
+        this.builtAt = builtAt;
+        this.ruleCount = ruleCount;
+        this.effectiveFrom = effectiveFrom;
+        this.snapshots = snapshots;
+    }
+
+    /**
+     * @return a snapshot set with no rules (every lookup misses)
+     */
+    public static WorkTypePriceRuleSnapshots empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Compiles one snapshot per effective range.
+     *
+     * @param rules   every row of {@code work_type_price}
+     * @param version version number exposed for diagnostics
+     * @return an immutable snapshot set
+     */
+    public static WorkTypePriceRuleSnapshots compile(Collection<WorkTypePriceEntity> rules, long version) {
+
+        // -----------------------------------------------------------------
+        // 1) Group rules by the date they become effective
+        // -----------------------------------------------------------------
+        TreeMap<LocalDate, List<WorkTypePriceEntity>> byValidFrom = new TreeMap<>();
+        for (WorkTypePriceEntity rule : rules) {
+            byValidFrom.computeIfAbsent(rule.getValidFrom(), d -> new ArrayList<>()).add(rule);
+        }
+
+        LocalDate[] starts = new LocalDate[byValidFrom.size()];
+        WorkTypePriceRuleIndex[] compiled = new WorkTypePriceRuleIndex[byValidFrom.size()];
+
+        // -----------------------------------------------------------------
+        // 2) Walk the timeline, keeping the preferred rule per slot
+        // -----------------------------------------------------------------
+        Map<RuleSlot, WorkTypePriceEntity> effective = new HashMap<>();
+        int i = 0;
+
+        for (Map.Entry<LocalDate, List<WorkTypePriceEntity>> range : byValidFrom.entrySet()) {
+
+            for (WorkTypePriceEntity rule : range.getValue()) {
+                effective.merge(RuleSlot.of(rule), rule, (kept, candidate) ->
+                        WorkTypePriceRuleIndex.SELECTION_ORDER.compare(candidate, kept) < 0 ? candidate : kept);
+            }
+
+            starts[i] = range.getKey();
+            compiled[i] = WorkTypePriceRuleIndex.compile(effective.values());
+            i++;
+        }
+
+        return new WorkTypePriceRuleSnapshots(version, Instant.now(), rules.size(), starts, compiled);
+    }
+
+    /**
+     * Returns the snapshot effective at the given date.
+     *
+     * @param pricingDate date of the lookup
+     * @return the snapshot of the range containing the date
+     *         (an empty index before the first {@code valid_from})
+     */
+    public WorkTypePriceRuleIndex snapshotAt(LocalDate pricingDate) {
+
+        int pos = Arrays.binarySearch(effectiveFrom, pricingDate);
+
+        // Exact hit: the range starts that day; otherwise: the range before
+        int range = pos >= 0 ? pos : -pos - 2;
+
+        return range >= 0 ? snapshots[range] : WorkTypePriceRuleIndex.empty();
+    }
+
+    /**
+     * Selects the most applicable rule, following exactly the contract of
+     * {@link JpaWorkTypePriceQuery#findBestMatch}.
+     */
+    public Optional<WorkTypePriceEntity> findBestMatch(
+            String workFamily,
+            String workType,
+            String priceGroup,
+            String constitution,
+            String buildingTechnique,
+            Long coreMaterialId,
+            LocalDate pricingDate) {
+
+        if (pricingDate == null) {
+            // Mirrors SQL semantics: "<= NULL" never matches
+            return Optional.empty();
+        }
+
+        return snapshotAt(pricingDate).findBestMatch(
+                workFamily, workType, priceGroup,
+                constitution, buildingTechnique, coreMaterialId,
+                pricingDate);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+
+    public int getRuleCount() {
+        return ruleCount;
+    }
+
+    public int getSnapshotCount() {
+        return snapshots.length;
+    }
+
+    /**
+     * @return start date of every effective range, ascending
+     */
+    public List<LocalDate> getEffectiveDates() {
+        return List.of(effectiveFrom);
+    }
+
+    /**
+     * Rules competing for the same inputs; only the preferred one is kept
+     * per effective range.
+     */
+    private record RuleSlot(
+            String workFamily,
+            String workType,
+            String priceGroup,
+            String constitution,
+            String buildingTechnique,
+            Long coreMaterialId) {
+
+        static RuleSlot of(WorkTypePriceEntity rule) {
+            return new RuleSlot(
+                    rule.getWorkFamily(),
+                    rule.getWorkType(),
+                    rule.getPriceGroup(),
+                    rule.getConstitution(),
+                    rule.getBuildingTechnique(),
+                    rule.getCoreMaterialId());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.dentallab.domain.pricing.persistence;
+
+/**
+ * Application event published whenever a row of {@code work_type_price}
+ * is inserted, updated or deleted through JPA.
+ *
+ * <p>
+ * Consumers holding derived, in-memory views of pricing rules
+ * (e.g. {@link IndexedWorkTypePriceQuery}) must discard them on receipt.
+ * </p>
+ *
+ * @param priceId id of the changed rule (may be {@code null} for bulk changes)
+ */
+public record WorkTypePriceRulesChangedEvent(Long priceId) {
+}
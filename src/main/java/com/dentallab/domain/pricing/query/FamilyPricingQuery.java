@@ -0,0 +1,41 @@
+package com.dentallab.domain.pricing.query;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.dentallab.domain.pricing.model.WorkPricingView;
+
+/**
+ * Family-specific source of {@link WorkPricingView}s.
+ *
+ * <p>
+ * One implementation exists per supported work family. Implementations are
+ * discovered as Spring beans by the pricing dispatcher, so adding a family
+ * means adding a bean, not editing the dispatcher.
+ * </p>
+ *
+ * <p>
+ * Implementations <strong>must</strong> only return works of their own
+ * family, and the returned view <strong>must</strong> carry the family code
+ * ({@link WorkPricingView#getWorkFamily()}). The dispatcher relies on this
+ * to identify a work's family from the pricing query itself.
+ * </p>
+ */
+public interface FamilyPricingQuery {
+
+    /**
+     * @return the work_family_ref code served by this query (e.g. FIXED_PROSTHESIS)
+     */
+    String getFamilyCode();
+
+    /**
+     * @return the pricing view, or {@code null} if the work does not exist
+     *         or does not belong to this family
+     */
+    WorkPricingView findByWorkId(Long workId);
+
+    /**
+     * Set-based variant. Works not belonging to this family are not returned.
+     */
+    List<WorkPricingView> findByWorkIds(Collection<Long> workIds);
+}
@@ -1,9 +1,26 @@
 package com.dentallab.domain.pricing.query;
 
+import java.util.Collection;
+import java.util.List;
+
 import com.dentallab.persistence.entity.WorkFamilyRefEntity;
 
 public interface WorkFamilyLookupQuery {
 
     WorkFamilyRefEntity findFamilyByWorkId(Long workId);
 
+    /**
+     * Set-based family lookup. Works that do not exist are not returned.
+     */
+    List<WorkFamilyCode> findFamilyCodesByWorkIds(Collection<Long> workIds);
+
+    /**
+     * Projection: (workId, family code).
+     */
+    interface WorkFamilyCode {
+
+        Long getWorkId();
+
+        String getFamilyCode();
+    }
 }
@@ -1,5 +1,6 @@
 package com.dentallab.domain.pricing.query;
 
+import java.util.Collection;
 import java.util.List;
 
 import com.dentallab.persistence.entity.WorkItemPriceOverrideEntity;
@@ -8,4 +9,6 @@ public interface WorkPriceOverrideQuery {
 
     List<WorkItemPriceOverrideEntity> findByWorkPriceId(Long workPriceId);
 
+    List<WorkItemPriceOverrideEntity> findByWorkPriceIds(Collection<Long> workPriceIds);
+
 }
@@ -1,5 +1,7 @@
 package com.dentallab.domain.pricing.query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import com.dentallab.persistence.entity.WorkPriceEntity;
@@ -8,4 +10,6 @@ public interface WorkPriceQuery {
 
     Optional<WorkPriceEntity> findByWorkId(Long workId);
 
+    List<WorkPriceEntity> findByWorkIds(Collection<Long> workIds);
+
 }
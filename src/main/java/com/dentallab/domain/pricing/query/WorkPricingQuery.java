@@ -1,9 +1,35 @@
 package com.dentallab.domain.pricing.query;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import com.dentallab.domain.pricing.model.WorkPricingView;
 
 public interface WorkPricingQuery {
 
     WorkPricingView findByWorkId(Long workId);
 
+    /**
+     * Set-based variant of {@link #findByWorkId(Long)}.
+     *
+     * <p>
+     * Works that do not exist are simply absent from the returned map.
+     * Implementations are expected to override this with a constant
+     * number of queries; the default falls back to one lookup per work.
+     * </p>
+     *
+     * @param workIds works to describe
+     * @return pricing views keyed by workId
+     */
+    default Map<Long, WorkPricingView> findByWorkIds(Collection<Long> workIds) {
+        Map<Long, WorkPricingView> views = new LinkedHashMap<>();
+        for (Long workId : workIds) {
+            WorkPricingView view = findByWorkId(workId);
+            if (view != null) {
+                views.put(workId, view);
+            }
+        }
+        return views;
+    }
 }
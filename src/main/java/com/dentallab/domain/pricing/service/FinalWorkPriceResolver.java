@@ -1,5 +1,8 @@
 package com.dentallab.domain.pricing.service;
 
+import java.util.Collection;
+import java.util.Map;
+
 import com.dentallab.domain.pricing.model.PriceResolution;
 import com.dentallab.domain.pricing.model.PriceResolutionRequest;
 
@@ -13,4 +16,12 @@ public interface FinalWorkPriceResolver {
 
     PriceResolution resolve(PriceResolutionRequest request);
 
+    /**
+     * Set-based variant of {@link #resolve(PriceResolutionRequest)}.
+     *
+     * @param workIds works whose final price is requested
+     * @return final prices keyed by workId, in iteration order of {@code workIds}
+     */
+    Map<Long, PriceResolution> resolveAll(Collection<Long> workIds);
+
 }
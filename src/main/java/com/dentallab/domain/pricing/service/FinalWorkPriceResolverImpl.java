@@ -3,6 +3,7 @@ package com.dentallab.domain.pricing.service;
 import com.dentallab.domain.pricing.model.*;
 import com.dentallab.domain.pricing.query.*;
 import com.dentallab.persistence.entity.WorkItemPriceOverrideEntity;
+import com.dentallab.persistence.entity.WorkPriceEntity;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,7 +11,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * <strong>FinalWorkPriceResolverImpl</strong>
@@ -35,11 +41,23 @@ import java.util.List;
  * <p>Its <strong>ONLY</strong> responsibility is to:</p>
  * <ul>
  *   <li>Load the stored base price for a work</li>
- *   <li>Load all price overrides associated with that base price</li>
- *   <li>Aggregate overrides</li>
- *   <li>Produce a final price with full traceability</li>
+ *   <li>Read the materialized override total and final price from that row</li>
+ *   <li>Load the individual overrides only when traceability is requested
+ *       (or when the row predates the materialized columns)</li>
+ *   <li>Produce a final price</li>
  * </ul>
  *
+ * <p><strong>MATERIALIZED TOTALS</strong></p>
+ *
+ * <p>
+ * <code>work_price.override_total</code> and <code>work_price.final_price</code>
+ * are maintained by {@link WorkPriceOverrideService} in the same transaction
+ * as every override change. In the common case a final price is therefore
+ * <strong>one row read</strong>, with no aggregation over
+ * <code>work_item_price_override</code>. Rows where those columns are still
+ * <code>NULL</code> are aggregated as before.
+ * </p>
+ *
  * <p>In other words:</p>
  * <ul>
  *   <li><em>Base price resolution</em> &rarr; handled elsewhere (<code>work_type_price</code> logic)</li>
@@ -106,11 +124,12 @@ public class FinalWorkPriceResolverImpl implements FinalWorkPriceResolver {
      *
      * <p><strong>Resolution steps:</strong></p>
      * <ol>
-     *   <li>Validate that the work exists</li>
-     *   <li>Load the persisted base price from <code>work_price</code></li>
-     *   <li>Load all overrides associated with that base price</li>
-     *   <li>Aggregate override adjustments</li>
-     *   <li>Compute final price = base price + overrides</li>
+     *   <li>Load the persisted base price from <code>work_price</code>
+     *       (if missing, tell "unknown work" apart from "no base price")</li>
+     *   <li>If the row carries materialized totals and no override details
+     *       were requested, return them directly</li>
+     *   <li>Otherwise load all overrides associated with that base price
+     *       and aggregate them</li>
      * </ol>
      *
      * <p><strong>This method NEVER:</strong></p>
@@ -120,8 +139,10 @@ public class FinalWorkPriceResolverImpl implements FinalWorkPriceResolver {
      *   <li>Persists or mutates pricing data</li>
      * </ul>
      *
-     * @param request contains the <code>workId</code> whose price is being resolved
-     * @return a complete {@link PriceResolution} with base price, overrides and final price
+     * @param request contains the <code>workId</code> whose price is being resolved,
+     *                and whether override details are requested
+     * @return a {@link PriceResolution} with base price, override total and final price;
+     *         individual overrides are included only if requested
      * @throws IllegalStateException if the work does not exist or has no base price
      */
     @Override
@@ -131,30 +152,10 @@ public class FinalWorkPriceResolverImpl implements FinalWorkPriceResolver {
         log.debug("Resolving final price for workId={}", workId);
 
         // -----------------------------------------------------------------
-        // 1) Validate work existence
-        // -----------------------------------------------------------------
-        WorkPricingView work = pricingQuery.findByWorkId(workId);
-
-        if (work == null) {
-            log.error("Cannot resolve price: work not found (id={})", workId);
-            throw new IllegalStateException(
-                    "Cannot resolve price: work not found (id=" + workId + ")"
-            );
-        }
-
-        // -----------------------------------------------------------------
-        // 2) Load base price (MUST exist)
+        // 1) Load base price (MUST exist)
         // -----------------------------------------------------------------
-        var workPrice = workPriceQuery.findByWorkId(workId)
-                .orElseThrow(() -> {
-                    log.error(
-                            "Cannot resolve final price: no base price defined for workId={}",
-                            workId
-                    );
-                    return new IllegalStateException(
-                            "No base price defined for work " + workId
-                    );
-                });
+        WorkPriceEntity workPrice = workPriceQuery.findByWorkId(workId)
+                .orElseThrow(() -> missingBasePrice(workId));
 
         log.debug(
                 "Base price loaded for workId={}, priceId={}, basePrice={}, currency={}, priceGroup={}",
@@ -165,6 +166,13 @@ public class FinalWorkPriceResolverImpl implements FinalWorkPriceResolver {
                 workPrice.getPriceGroup()
         );
 
+        // -----------------------------------------------------------------
+        // 2) Fast path: materialized totals, no traceability requested
+        // -----------------------------------------------------------------
+        if (workPrice.hasMaterializedTotals() && !request.isOverrideDetailsRequested()) {
+            return fromMaterialized(workId, workPrice);
+        }
+
         // -----------------------------------------------------------------
         // 3) Load overrides associated with this base price
         // -----------------------------------------------------------------
@@ -178,8 +186,165 @@ public class FinalWorkPriceResolverImpl implements FinalWorkPriceResolver {
                 workPrice.getPriceId()
         );
 
+        return toResolution(workId, workPrice, overrides);
+    }
+
+    /**
+     * <p>
+     * Resolves the <strong>final price</strong> of many works at once.
+     * </p>
+     *
+     * <p><strong>Resolution steps:</strong></p>
+     * <ol>
+     *   <li>Load every persisted base price from <code>work_price</code> (one query)</li>
+     *   <li>Load the overrides of base prices without materialized totals
+     *       (one query, skipped when every row is materialized)</li>
+     *   <li>Compute final prices; individual overrides are not included</li>
+     * </ol>
+     *
+     * <p>
+     * Work existence is implied by the presence of a <code>work_price</code>
+     * row (foreign key), so the pricing view is not consulted here.
+     * </p>
+     *
+     * <p>
+     * The number of queries is constant, independent of the number of works.
+     * </p>
+     *
+     * @param workIds works whose final price is requested
+     * @return final prices keyed by workId, in iteration order of {@code workIds}
+     * @throws IllegalStateException if any work has no base price
+     */
+    @Override
+    public Map<Long, PriceResolution> resolveAll(Collection<Long> workIds) {
+
+        if (workIds == null || workIds.isEmpty()) {
+            return Map.of();
+        }
+
+        log.debug("Resolving final price for {} works", workIds.size());
+
+        // -----------------------------------------------------------------
+        // 1) Load base prices (MUST exist for every work)
+        // -----------------------------------------------------------------
+        Map<Long, WorkPriceEntity> workPrices = new HashMap<>();
+        for (WorkPriceEntity wp : workPriceQuery.findByWorkIds(workIds)) {
+            workPrices.put(wp.getWork().getId(), wp);
+        }
+
+        for (Long workId : workIds) {
+            if (!workPrices.containsKey(workId)) {
+                log.error(
+                        "Cannot resolve final price: no base price defined for workId={}",
+                        workId
+                );
+                throw new IllegalStateException(
+                        "No base price defined for work " + workId
+                );
+            }
+        }
+
+        // -----------------------------------------------------------------
+        // 2) Load overrides only for rows without materialized totals
+        // -----------------------------------------------------------------
+        List<Long> legacyPriceIds = workPrices.values().stream()
+                .filter(wp -> !wp.hasMaterializedTotals())
+                .map(WorkPriceEntity::getPriceId)
+                .toList();
+
+        Map<Long, List<WorkItemPriceOverrideEntity>> overridesByPriceId =
+                legacyPriceIds.isEmpty()
+                        ? Map.of()
+                        : overrideQuery.findByWorkPriceIds(legacyPriceIds).stream()
+                                .collect(Collectors.groupingBy(
+                                        WorkItemPriceOverrideEntity::getWorkPriceId));
+
+        log.debug(
+                "Loaded {} base price(s); {} without materialized totals",
+                workPrices.size(),
+                legacyPriceIds.size()
+        );
+
+        // -----------------------------------------------------------------
+        // 3) Compute final prices in request order
+        // -----------------------------------------------------------------
+        Map<Long, PriceResolution> resolutions = new LinkedHashMap<>();
+
+        for (Long workId : workIds) {
+            WorkPriceEntity workPrice = workPrices.get(workId);
+            resolutions.put(
+                    workId,
+                    workPrice.hasMaterializedTotals()
+                            ? fromMaterialized(workId, workPrice)
+                            : toResolution(
+                                    workId,
+                                    workPrice,
+                                    overridesByPriceId.getOrDefault(workPrice.getPriceId(), List.of())
+                            )
+            );
+        }
+
+        return resolutions;
+    }
+
+    /**
+     * Builds a resolution from the materialized totals of a base price row.
+     * No override rows are read, so no override details are returned.
+     */
+    private PriceResolution fromMaterialized(Long workId, WorkPriceEntity workPrice) {
+
+        log.debug(
+                "Final price read from materialized totals for workId={}: base={}, overrides={}, final={}",
+                workId,
+                workPrice.getPrice(),
+                workPrice.getOverrideTotal(),
+                workPrice.getFinalPrice()
+        );
+
+        return new PriceResolution(
+                workPrice.getPrice(),
+                workPrice.getOverrideTotal(),
+                workPrice.getFinalPrice(),
+                workPrice.getCurrency(),
+                workPrice.getPriceId(),
+                workPrice.getPriceGroup(),
+                List.of()
+        );
+    }
+
+    /**
+     * Builds the exception for a work without base price, distinguishing
+     * an unknown work from a work whose price was never fixed.
+     * Only runs on the failure path.
+     */
+    private IllegalStateException missingBasePrice(Long workId) {
+
+        if (pricingQuery.findByWorkId(workId) == null) {
+            log.error("Cannot resolve price: work not found (id={})", workId);
+            return new IllegalStateException(
+                    "Cannot resolve price: work not found (id=" + workId + ")"
+            );
+        }
+
+        log.error(
+                "Cannot resolve final price: no base price defined for workId={}",
+                workId
+        );
+        return new IllegalStateException(
+                "No base price defined for work " + workId
+        );
+    }
+
+    /**
+     * Aggregates overrides on top of a stored base price.
+     * Shared by single and batch resolution.
+     */
+    private PriceResolution toResolution(Long workId,
+                                         WorkPriceEntity workPrice,
+                                         List<WorkItemPriceOverrideEntity> overrides) {
+
         // -----------------------------------------------------------------
-        // 4) Aggregate override adjustments
+        // 1) Aggregate override adjustments
         // -----------------------------------------------------------------
         BigDecimal totalOverrides = overrides.stream()
                 .map(WorkItemPriceOverrideEntity::getAdjustment)
@@ -197,7 +362,7 @@ public class FinalWorkPriceResolverImpl implements FinalWorkPriceResolver {
         );
 
         // -----------------------------------------------------------------
-        // 5) Build override info for traceability / UI / audit
+        // 2) Build override info for traceability / UI / audit
         // -----------------------------------------------------------------
         List<PriceOverrideInfo> overrideInfos = overrides.stream()
                 .map(o -> new PriceOverrideInfo(
@@ -209,7 +374,7 @@ public class FinalWorkPriceResolverImpl implements FinalWorkPriceResolver {
                 .toList();
 
         // -----------------------------------------------------------------
-        // 6) Return final resolution
+        // 3) Return final resolution
         // -----------------------------------------------------------------
         return new PriceResolution(
                 workPrice.getPrice(),
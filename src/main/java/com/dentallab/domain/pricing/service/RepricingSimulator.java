@@ -0,0 +1,618 @@
+package com.dentallab.domain.pricing.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dentallab.domain.pricing.model.WorkPricingView;
+import com.dentallab.domain.pricing.persistence.WorkTypePriceRuleIndex;
+import com.dentallab.domain.pricing.query.FamilyPricingQuery;
+import com.dentallab.persistence.entity.WorkTypePriceEntity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+
+/**
+ * <h2>RepricingSimulator</h2>
+ *
+ * <hr/>
+ *
+ * <p>
+ * What-if analysis of a candidate {@code work_type_price} rule set:
+ * every existing work is priced under the <strong>current</strong> rules
+ * and under the <strong>candidate</strong> rules, and the differences are
+ * aggregated per price group / work type.
+ * </p>
+ *
+ * <p>
+ * It answers the question:
+ * </p>
+ *
+ * <blockquote>
+ *   If these rules were published, how would base prices change?
+ * </blockquote>
+ *
+ * <h3>How it works</h3>
+ *
+ * <ol>
+ *   <li>current rules are read once and compiled into a
+ *       {@link WorkTypePriceRuleIndex}; candidate rules are compiled into a
+ *       second index (merged with, or replacing, the current rules)</li>
+ *   <li>works are scanned in keyset pages ordered by id; each page loads
+ *       its {@link WorkPricingView}s set-based, in its own read-only
+ *       transaction, calling each {@link FamilyPricingQuery} directly
+ *       (one query per family present in the page)</li>
+ *   <li>each page is evaluated in parallel on a dedicated
+ *       {@link ForkJoinPool}; partial tallies are merged</li>
+ *   <li>base prices are computed with
+ *       {@code WorkTypePriceResolverImpl.computeBase}, i.e. the same
+ *       semantics as regular previews</li>
+ * </ol>
+ *
+ * <p>
+ * Memory is bounded by one page of views plus one tally per
+ * (group, family, type, currency); the list of unmatched works is capped.
+ * </p>
+ *
+ * <p>
+ * The page query already returns each work's family, so the pricing
+ * dispatcher is deliberately bypassed: a full scan would otherwise fill
+ * its {@code workId → family} cache and evict the live working set.
+ * </p>
+ *
+ * <h3>What this class does not do</h3>
+ *
+ * <ul>
+ *   <li>it does <strong>not</strong> persist candidate rules</li>
+ *   <li>it does <strong>not</strong> read or write {@code work_price}:
+ *       fixed prices are never affected by rule changes</li>
+ *   <li>it does <strong>not</strong> simulate works of families without a
+ *       pricing strategy</li>
+ * </ul>
+ */
+@Component
+public class RepricingSimulator {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(RepricingSimulator.class);
+
+    /** Max unmatched works kept in a report (the counters are exact). */
+    private static final int MAX_REPORTED_WORKS = 100;
+
+    /** Evaluations below this size are not split further. */
+    private static final int LEAF_SIZE = 64;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /** Family-specific pricing queries, keyed by family code. */
+    private final Map<String, FamilyPricingQuery> familyQueries;
+    private final TransactionTemplate readTx;
+    private final int pageSize;
+    private final int parallelism;
+
+    public RepricingSimulator(
+            List<FamilyPricingQuery> familyQueries,
+            PlatformTransactionManager transactionManager,
+            @Value("${pricing.simulation.page-size:1000}") int pageSize,
+            @Value("${pricing.simulation.parallelism:0}") int parallelism) {
+
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pricing.simulation.page-size must be >= 1");
+        }
+        if (parallelism < 0) {
+            throw new IllegalArgumentException("pricing.simulation.parallelism must be >= 0");
+        }
+
+        Map<String, FamilyPricingQuery> byFamily = new LinkedHashMap<>();
+        for (FamilyPricingQuery query : familyQueries) {
+            byFamily.putIfAbsent(query.getFamilyCode(), query);
+        }
+        this.familyQueries = Map.copyOf(byFamily);
+
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+
+        this.pageSize = pageSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * A pricing rule that is not persisted. Same fields and semantics as
+     * {@code work_type_price}.
+     */
+    public record CandidateRule(
+            String workFamily,
+            String workType,
+            String priceGroup,
+            String constitution,
+            String buildingTechnique,
+            Long coreMaterialId,
+            BigDecimal basePrice,
+            BigDecimal pricePerUnit,
+            String currency,
+            LocalDate validFrom) { }
+
+    /**
+     * Simulation input.
+     *
+     * @param candidateRules  rules to evaluate
+     * @param replaceExisting {@code true}: candidates are the whole rule set;
+     *                        {@code false}: candidates are added to the current
+     *                        rules and supersede rules with the same identity
+     * @param priceGroups     groups to price every work in
+     *                        (empty: the groups of the candidate rules)
+     * @param pricingDate     date both rule sets are evaluated at (null: today)
+     */
+    public record Request(
+            List<CandidateRule> candidateRules,
+            boolean replaceExisting,
+            List<String> priceGroups,
+            LocalDate pricingDate) { }
+
+    /**
+     * Aggregated outcome for one (price group, family, type, currency).
+     *
+     * @param works          evaluated works
+     * @param changed        works priced under both rule sets at a different price
+     * @param newlyPriced    works priced only under the candidate rules
+     * @param noLongerPriced works priced only under the current rules
+     * @param unmatched      works without a matching candidate rule
+     * @param currentTotal   sum of base prices under the current rules
+     * @param candidateTotal sum of base prices under the candidate rules
+     * @param delta          {@code candidateTotal - currentTotal}
+     */
+    public record GroupTypeDelta(
+            String priceGroup,
+            String workFamily,
+            String workType,
+            String currency,
+            long works,
+            long changed,
+            long newlyPriced,
+            long noLongerPriced,
+            long unmatched,
+            BigDecimal currentTotal,
+            BigDecimal candidateTotal,
+            BigDecimal delta) { }
+
+    /**
+     * A work that no candidate rule matches.
+     */
+    public record UnmatchedWork(Long workId, String priceGroup, String workFamily, String workType) { }
+
+    /**
+     * Outcome of a simulation.
+     *
+     * @param worksScanned     works evaluated
+     * @param evaluations      (work, price group) pairs evaluated
+     * @param invalid          evaluations where a matching rule could not
+     *                         compute a price (e.g. per-unit rule, no units)
+     * @param unmatched        evaluations without a matching candidate rule
+     * @param deltas           per group / family / type aggregates
+     * @param unmatchedWorks   first unmatched evaluations (capped at 100)
+     * @param tookMs           wall-clock duration
+     */
+    public record Report(
+            long worksScanned,
+            long evaluations,
+            long invalid,
+            long unmatched,
+            List<GroupTypeDelta> deltas,
+            List<UnmatchedWork> unmatchedWorks,
+            long tookMs) { }
+
+    /**
+     * Runs a simulation over every work.
+     *
+     * @throws IllegalArgumentException if the request or a candidate rule is invalid
+     */
+    public Report simulate(Request request) {
+
+        long start = System.nanoTime();
+
+        // -----------------------------------------------------------------
+        // 1) Validate input and compile both rule sets
+        // -----------------------------------------------------------------
+        List<WorkTypePriceEntity> candidates = toRules(request);
+
+        // Read in the caller's transaction (if any), so rules it has not
+        // committed yet are simulated too; the shared index cannot see them
+        WorkTypePriceRuleIndex currentRules = readTx.execute(status ->
+                WorkTypePriceRuleIndex.compile(
+                        em.createQuery("select r from WorkTypePriceEntity r", WorkTypePriceEntity.class)
+                          .getResultList()));
+        WorkTypePriceRuleIndex candidateRules = request.replaceExisting()
+                ? WorkTypePriceRuleIndex.compile(candidates)
+                : currentRules.withCandidates(candidates);
+
+        Evaluation evaluation = new Evaluation(
+                currentRules,
+                candidateRules,
+                priceGroupsOf(request, candidates),
+                request.pricingDate() != null ? request.pricingDate() : LocalDate.now());
+
+        log.info(
+                "Repricing simulation started: candidates={}, replaceExisting={}, groups={}, pricingDate={}, parallelism={}",
+                candidates.size(),
+                request.replaceExisting(),
+                evaluation.priceGroups(),
+                evaluation.pricingDate(),
+                parallelism
+        );
+
+        // -----------------------------------------------------------------
+        // 2) Scan works page by page, evaluate each page in parallel
+        // -----------------------------------------------------------------
+        Tally total = new Tally();
+        long scanned = 0;
+        long afterWorkId = 0L;
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            while (true) {
+
+                final long cursor = afterWorkId;
+                Page page = readTx.execute(status -> loadPage(cursor));
+
+                if (page == null || page.workCount() == 0) {
+                    break;
+                }
+
+                total.merge(pool.invoke(new EvaluationTask(evaluation, page.views(), 0, page.views().size())));
+                scanned += page.views().size();
+                afterWorkId = page.lastWorkId();
+
+                log.debug("Repricing simulation progress: scanned={}, lastWorkId={}", scanned, afterWorkId);
+
+                if (page.workCount() < pageSize) {
+                    break;
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        // -----------------------------------------------------------------
+        // 3) Build report
+        // -----------------------------------------------------------------
+        long tookMs = (System.nanoTime() - start) / 1_000_000;
+        Report report = total.toReport(scanned, tookMs);
+
+        log.info(
+                "Repricing simulation finished: scanned={}, evaluations={}, unmatched={}, invalid={}, buckets={}, tookMs={}",
+                report.worksScanned(),
+                report.evaluations(),
+                report.unmatched(),
+                report.invalid(),
+                report.deltas().size(),
+                tookMs
+        );
+
+        return report;
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal
+    // ---------------------------------------------------------------------
+
+    private record Evaluation(
+            WorkTypePriceRuleIndex currentRules,
+            WorkTypePriceRuleIndex candidateRules,
+            List<String> priceGroups,
+            LocalDate pricingDate) { }
+
+    private record Page(int workCount, long lastWorkId, List<WorkPricingView> views) { }
+
+    private Page loadPage(long afterWorkId) {
+
+        if (familyQueries.isEmpty()) {
+            return new Page(0, afterWorkId, List.of());
+        }
+
+        List<Tuple> rows = em.createQuery("""
+                select w.id as workId, w.workFamily.code as familyCode
+                from WorkEntity w
+                where w.id > :after
+                  and w.workFamily.code in :families
+                order by w.id
+                """, Tuple.class)
+                .setParameter("after", afterWorkId)
+                .setParameter("families", familyQueries.keySet())
+                .setMaxResults(pageSize)
+                .getResultList();
+
+        if (rows.isEmpty()) {
+            return new Page(0, afterWorkId, List.of());
+        }
+
+        // Group by family and query each strategy directly (no dispatcher cache)
+        Map<String, List<Long>> idsByFamily = new LinkedHashMap<>();
+        for (Tuple row : rows) {
+            idsByFamily
+                    .computeIfAbsent(row.get("familyCode", String.class), f -> new ArrayList<>())
+                    .add(row.get("workId", Long.class));
+        }
+
+        List<WorkPricingView> views = new ArrayList<>(rows.size());
+        for (Map.Entry<String, List<Long>> group : idsByFamily.entrySet()) {
+            views.addAll(familyQueries.get(group.getKey()).findByWorkIds(group.getValue()));
+        }
+        // Keep page order (id) so capped reports are deterministic
+        views.sort(Comparator.comparing(WorkPricingView::getWorkId));
+
+        long lastWorkId = rows.get(rows.size() - 1).get("workId", Long.class);
+
+        return new Page(rows.size(), lastWorkId, views);
+    }
+
+    private static List<WorkTypePriceEntity> toRules(Request request) {
+
+        if (request == null || request.candidateRules() == null || request.candidateRules().isEmpty()) {
+            throw new IllegalArgumentException("A repricing simulation needs at least one candidate rule");
+        }
+
+        List<WorkTypePriceEntity> rules = new ArrayList<>(request.candidateRules().size());
+
+        for (CandidateRule candidate : request.candidateRules()) {
+
+            if (candidate.workFamily() == null || candidate.workType() == null
+                    || candidate.priceGroup() == null || candidate.validFrom() == null) {
+                throw new IllegalArgumentException(
+                        "Candidate rule needs workFamily, workType, priceGroup and validFrom: " + candidate);
+            }
+            if (candidate.basePrice() == null && candidate.pricePerUnit() == null) {
+                throw new IllegalArgumentException(
+                        "Candidate rule needs basePrice or pricePerUnit: " + candidate);
+            }
+
+            // Transient: never persisted, no priceId
+            WorkTypePriceEntity rule = new WorkTypePriceEntity();
+            rule.setWorkFamily(candidate.workFamily());
+            rule.setWorkType(candidate.workType());
+            rule.setPriceGroup(candidate.priceGroup());
+            rule.setConstitution(candidate.constitution());
+            rule.setBuildingTechnique(candidate.buildingTechnique());
+            rule.setCoreMaterialId(candidate.coreMaterialId());
+            rule.setBasePrice(candidate.basePrice());
+            rule.setPricePerUnit(candidate.pricePerUnit());
+            rule.setCurrency(candidate.currency());
+            rule.setValidFrom(candidate.validFrom());
+            rules.add(rule);
+        }
+
+        return rules;
+    }
+
+    private static List<String> priceGroupsOf(Request request, Collection<WorkTypePriceEntity> candidates) {
+
+        if (request.priceGroups() != null && !request.priceGroups().isEmpty()) {
+            return List.copyOf(new LinkedHashSet<>(request.priceGroups()));
+        }
+
+        Set<String> groups = new LinkedHashSet<>();
+        for (WorkTypePriceEntity rule : candidates) {
+            groups.add(rule.getPriceGroup());
+        }
+        return List.copyOf(groups);
+    }
+
+    /**
+     * Evaluates a slice of a page, splitting it until slices are small.
+     */
+    private static final class EvaluationTask extends RecursiveTask<Tally> {
+
+        private final Evaluation evaluation;
+        private final List<WorkPricingView> views;
+        private final int from;
+        private final int to;
+
+        EvaluationTask(Evaluation evaluation, List<WorkPricingView> views, int from, int to) {
+            this.evaluation = evaluation;
+            this.views = views;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Tally compute() {
+
+            if (to - from <= LEAF_SIZE) {
+                Tally tally = new Tally();
+                for (int i = from; i < to; i++) {
+                    for (String group : evaluation.priceGroups()) {
+                        tally.add(evaluation, views.get(i), group);
+                    }
+                }
+                return tally;
+            }
+
+            int mid = (from + to) >>> 1;
+            EvaluationTask left = new EvaluationTask(evaluation, views, from, mid);
+            EvaluationTask right = new EvaluationTask(evaluation, views, mid, to);
+
+            left.fork();
+            Tally tally = right.compute();
+            tally.merge(left.join());
+            return tally;
+        }
+    }
+
+    /** Price of one work under one rule set; {@code price == null} means unpriced. */
+    private record Outcome(BigDecimal price, String currency, boolean invalid) {
+
+        static final Outcome NO_RULE = new Outcome(null, null, false);
+        static final Outcome INVALID = new Outcome(null, null, true);
+    }
+
+    private static Outcome price(WorkTypePriceRuleIndex rules,
+                                 WorkPricingView view,
+                                 String priceGroup,
+                                 LocalDate pricingDate) {
+
+        WorkTypePriceEntity rule = rules.findBestMatch(
+                view.getWorkFamily(),
+                view.getWorkType(),
+                priceGroup,
+                view.getConstitution(),
+                view.getBuildingTechnique(),
+                view.getCoreMaterialId(),
+                pricingDate
+        ).orElse(null);
+
+        if (rule == null) {
+            return Outcome.NO_RULE;
+        }
+
+        try {
+            return new Outcome(
+                    WorkTypePriceResolverImpl.computeBase(rule, view),
+                    rule.getCurrency(),
+                    false);
+        } catch (IllegalStateException ex) {
+            return Outcome.INVALID;
+        }
+    }
+
+    private record BucketKey(String priceGroup, String workFamily, String workType, String currency) { }
+
+    private static final class Bucket {
+        long works;
+        long changed;
+        long newlyPriced;
+        long noLongerPriced;
+        long unmatched;
+        BigDecimal currentTotal = BigDecimal.ZERO;
+        BigDecimal candidateTotal = BigDecimal.ZERO;
+
+        void merge(Bucket other) {
+            works += other.works;
+            changed += other.changed;
+            newlyPriced += other.newlyPriced;
+            noLongerPriced += other.noLongerPriced;
+            unmatched += other.unmatched;
+            currentTotal = currentTotal.add(other.currentTotal);
+            candidateTotal = candidateTotal.add(other.candidateTotal);
+        }
+    }
+
+    /**
+     * Mutable partial result; confined to one task until merged.
+     */
+    private static final class Tally {
+
+        private final Map<BucketKey, Bucket> buckets = new HashMap<>();
+        private final List<UnmatchedWork> unmatchedWorks = new ArrayList<>();
+        private long evaluations;
+        private long invalid;
+        private long unmatched;
+
+        void add(Evaluation evaluation, WorkPricingView view, String priceGroup) {
+
+            Outcome current = price(evaluation.currentRules(), view, priceGroup, evaluation.pricingDate());
+            Outcome candidate = price(evaluation.candidateRules(), view, priceGroup, evaluation.pricingDate());
+
+            evaluations++;
+            if (current.invalid()) invalid++;
+            if (candidate.invalid()) invalid++;
+
+            String currency = candidate.currency() != null ? candidate.currency() : current.currency();
+            Bucket bucket = buckets.computeIfAbsent(
+                    new BucketKey(priceGroup, view.getWorkFamily(), view.getWorkType(), currency),
+                    k -> new Bucket());
+
+            bucket.works++;
+
+            if (current.price() != null) {
+                bucket.currentTotal = bucket.currentTotal.add(current.price());
+            }
+            if (candidate.price() != null) {
+                bucket.candidateTotal = bucket.candidateTotal.add(candidate.price());
+            }
+
+            if (current.price() != null && candidate.price() != null) {
+                if (current.price().compareTo(candidate.price()) != 0) bucket.changed++;
+            } else if (candidate.price() != null) {
+                bucket.newlyPriced++;
+            } else if (current.price() != null) {
+                bucket.noLongerPriced++;
+            }
+
+            if (candidate == Outcome.NO_RULE) {
+                bucket.unmatched++;
+                unmatched++;
+                if (unmatchedWorks.size() < MAX_REPORTED_WORKS) {
+                    unmatchedWorks.add(new UnmatchedWork(
+                            view.getWorkId(), priceGroup, view.getWorkFamily(), view.getWorkType()));
+                }
+            }
+        }
+
+        void merge(Tally other) {
+
+            evaluations += other.evaluations;
+            invalid += other.invalid;
+            unmatched += other.unmatched;
+
+            other.buckets.forEach((key, bucket) ->
+                    buckets.computeIfAbsent(key, k -> new Bucket()).merge(bucket));
+
+            for (UnmatchedWork work : other.unmatchedWorks) {
+                if (unmatchedWorks.size() >= MAX_REPORTED_WORKS) break;
+                unmatchedWorks.add(work);
+            }
+        }
+
+        Report toReport(long worksScanned, long tookMs) {
+
+            List<GroupTypeDelta> deltas = new ArrayList<>(buckets.size());
+
+            buckets.forEach((key, b) -> deltas.add(new GroupTypeDelta(
+                    key.priceGroup(),
+                    key.workFamily(),
+                    key.workType(),
+                    key.currency(),
+                    b.works,
+                    b.changed,
+                    b.newlyPriced,
+                    b.noLongerPriced,
+                    b.unmatched,
+                    b.currentTotal,
+                    b.candidateTotal,
+                    b.candidateTotal.subtract(b.currentTotal))));
+
+            deltas.sort(Comparator
+                    .<GroupTypeDelta, String>comparing(GroupTypeDelta::priceGroup, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(GroupTypeDelta::workFamily, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(GroupTypeDelta::workType, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(GroupTypeDelta::currency, Comparator.nullsLast(Comparator.naturalOrder())));
+
+            return new Report(
+                    worksScanned,
+                    evaluations,
+                    invalid,
+                    unmatched,
+                    List.copyOf(deltas),
+                    List.copyOf(unmatchedWorks),
+                    tookMs);
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.dentallab.domain.pricing.service;
 
+import java.util.Collection;
+import java.util.Map;
+
 import com.dentallab.domain.pricing.model.BasePriceResult;
 import com.dentallab.domain.pricing.model.PriceResolutionRequest;
 
@@ -7,5 +10,11 @@ public interface WorkBasePriceService {
 
     BasePriceResult previewBasePrice(PriceResolutionRequest request);
 
+    Map<Long, BasePriceResult> previewBasePrices(Collection<PriceResolutionRequest> requests);
+
     void fixBasePrice(Long workId, BasePriceResult basePrice);
+
+    void fixBasePrices(Map<Long, BasePriceResult> basePrices);
+
+    void fixOrderBasePrices(Long orderId, Map<Long, BasePriceResult> basePrices);
 }
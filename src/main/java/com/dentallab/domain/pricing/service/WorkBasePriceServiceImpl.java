@@ -1,5 +1,11 @@
 package com.dentallab.domain.pricing.service;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import jakarta.persistence.EntityManager;
@@ -7,14 +13,19 @@ import jakarta.persistence.PersistenceContext;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.dentallab.domain.pricing.model.BasePriceResult;
 import com.dentallab.domain.pricing.model.PriceResolutionRequest;
+import com.dentallab.domain.pricing.model.WorkFinalPricesChangedEvent;
+import com.dentallab.domain.pricing.persistence.WorkPriceBatchWriter;
 import com.dentallab.persistence.entity.WorkEntity;
 import com.dentallab.persistence.entity.WorkPriceEntity;
 import com.dentallab.persistence.repository.WorkPriceRepository;
+import com.dentallab.persistence.repository.WorkPriceRepository.WorkPriceFixState;
 
 /**
  * <h2>WorkBasePriceServiceImpl</h2>
@@ -202,6 +213,17 @@ public class WorkBasePriceServiceImpl implements WorkBasePriceService {
      */
     private final WorkPriceRepository workPriceRepository;
 
+    /**
+     * Batched writer used when many base prices are fixed at once.
+     */
+    private final WorkPriceBatchWriter workPriceBatchWriter;
+
+    /**
+     * Announces fixed prices to projections depending on the final price
+     * (synchronously, inside the fixing transaction).
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
     /**
      * Used only to obtain a lightweight reference to WorkEntity
      * when persisting a WorkPriceEntity, without loading the work.
@@ -211,12 +233,18 @@ public class WorkBasePriceServiceImpl implements WorkBasePriceService {
 
     public WorkBasePriceServiceImpl(
             WorkTypePriceResolver workTypePriceResolver,
-            WorkPriceRepository workPriceRepository) {
+            WorkPriceRepository workPriceRepository,
+            WorkPriceBatchWriter workPriceBatchWriter,
+            ApplicationEventPublisher eventPublisher) {
 
         this.workTypePriceResolver =
                 Objects.requireNonNull(workTypePriceResolver);
         this.workPriceRepository =
                 Objects.requireNonNull(workPriceRepository);
+        this.workPriceBatchWriter =
+                Objects.requireNonNull(workPriceBatchWriter);
+        this.eventPublisher =
+                Objects.requireNonNull(eventPublisher);
     }
 
     /**
@@ -295,6 +323,41 @@ public class WorkBasePriceServiceImpl implements WorkBasePriceService {
         return result;
     }
 
+    /**
+     * <p>
+     * <strong>Preview</strong> the base prices of many works in one call.
+     * </p>
+     *
+     * <p>
+     * Same contract as {@link #previewBasePrice(PriceResolutionRequest)},
+     * but pricing inputs are loaded set-based by
+     * {@link WorkTypePriceResolver#resolveBasePrices(Collection)}, so the
+     * number of queries does not grow with the number of works.
+     * </p>
+     *
+     * <p>
+     * Typical use: previewing every work of an order before fixing prices.
+     * </p>
+     *
+     * @param requests
+     *        one pricing context per work
+     * @return
+     *        previewed base prices keyed by workId, in request order
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, BasePriceResult> previewBasePrices(Collection<PriceResolutionRequest> requests) {
+
+        log.debug("Previewing base prices for {} works", requests != null ? requests.size() : 0);
+
+        Map<Long, BasePriceResult> results =
+                workTypePriceResolver.resolveBasePrices(requests);
+
+        log.info("Base prices previewed for {} works", results.size());
+
+        return results;
+    }
+
     /**
      * <p>
      * <strong>Fix</strong> the base price of a work using a previously
@@ -392,8 +455,15 @@ public class WorkBasePriceServiceImpl implements WorkBasePriceService {
         entity.setCurrency(basePrice.getCurrency());
         entity.setPriceGroup(basePrice.getPriceGroup());
 
+        // No overrides yet: final price starts equal to the base price
+        entity.setOverrideTotal(BigDecimal.ZERO);
+        entity.setFinalPrice(basePrice.getBasePrice());
+
         workPriceRepository.save(entity);
 
+        eventPublisher.publishEvent(
+                WorkFinalPricesChangedEvent.of(workId, basePrice.getBasePrice()));
+
         log.info(
                 "Base price FIXED for workId={}: basePrice={}, currency={}, group={}",
                 workId,
@@ -402,4 +472,151 @@ public class WorkBasePriceServiceImpl implements WorkBasePriceService {
                 basePrice.getPriceGroup()
         );
     }
+
+    /**
+     * <p>
+     * <strong>Fix</strong> the base prices of many works in one call.
+     * </p>
+     *
+     * <p>
+     * Same contract as {@link #fixBasePrice(Long, BasePriceResult)},
+     * applied to every entry, but with a constant number of round trips:
+     * </p>
+     *
+     * <ul>
+     *   <li><strong>one</strong> query to check that every work exists and
+     *       has no base price yet</li>
+     *   <li><strong>one</strong> batched insert into {@code work_price}</li>
+     * </ul>
+     *
+     * <p>
+     * The operation is all-or-nothing: if any work is unknown or already
+     * priced, nothing is persisted.
+     * </p>
+     *
+     * @param basePrices
+     *        previously previewed base prices keyed by workId
+     *
+     * @throws IllegalArgumentException
+     *         if a work does not exist
+     * @throws IllegalStateException
+     *         if a base price already exists for any of the works
+     */
+    @Override
+    @Transactional
+    public void fixBasePrices(Map<Long, BasePriceResult> basePrices) {
+        fixAll(null, basePrices);
+    }
+
+    /**
+     * <p>
+     * <strong>Fix</strong> the base prices of works belonging to one order.
+     * </p>
+     *
+     * <p>
+     * Same as {@link #fixBasePrices(Map)}, and additionally rejects works
+     * that do not belong to the given order.
+     * </p>
+     *
+     * @param orderId
+     *        the order every work must belong to
+     * @param basePrices
+     *        previously previewed base prices keyed by workId
+     *
+     * @throws IllegalArgumentException
+     *         if a work does not exist or belongs to another order
+     * @throws IllegalStateException
+     *         if a base price already exists for any of the works
+     */
+    @Override
+    @Transactional
+    public void fixOrderBasePrices(Long orderId, Map<Long, BasePriceResult> basePrices) {
+        Objects.requireNonNull(orderId, "orderId");
+        fixAll(orderId, basePrices);
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal
+    // ---------------------------------------------------------------------
+
+    private void fixAll(Long orderId, Map<Long, BasePriceResult> basePrices) {
+
+        if (basePrices == null || basePrices.isEmpty()) {
+            return;
+        }
+
+        log.debug("Fixing base prices for {} works, orderId={}", basePrices.size(), orderId);
+
+        basePrices.forEach((workId, basePrice) -> {
+            if (workId == null || basePrice == null) {
+                throw new IllegalArgumentException("Base price entries must have a workId and a value");
+            }
+        });
+
+        // -----------------------------------------------------------------
+        // 1) Existence, ownership and fix-once state in ONE query
+        // -----------------------------------------------------------------
+        Map<Long, WorkPriceFixState> states = new HashMap<>();
+        for (WorkPriceFixState state : workPriceRepository.findFixStateByWorkIds(basePrices.keySet())) {
+            states.put(state.getWorkId(), state);
+        }
+
+        List<Long> alreadyFixed = new ArrayList<>();
+
+        for (Long workId : basePrices.keySet()) {
+
+            WorkPriceFixState state = states.get(workId);
+
+            if (state == null) {
+                throw new IllegalArgumentException("Work not found: " + workId);
+            }
+            if (orderId != null && !orderId.equals(state.getOrderId())) {
+                throw new IllegalArgumentException(
+                        "Work " + workId + " does not belong to order " + orderId);
+            }
+            if (state.getPriceId() != null) {
+                alreadyFixed.add(workId);
+            }
+        }
+
+        // -----------------------------------------------------------------
+        // 2) Enforce invariant: base price may only be fixed once
+        // -----------------------------------------------------------------
+        if (!alreadyFixed.isEmpty()) {
+            log.error(
+                    "Cannot fix base prices: workIds={} already have a base price",
+                    alreadyFixed
+            );
+            throw new IllegalStateException(
+                    "Base price already fixed for work(s) " + alreadyFixed
+            );
+        }
+
+        // -----------------------------------------------------------------
+        // 3) Persist EXACTLY the previewed base prices, one batch
+        //    (UNIQUE(work_id) catches a concurrent fix of the same work)
+        // -----------------------------------------------------------------
+        try {
+            workPriceBatchWriter.insertAll(basePrices);
+        } catch (DataIntegrityViolationException ex) {
+            log.error(
+                    "Cannot fix base prices: concurrent fix detected for orderId={}, works={}",
+                    orderId,
+                    basePrices.keySet()
+            );
+            throw new IllegalStateException(
+                    "Base price already fixed for work(s) among " + basePrices.keySet(), ex
+            );
+        }
+
+        Map<Long, BigDecimal> finalPrices = new HashMap<>();
+        basePrices.forEach((workId, basePrice) -> finalPrices.put(workId, basePrice.getBasePrice()));
+        eventPublisher.publishEvent(new WorkFinalPricesChangedEvent(finalPrices));
+
+        log.info(
+                "Base prices FIXED: orderId={}, works={}",
+                orderId,
+                basePrices.size()
+        );
+    }
 }
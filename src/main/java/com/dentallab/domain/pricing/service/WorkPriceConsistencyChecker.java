@@ -0,0 +1,229 @@
+package com.dentallab.domain.pricing.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * <h2>WorkPriceConsistencyChecker</h2>
+ *
+ * <hr/>
+ *
+ * <p>
+ * Recomputes, in bulk, the final price of every {@code work_price} row from
+ * {@code work_item_price_override} and compares it with the materialized
+ * {@code override_total} / {@code final_price} columns.
+ * </p>
+ *
+ * <h3>How it works</h3>
+ *
+ * <ol>
+ *   <li>base prices are scanned in keyset pages ordered by {@code price_id}</li>
+ *   <li>each page is <strong>one</strong> aggregate statement
+ *       ({@code LEFT JOIN} overrides, {@code GROUP BY} base price)</li>
+ *   <li>rows with {@code NULL} totals or a different sum are reported</li>
+ *   <li>in repair mode, each reported row is recalculated through
+ *       {@link WorkPriceOverrideService#recalculate(Long)}, i.e. under the
+ *       same row lock as regular override changes</li>
+ * </ol>
+ *
+ * <p>
+ * Besides detecting drift, repair mode is the backfill for rows written
+ * before the materialized columns existed. Both modes are exposed to
+ * administrators by {@code PricingAdminController}
+ * ({@code /admin/pricing/final-prices/...}).
+ * </p>
+ *
+ * <h3>What this class does not do</h3>
+ *
+ * <ul>
+ *   <li>it does <strong>not</strong> modify base prices or overrides</li>
+ * </ul>
+ */
+@Component
+public class WorkPriceConsistencyChecker {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(WorkPriceConsistencyChecker.class);
+
+    /** Max mismatching ids kept in a report (the counters are exact). */
+    private static final int MAX_REPORTED_IDS = 100;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final WorkPriceOverrideService overrideService;
+    private final TransactionTemplate tx;
+    private final int batchSize;
+
+    public WorkPriceConsistencyChecker(
+            WorkPriceOverrideService overrideService,
+            PlatformTransactionManager transactionManager,
+            @Value("${pricing.final-price.check-batch-size:1000}") int batchSize) {
+
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("pricing.final-price.check-batch-size must be >= 1");
+        }
+
+        this.overrideService = overrideService;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Outcome of a check.
+     *
+     * @param scanned             base prices inspected
+     * @param mismatched          base prices whose materialized totals were missing or wrong
+     * @param repaired            base prices recalculated (always 0 without repair)
+     * @param mismatchedPriceIds  first mismatching {@code work_price.price_id}s (capped at 100)
+     */
+    public record Report(
+            long scanned,
+            long mismatched,
+            long repaired,
+            List<Long> mismatchedPriceIds) { }
+
+    /**
+     * Reports drift without writing.
+     */
+    public Report check() {
+        return execute(false);
+    }
+
+    /**
+     * Reports drift and recalculates every mismatching row.
+     */
+    public Report checkAndRepair() {
+        return execute(true);
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal
+    // ---------------------------------------------------------------------
+
+    private Report execute(boolean repair) {
+
+        long start = System.nanoTime();
+
+        long scanned = 0;
+        long mismatched = 0;
+        long repaired = 0;
+        List<Long> reportedIds = new ArrayList<>();
+
+        long afterPriceId = 0L;
+
+        while (true) {
+
+            final long cursor = afterPriceId;
+            PageResult page = tx.execute(status -> processPage(cursor, repair));
+
+            if (page == null || page.scanned() == 0) {
+                break;
+            }
+
+            scanned += page.scanned();
+            mismatched += page.mismatchedIds().size();
+            repaired += page.repaired();
+
+            for (Long id : page.mismatchedIds()) {
+                if (reportedIds.size() >= MAX_REPORTED_IDS) break;
+                reportedIds.add(id);
+            }
+
+            afterPriceId = page.lastPriceId();
+
+            if (page.scanned() < batchSize) {
+                break;
+            }
+        }
+
+        log.info(
+                "Final price consistency {} finished: scanned={}, mismatched={}, repaired={}, tookMs={}",
+                repair ? "repair" : "check",
+                scanned,
+                mismatched,
+                repaired,
+                (System.nanoTime() - start) / 1_000_000
+        );
+
+        return new Report(scanned, mismatched, repaired, List.copyOf(reportedIds));
+    }
+
+    private record PageResult(int scanned, long lastPriceId, List<Long> mismatchedIds, int repaired) { }
+
+    private PageResult processPage(long afterPriceId, boolean repair) {
+
+        // ------------------------------------------------------------
+        // 1) Stored totals and recomputed sum, one statement per page
+        // ------------------------------------------------------------
+        List<Object[]> rows = em.createQuery("""
+                select wp.priceId, wp.price, wp.overrideTotal, wp.finalPrice, sum(o.adjustment)
+                from WorkPriceEntity wp
+                left join WorkItemPriceOverrideEntity o on o.workPriceId = wp.priceId
+                where wp.priceId > :after
+                group by wp.priceId, wp.price, wp.overrideTotal, wp.finalPrice
+                order by wp.priceId
+                """, Object[].class)
+                .setParameter("after", afterPriceId)
+                .setMaxResults(batchSize)
+                .getResultList();
+
+        if (rows.isEmpty()) {
+            return new PageResult(0, afterPriceId, List.of(), 0);
+        }
+
+        // ------------------------------------------------------------
+        // 2) Compare
+        // ------------------------------------------------------------
+        List<Long> mismatchedIds = new ArrayList<>();
+        long lastPriceId = afterPriceId;
+
+        for (Object[] row : rows) {
+
+            Long priceId = (Long) row[0];
+            BigDecimal price = (BigDecimal) row[1];
+            BigDecimal storedTotal = (BigDecimal) row[2];
+            BigDecimal storedFinal = (BigDecimal) row[3];
+            BigDecimal expectedTotal = row[4] != null ? (BigDecimal) row[4] : BigDecimal.ZERO;
+
+            lastPriceId = priceId;
+
+            boolean consistent = storedTotal != null
+                    && storedFinal != null
+                    && storedTotal.compareTo(expectedTotal) == 0
+                    && storedFinal.compareTo(price.add(expectedTotal)) == 0;
+
+            if (!consistent) {
+                log.debug(
+                        "Final price drift: priceId={}, storedTotal={}, expectedTotal={}, storedFinal={}",
+                        priceId, storedTotal, expectedTotal, storedFinal
+                );
+                mismatchedIds.add(priceId);
+            }
+        }
+
+        // ------------------------------------------------------------
+        // 3) Repair under the override lock
+        // ------------------------------------------------------------
+        int repaired = 0;
+        if (repair) {
+            for (Long priceId : mismatchedIds) {
+                overrideService.recalculate(priceId);
+                repaired++;
+            }
+        }
+
+        return new PageResult(rows.size(), lastPriceId, mismatchedIds, repaired);
+    }
+}
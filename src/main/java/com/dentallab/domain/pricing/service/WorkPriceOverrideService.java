@@ -0,0 +1,44 @@
+package com.dentallab.domain.pricing.service;
+
+import java.math.BigDecimal;
+
+import com.dentallab.persistence.entity.WorkItemPriceOverrideEntity;
+import com.dentallab.persistence.entity.WorkPriceEntity;
+
+/**
+ * Adds and removes price overrides on a fixed base price.
+ *
+ * This is the only supported write path for work_item_price_override:
+ * every change also updates work_price.override_total and
+ * work_price.final_price in the same transaction.
+ */
+public interface WorkPriceOverrideService {
+
+    /**
+     * Adds an override to the base price of a work.
+     *
+     * @param workId     work whose price is adjusted
+     * @param adjustment signed amount (surcharge &gt; 0, discount &lt; 0), never zero
+     * @param reason     optional human-readable reason
+     * @param createdBy  optional author (user id)
+     * @return the persisted override
+     */
+    WorkItemPriceOverrideEntity addOverride(Long workId, BigDecimal adjustment, String reason, Long createdBy);
+
+    /**
+     * Removes an override and subtracts it from the materialized totals.
+     *
+     * @param workId     work the override must belong to
+     * @param overrideId the override to remove
+     */
+    void removeOverride(Long workId, Long overrideId);
+
+    /**
+     * Recomputes override_total and final_price of a base price from its
+     * overrides, under the same lock used by add/remove.
+     *
+     * @param workPriceId the base price to recompute
+     * @return the updated base price row
+     */
+    WorkPriceEntity recalculate(Long workPriceId);
+}
@@ -0,0 +1,225 @@
+package com.dentallab.domain.pricing.service;
+
+import java.math.BigDecimal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dentallab.domain.pricing.model.WorkFinalPricesChangedEvent;
+import com.dentallab.persistence.entity.WorkItemPriceOverrideEntity;
+import com.dentallab.persistence.entity.WorkPriceEntity;
+import com.dentallab.persistence.repository.WorkItemPriceOverrideRepository;
+import com.dentallab.persistence.repository.WorkPriceRepository;
+
+/**
+ * <h2>WorkPriceOverrideServiceImpl</h2>
+ *
+ * <hr/>
+ *
+ * <p>
+ * Write side of price overrides. Keeps the materialized
+ * {@code work_price.override_total} and {@code work_price.final_price}
+ * consistent with {@code work_item_price_override}.
+ * </p>
+ *
+ * <h3>Consistency guarantees</h3>
+ *
+ * <ul>
+ *   <li>the {@code work_price} row is loaded with a
+ *       <strong>PESSIMISTIC_WRITE</strong> lock before any change, so
+ *       concurrent overrides on the same work are serialized</li>
+ *   <li>the override row and the materialized totals are written in the
+ *       <strong>same transaction</strong></li>
+ *   <li>rows that predate the materialized columns ({@code NULL} totals)
+ *       are initialized from {@code SUM(adjustment)} before the delta
+ *       is applied</li>
+ *   <li>every final price change is published as a
+ *       {@link WorkFinalPricesChangedEvent} within the same transaction</li>
+ * </ul>
+ *
+ * <h3>What this service does not do</h3>
+ *
+ * <ul>
+ *   <li>it does <strong>not</strong> change the base price itself</li>
+ *   <li>it does <strong>not</strong> consult pricing rules</li>
+ * </ul>
+ */
+@Service
+@Transactional
+public class WorkPriceOverrideServiceImpl implements WorkPriceOverrideService {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(WorkPriceOverrideServiceImpl.class);
+
+    private final WorkPriceRepository workPriceRepository;
+    private final WorkItemPriceOverrideRepository overrideRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public WorkPriceOverrideServiceImpl(
+            WorkPriceRepository workPriceRepository,
+            WorkItemPriceOverrideRepository overrideRepository,
+            ApplicationEventPublisher eventPublisher) {
+
+        this.workPriceRepository = workPriceRepository;
+        this.overrideRepository = overrideRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public WorkItemPriceOverrideEntity addOverride(
+            Long workId,
+            BigDecimal adjustment,
+            String reason,
+            Long createdBy) {
+
+        if (adjustment == null || adjustment.signum() == 0) {
+            throw new IllegalArgumentException("Override adjustment must be non-zero");
+        }
+
+        // -----------------------------------------------------------------
+        // 1) Lock the base price row (MUST exist)
+        // -----------------------------------------------------------------
+        WorkPriceEntity workPrice = workPriceRepository.findByWorkIdForUpdate(workId)
+                .orElseThrow(() -> {
+                    log.error("Cannot add override: no base price defined for workId={}", workId);
+                    return new IllegalStateException("No base price defined for work " + workId);
+                });
+
+        // -----------------------------------------------------------------
+        // 2) Initialize totals of legacy rows BEFORE inserting the override
+        // -----------------------------------------------------------------
+        ensureMaterialized(workPrice);
+
+        // -----------------------------------------------------------------
+        // 3) Persist override and apply its delta
+        // -----------------------------------------------------------------
+        WorkItemPriceOverrideEntity override = new WorkItemPriceOverrideEntity();
+        override.setWorkPriceId(workPrice.getPriceId());
+        override.setAdjustment(adjustment);
+        override.setCurrency(workPrice.getCurrency());
+        override.setReason(reason);
+        override.setCreatedBy(createdBy);
+
+        WorkItemPriceOverrideEntity saved = overrideRepository.save(override);
+
+        applyDelta(workPrice, adjustment);
+
+        log.info(
+                "Price override added: workId={}, overrideId={}, adjustment={}, overrideTotal={}, finalPrice={}",
+                workId,
+                saved.getOverrideId(),
+                adjustment,
+                workPrice.getOverrideTotal(),
+                workPrice.getFinalPrice()
+        );
+
+        return saved;
+    }
+
+    @Override
+    public void removeOverride(Long workId, Long overrideId) {
+
+        WorkItemPriceOverrideEntity override = overrideRepository.findById(overrideId)
+                .orElseThrow(() -> new IllegalArgumentException("Price override not found: " + overrideId));
+
+        // -----------------------------------------------------------------
+        // 1) Lock the owning base price row
+        // -----------------------------------------------------------------
+        WorkPriceEntity workPrice = workPriceRepository.findByPriceIdForUpdate(override.getWorkPriceId())
+                .orElseThrow(() -> new IllegalStateException(
+                        "Base price " + override.getWorkPriceId() + " of override " + overrideId + " not found"));
+
+        if (!workPrice.getWork().getId().equals(workId)) {
+            throw new IllegalArgumentException(
+                    "Price override " + overrideId + " does not belong to work " + workId);
+        }
+
+        // -----------------------------------------------------------------
+        // 2) Initialize totals of legacy rows BEFORE deleting the override
+        // -----------------------------------------------------------------
+        ensureMaterialized(workPrice);
+
+        // -----------------------------------------------------------------
+        // 3) Delete override and subtract its delta
+        // -----------------------------------------------------------------
+        overrideRepository.delete(override);
+
+        applyDelta(workPrice, override.getAdjustment().negate());
+
+        log.info(
+                "Price override removed: workPriceId={}, overrideId={}, adjustment={}, overrideTotal={}, finalPrice={}",
+                workPrice.getPriceId(),
+                overrideId,
+                override.getAdjustment(),
+                workPrice.getOverrideTotal(),
+                workPrice.getFinalPrice()
+        );
+    }
+
+    @Override
+    public WorkPriceEntity recalculate(Long workPriceId) {
+
+        WorkPriceEntity workPrice = workPriceRepository.findByPriceIdForUpdate(workPriceId)
+                .orElseThrow(() -> new IllegalArgumentException("Base price not found: " + workPriceId));
+
+        BigDecimal total = sumOverrides(workPriceId);
+
+        workPrice.setOverrideTotal(total);
+        workPrice.setFinalPrice(workPrice.getPrice().add(total));
+        publishFinalPrice(workPrice);
+
+        log.info(
+                "Materialized totals recalculated: workPriceId={}, overrideTotal={}, finalPrice={}",
+                workPriceId,
+                workPrice.getOverrideTotal(),
+                workPrice.getFinalPrice()
+        );
+
+        return workPrice;
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal
+    // ---------------------------------------------------------------------
+
+    private void ensureMaterialized(WorkPriceEntity workPrice) {
+
+        if (workPrice.hasMaterializedTotals()) {
+            return;
+        }
+
+        BigDecimal total = sumOverrides(workPrice.getPriceId());
+
+        log.debug(
+                "Initializing materialized totals for workPriceId={}: overrideTotal={}",
+                workPrice.getPriceId(),
+                total
+        );
+
+        workPrice.setOverrideTotal(total);
+        workPrice.setFinalPrice(workPrice.getPrice().add(total));
+    }
+
+    private void applyDelta(WorkPriceEntity workPrice, BigDecimal delta) {
+
+        BigDecimal total = workPrice.getOverrideTotal().add(delta);
+
+        workPrice.setOverrideTotal(total);
+        workPrice.setFinalPrice(workPrice.getPrice().add(total));
+        publishFinalPrice(workPrice);
+    }
+
+    private void publishFinalPrice(WorkPriceEntity workPrice) {
+        eventPublisher.publishEvent(WorkFinalPricesChangedEvent.of(
+                workPrice.getWork().getId(),
+                workPrice.getFinalPrice()));
+    }
+
+    private BigDecimal sumOverrides(Long workPriceId) {
+        BigDecimal sum = overrideRepository.sumAdjustmentsByWorkPriceId(workPriceId);
+        return sum != null ? sum : BigDecimal.ZERO;
+    }
+}
@@ -1,5 +1,8 @@
 package com.dentallab.domain.pricing.service;
 
+import java.util.Collection;
+import java.util.Map;
+
 import com.dentallab.domain.pricing.model.PriceResolution;
 import com.dentallab.domain.pricing.model.PriceResolutionRequest;
 
@@ -7,4 +10,6 @@ public interface WorkPricingService {
 	
 	PriceResolution resolveFinalPrice(PriceResolutionRequest request);
 
+	Map<Long, PriceResolution> resolveFinalPrices(Collection<Long> workIds);
+
 }
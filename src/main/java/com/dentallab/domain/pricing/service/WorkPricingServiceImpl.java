@@ -1,5 +1,8 @@
 package com.dentallab.domain.pricing.service;
 
+import java.util.Collection;
+import java.util.Map;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -119,8 +122,11 @@ public class WorkPricingServiceImpl implements WorkPricingService {
      *
      * <ul>
      *   <li>delegates directly to {@link FinalWorkPriceResolver}</li>
-     *   <li>recomputes the final price <strong>every time</strong> it is called</li>
+     *   <li>reads the final price materialized on {@code work_price}
+     *       (kept current by {@link WorkPriceOverrideService})</li>
      *   <li>reflects any overrides added or removed since the last call</li>
+     *   <li>includes the individual overrides only if the request asks for
+     *       them ({@link PriceResolutionRequest#withOverrideDetails()})</li>
      * </ul>
      *
      * <p>
@@ -175,4 +181,45 @@ public class WorkPricingServiceImpl implements WorkPricingService {
 
         return resolution;
     }
+
+    /**
+     * <p>
+     * Returns the <strong>current final price</strong> of many works.
+     * </p>
+     *
+     * <p>
+     * Same semantics as {@link #resolveFinalPrice(PriceResolutionRequest)},
+     * but backed by {@link FinalWorkPriceResolver#resolveAll(Collection)},
+     * which issues a constant number of queries regardless of how many
+     * works are requested.
+     * </p>
+     *
+     * <p>
+     * Intended for flows that price many works at once
+     * (payment preview, payment registration, statements).
+     * </p>
+     *
+     * @param workIds
+     *        works whose final price is requested
+     * @return
+     *        final prices keyed by workId
+     *
+     * @throws IllegalStateException
+     *         if any work has no base price
+     */
+    @Override
+    public Map<Long, PriceResolution> resolveFinalPrices(Collection<Long> workIds) {
+
+        log.debug(
+                "Resolving final prices through WorkPricingService for {} works",
+                workIds != null ? workIds.size() : 0
+        );
+
+        Map<Long, PriceResolution> resolutions =
+                finalPriceResolver.resolveAll(workIds);
+
+        log.info("Final prices delivered for {} works", resolutions.size());
+
+        return resolutions;
+    }
 }
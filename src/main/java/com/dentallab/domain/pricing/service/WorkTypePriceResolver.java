@@ -1,5 +1,8 @@
 package com.dentallab.domain.pricing.service;
 
+import java.util.Collection;
+import java.util.Map;
+
 import com.dentallab.domain.pricing.model.BasePriceResult;
 import com.dentallab.domain.pricing.model.PriceResolutionRequest;
 
@@ -7,4 +10,11 @@ public interface WorkTypePriceResolver {
 	
 	BasePriceResult resolveBasePrice(PriceResolutionRequest request);
 
+	/**
+	 * Batch variant of {@link #resolveBasePrice(PriceResolutionRequest)}.
+	 *
+	 * @return base prices keyed by workId, in request order
+	 */
+	Map<Long, BasePriceResult> resolveBasePrices(Collection<PriceResolutionRequest> requests);
+
 }
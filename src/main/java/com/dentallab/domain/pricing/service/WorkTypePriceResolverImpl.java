@@ -1,6 +1,9 @@
 package com.dentallab.domain.pricing.service;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 
 import org.slf4j.Logger;
@@ -152,6 +155,8 @@ public class WorkTypePriceResolverImpl implements WorkTypePriceResolver {
     /**
      * Query used to locate the best matching pricing rule
      * from the `work_type_price` table.
+     * At runtime this is the in-memory rule index
+     * ({@code IndexedWorkTypePriceQuery}).
      */
     private final WorkTypePriceQuery workTypePriceQuery;
 
@@ -214,6 +219,93 @@ public class WorkTypePriceResolverImpl implements WorkTypePriceResolver {
             );
         }
 
+        return resolveFromView(request, view);
+    }
+
+    /**
+     * <p>
+     * Resolves the <strong>BASE price</strong> of many works at once.
+     * </p>
+     *
+     * <p>
+     * Semantics are identical to {@link #resolveBasePrice(PriceResolutionRequest)}
+     * applied to each request, but pricing parameters are loaded with a
+     * constant number of queries ({@link WorkPricingQuery#findByWorkIds})
+     * and rules are matched through {@link WorkTypePriceQuery}
+     * (served from memory at runtime).
+     * </p>
+     *
+     * <p>
+     * The batch is <strong>all-or-nothing</strong>: the first invalid
+     * work aborts the whole resolution.
+     * </p>
+     *
+     * @param requests one request per work; each workId may appear only once
+     * @return base prices keyed by workId, in request order
+     * @throws IllegalArgumentException if a workId appears more than once
+     * @throws IllegalStateException
+     *         if any work or pricing rule is missing,
+     *         or if a pricing rule is invalid
+     */
+    @Override
+    public Map<Long, BasePriceResult> resolveBasePrices(Collection<PriceResolutionRequest> requests) {
+
+        if (requests == null || requests.isEmpty()) {
+            return Map.of();
+        }
+
+        // -----------------------------------------------------------------
+        // 1) Index requests by workId (rejecting duplicates)
+        // -----------------------------------------------------------------
+        Map<Long, PriceResolutionRequest> byWorkId = new LinkedHashMap<>();
+        for (PriceResolutionRequest request : requests) {
+            if (byWorkId.putIfAbsent(request.getWorkId(), request) != null) {
+                throw new IllegalArgumentException(
+                        "Duplicate workId in batch pricing request: " + request.getWorkId()
+                );
+            }
+        }
+
+        log.debug("Resolving BASE price for {} works", byWorkId.size());
+
+        // -----------------------------------------------------------------
+        // 2) Load pricing parameters for all works
+        // -----------------------------------------------------------------
+        Map<Long, WorkPricingView> views = workPricingQuery.findByWorkIds(byWorkId.keySet());
+
+        // -----------------------------------------------------------------
+        // 3) Resolve each work against the pricing rules
+        // -----------------------------------------------------------------
+        Map<Long, BasePriceResult> results = new LinkedHashMap<>();
+
+        for (PriceResolutionRequest request : byWorkId.values()) {
+
+            WorkPricingView view = views.get(request.getWorkId());
+
+            if (view == null) {
+                log.error("Cannot resolve base price: work not found (id={})", request.getWorkId());
+                throw new IllegalStateException(
+                        "Cannot resolve base price: work not found (id=" + request.getWorkId() + ")"
+                );
+            }
+
+            results.put(request.getWorkId(), resolveFromView(request, view));
+        }
+
+        log.info("Base prices resolved for {} works", results.size());
+
+        return results;
+    }
+
+    /**
+     * Steps shared by single and batch resolution once the
+     * {@link WorkPricingView} is known: rule selection and base computation.
+     */
+    private BasePriceResult resolveFromView(PriceResolutionRequest request,
+                                            WorkPricingView view) {
+
+        Long workId = request.getWorkId();
+
         log.debug(
                 "Pricing parameters loaded for workId={}: family={}, type={}, constitution={}, technique={}, coreMaterialId={}, units={}",
                 workId,
@@ -307,13 +399,18 @@ public class WorkTypePriceResolverImpl implements WorkTypePriceResolver {
      *   </li>
      * </ul>
      *
+     * <p>
+     * Package-private and stateless so that {@link RepricingSimulator}
+     * evaluates candidate rules with exactly the same semantics.
+     * </p>
+     *
      * @param rule the pricing rule selected from <code>work_type_price</code>
      * @param view the pricing parameters of the work
      * @return the computed base price
      * @throws IllegalStateException
      *         if the pricing rule definition is invalid
      */
-    private BigDecimal computeBase(WorkTypePriceEntity rule,
+    static BigDecimal computeBase(WorkTypePriceEntity rule,
                                    WorkPricingView view) {
 
         if (rule.getBasePrice() != null) {
@@ -72,6 +72,25 @@ public class BridgeWorkEntity implements Serializable {
 
     @Column(name = "notes", length = 500)
     private String notes;
+
+    // ==========================================================
+    // DERIVED SPAN DATA (denormalized from bridge_tooth)
+    // ==========================================================
+
+    /**
+     * Number of prosthetic units (rows in {@code bridge_tooth}).
+     * Maintained by the bridge upsert in the same transaction as the teeth;
+     * {@code null} for rows written before the column existed.
+     */
+    @Column(name = "prosthetic_units")
+    private Integer prostheticUnits;
+
+    /**
+     * FDI span bitmask of the bridge teeth (see {@code ToothSpanUtils}).
+     * {@code null} when unknown or when a tooth is not in FDI notation.
+     */
+    @Column(name = "teeth_span_mask")
+    private Long teethSpanMask;
     
     // ==============================================================
     // Many to One relationship with BridToothEntity which is a join
@@ -188,6 +207,22 @@ public class BridgeWorkEntity implements Serializable {
         this.notes = notes;
     }
 
+    public Integer getProstheticUnits() {
+        return prostheticUnits;
+    }
+
+    public void setProstheticUnits(Integer prostheticUnits) {
+        this.prostheticUnits = prostheticUnits;
+    }
+
+    public Long getTeethSpanMask() {
+        return teethSpanMask;
+    }
+
+    public void setTeethSpanMask(Long teethSpanMask) {
+        this.teethSpanMask = teethSpanMask;
+    }
+
     // ==========================================================
     // EQUALITY & STRING REPRESENTATION
     // ==========================================================
@@ -0,0 +1,101 @@
+package com.dentallab.persistence.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Per-client ledger checkpoint (one row per client).
+ *
+ * {@code balance} is SUM({@code client_balance_movement.amount_change}) of
+ * the client's movements with {@code movement_id <= last_movement_id}; the
+ * authoritative balance is {@code balance} plus the movements after it.
+ * Written only by {@code ClientBalanceCheckpointJob}.
+ */
+@Entity
+@Table(name = "client_balance_checkpoint")
+public class ClientBalanceCheckpointEntity {
+
+    @Id
+    @Column(name = "client_id")
+    private Long clientId;
+
+    @Column(name = "last_movement_id", nullable = false)
+    private Long lastMovementId;
+
+    @Column(name = "balance", nullable = false, precision = 12, scale = 2)
+    private BigDecimal balance;
+
+    @Column(name = "movement_count", nullable = false)
+    private Long movementCount;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // -------- getters / setters --------
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(Long clientId) {
+        this.clientId = clientId;
+    }
+
+    public Long getLastMovementId() {
+        return lastMovementId;
+    }
+
+    public void setLastMovementId(Long lastMovementId) {
+        this.lastMovementId = lastMovementId;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+
+    public Long getMovementCount() {
+        return movementCount;
+    }
+
+    public void setMovementCount(Long movementCount) {
+        this.movementCount = movementCount;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    // -------- equals / hashCode --------
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ClientBalanceCheckpointEntity that)) return false;
+        return clientId != null && clientId.equals(that.clientId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(clientId);
+    }
+
+    @Override
+    public String toString() {
+        return "ClientBalanceCheckpointEntity{" +
+                "clientId=" + clientId +
+                ", lastMovementId=" + lastMovementId +
+                ", balance=" + balance +
+                ", movementCount=" + movementCount +
+                '}';
+    }
+}
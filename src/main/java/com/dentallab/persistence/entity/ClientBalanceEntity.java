@@ -32,6 +32,14 @@ public class ClientBalanceEntity {
     @Column(name = "updated_at")
     private Instant updatedAt;
 
+    /**
+     * Optimistic lock version, checked on every update
+     * ({@code payment.balance.locking=OPTIMISTIC}).
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         Instant now = Instant.now();
@@ -95,6 +103,14 @@ public class ClientBalanceEntity {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // -------- equals / hashCode --------
 
     @Override
@@ -118,6 +134,7 @@ public class ClientBalanceEntity {
                 ", currency='" + currency + '\'' +
                 ", active=" + active +
                 ", updatedAt=" + updatedAt +
+                ", version=" + version +
                 '}';
     }
 }
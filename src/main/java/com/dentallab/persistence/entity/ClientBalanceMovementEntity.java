@@ -10,6 +10,7 @@ import java.util.Objects;
     name = "client_balance_movement",
     indexes = {
         @Index(name = "idx_cbm_client", columnList = "client_id, created_at"),
+        @Index(name = "idx_cbm_client_movement", columnList = "client_id, movement_id"),
         @Index(name = "idx_cbm_payment", columnList = "payment_id"),
         @Index(name = "idx_cbm_work", columnList = "work_id")
     }
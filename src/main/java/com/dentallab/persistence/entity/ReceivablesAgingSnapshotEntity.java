@@ -0,0 +1,151 @@
+package com.dentallab.persistence.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * One client's receivables aging buckets as of {@code snapshotDate}.
+ *
+ * Written once a day (or on demand) by {@code ReceivablesAgingService}
+ * from {@code work_payment_summary}; a snapshot is the whole set of rows
+ * sharing a date and is replaced as a unit.
+ */
+@Entity
+@Table(
+    name = "receivables_aging_snapshot",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uq_ras_date_client", columnNames = { "snapshot_date", "client_id" })
+    }
+)
+public class ReceivablesAgingSnapshotEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "snapshot_id")
+    private Long id;
+
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    @Column(name = "client_id", nullable = false)
+    private Long clientId;
+
+    @Column(name = "current_amount", nullable = false, precision = 12, scale = 2)
+    private BigDecimal currentAmount;
+
+    @Column(name = "days_31_60", nullable = false, precision = 12, scale = 2)
+    private BigDecimal days31To60;
+
+    @Column(name = "days_61_90", nullable = false, precision = 12, scale = 2)
+    private BigDecimal days61To90;
+
+    @Column(name = "over_90", nullable = false, precision = 12, scale = 2)
+    private BigDecimal over90;
+
+    @Column(name = "total_unpaid", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalUnpaid;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // -------- getters / setters --------
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getSnapshotDate() {
+        return snapshotDate;
+    }
+
+    public void setSnapshotDate(LocalDate snapshotDate) {
+        this.snapshotDate = snapshotDate;
+    }
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(Long clientId) {
+        this.clientId = clientId;
+    }
+
+    public BigDecimal getCurrentAmount() {
+        return currentAmount;
+    }
+
+    public void setCurrentAmount(BigDecimal currentAmount) {
+        this.currentAmount = currentAmount;
+    }
+
+    public BigDecimal getDays31To60() {
+        return days31To60;
+    }
+
+    public void setDays31To60(BigDecimal days31To60) {
+        this.days31To60 = days31To60;
+    }
+
+    public BigDecimal getDays61To90() {
+        return days61To90;
+    }
+
+    public void setDays61To90(BigDecimal days61To90) {
+        this.days61To90 = days61To90;
+    }
+
+    public BigDecimal getOver90() {
+        return over90;
+    }
+
+    public void setOver90(BigDecimal over90) {
+        this.over90 = over90;
+    }
+
+    public BigDecimal getTotalUnpaid() {
+        return totalUnpaid;
+    }
+
+    public void setTotalUnpaid(BigDecimal totalUnpaid) {
+        this.totalUnpaid = totalUnpaid;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    // -------- equals / hashCode --------
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ReceivablesAgingSnapshotEntity that)) return false;
+        return id != null && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "ReceivablesAgingSnapshotEntity{" +
+                "id=" + id +
+                ", snapshotDate=" + snapshotDate +
+                ", clientId=" + clientId +
+                ", totalUnpaid=" + totalUnpaid +
+                '}';
+    }
+}
@@ -0,0 +1,52 @@
+package com.dentallab.persistence.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Next internal work sequence per client profile and year
+ * (one row per profile prefix, profile id and year).
+ *
+ * {@code next_seq} is the first number not yet handed out; it only ever
+ * grows. Written only by {@code WorkCodeSequenceAllocator}, which reserves
+ * numbers by advancing it under a row lock.
+ */
+@Entity
+@Table(name = "work_code_sequence")
+public class WorkCodeSequenceEntity {
+
+    @EmbeddedId
+    private WorkCodeSequenceId id;
+
+    @Column(name = "next_seq", nullable = false)
+    private Integer nextSeq;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    // -------- getters / setters --------
+
+    public WorkCodeSequenceId getId() {
+        return id;
+    }
+
+    public void setId(WorkCodeSequenceId id) {
+        this.id = id;
+    }
+
+    public Integer getNextSeq() {
+        return nextSeq;
+    }
+
+    public void setNextSeq(Integer nextSeq) {
+        this.nextSeq = nextSeq;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,65 @@
+package com.dentallab.persistence.entity;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+@Embeddable
+public class WorkCodeSequenceId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Column(name = "profile_prefix", length = 1)
+    private String profilePrefix;
+
+    @Column(name = "client_profile_id")
+    private Long clientProfileId;
+
+    @Column(name = "seq_year")
+    private Integer seqYear;
+
+    /* ---------------- Constructors ---------------- */
+
+    protected WorkCodeSequenceId() {
+        // JPA only
+    }
+
+    public WorkCodeSequenceId(String profilePrefix, Long clientProfileId, Integer seqYear) {
+        this.profilePrefix = profilePrefix;
+        this.clientProfileId = clientProfileId;
+        this.seqYear = seqYear;
+    }
+
+    /* ---------------- Getters ---------------- */
+
+    public String getProfilePrefix() {
+        return profilePrefix;
+    }
+
+    public Long getClientProfileId() {
+        return clientProfileId;
+    }
+
+    public Integer getSeqYear() {
+        return seqYear;
+    }
+
+    /* ---------------- equals / hashCode ---------------- */
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof WorkCodeSequenceId)) return false;
+        WorkCodeSequenceId that = (WorkCodeSequenceId) o;
+        return Objects.equals(profilePrefix, that.profilePrefix)
+                && Objects.equals(clientProfileId, that.clientProfileId)
+                && Objects.equals(seqYear, that.seqYear);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(profilePrefix, clientProfileId, seqYear);
+    }
+}
@@ -18,7 +18,9 @@ import java.util.Objects;
         @Index(name = "idx_work_order", columnList = "order_id"),
         @Index(name = "idx_work_client", columnList = "client_id"),
         @Index(name = "idx_work_family", columnList = "work_family"),
-        @Index(name = "idx_work_type", columnList = "type")
+        @Index(name = "idx_work_type", columnList = "type"),
+        @Index(name = "idx_work_created", columnList = "created_at, work_id"),
+        @Index(name = "idx_work_client_created", columnList = "client_id, created_at, work_id")
     }
 )
 public class WorkEntity implements Serializable {
@@ -135,6 +137,16 @@ public class WorkEntity implements Serializable {
         this.workFamily = family;
     }
 
+    // ==========================================================
+    // LIFECYCLE CALLBACKS
+    // ==========================================================
+
+    // created_at orders the client's works (oldest first) for payment suggestions
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) createdAt = LocalDateTime.now();
+    }
+
     // ==========================================================
     // GETTERS & SETTERS
     // ==========================================================
@@ -0,0 +1,132 @@
+package com.dentallab.persistence.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Per-work payment projection (one row per work).
+ *
+ * Derived from the ledgers ({@code payment_allocation},
+ * {@code client_balance_movement}) and the materialized final price in
+ * {@code work_price}; written only by {@code WorkPaymentSummaryWriter}.
+ *
+ * {@code final_price} and {@code unpaid} are {@code null} while the work
+ * has no fixed price.
+ */
+@Entity
+@Table(
+    name = "work_payment_summary",
+    indexes = {
+        @Index(name = "idx_wps_client_unpaid", columnList = "client_id, unpaid")
+    }
+)
+public class WorkPaymentSummaryEntity {
+
+    @Id
+    @Column(name = "work_id")
+    private Long workId;
+
+    @Column(name = "client_id", nullable = false)
+    private Long clientId;
+
+    @Column(name = "final_price", precision = 12, scale = 2)
+    private BigDecimal finalPrice;
+
+    @Column(name = "cash_paid", nullable = false, precision = 12, scale = 2)
+    private BigDecimal cashPaid;
+
+    @Column(name = "balance_paid", nullable = false, precision = 12, scale = 2)
+    private BigDecimal balancePaid;
+
+    @Column(name = "unpaid", precision = 12, scale = 2)
+    private BigDecimal unpaid;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    // -------- getters / setters --------
+
+    public Long getWorkId() {
+        return workId;
+    }
+
+    public void setWorkId(Long workId) {
+        this.workId = workId;
+    }
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(Long clientId) {
+        this.clientId = clientId;
+    }
+
+    public BigDecimal getFinalPrice() {
+        return finalPrice;
+    }
+
+    public void setFinalPrice(BigDecimal finalPrice) {
+        this.finalPrice = finalPrice;
+    }
+
+    public BigDecimal getCashPaid() {
+        return cashPaid;
+    }
+
+    public void setCashPaid(BigDecimal cashPaid) {
+        this.cashPaid = cashPaid;
+    }
+
+    public BigDecimal getBalancePaid() {
+        return balancePaid;
+    }
+
+    public void setBalancePaid(BigDecimal balancePaid) {
+        this.balancePaid = balancePaid;
+    }
+
+    public BigDecimal getUnpaid() {
+        return unpaid;
+    }
+
+    public void setUnpaid(BigDecimal unpaid) {
+        this.unpaid = unpaid;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    // -------- equals / hashCode --------
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof WorkPaymentSummaryEntity that)) return false;
+        return workId != null && workId.equals(that.workId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(workId);
+    }
+
+    @Override
+    public String toString() {
+        return "WorkPaymentSummaryEntity{" +
+                "workId=" + workId +
+                ", clientId=" + clientId +
+                ", finalPrice=" + finalPrice +
+                ", cashPaid=" + cashPaid +
+                ", balancePaid=" + balancePaid +
+                ", unpaid=" + unpaid +
+                '}';
+    }
+}
@@ -27,6 +27,20 @@ public class WorkPriceEntity {
     @Column(name = "price", nullable = false, precision = 12, scale = 2)
     private BigDecimal price;
 
+    /**
+     * Materialized SUM(work_item_price_override.adjustment) for this price.
+     * {@code null} for rows written before the column existed.
+     */
+    @Column(name = "override_total", precision = 12, scale = 2)
+    private BigDecimal overrideTotal;
+
+    /**
+     * Materialized {@code price + override_total}.
+     * Maintained together with {@link #overrideTotal}.
+     */
+    @Column(name = "final_price", precision = 12, scale = 2)
+    private BigDecimal finalPrice;
+
     @Column(name = "price_group", nullable = false, length = 50)
     private String priceGroup = "DEFAULT";
 
@@ -64,6 +78,30 @@ public class WorkPriceEntity {
     public void setPrice(BigDecimal price) {
         this.price = price;
     }
+
+    public BigDecimal getOverrideTotal() {
+        return overrideTotal;
+    }
+
+    public void setOverrideTotal(BigDecimal overrideTotal) {
+        this.overrideTotal = overrideTotal;
+    }
+
+    public BigDecimal getFinalPrice() {
+        return finalPrice;
+    }
+
+    public void setFinalPrice(BigDecimal finalPrice) {
+        this.finalPrice = finalPrice;
+    }
+
+    /**
+     * @return true if {@code override_total} and {@code final_price}
+     *         are populated and can be read instead of aggregating overrides
+     */
+    public boolean hasMaterializedTotals() {
+        return overrideTotal != null && finalPrice != null;
+    }
     
     public void setWork(WorkEntity work) {
 		this.work = work;
@@ -129,6 +167,8 @@ public class WorkPriceEntity {
                 "priceId=" + priceId +
                 ", workId=" + work.getId() +
                 ", price=" + price +
+                ", overrideTotal=" + overrideTotal +
+                ", finalPrice=" + finalPrice +
                 ", priceGroup='" + priceGroup + '\'' +
                 ", currency='" + currency + '\'' +
                 ", createdAt=" + createdAt +
@@ -5,8 +5,11 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Objects;
 
+import com.dentallab.domain.pricing.persistence.WorkTypePriceChangeListener;
+
 @Entity
 @Table(name = "work_type_price")
+@EntityListeners(WorkTypePriceChangeListener.class)
 public class WorkTypePriceEntity {
 
     @Id
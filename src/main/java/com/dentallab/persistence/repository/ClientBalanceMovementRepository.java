@@ -19,6 +19,11 @@ public interface ClientBalanceMovementRepository extends JpaRepository<ClientBal
 	
 	/**
      * Authoritative balance = SUM(amountChange) across all movements for the client.
+     *
+     * <p>
+     * Full history scan: balance reads go through {@code ClientBalanceQuery}
+     * (checkpoint plus tail); this is kept as the reference for verification.
+     * </p>
      */
     @Query("""
         select coalesce(sum(m.amountChange), 0)
@@ -0,0 +1,37 @@
+package com.dentallab.persistence.repository;
+
+import java.math.BigDecimal;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.dentallab.persistence.entity.WorkItemPriceOverrideEntity;
+
+/**
+ * WorkItemPriceOverrideRepository
+ * -------------------------------------------------------------------------
+ * Write-side repository for price overrides.
+ *
+ * Overrides must be added and removed through WorkPriceOverrideService,
+ * which keeps work_price.override_total / final_price in sync.
+ * Read-only access for pricing lives in WorkPriceOverrideQuery.
+ */
+@Repository
+public interface WorkItemPriceOverrideRepository
+        extends JpaRepository<WorkItemPriceOverrideEntity, Long> {
+
+    /**
+     * Sum of all adjustments attached to a base price.
+     *
+     * @param workPriceId the base price identifier
+     * @return the aggregated adjustment, or {@code null} if there are no overrides
+     */
+    @Query("""
+        select sum(o.adjustment)
+        from WorkItemPriceOverrideEntity o
+        where o.workPriceId = :workPriceId
+    """)
+    BigDecimal sumAdjustmentsByWorkPriceId(@Param("workPriceId") Long workPriceId);
+}
@@ -0,0 +1,69 @@
+package com.dentallab.persistence.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.dentallab.persistence.entity.WorkEntity;
+
+/**
+ * Read-only projection of works for list endpoints.
+ *
+ * <p>
+ * One statement returns everything a list row shows: the work columns,
+ * family / type / status codes and labels and the client summary. No
+ * entity is loaded, so nothing lazy is touched afterwards.
+ * </p>
+ *
+ * <p>
+ * Implemented by {@link WorkListQueryRepositoryImpl} and exposed through
+ * {@link WorkRepository}.
+ * </p>
+ */
+public interface WorkListQueryRepository {
+
+    /**
+     * Rows matching {@code spec}, ordered by {@code sort}.
+     *
+     * @param offset first row to return
+     * @param limit  maximum number of rows
+     */
+    List<WorkListRow> findListRows(Specification<WorkEntity> spec, Sort sort, long offset, int limit);
+
+    /**
+     * One list row: work columns plus denormalized lookups and client.
+     */
+    record WorkListRow(
+            Long id,
+            String description,
+            String shade,
+            String notes,
+            LocalDateTime createdAt,
+            LocalDateTime updatedAt,
+            String internalCode,
+            Integer internalSeq,
+            Integer internalYear,
+            String profilePrefix,
+            Long clientProfileId,
+            String familyCode,
+            String familyLabel,
+            String typeCode,
+            String typeLabel,
+            String statusCode,
+            String statusLabel,
+            Long orderId,
+            Long clientId,
+            String clientDisplayName,
+            String clientFirstName,
+            String clientSecondName,
+            String clientLastName,
+            String clientSecondLastName,
+            String clientPrimaryEmail,
+            String clientPrimaryPhone,
+            String clientPrimaryAddress,
+            Boolean clientActive
+    ) {
+    }
+}
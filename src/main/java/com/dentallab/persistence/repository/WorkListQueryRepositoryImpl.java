@@ -0,0 +1,133 @@
+package com.dentallab.persistence.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import com.dentallab.persistence.entity.ClientEntity;
+import com.dentallab.persistence.entity.WorkEntity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Criteria implementation of {@link WorkListQueryRepository}.
+ *
+ * <p>
+ * The family, type, status and client references are LEFT JOINed and
+ * their columns selected into a {@link Tuple}; the order id is read from
+ * the foreign key. Filters are the same {@link Specification}s the entity
+ * queries use, and the sort is translated with Spring Data's
+ * {@link QueryUtils#toOrders}, so both paths accept the same input.
+ * </p>
+ */
+public class WorkListQueryRepositoryImpl implements WorkListQueryRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<WorkListRow> findListRows(Specification<WorkEntity> spec, Sort sort, long offset, int limit) {
+
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<WorkEntity> w = query.from(WorkEntity.class);
+
+        Join<WorkEntity, ?> family = w.join("workFamily", JoinType.LEFT);
+        Join<WorkEntity, ?> type = w.join("type", JoinType.LEFT);
+        Join<WorkEntity, ?> status = w.join("status", JoinType.LEFT);
+        Join<WorkEntity, ClientEntity> client = w.join("client", JoinType.LEFT);
+
+        query.multiselect(
+                w.get("id"),
+                w.get("description"),
+                w.get("shade"),
+                w.get("notes"),
+                w.get("createdAt"),
+                w.get("updatedAt"),
+                w.get("internalCode"),
+                w.get("internalSeq"),
+                w.get("internalYear"),
+                w.get("profilePrefix"),
+                w.get("clientProfileId"),
+                family.get("code"),
+                family.get("label"),
+                type.get("code"),
+                type.get("label"),
+                status.get("code"),
+                status.get("label"),
+                w.get("order").get("id"),
+                client.get("id"),
+                client.get("displayName"),
+                client.get("firstName"),
+                client.get("secondName"),
+                client.get("lastName"),
+                client.get("secondLastName"),
+                client.get("primaryEmail"),
+                client.get("primaryPhone"),
+                client.get("primaryAddress"),
+                client.get("active"));
+
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(w, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+
+        if (sort != null && sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, w, cb));
+        }
+
+        return em.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList()
+                .stream()
+                .map(WorkListQueryRepositoryImpl::toRow)
+                .toList();
+    }
+
+    private static WorkListRow toRow(Tuple t) {
+        int i = 0;
+        return new WorkListRow(
+                t.get(i++, Long.class),
+                t.get(i++, String.class),
+                t.get(i++, String.class),
+                t.get(i++, String.class),
+                t.get(i++, LocalDateTime.class),
+                t.get(i++, LocalDateTime.class),
+                t.get(i++, String.class),
+                t.get(i++, Integer.class),
+                t.get(i++, Integer.class),
+                t.get(i++, String.class),
+                t.get(i++, Long.class),
+                t.get(i++, String.class),
+                t.get(i++, String.class),
+                t.get(i++, String.class),
+                t.get(i++, String.class),
+                t.get(i++, String.class),
+                t.get(i++, String.class),
+                t.get(i++, Long.class),
+                t.get(i++, Long.class),
+                t.get(i++, String.class),
+                t.get(i++, String.class),
+                t.get(i++, String.class),
+                t.get(i++, String.class),
+                t.get(i++, String.class),
+                t.get(i++, String.class),
+                t.get(i++, String.class),
+                t.get(i++, String.class),
+                t.get(i++, Boolean.class));
+    }
+}
@@ -1,12 +1,19 @@
 package com.dentallab.persistence.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.dentallab.persistence.entity.WorkPriceEntity;
 
+import jakarta.persistence.LockModeType;
+
 /**
  * WorkPriceRepository
  * -------------------------------------------------------------------------
@@ -41,4 +48,63 @@ public interface WorkPriceRepository
      * @return true if a base price exists, false otherwise
      */
     boolean existsByWork_Id(Long workId);
+
+    /**
+     * Loads the base price of a work using a PESSIMISTIC_WRITE lock.
+     *
+     * <p>
+     * Serializes concurrent override changes on the same work so the
+     * materialized {@code override_total} / {@code final_price} never
+     * lose an update.
+     * </p>
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        select wp
+        from WorkPriceEntity wp
+        where wp.work.id = :workId
+    """)
+    Optional<WorkPriceEntity> findByWorkIdForUpdate(@Param("workId") Long workId);
+
+    /**
+     * Same as {@link #findByWorkIdForUpdate(Long)}, keyed by base price id.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        select wp
+        from WorkPriceEntity wp
+        where wp.priceId = :priceId
+    """)
+    Optional<WorkPriceEntity> findByPriceIdForUpdate(@Param("priceId") Long priceId);
+
+    /**
+     * Fix-state of many works in one query: whether each work exists,
+     * which order it belongs to, and whether it already has a base price.
+     *
+     * <p>
+     * Works that do not exist are simply absent from the result.
+     * </p>
+     *
+     * @param workIds works about to have their base price fixed
+     * @return one row per existing work
+     */
+    @Query("""
+        select w.id as workId,
+               w.order.id as orderId,
+               wp.priceId as priceId
+        from WorkEntity w
+        left join w.price wp
+        where w.id in :workIds
+    """)
+    List<WorkPriceFixState> findFixStateByWorkIds(@Param("workIds") Collection<Long> workIds);
+
+    /**
+     * Projection returned by {@link #findFixStateByWorkIds(Collection)}.
+     */
+    interface WorkPriceFixState {
+        Long getWorkId();
+        Long getOrderId();
+        /** {@code null} if no base price has been fixed yet. */
+        Long getPriceId();
+    }
 }
@@ -1,7 +1,6 @@
 package com.dentallab.persistence.repository;
 
 import java.util.List;
-import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -16,7 +15,8 @@ import com.dentallab.persistence.entity.WorkEntity;
 @Repository
 public interface WorkRepository
         extends JpaRepository<WorkEntity, Long>,
-                JpaSpecificationExecutor<WorkEntity> {
+                JpaSpecificationExecutor<WorkEntity>,
+                WorkListQueryRepository {
 
     // ---------------------------------------------------------
     //  LOOKUP-SAFE METHODS
@@ -79,42 +79,25 @@ public interface WorkRepository
         """)
     List<WorkEntity> findAllWithClientByIdIn(List<Long> ids);
     
-    @Query("""
-    	    SELECT MAX(w.internalSeq)
-    	    FROM WorkEntity w
-    	    WHERE w.clientProfileId = :profileId
-    	      AND w.internalYear = :year
-    """)
-	Optional<Integer> findMaxSeqForProfileAndYear(
-	        @Param("profileId") Long profileId,
-	        @Param("year") Integer year
-	);
-
     @Query("SELECT w FROM WorkEntity w WHERE w.order.id = :orderId")
     List<WorkEntity> findAllByOrderId(Long orderId);
     
-    // Excludes works without a price. To include those use LEFT JOIN w.price wp.
+    /**
+     * Works of the client with an unpaid amount, oldest first.
+     *
+     * Reads the work_payment_summary projection (index on client_id, unpaid)
+     * instead of summing the payment ledgers per work. Works without a fixed
+     * price have no unpaid amount and are excluded.
+     */
     @Query("""
             SELECT w
-				FROM WorkEntity w
-				JOIN w.price wp
-				WHERE w.client.id = :clientId
-				  AND wp.price >
-				      COALESCE(
-				          (SELECT SUM(pa.amountApplied)
-				           FROM PaymentAllocationEntity pa
-				           WHERE pa.workId = w.id), 0
-				      )
-				      +
-				      COALESCE(
-				          (SELECT SUM(ABS(cbm.amountChange))
-				           FROM ClientBalanceMovementEntity cbm
-				           WHERE cbm.workId = w.id
-				             AND cbm.type = 'APPLY_WORK'), 0
-				      )
-				ORDER BY w.createdAt ASC
+            FROM WorkEntity w
+            JOIN WorkPaymentSummaryEntity s ON s.workId = w.id
+            WHERE s.clientId = :clientId
+              AND s.unpaid > 0
+            ORDER BY w.createdAt ASC
         """)
-        List<WorkEntity> findUnpaidWorksByClientId(@Param("clientId") Long clientId);
+    List<WorkEntity> findUnpaidWorksByClientId(@Param("clientId") Long clientId);
     
     /**
      * Loads works by ids ensuring they belong to the given client.
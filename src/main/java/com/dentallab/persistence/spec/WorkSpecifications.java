@@ -5,6 +5,10 @@ import org.springframework.data.jpa.domain.Specification;
 
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -46,14 +50,59 @@ public class WorkSpecifications {
     // -------------------------------------------------------------
     // Filter by CATEGORY NAMES
     // -------------------------------------------------------------
+    // EXISTS instead of JOIN + DISTINCT: no duplicate rows to collapse, and
+    // projections may order by columns they do not select.
     public static Specification<WorkEntity> hasCategoryNames(List<String> categoryNames) {
         return (root, query, cb) -> {
             if (categoryNames == null || categoryNames.isEmpty()) return null;
 
-            query.distinct(true);
-            Join<Object, Object> catJoin = root.join("categories", JoinType.INNER);
+            Subquery<Long> sub = query.subquery(Long.class);
+            Root<WorkEntity> work = sub.from(WorkEntity.class);
+            Join<Object, Object> catJoin = work.join("categories", JoinType.INNER);
 
-            return catJoin.get("name").in(categoryNames);
+            sub.select(work.get("id"))
+               .where(cb.equal(work.get("id"), root.get("id")),
+                      catJoin.get("name").in(categoryNames));
+
+            return cb.exists(sub);
+        };
+    }
+
+    // -------------------------------------------------------------
+    // Keyset (seek): rows after (key, id) in (field, id) order
+    // -------------------------------------------------------------
+    /**
+     * Rows strictly after {@code (key, lastId)} when ordered by
+     * {@code (field, id)}, both ascending or both descending.
+     *
+     * <p>
+     * {@code field} is {@code "id"} or a {@code LocalDateTime} attribute;
+     * NULL keys sort lowest (MySQL / H2 default: first ascending, last
+     * descending), so {@code key == null} resumes inside the NULL rows.
+     * </p>
+     */
+    public static Specification<WorkEntity> seekAfter(
+            String field, boolean ascending, LocalDateTime key, Long lastId) {
+
+        return (root, query, cb) -> {
+
+            Path<Long> id = root.get("id");
+
+            if ("id".equals(field)) {
+                return ascending ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId);
+            }
+
+            Path<LocalDateTime> k = root.get(field);
+
+            if (ascending) {
+                return key == null
+                        ? cb.or(cb.and(cb.isNull(k), cb.greaterThan(id, lastId)), cb.isNotNull(k))
+                        : cb.or(cb.greaterThan(k, key), cb.and(cb.equal(k, key), cb.greaterThan(id, lastId)));
+            }
+
+            return key == null
+                    ? cb.and(cb.isNull(k), cb.lessThan(id, lastId))
+                    : cb.or(cb.lessThan(k, key), cb.and(cb.equal(k, key), cb.lessThan(id, lastId)), cb.isNull(k));
         };
     }
 }
@@ -1,6 +1,8 @@
 package com.dentallab.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import com.dentallab.persistence.entity.WorkFamilyRefEntity;
 import com.dentallab.persistence.entity.WorkTypeRefEntity;
@@ -12,23 +14,42 @@ import com.dentallab.persistence.entity.WorkStatusRefEntity;
  *   • work_family_ref
  *   • work_type_ref
  *   • work_status_ref
+ *   • tooth_ref
  *
  * It provides:
- *   - Entity resolution (String code → LookupEntity)
+ *   - Entity resolution (String code → LookupEntity reference)
  *   - Label resolution (String code → human-readable label)
  *   - List retrieval for UI dropdowns and validation
  *
+ * Lookups are served from a bounded in-process cache; lists and single
+ * lookups return immutable views (the records below), never managed
+ * entities.
+ *
  * This abstraction prevents duplication and keeps lookup logic consistent,
  * especially when mapping between WorkEntity ↔ WorkModel and extensions.
  */
 public interface LookupService {
 
+    // ==========================================================
+    // IMMUTABLE VIEWS
+    // ==========================================================
+
+    record FamilyRef(String code, String label) { }
+
+    record TypeRef(String code, String label, String familyCode) { }
+
+    record StatusRef(String code, String label, Integer sequenceOrder) { }
+
+    record ToothRef(Long id, String toothNumber) { }
+
     // ==========================================================
     // FAMILY LOOKUPS
     // ==========================================================
 
     /**
      * Resolves a family code to the corresponding lookup entity.
+     * The code is validated against the cache; the result is a JPA
+     * reference (no select) meant for setting relations.
      *
      * @param familyCode the code from work_family_ref
      * @return the matching WorkFamilyRefEntity
@@ -49,7 +70,7 @@ public interface LookupService {
     /**
      * @return list of all defined work families.
      */
-    List<WorkFamilyRefEntity> getAllFamilies();
+    List<FamilyRef> getAllFamilies();
 
 
     // ==========================================================
@@ -57,7 +78,8 @@ public interface LookupService {
     // ==========================================================
 
     /**
-     * Resolves a type code to the corresponding lookup entity.
+     * Resolves a type code to the corresponding lookup entity
+     * (validated against the cache, returned as a JPA reference).
      *
      * @param typeCode the code from work_type_ref
      * @return the matching WorkTypeRefEntity
@@ -78,14 +100,14 @@ public interface LookupService {
     /**
      * @return list of all defined work types.
      */
-    List<WorkTypeRefEntity> getAllTypes();
+    List<TypeRef> getAllTypes();
 
     /**
      * Returns all types grouped under a specific work family.
      *
      * @param familyCode work family (e.g., FIXED_PROSTHESIS)
      */
-    List<WorkTypeRefEntity> getTypesByFamily(String familyCode);
+    List<TypeRef> getTypesByFamily(String familyCode);
 
 
     // ==========================================================
@@ -93,7 +115,8 @@ public interface LookupService {
     // ==========================================================
 
     /**
-     * Resolves a work status code to its lookup entity.
+     * Resolves a work status code to its lookup entity
+     * (validated against the cache, returned as a JPA reference).
      *
      * @param statusCode code from work_status_ref (e.g. IN_PROGRESS)
      * @return WorkStatusRefEntity or error if code does not exist
@@ -111,7 +134,22 @@ public interface LookupService {
     String getStatusLabel(WorkStatusRefEntity entity);
 
     /**
-     * @return list of all defined statuses (for dropdowns, filters).
+     * @return list of all defined statuses in workflow order
+     *         (for dropdowns, filters).
+     */
+    List<StatusRef> getAllStatuses();
+
+
+    // ==========================================================
+    // TOOTH LOOKUPS
+    // ==========================================================
+
+    /**
+     * Resolves tooth ids to their tooth_ref views.
+     *
+     * @param toothIds ids from tooth_ref
+     * @return views by id
+     * @throws IllegalArgumentException if any id does not exist
      */
-    List<WorkStatusRefEntity> getAllStatuses();
+    Map<Long, ToothRef> getTeeth(Collection<Long> toothIds);
 }
@@ -0,0 +1,24 @@
+package com.dentallab.service;
+
+import java.util.List;
+
+import com.dentallab.api.dto.WorkBatchResult;
+import com.dentallab.api.model.FullWorkModel;
+
+/**
+ * Bulk intake of works (base + CROWN / BRIDGE extension) into an existing
+ * order, e.g. a multi-unit case received from a clinic.
+ */
+public interface WorkBatchIntakeService {
+
+    /**
+     * Validates every item, then inserts the valid ones in one transaction.
+     *
+     * @param orderId target order; every work gets its client
+     * @param items   works to create, same payload as {@code POST /api/works}
+     * @return one result per item, in request order
+     * @throws jakarta.persistence.EntityNotFoundException if the order does not exist
+     * @throws IllegalArgumentException if the batch is empty or too large
+     */
+    WorkBatchResult createBatch(Long orderId, List<FullWorkModel> items);
+}
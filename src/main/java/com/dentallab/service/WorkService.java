@@ -5,6 +5,7 @@ import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.dentallab.api.model.CursorPage;
 import com.dentallab.api.model.FullWorkModel;
 import com.dentallab.api.model.WorkModel;
 
@@ -104,4 +105,32 @@ public interface WorkService {
             List<String> categories
     );
 
+    /**
+     * Keyset (seek) variant of {@link #getFilteredWithClients}: the page
+     * starts after the row encoded in {@code cursor} instead of skipping
+     * {@code page * size} rows, so deep pages cost the same as the first.
+     *
+     * @param cursor     opaque cursor from a previous page; {@code null} or
+     *                   blank for the first page
+     * @param size       page size
+     * @param sortParam  one sort key, {@code id}, {@code createdAt} or
+     *                   {@code updatedAt}, e.g. "createdAt,desc" (work id
+     *                   breaks ties)
+     * @param withCount  whether to also count all matching works
+     * @return page with next / previous cursors
+     * @throws IllegalArgumentException on an invalid cursor, or a cursor
+     *         issued for another sort
+     */
+    CursorPage<WorkModel> getFilteredByCursor(
+            String cursor,
+            int size,
+            String sortParam,
+            boolean withCount,
+            String typeCode,
+            String statusCode,
+            Long clientId,
+            String familyCode,
+            List<String> categories
+    );
+
 }
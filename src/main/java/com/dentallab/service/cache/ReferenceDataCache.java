@@ -0,0 +1,220 @@
+package com.dentallab.service.cache;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * <h2>ReferenceDataCache</h2>
+ *
+ * <hr/>
+ *
+ * <p>
+ * In-process, bounded LRU cache of reference data (work families, types,
+ * statuses and teeth), read through by {@code LookupServiceImpl}.
+ * </p>
+ *
+ * <ul>
+ *   <li><strong>Values</strong> are immutable views (records and
+ *       unmodifiable lists), never managed entities: a cached value can
+ *       be shared between threads and persistence contexts.</li>
+ *   <li><strong>Bound</strong>: at most {@code lookup.cache.max-entries}
+ *       entries; the least recently used one is dropped first.</li>
+ *   <li><strong>Metrics</strong>: hits, misses and LRU evictions, see
+ *       {@link #stats()}.</li>
+ *   <li><strong>Invalidation</strong>: writers of a reference table call
+ *       {@link #evictAfterCompletion(Table)}. Values loaded while an
+ *       eviction happened are not stored (per-table generation check), so
+ *       a slow reader cannot put a stale value back.</li>
+ * </ul>
+ *
+ * <p>
+ * Absent values (unknown codes) are not cached.
+ * </p>
+ *
+ * <p>
+ * Thread-safe. Loaders run outside the lock.
+ * </p>
+ */
+@Component
+public class ReferenceDataCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+    /** Reference table an entry was read from (the unit of invalidation). */
+    public enum Table { FAMILY, TYPE, STATUS, TOOTH }
+
+    /**
+     * Cache key: table, kind of lookup within it (e.g. "code", "all",
+     * "byFamily") and its argument.
+     */
+    public record Key(Table table, String kind, Object id) { }
+
+    public record Stats(long hits, long misses, long evictions, int size, int maxEntries) {
+
+        public double hitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+
+    private final int maxEntries;
+    private final Map<Key, Object> entries;
+    private final Map<Table, Long> generations = new EnumMap<>(Table.class);
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public ReferenceDataCache(@Value("${lookup.cache.max-entries:1000}") int maxEntries) {
+
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("lookup.cache.max-entries must be >= 0");
+        }
+
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                if (size() > ReferenceDataCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        for (Table table : Table.values()) {
+            generations.put(table, 0L);
+        }
+    }
+
+    /**
+     * Cached value for the key, loading (and storing) it on a miss.
+     *
+     * @param loader returns an immutable value, or {@code null} when absent
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V get(Table table, String kind, Object id, Supplier<V> loader) {
+
+        Key key = new Key(table, kind, id);
+        long generation;
+
+        synchronized (this) {
+            Object cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return (V) cached;
+            }
+            misses++;
+            generation = generations.get(table);
+        }
+
+        V loaded = loader.get();
+        if (loaded != null) {
+            store(table, generation, Map.of(key, loaded));
+        }
+        return loaded;
+    }
+
+    /**
+     * Cached values for several ids of the same kind; the missing ones are
+     * loaded with a single call of {@code bulkLoader}.
+     *
+     * @param bulkLoader returns the values found for the requested ids
+     * @return values by id; ids without a value are absent
+     */
+    @SuppressWarnings("unchecked")
+    public <I, V> Map<I, V> getAll(Table table, String kind, Collection<I> ids,
+                                   Function<Set<I>, Map<I, V>> bulkLoader) {
+
+        Map<I, V> result = new HashMap<>();
+        Set<I> missing = new LinkedHashSet<>();
+        long generation;
+
+        synchronized (this) {
+            for (I id : ids) {
+                Object cached = entries.get(new Key(table, kind, id));
+                if (cached != null) {
+                    hits++;
+                    result.put(id, (V) cached);
+                } else if (missing.add(id)) {
+                    misses++;
+                }
+            }
+            generation = generations.get(table);
+        }
+
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        Map<I, V> loaded = bulkLoader.apply(missing);
+        result.putAll(loaded);
+
+        Map<Key, Object> toStore = new HashMap<>();
+        loaded.forEach((id, value) -> toStore.put(new Key(table, kind, id), value));
+        store(table, generation, toStore);
+
+        return result;
+    }
+
+    /**
+     * Drops every entry of the table now and again when the current
+     * transaction completes, so readers never keep a value the
+     * transaction replaced (nor one it rolled back).
+     */
+    public void evictAfterCompletion(Table table) {
+
+        evict(table);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(table);
+                }
+            });
+        }
+    }
+
+    public synchronized void evict(Table table) {
+        entries.keySet().removeIf(key -> key.table() == table);
+        generations.merge(table, 1L, Long::sum);
+        log.debug("Reference data cache evicted: table={}", table);
+    }
+
+    public synchronized void evictAll() {
+        entries.clear();
+        generations.replaceAll((table, generation) -> generation + 1);
+        log.info("Reference data cache cleared");
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, entries.size(), maxEntries);
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal
+    // ---------------------------------------------------------------------
+
+    private synchronized void store(Table table, long generation, Map<Key, Object> values) {
+        if (maxEntries == 0 || generations.get(table) != generation) {
+            return;
+        }
+        entries.putAll(values);
+    }
+}
@@ -1,6 +1,6 @@
 package com.dentallab.service.impl;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -23,6 +23,9 @@ import com.dentallab.persistence.repository.BridgeWorkRepository;
 import com.dentallab.persistence.repository.ToothRefRepository;
 import com.dentallab.persistence.repository.WorkRepository;
 import com.dentallab.service.BridgeWorkService;
+import com.dentallab.service.LookupService;
+import com.dentallab.service.LookupService.ToothRef;
+import com.dentallab.util.ToothSpanUtils;
 
 /**
  * <h2>BridgeWorkServiceImpl</h2>
@@ -43,8 +46,15 @@ import com.dentallab.service.BridgeWorkService;
  *
  * <p>
  * Bridge teeth are treated as <strong>structural data</strong>, not pricing data.
- * Any pricing implications (e.g. prosthetic units) are resolved upstream by
- * pricing queries.
+ * Any pricing implications are resolved upstream by pricing queries.
+ * </p>
+ *
+ * <p>
+ * The only derived values kept here are the denormalized
+ * {@code prosthetic_units} and {@code teeth_span_mask} columns of
+ * {@code bridge_work}. They are rewritten together with the teeth, in the
+ * same transaction, so pricing can read one row without aggregating
+ * {@code bridge_tooth}.
  * </p>
  *
  * <h3>Key characteristics</h3>
@@ -66,15 +76,18 @@ public class BridgeWorkServiceImpl implements BridgeWorkService {
     private final WorkRepository workRepository;
     private final BridgeWorkRepository bridgeWorkRepository;
     private final ToothRefRepository toothRefRepository;
+    private final LookupService lookupService;
 
     public BridgeWorkServiceImpl(
             WorkRepository workRepository,
             BridgeWorkRepository bridgeWorkRepository,
-            ToothRefRepository toothRefRepository
+            ToothRefRepository toothRefRepository,
+            LookupService lookupService
     ) {
         this.workRepository = workRepository;
         this.bridgeWorkRepository = bridgeWorkRepository;
         this.toothRefRepository = toothRefRepository;
+        this.lookupService = lookupService;
     }
 
     /**
@@ -88,6 +101,7 @@ public class BridgeWorkServiceImpl implements BridgeWorkService {
      *   <li>Validates bridge teeth structure</li>
      *   <li>Loads or creates {@link BridgeWorkEntity}</li>
      *   <li>Replaces all bridge teeth deterministically</li>
+     *   <li>Refreshes prosthetic units and span mask from the new teeth</li>
      * </ul>
      *
      * <p>
@@ -145,9 +159,10 @@ public class BridgeWorkServiceImpl implements BridgeWorkService {
         BridgeWorkEntity saved = bridgeWorkRepository.save(bridge);
 
         log.info(
-                "Bridge work upserted successfully: workId={}, teethCount={}",
+                "Bridge work upserted successfully: workId={}, teethCount={}, spanMask={}",
                 workId,
-                saved.getBridgeTeeth().size()
+                saved.getProstheticUnits(),
+                saved.getTeethSpanMask()
         );
 
         return saved;
@@ -245,7 +260,9 @@ public class BridgeWorkServiceImpl implements BridgeWorkService {
      *
      * <p>
      * Existing teeth are removed via {@code orphanRemoval = true}.
-     * New teeth are attached deterministically.
+     * New teeth are attached deterministically, and the derived
+     * {@code prostheticUnits} / {@code teethSpanMask} are recomputed
+     * from exactly the teeth attached here.
      * </p>
      *
      * @param bridge   the owning bridge work
@@ -263,11 +280,13 @@ public class BridgeWorkServiceImpl implements BridgeWorkService {
 
         bridge.getBridgeTeeth().clear();
 
-        Map<Long, ToothRefEntity> toothMap = loadToothRefs(teethReq);
+        Map<Long, ToothRef> toothMap = loadToothRefs(teethReq);
+        List<String> toothNumbers = new ArrayList<>(teethReq.size());
 
         for (BridgeToothRequest t : teethReq) {
 
-            ToothRefEntity tooth = toothMap.get(t.getToothId());
+            toothNumbers.add(toothMap.get(t.getToothId()).toothNumber());
+            ToothRefEntity tooth = toothRefRepository.getReferenceById(t.getToothId());
 
             BridgeToothEntity.Role role =
                     BridgeToothEntity.Role.valueOf(t.getRole());
@@ -281,6 +300,9 @@ public class BridgeWorkServiceImpl implements BridgeWorkService {
 
             bridge.getBridgeTeeth().add(bridgeTooth);
         }
+
+        bridge.setProstheticUnits(teethReq.size());
+        bridge.setTeethSpanMask(ToothSpanUtils.spanMask(toothNumbers));
     }
 
     // ==========================================================
@@ -288,13 +310,13 @@ public class BridgeWorkServiceImpl implements BridgeWorkService {
     // ==========================================================
 
     /**
-     * Loads {@link ToothRefEntity} records required by the bridge,
-     * validating that all referenced teeth exist.
+     * Resolves the teeth required by the bridge through the reference
+     * data cache, validating that all referenced teeth exist.
      *
      * @param teethReq normalized tooth requests
-     * @return map of toothId → ToothRefEntity
+     * @return map of toothId → ToothRef
      */
-    private Map<Long, ToothRefEntity> loadToothRefs(
+    private Map<Long, ToothRef> loadToothRefs(
             List<BridgeToothRequest> teethReq
     ) {
         Set<Long> ids = new HashSet<>();
@@ -302,21 +324,6 @@ public class BridgeWorkServiceImpl implements BridgeWorkService {
             ids.add(t.getToothId());
         }
 
-        List<ToothRefEntity> found = toothRefRepository.findAllById(ids);
-
-        Map<Long, ToothRefEntity> map = new HashMap<>();
-        for (ToothRefEntity tr : found) {
-            map.put(tr.getId(), tr);
-        }
-
-        for (Long id : ids) {
-            if (!map.containsKey(id)) {
-                throw new IllegalArgumentException(
-                        "toothId not found in tooth_ref: " + id
-                );
-            }
-        }
-
-        return map;
+        return lookupService.getTeeth(ids);
     }
 }
@@ -1,18 +1,24 @@
 package com.dentallab.service.impl;
 
+import com.dentallab.persistence.entity.ToothRefEntity;
 import com.dentallab.persistence.entity.WorkFamilyRefEntity;
 import com.dentallab.persistence.entity.WorkTypeRefEntity;
 import com.dentallab.persistence.entity.WorkStatusRefEntity;
+import com.dentallab.persistence.repository.ToothRefRepository;
 import com.dentallab.persistence.repository.WorkFamilyRefRepository;
 import com.dentallab.persistence.repository.WorkTypeRefRepository;
 import com.dentallab.persistence.repository.WorkStatusRefRepository;
 import com.dentallab.service.LookupService;
+import com.dentallab.service.cache.ReferenceDataCache;
+import com.dentallab.service.cache.ReferenceDataCache.Table;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 /**
@@ -20,12 +26,16 @@ import org.springframework.stereotype.Service;
  *   - Work families (work_family_ref)
  *   - Work types (work_type_ref)
  *   - Work statuses (work_status_ref)
+ *   - Teeth (tooth_ref)
  *
  * Provides both:
  *   - Entity resolution (for JPA relations)
  *   - Human-readable label resolution (for API responses)
  *
- * Lookup results are cached for performance.
+ * Lookups read through {@link ReferenceDataCache} (bounded, in-process)
+ * and cache immutable views, not entities. Entity resolution validates
+ * the code against the cache and returns a reference
+ * ({@code getReferenceById}), so setting a relation costs no select.
  */
 @Service
 public class LookupServiceImpl implements LookupService {
@@ -35,15 +45,21 @@ public class LookupServiceImpl implements LookupService {
     private final WorkFamilyRefRepository familyRepo;
     private final WorkTypeRefRepository typeRepo;
     private final WorkStatusRefRepository statusRepo;
+    private final ToothRefRepository toothRepo;
+    private final ReferenceDataCache cache;
 
     public LookupServiceImpl(
             WorkFamilyRefRepository familyRepo,
             WorkTypeRefRepository typeRepo,
-            WorkStatusRefRepository statusRepo
+            WorkStatusRefRepository statusRepo,
+            ToothRefRepository toothRepo,
+            ReferenceDataCache cache
     ) {
         this.familyRepo = familyRepo;
         this.typeRepo = typeRepo;
         this.statusRepo = statusRepo;
+        this.toothRepo = toothRepo;
+        this.cache = cache;
     }
 
 
@@ -52,7 +68,6 @@ public class LookupServiceImpl implements LookupService {
     // ==========================================================
 
     @Override
-    @Cacheable("familyByCode")
     public WorkFamilyRefEntity getFamilyEntity(String familyCode) {
         if (familyCode == null) {
             log.warn("getFamilyEntity called with NULL family code");
@@ -61,21 +76,20 @@ public class LookupServiceImpl implements LookupService {
 
         log.debug("Resolving WorkFamilyRefEntity for code={}", familyCode);
 
-        return familyRepo.findById(familyCode)
-                .orElseThrow(() -> {
-                    log.error("Invalid work family code={}", familyCode);
-                    return new IllegalArgumentException("Invalid work family: " + familyCode);
-                });
+        if (family(familyCode) == null) {
+            log.error("Invalid work family code={}", familyCode);
+            throw new IllegalArgumentException("Invalid work family: " + familyCode);
+        }
+
+        return familyRepo.getReferenceById(familyCode);
     }
 
     @Override
-    @Cacheable("familyLabelByCode")
     public String getFamilyLabel(String familyCode) {
         if (familyCode == null) return null;
 
-        return familyRepo.findById(familyCode)
-                .map(WorkFamilyRefEntity::getLabel)
-                .orElse(familyCode);
+        FamilyRef family = family(familyCode);
+        return family != null ? family.label() : familyCode;
     }
 
     @Override
@@ -84,9 +98,14 @@ public class LookupServiceImpl implements LookupService {
     }
 
     @Override
-    @Cacheable("allFamilies")
-    public List<WorkFamilyRefEntity> getAllFamilies() {
-        return familyRepo.findAll();
+    public List<FamilyRef> getAllFamilies() {
+        return cache.get(Table.FAMILY, "all", null, () ->
+                familyRepo.findAll().stream().map(LookupServiceImpl::toView).toList());
+    }
+
+    private FamilyRef family(String familyCode) {
+        return cache.get(Table.FAMILY, "code", familyCode, () ->
+                familyRepo.findById(familyCode).map(LookupServiceImpl::toView).orElse(null));
     }
 
 
@@ -95,7 +114,6 @@ public class LookupServiceImpl implements LookupService {
     // ==========================================================
 
     @Override
-    @Cacheable("typeByCode")
     public WorkTypeRefEntity getTypeEntity(String typeCode) {
         if (typeCode == null) {
             log.warn("getTypeEntity called with NULL type code");
@@ -104,21 +122,20 @@ public class LookupServiceImpl implements LookupService {
 
         log.debug("Resolving WorkTypeRefEntity for code={}", typeCode);
 
-        return typeRepo.findById(typeCode)
-                .orElseThrow(() -> {
-                    log.error("Invalid work type code={}", typeCode);
-                    return new IllegalArgumentException("Invalid work type: " + typeCode);
-                });
+        if (type(typeCode) == null) {
+            log.error("Invalid work type code={}", typeCode);
+            throw new IllegalArgumentException("Invalid work type: " + typeCode);
+        }
+
+        return typeRepo.getReferenceById(typeCode);
     }
 
     @Override
-    @Cacheable("typeLabelByCode")
     public String getTypeLabel(String typeCode) {
         if (typeCode == null) return null;
 
-        return typeRepo.findById(typeCode)
-                .map(WorkTypeRefEntity::getLabel)
-                .orElse(typeCode);
+        TypeRef type = type(typeCode);
+        return type != null ? type.label() : typeCode;
     }
 
     @Override
@@ -127,19 +144,24 @@ public class LookupServiceImpl implements LookupService {
     }
 
     @Override
-    @Cacheable("allTypes")
-    public List<WorkTypeRefEntity> getAllTypes() {
-        return typeRepo.findAll();
+    public List<TypeRef> getAllTypes() {
+        return cache.get(Table.TYPE, "all", null, () ->
+                typeRepo.findAll().stream().map(LookupServiceImpl::toView).toList());
     }
 
     @Override
-    @Cacheable(value = "typesByFamily", key = "#familyCode")
-    public List<WorkTypeRefEntity> getTypesByFamily(String familyCode) {
+    public List<TypeRef> getTypesByFamily(String familyCode) {
         if (familyCode == null) return List.of();
 
-        log.debug("Fetching work types for family={}", familyCode);
+        return cache.get(Table.TYPE, "byFamily", familyCode, () -> {
+            log.debug("Fetching work types for family={}", familyCode);
+            return typeRepo.findByFamilyCode(familyCode).stream().map(LookupServiceImpl::toView).toList();
+        });
+    }
 
-        return typeRepo.findByFamilyCode(familyCode);
+    private TypeRef type(String typeCode) {
+        return cache.get(Table.TYPE, "code", typeCode, () ->
+                typeRepo.findById(typeCode).map(LookupServiceImpl::toView).orElse(null));
     }
 
 
@@ -148,7 +170,6 @@ public class LookupServiceImpl implements LookupService {
     // ==========================================================
 
     @Override
-    @Cacheable("statusByCode")
     public WorkStatusRefEntity getStatusEntity(String statusCode) {
         if (statusCode == null) {
             log.warn("getStatusEntity called with NULL status code");
@@ -157,21 +178,20 @@ public class LookupServiceImpl implements LookupService {
 
         log.debug("Resolving WorkStatusRefEntity for code={}", statusCode);
 
-        return statusRepo.findById(statusCode)
-                .orElseThrow(() -> {
-                    log.error("Invalid work status code={}", statusCode);
-                    return new IllegalArgumentException("Invalid work status: " + statusCode);
-                });
+        if (status(statusCode) == null) {
+            log.error("Invalid work status code={}", statusCode);
+            throw new IllegalArgumentException("Invalid work status: " + statusCode);
+        }
+
+        return statusRepo.getReferenceById(statusCode);
     }
 
     @Override
-    @Cacheable("statusLabelByCode")
     public String getStatusLabel(String statusCode) {
         if (statusCode == null) return null;
 
-        return statusRepo.findById(statusCode)
-                .map(WorkStatusRefEntity::getLabel)
-                .orElse(statusCode);
+        StatusRef status = status(statusCode);
+        return status != null ? status.label() : statusCode;
     }
 
     @Override
@@ -180,8 +200,55 @@ public class LookupServiceImpl implements LookupService {
     }
 
     @Override
-    @Cacheable("allStatuses")
-    public List<WorkStatusRefEntity> getAllStatuses() {
-        return statusRepo.findAll();
+    public List<StatusRef> getAllStatuses() {
+        return cache.get(Table.STATUS, "all", null, () ->
+                statusRepo.findAllByOrderBySequenceOrderAsc().stream().map(LookupServiceImpl::toView).toList());
+    }
+
+    private StatusRef status(String statusCode) {
+        return cache.get(Table.STATUS, "code", statusCode, () ->
+                statusRepo.findById(statusCode).map(LookupServiceImpl::toView).orElse(null));
+    }
+
+
+    // ==========================================================
+    // TOOTH LOOKUPS
+    // ==========================================================
+
+    @Override
+    public Map<Long, ToothRef> getTeeth(Collection<Long> toothIds) {
+
+        Map<Long, ToothRef> teeth = cache.getAll(Table.TOOTH, "id", toothIds, missing -> {
+            Map<Long, ToothRef> found = new HashMap<>();
+            for (ToothRefEntity tooth : toothRepo.findAllById(missing)) {
+                found.put(tooth.getId(), new ToothRef(tooth.getId(), tooth.getToothNumber()));
+            }
+            return found;
+        });
+
+        for (Long id : toothIds) {
+            if (!teeth.containsKey(id)) {
+                throw new IllegalArgumentException("toothId not found in tooth_ref: " + id);
+            }
+        }
+
+        return teeth;
+    }
+
+
+    // ==========================================================
+    // ENTITY → VIEW
+    // ==========================================================
+
+    private static FamilyRef toView(WorkFamilyRefEntity e) {
+        return new FamilyRef(e.getCode(), e.getLabel());
+    }
+
+    private static TypeRef toView(WorkTypeRefEntity e) {
+        return new TypeRef(e.getCode(), e.getLabel(), e.getFamily() != null ? e.getFamily().getCode() : null);
+    }
+
+    private static StatusRef toView(WorkStatusRefEntity e) {
+        return new StatusRef(e.getCode(), e.getLabel(), e.getSequenceOrder());
     }
 }
@@ -0,0 +1,469 @@
+package com.dentallab.service.impl;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dentallab.api.dto.WorkBatchItemResult;
+import com.dentallab.api.dto.WorkBatchResult;
+import com.dentallab.api.model.BridgeWorkModel;
+import com.dentallab.api.model.CrownWorkModel;
+import com.dentallab.api.model.FullWorkModel;
+import com.dentallab.api.model.WorkExtensionModel;
+import com.dentallab.api.model.WorkModel;
+import com.dentallab.domain.enums.FixProstheticConstitution;
+import com.dentallab.persistence.entity.WorkOrderEntity;
+import com.dentallab.persistence.repository.WorkOrderRepository;
+import com.dentallab.service.LookupService;
+import com.dentallab.service.LookupService.StatusRef;
+import com.dentallab.service.LookupService.TypeRef;
+import com.dentallab.service.WorkBatchIntakeService;
+import com.dentallab.service.impl.WorkCodeSequenceAllocator.CodeOwner;
+import com.dentallab.service.impl.WorkCodeSequenceAllocator.Range;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * <h2>WorkBatchIntakeServiceImpl</h2>
+ *
+ * <hr/>
+ *
+ * <p>
+ * Creates many works of one order in a single request (multi-unit cases:
+ * several crowns, bridges of a full-arch rehabilitation...). The payload of
+ * each item is the same {@link FullWorkModel} accepted by
+ * {@code POST /api/works}.
+ * </p>
+ *
+ * <h3>What it does</h3>
+ * <ul>
+ *   <li>Loads the order (and its client profile) once; every work gets the
+ *       order's client.</li>
+ *   <li>Validates family / type / status codes against the reference lists
+ *       read once per batch (served by the lookup cache), instead of one
+ *       lookup per work.</li>
+ *   <li>Validates every item independently: invalid items are reported as
+ *       {@code REJECTED} with a message, valid ones are created. This
+ *       includes the extension constraints of the schema (core material
+ *       required, veneering material only on stratified work) and the
+ *       existence of every referenced material, checked with one
+ *       statement.</li>
+ *   <li>Reserves the internal code numbers of all accepted works as one
+ *       consecutive range ({@link WorkCodeSequenceAllocator#reserve}).</li>
+ *   <li>Inserts {@code work}, {@code crown_work} and {@code bridge_work}
+ *       rows with JDBC batches (one round trip per table with
+ *       {@code rewriteBatchedStatements=true}).</li>
+ * </ul>
+ *
+ * <h3>What it does NOT do</h3>
+ * <ul>
+ *   <li>Partial commits on database errors: a failing insert rolls back
+ *       the whole batch. Reserved code
+ *       numbers are then skipped, like any rolled back creation.</li>
+ *   <li>Create orders: the order must exist.</li>
+ *   <li>Compute bridge spans ({@code prosthetic_units},
+ *       {@code teeth_span_mask}); those are set when teeth are assigned.</li>
+ * </ul>
+ */
+@Service
+public class WorkBatchIntakeServiceImpl implements WorkBatchIntakeService {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkBatchIntakeServiceImpl.class);
+
+    private static final String INSERT_WORK = """
+            INSERT INTO work
+                (order_id, client_id, work_family, type, status, description, shade, notes,
+                 created_at, profile_prefix, client_profile_id, internal_seq, internal_year, internal_code)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final int[] INSERT_WORK_TYPES = {
+            Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP, Types.VARCHAR, Types.BIGINT, Types.INTEGER,
+            Types.INTEGER, Types.VARCHAR };
+
+    private static final String INSERT_CROWN = """
+            INSERT INTO crown_work
+                (work_id, constitution, building_technique, tooth_number,
+                 core_material_id, veneering_material_id, notes)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final int[] INSERT_CROWN_TYPES = {
+            Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.BIGINT, Types.BIGINT, Types.VARCHAR };
+
+    private static final String INSERT_BRIDGE = """
+            INSERT INTO bridge_work
+                (work_id, constitution, building_technique, core_material_id,
+                 veneering_material_id, connector_type, pontic_design, notes)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final int[] INSERT_BRIDGE_TYPES = {
+            Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.BIGINT,
+            Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR };
+
+    /** Valid item, resolved codes and (after allocation) its internal code. */
+    private static final class Accepted {
+        final int index;
+        final FullWorkModel item;
+        final String family;
+        final String type;
+        final String status;
+        int seq;
+        String internalCode;
+
+        Accepted(int index, FullWorkModel item, String family, String type, String status) {
+            this.index = index;
+            this.item = item;
+            this.family = family;
+            this.type = type;
+            this.status = status;
+        }
+    }
+
+    private final WorkOrderRepository orderRepository;
+    private final LookupService lookupService;
+    private final WorkCodeSequenceAllocator codeSequenceAllocator;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxItems;
+
+    public WorkBatchIntakeServiceImpl(
+            WorkOrderRepository orderRepository,
+            LookupService lookupService,
+            WorkCodeSequenceAllocator codeSequenceAllocator,
+            JdbcTemplate jdbcTemplate,
+            @Value("${work.batch.max-items:200}") int maxItems) {
+
+        this.orderRepository = orderRepository;
+        this.lookupService = lookupService;
+        this.codeSequenceAllocator = codeSequenceAllocator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxItems = maxItems;
+    }
+
+    @Override
+    @Transactional
+    public WorkBatchResult createBatch(Long orderId, List<FullWorkModel> items) {
+
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one work");
+        }
+        if (items.size() > maxItems) {
+            throw new IllegalArgumentException(
+                    "Batch too large: " + items.size() + " works (max " + maxItems + ")");
+        }
+
+        log.info("Work batch intake: orderId={} items={}", orderId, items.size());
+
+        // ---------------------------------------------------------
+        // 1) Order, client and code owner (once per batch)
+        // ---------------------------------------------------------
+        WorkOrderEntity order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new EntityNotFoundException("Order not found: " + orderId));
+
+        Long clientId = order.getClient().getId();
+        CodeOwner owner = WorkCodeSequenceAllocator.ownerOf(order.getClient());
+
+        // ---------------------------------------------------------
+        // 2) Shared lookups (once per batch)
+        // ---------------------------------------------------------
+        Set<String> families = lookupService.getAllFamilies().stream()
+                .map(LookupService.FamilyRef::code)
+                .collect(Collectors.toSet());
+
+        Map<String, TypeRef> types = lookupService.getAllTypes().stream()
+                .collect(Collectors.toMap(TypeRef::code, t -> t));
+
+        List<StatusRef> statusList = lookupService.getAllStatuses();
+        Set<String> statuses = statusList.stream()
+                .map(StatusRef::code)
+                .collect(Collectors.toSet());
+        String defaultStatus = statusList.stream()
+                .filter(s -> Objects.equals(s.sequenceOrder(), 1))
+                .map(StatusRef::code)
+                .findFirst()
+                .orElse(null);
+
+        // ---------------------------------------------------------
+        // 3) Validate items (each one on its own)
+        // ---------------------------------------------------------
+        WorkBatchItemResult[] results = new WorkBatchItemResult[items.size()];
+        List<Accepted> accepted = new ArrayList<>();
+
+        for (int i = 0; i < items.size(); i++) {
+
+            FullWorkModel item = items.get(i);
+            WorkModel base = item != null ? item.getBase() : null;
+
+            String error = validate(item, orderId, clientId, families, types, statuses, defaultStatus);
+
+            if (error != null) {
+                results[i] = WorkBatchItemResult.rejected(i, error);
+                log.debug("Work batch item rejected: orderId={} index={} reason={}", orderId, i, error);
+                continue;
+            }
+
+            String status = base.getStatus() != null ? base.getStatus() : defaultStatus;
+            accepted.add(new Accepted(i, item, base.getWorkFamily(), base.getType(), status));
+        }
+
+        // ---------------------------------------------------------
+        // 3b) Referenced materials exist (one statement)
+        // ---------------------------------------------------------
+        Set<Long> knownMaterials = findExistingMaterials(accepted);
+
+        for (Iterator<Accepted> it = accepted.iterator(); it.hasNext(); ) {
+
+            Accepted a = it.next();
+            Long unknown = firstUnknownMaterial(a.item.getExtension(), knownMaterials);
+
+            if (unknown != null) {
+                String error = "Material not found: " + unknown;
+                results[a.index] = WorkBatchItemResult.rejected(a.index, error);
+                log.debug("Work batch item rejected: orderId={} index={} reason={}", orderId, a.index, error);
+                it.remove();
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+
+            // -----------------------------------------------------
+            // 4) Internal codes: one consecutive range
+            // -----------------------------------------------------
+            int year = LocalDate.now().getYear();
+            Range range = codeSequenceAllocator.reserve(
+                    owner.prefix(), owner.profileId(), year, accepted.size());
+
+            for (int k = 0; k < accepted.size(); k++) {
+                Accepted a = accepted.get(k);
+                a.seq = range.first() + k;
+                a.internalCode = WorkCodeSequenceAllocator.format(owner, a.seq, year);
+            }
+
+            // -----------------------------------------------------
+            // 5) Batched inserts: work, then extensions
+            // -----------------------------------------------------
+            Map<Integer, Long> idsBySeq = insertWorks(orderId, clientId, owner, year, range, accepted);
+            insertExtensions(accepted, idsBySeq);
+
+            for (Accepted a : accepted) {
+                WorkBatchItemResult result = new WorkBatchItemResult(a.index, WorkBatchItemResult.Status.CREATED);
+                result.setWorkId(idsBySeq.get(a.seq));
+                result.setInternalCode(a.internalCode);
+                results[a.index] = result;
+            }
+        }
+
+        WorkBatchResult result = new WorkBatchResult(orderId, List.of(results));
+
+        log.info("Work batch intake done: orderId={} created={} rejected={}",
+                orderId, result.getCreated(), result.getRejected());
+
+        return result;
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal
+    // ---------------------------------------------------------------------
+
+    /**
+     * @return the rejection message, or {@code null} when the item is valid
+     */
+    private static String validate(
+            FullWorkModel item, Long orderId, Long clientId,
+            Set<String> families, Map<String, TypeRef> types, Set<String> statuses, String defaultStatus) {
+
+        if (item == null || item.getBase() == null) {
+            return "Work base cannot be null";
+        }
+
+        WorkModel base = item.getBase();
+
+        if (base.getClientId() != null && !base.getClientId().equals(clientId)) {
+            return "Order does not belong to the client";
+        }
+        if (base.getOrderId() != null && !base.getOrderId().equals(orderId)) {
+            return "Work belongs to another order: " + base.getOrderId();
+        }
+        if (base.getWorkFamily() == null || !families.contains(base.getWorkFamily())) {
+            return "Invalid family: " + base.getWorkFamily();
+        }
+
+        TypeRef type = base.getType() != null ? types.get(base.getType()) : null;
+        if (type == null) {
+            return "Invalid type: " + base.getType();
+        }
+        if (type.familyCode() != null && !type.familyCode().equals(base.getWorkFamily())) {
+            return "Type " + type.code() + " does not belong to family " + base.getWorkFamily();
+        }
+
+        if (base.getStatus() != null ? !statuses.contains(base.getStatus()) : defaultStatus == null) {
+            return "Invalid status: " + (base.getStatus() != null ? base.getStatus() : "default (RECEIVED)");
+        }
+
+        WorkExtensionModel ext = item.getExtension();
+
+        if (ext instanceof CrownWorkModel crown) {
+            if (crown.getConstitution() == null || crown.getBuildingTechnique() == null
+                    || crown.getToothNumber() == null || crown.getToothNumber().isBlank()) {
+                return "Crown requires constitution, buildingTechnique and toothNumber";
+            }
+            return validateMaterials("Crown", crown.getConstitution(),
+                    crown.getCoreMaterialId(), crown.getVeneeringMaterialId());
+        } else if (ext instanceof BridgeWorkModel bridge) {
+            if (bridge.getConstitution() == null || bridge.getBuildingTechnique() == null) {
+                return "Bridge requires constitution and buildingTechnique";
+            }
+            return validateMaterials("Bridge", bridge.getConstitution(),
+                    bridge.getCoreMaterialId(), bridge.getVeneeringMaterialId());
+        } else if (ext != null) {
+            return "Unsupported extension type: " + ext.getType();
+        }
+
+        return null;
+    }
+
+    /**
+     * Mirrors {@code core_material_id NOT NULL} and the
+     * {@code chk_*_material_logic} constraints of crown_work / bridge_work.
+     */
+    private static String validateMaterials(
+            String label, FixProstheticConstitution constitution, Long coreMaterialId, Long veneeringMaterialId) {
+
+        if (coreMaterialId == null) {
+            return label + " requires coreMaterialId";
+        }
+        if (constitution == FixProstheticConstitution.MONOLITHIC && veneeringMaterialId != null) {
+            return "Monolithic " + label.toLowerCase() + " cannot have a veneering material";
+        }
+        if (constitution == FixProstheticConstitution.STRATIFIED && veneeringMaterialId == null) {
+            return "Stratified " + label.toLowerCase() + " requires veneeringMaterialId";
+        }
+        return null;
+    }
+
+    /**
+     * Material ids referenced by the accepted items that exist, in one
+     * {@code IN (...)} statement.
+     */
+    private Set<Long> findExistingMaterials(List<Accepted> accepted) {
+
+        Set<Long> referenced = new HashSet<>();
+        for (Accepted a : accepted) {
+            for (Long id : materialIds(a.item.getExtension())) {
+                if (id != null) referenced.add(id);
+            }
+        }
+
+        if (referenced.isEmpty()) {
+            return Set.of();
+        }
+
+        String placeholders = String.join(",", Collections.nCopies(referenced.size(), "?"));
+
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT material_id FROM material WHERE material_id IN (" + placeholders + ")",
+                Long.class, referenced.toArray()));
+    }
+
+    private static Long firstUnknownMaterial(WorkExtensionModel ext, Set<Long> knownMaterials) {
+        for (Long id : materialIds(ext)) {
+            if (id != null && !knownMaterials.contains(id)) {
+                return id;
+            }
+        }
+        return null;
+    }
+
+    private static Long[] materialIds(WorkExtensionModel ext) {
+        if (ext instanceof CrownWorkModel crown) {
+            return new Long[] { crown.getCoreMaterialId(), crown.getVeneeringMaterialId() };
+        } else if (ext instanceof BridgeWorkModel bridge) {
+            return new Long[] { bridge.getCoreMaterialId(), bridge.getVeneeringMaterialId() };
+        }
+        return new Long[0];
+    }
+
+    /**
+     * Inserts the work rows and returns their generated ids by internal seq
+     * (the range is unique per code owner and year).
+     */
+    private Map<Integer, Long> insertWorks(
+            Long orderId, Long clientId, CodeOwner owner, int year, Range range, List<Accepted> accepted) {
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(accepted.size());
+
+        for (Accepted a : accepted) {
+            WorkModel base = a.item.getBase();
+            rows.add(new Object[] {
+                    orderId, clientId, a.family, a.type, a.status,
+                    base.getDescription(), base.getShade(), base.getNotes(), now,
+                    owner.prefix(), owner.profileId(), a.seq, year, a.internalCode });
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_WORK, rows, INSERT_WORK_TYPES);
+
+        Map<Integer, Long> idsBySeq = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT work_id, internal_seq
+                FROM work
+                WHERE client_profile_id = ? AND internal_year = ? AND profile_prefix = ?
+                  AND internal_seq BETWEEN ? AND ?
+                """,
+                rs -> { idsBySeq.put(rs.getInt("internal_seq"), rs.getLong("work_id")); },
+                owner.profileId(), year, owner.prefix(), range.first(), range.last());
+
+        return idsBySeq;
+    }
+
+    private void insertExtensions(List<Accepted> accepted, Map<Integer, Long> idsBySeq) {
+
+        List<Object[]> crowns = new ArrayList<>();
+        List<Object[]> bridges = new ArrayList<>();
+
+        for (Accepted a : accepted) {
+
+            Long workId = idsBySeq.get(a.seq);
+
+            if (a.item.getExtension() instanceof CrownWorkModel crown) {
+                crowns.add(new Object[] {
+                        workId, crown.getConstitution().name(), crown.getBuildingTechnique().name(),
+                        crown.getToothNumber(), crown.getCoreMaterialId(), crown.getVeneeringMaterialId(),
+                        crown.getNotes() });
+            } else if (a.item.getExtension() instanceof BridgeWorkModel bridge) {
+                bridges.add(new Object[] {
+                        workId, bridge.getConstitution().name(), bridge.getBuildingTechnique().name(),
+                        bridge.getCoreMaterialId(), bridge.getVeneeringMaterialId(),
+                        bridge.getConnectorType(), bridge.getPonticDesign(), bridge.getNotes() });
+            }
+        }
+
+        if (!crowns.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_CROWN, crowns, INSERT_CROWN_TYPES);
+        }
+        if (!bridges.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_BRIDGE, bridges, INSERT_BRIDGE_TYPES);
+        }
+    }
+}
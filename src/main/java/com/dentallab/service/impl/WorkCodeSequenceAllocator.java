@@ -0,0 +1,291 @@
+package com.dentallab.service.impl;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dentallab.persistence.entity.ClientEntity;
+
+/**
+ * <h2>WorkCodeSequenceAllocator</h2>
+ *
+ * <hr/>
+ *
+ * <p>
+ * Hands out the {@code internal_seq} of work codes ({@code D12-007-25})
+ * per client profile and year from the {@code work_code_sequence} table,
+ * instead of {@code MAX(internal_seq) + 1} over {@code work}.
+ * </p>
+ *
+ * <h3>What it does</h3>
+ * <ul>
+ *   <li>Reserves numbers by advancing {@code next_seq} under a row lock
+ *       ({@code SELECT ... FOR UPDATE}) in its <strong>own</strong>
+ *       transaction: concurrent creations never get the same number and
+ *       the lock is held for two statements, not for the whole work
+ *       creation.</li>
+ *   <li>Creates the row on first use, seeded with
+ *       {@code MAX(work.internal_seq) + 1} of the profile and year, so
+ *       existing codes are never handed out again. The seed is an
+ *       {@code INSERT ... ON DUPLICATE KEY UPDATE} in its own transaction,
+ *       done <em>before</em> locking: concurrent first users never insert
+ *       under a gap lock (InnoDB deadlock 1213), they all lock the existing
+ *       row.</li>
+ *   <li>Optionally reserves blocks of {@code work.code-sequence.block-size}
+ *       numbers and serves them from memory (bulk intake); with the default
+ *       of 1 every number costs one short transaction.</li>
+ * </ul>
+ *
+ * <h3>What it does NOT do</h3>
+ * <ul>
+ *   <li>Guarantee gap-free sequences: numbers of a rolled back creation,
+ *       and the unused part of a block at shutdown, are skipped.
+ *       {@code next_seq} only grows, so after a restart numbers continue
+ *       forward, never backwards.</li>
+ *   <li>Keep creation order across application instances when blocks are
+ *       larger than 1 (each instance serves its own block).</li>
+ * </ul>
+ *
+ * <h3>Connections</h3>
+ * <p>
+ * Callers ({@code WorkServiceImpl.create}, {@code WorkBatchIntakeServiceImpl.createBatch})
+ * are already inside a transaction, so every reservation borrows a
+ * <strong>second</strong> pooled connection while the first one stays held.
+ * The pool ({@code spring.datasource.hikari.maximum-pool-size}) must therefore
+ * be larger than twice the number of concurrent work creations, or requests
+ * holding their first connection starve waiting for the second. The
+ * reservation transaction times out after
+ * {@code work.code-sequence.tx-timeout-seconds}, so a stuck
+ * {@code FOR UPDATE} cannot keep that second connection indefinitely.
+ * </p>
+ *
+ * <p>
+ * Thread-safe.
+ * </p>
+ */
+@Component
+public class WorkCodeSequenceAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkCodeSequenceAllocator.class);
+
+    /** Consecutive reserved numbers {@code first .. first + count - 1}. */
+    public record Range(int first, int count) {
+
+        public int last() {
+            return first + count - 1;
+        }
+    }
+
+    /** Client profile a work code is numbered for: prefix D / S / T and profile id. */
+    public record CodeOwner(String prefix, Long profileId) { }
+
+    private record Key(String prefix, Long profileId, int year) { }
+
+    /** Reserved numbers not handed out yet: {@code next .. end - 1}. */
+    private static final class Block {
+        int next;
+        int end;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final int blockSize;
+    private final Map<Key, Block> blocks = new ConcurrentHashMap<>();
+
+    public WorkCodeSequenceAllocator(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${work.code-sequence.block-size:1}") int blockSize,
+            @Value("${work.code-sequence.tx-timeout-seconds:5}") int txTimeoutSeconds) {
+
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("work.code-sequence.block-size must be >= 1");
+        }
+        if (txTimeoutSeconds < 1) {
+            throw new IllegalArgumentException("work.code-sequence.tx-timeout-seconds must be >= 1");
+        }
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.tx.setTimeout(txTimeoutSeconds);
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Profile the client's work codes are numbered for.
+     *
+     * @throws IllegalStateException if the client has no profile
+     */
+    public static CodeOwner ownerOf(ClientEntity client) {
+
+        if (client.getDentistProfile() != null) {
+            return new CodeOwner("D", client.getDentistProfile().getId());
+        } else if (client.getStudentProfile() != null) {
+            return new CodeOwner("S", client.getStudentProfile().getId());
+        } else if (client.getTechnicianProfile() != null) {
+            return new CodeOwner("T", client.getTechnicianProfile().getId());
+        }
+        throw new IllegalStateException("Client without profile should not exist.");
+    }
+
+    /**
+     * Human-readable work code, e.g. {@code D12-007-25}.
+     */
+    public static String format(CodeOwner owner, int seq, int year) {
+        return String.format("%s%d-%03d-%02d", owner.prefix(), owner.profileId(), seq, year % 100);
+    }
+
+    /**
+     * Next sequence number of the profile and year.
+     */
+    public int next(String prefix, Long profileId, int year) {
+        return reserve(prefix, profileId, year, 1).first();
+    }
+
+    /**
+     * Reserves {@code count} consecutive sequence numbers of the profile
+     * and year.
+     *
+     * @throws IllegalArgumentException if {@code count < 1}
+     */
+    public Range reserve(String prefix, Long profileId, int year, int count) {
+
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be >= 1");
+        }
+
+        Key key = new Key(prefix, profileId, year);
+        Block block = blocks.computeIfAbsent(key, k -> new Block());
+
+        synchronized (block) {
+
+            // ---------------------------------------------------------
+            // 1) Served from the in-memory block
+            // ---------------------------------------------------------
+            if (block.end - block.next >= count) {
+                Range range = new Range(block.next, count);
+                block.next += count;
+                return range;
+            }
+
+            // ---------------------------------------------------------
+            // 2) Block partly used: reserve exactly this range, keep it
+            // ---------------------------------------------------------
+            if (block.next < block.end) {
+                return new Range(reserveInDatabase(key, count), count);
+            }
+
+            // ---------------------------------------------------------
+            // 3) Block empty: refill it (at least blockSize numbers)
+            // ---------------------------------------------------------
+            int size = Math.max(blockSize, count);
+            int first = reserveInDatabase(key, size);
+
+            block.next = first + count;
+            block.end = first + size;
+
+            return new Range(first, count);
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal
+    // ---------------------------------------------------------------------
+
+    /**
+     * Advances {@code next_seq} by {@code count} and returns its previous
+     * value; creates (and seeds) the row when missing.
+     */
+    private int reserveInDatabase(Key key, int count) {
+
+        try {
+            return lockAndAdvanceOrSeed(key, count);
+        } catch (PessimisticLockingFailureException e) {
+            // Deadlock / lock wait timeout: the short transaction rolled back, retry once
+            log.warn("work_code_sequence lock failure, retrying: prefix={} profile={} year={} cause={}",
+                    key.prefix(), key.profileId(), key.year(), e.getMessage());
+            return lockAndAdvanceOrSeed(key, count);
+        }
+    }
+
+    private int lockAndAdvanceOrSeed(Key key, int count) {
+
+        Integer first = tx.execute(status -> lockAndAdvance(key, count));
+
+        if (first == null) {
+            tx.executeWithoutResult(status -> seed(key));
+            first = tx.execute(status -> lockAndAdvance(key, count));
+        }
+
+        if (first == null) {
+            throw new IllegalStateException("work_code_sequence row missing after seeding: " + key);
+        }
+
+        return first;
+    }
+
+    /**
+     * @return previous {@code next_seq}, or {@code null} when the row does not exist yet
+     */
+    private Integer lockAndAdvance(Key key, int count) {
+
+        List<Integer> current = jdbcTemplate.queryForList("""
+                SELECT next_seq
+                FROM work_code_sequence
+                WHERE profile_prefix = ? AND client_profile_id = ? AND seq_year = ?
+                FOR UPDATE
+                """, Integer.class, key.prefix(), key.profileId(), key.year());
+
+        if (current.isEmpty()) {
+            return null;
+        }
+
+        int first = current.get(0);
+
+        jdbcTemplate.update("""
+                UPDATE work_code_sequence
+                SET next_seq = ?, updated_at = ?
+                WHERE profile_prefix = ? AND client_profile_id = ? AND seq_year = ?
+                """, first + count, Timestamp.from(Instant.now()), key.prefix(), key.profileId(), key.year());
+
+        return first;
+    }
+
+    /**
+     * Creates the row seeded after the existing codes; a no-op when another
+     * instance created it first.
+     */
+    private void seed(Key key) {
+
+        Integer seed = jdbcTemplate.queryForObject("""
+                SELECT COALESCE(MAX(internal_seq), 0) + 1
+                FROM work
+                WHERE profile_prefix = ? AND client_profile_id = ? AND internal_year = ?
+                """, Integer.class, key.prefix(), key.profileId(), key.year());
+
+        int inserted = jdbcTemplate.update("""
+                INSERT INTO work_code_sequence
+                    (profile_prefix, client_profile_id, seq_year, next_seq, updated_at)
+                VALUES (?, ?, ?, ?, ?)
+                ON DUPLICATE KEY UPDATE next_seq = next_seq
+                """, key.prefix(), key.profileId(), key.year(), seed, Timestamp.from(Instant.now()));
+
+        if (inserted == 1) {
+            log.info("work_code_sequence created: prefix={} profile={} year={} seed={}",
+                    key.prefix(), key.profileId(), key.year(), seed);
+        }
+    }
+}
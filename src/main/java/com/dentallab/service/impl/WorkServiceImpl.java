@@ -4,21 +4,25 @@ import static com.dentallab.persistence.spec.WorkSpecifications.hasCategoryNames
 import static com.dentallab.persistence.spec.WorkSpecifications.hasStatus;
 import static com.dentallab.persistence.spec.WorkSpecifications.hasType;
 import static com.dentallab.persistence.spec.WorkSpecifications.hasWorkFamily;
+import static com.dentallab.persistence.spec.WorkSpecifications.seekAfter;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,6 +31,7 @@ import com.dentallab.api.assembler.FullWorkAssembler;
 import com.dentallab.api.assembler.WorkAssembler;
 import com.dentallab.api.model.BridgeWorkModel;
 import com.dentallab.api.model.CrownWorkModel;
+import com.dentallab.api.model.CursorPage;
 import com.dentallab.api.model.FullWorkModel;
 import com.dentallab.api.model.WorkExtensionModel;
 import com.dentallab.api.model.WorkModel;
@@ -40,6 +45,7 @@ import com.dentallab.persistence.entity.WorkStatusRefEntity;
 import com.dentallab.persistence.entity.WorkTypeRefEntity;
 import com.dentallab.persistence.repository.ClientRepository;
 import com.dentallab.persistence.repository.WorkFamilyRefRepository;
+import com.dentallab.persistence.repository.WorkListQueryRepository.WorkListRow;
 import com.dentallab.persistence.repository.WorkOrderRepository;
 import com.dentallab.persistence.repository.WorkRepository;
 import com.dentallab.persistence.repository.WorkStatusRefRepository;
@@ -47,6 +53,7 @@ import com.dentallab.persistence.repository.WorkTypeRefRepository;
 import com.dentallab.service.CrownWorkService;
 import com.dentallab.service.WorkService;
 import com.dentallab.util.PagingUtils;
+import com.dentallab.util.SeekCursor;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -71,6 +78,8 @@ public class WorkServiceImpl implements WorkService {
     private final WorkAssembler workAssembler;
     private final FullWorkAssembler fullWorkAssembler;
 
+    private final WorkCodeSequenceAllocator codeSequenceAllocator;
+
     public WorkServiceImpl(
             WorkRepository workRepository,
             WorkAssembler workAssembler,
@@ -80,7 +89,8 @@ public class WorkServiceImpl implements WorkService {
             WorkFamilyRefRepository workFamilyRefRepository,
             CrownWorkService crownWorkService,
             WorkOrderRepository orderRepository,
-            WorkStatusRefRepository statusRefRepository
+            WorkStatusRefRepository statusRefRepository,
+            WorkCodeSequenceAllocator codeSequenceAllocator
     ) {
         this.workRepository = workRepository;
         
@@ -96,6 +106,8 @@ public class WorkServiceImpl implements WorkService {
         
         this.fullWorkAssembler = fullWorkAssembler;
         this.workAssembler = workAssembler;
+
+        this.codeSequenceAllocator = codeSequenceAllocator;
     }
 
     // ==========================================================
@@ -336,8 +348,7 @@ public class WorkServiceImpl implements WorkService {
     // FILTERED + PAGINATED QUERY
     // ==========================================================
 
-    @SuppressWarnings("removal")
-	@Override
+    @Override
     @Transactional(readOnly = true)
     public Page<WorkModel> getFiltered(
             int page,
@@ -349,23 +360,8 @@ public class WorkServiceImpl implements WorkService {
             String familyCode,
             List<String> categories
     ) {
-        Sort sort = PagingUtils.parseSort(sortParams);
-        Pageable pageable = PageRequest.of(page, size, sort);
-
-        Specification<WorkEntity> spec = Specification
-                .where(hasType(typeCode))
-                .and(hasStatus(statusCode))
-                .and(hasWorkFamily(familyCode))
-                .and(hasCategoryNames(categories));
-
-        if (clientId != null) {
-            spec = spec.and((root, query, cb) ->
-                    cb.equal(root.get("client").get("id"), clientId));
-        }
-
-        Page<WorkEntity> entityPage = workRepository.findAll(spec, pageable);
-
-        Page<WorkModel> modelPage = entityPage.map(workAssembler::toModel);
+        Page<WorkModel> modelPage =
+                findListPage(page, size, sortParams, typeCode, statusCode, clientId, familyCode, categories);
 
         log.info("Filtered work query: count={} page={}/{} filters=[type={}, family={}, status={}, client={}, categories={}]",
                 modelPage.getNumberOfElements(),
@@ -390,8 +386,7 @@ public class WorkServiceImpl implements WorkService {
      * 
      * @return Paginated page of filtered WorkModel with clients
      */
-    @SuppressWarnings("removal")
-	@Override
+    @Override
     @Transactional(readOnly = true)
     public Page<WorkModel> getFilteredWithClients(
             int page,
@@ -410,101 +405,198 @@ public class WorkServiceImpl implements WorkService {
             typeCode, statusCode, familyCode, clientId, categories
         );
 
+        Page<WorkModel> modelPage =
+                findListPage(page, size, sortParams, typeCode, statusCode, clientId, familyCode, categories);
+
+        log.info("Returning filtered+client page: page={} of {} ({} items)",
+                page + 1, modelPage.getTotalPages(), modelPage.getNumberOfElements());
+
+        return modelPage;
+    }
+
+    /**
+     * Offset page of list rows for {@link #getFiltered} and
+     * {@link #getFilteredWithClients}.
+     *
+     * <p>
+     * One projection statement returns the rows with lookup labels and the
+     * client summary already joined, in the requested order, so no entity
+     * (and no lazy family / type / status / client / order) is loaded.
+     * The COUNT only runs when the page itself cannot tell the total
+     * (a full page, or a page past the first).
+     * </p>
+     */
+    private Page<WorkModel> findListPage(
+            int page,
+            int size,
+            String[] sortParams,
+            String typeCode,
+            String statusCode,
+            Long clientId,
+            String familyCode,
+            List<String> categories
+    ) {
         Sort sort = PagingUtils.parseSort(sortParams);
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        // ---------------------------------------------------------
-        // Build specification
-        // ---------------------------------------------------------
-        Specification<WorkEntity> spec = Specification
-                .where(hasType(typeCode))
-                .and(hasStatus(statusCode))
-                .and(hasWorkFamily(familyCode))
-                .and(hasCategoryNames(categories));
+        Specification<WorkEntity> spec = filterSpec(typeCode, statusCode, clientId, familyCode, categories);
 
-        if (clientId != null) {
-            log.debug("Applying client filter: clientId={}", clientId);
-            spec = spec.and((root, query, cb) ->
-                    cb.equal(root.get("client").get("id"), clientId));
-        }
+        List<WorkModel> models = workRepository
+                .findListRows(spec, sort, pageable.getOffset(), pageable.getPageSize())
+                .stream()
+                .map(workAssembler::toModel)
+                .toList();
+
+        return PageableExecutionUtils.getPage(models, pageable, () -> workRepository.count(spec));
+    }
+    
+    /** Sort keys the keyset mode can seek on (each paired with work_id). */
+    private static final Set<String> SEEKABLE_SORT_FIELDS = Set.of("id", "createdAt", "updatedAt");
 
+    /**
+     * Keyset (seek) pagination over the same filters as
+     * {@link #getFilteredWithClients}.
+     *
+     * <p>
+     * The page is read with a {@code (sortKey, work_id) < / > cursor}
+     * predicate and {@code LIMIT size + 1} (the extra row only tells whether
+     * another page exists); no offset and, unless requested, no COUNT.
+     * A {@code PREV} cursor reads the reversed order and flips the rows
+     * back. Rows come from the same list projection as the offset variant.
+     * </p>
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<WorkModel> getFilteredByCursor(
+            String cursor,
+            int size,
+            String sortParam,
+            boolean withCount,
+            String typeCode,
+            String statusCode,
+            Long clientId,
+            String familyCode,
+            List<String> categories
+    ) {
         // ---------------------------------------------------------
-        // Step 1: Page of IDs
+        // Step 1: Sort key and cursor
         // ---------------------------------------------------------
-        Page<Long> idPage = workRepository.findAll(spec, pageable)
-                .map(WorkEntity::getId);
+        if (size < 1 || size > 1000) {
+            throw new IllegalArgumentException("size must be between 1 and 1000");
+        }
 
-        log.debug("ID page fetched: count={}, totalElements={}, totalPages={}",
-                idPage.getNumberOfElements(),
-                idPage.getTotalElements(),
-                idPage.getTotalPages());
+        String[] sortParts = (sortParam == null || sortParam.isBlank() ? "createdAt,desc" : sortParam).split(",");
+        String field = sortParts[0].trim();
+        boolean ascending = sortParts.length < 2 || !sortParts[1].trim().equalsIgnoreCase("desc");
 
-        if (idPage.isEmpty()) {
-            log.info("Filtered query returned no results.");
-            return Page.empty(pageable);
+        if (!SEEKABLE_SORT_FIELDS.contains(field)) {
+            throw new IllegalArgumentException(
+                    "Cursor pagination supports sorting by " + SEEKABLE_SORT_FIELDS + " only, got: " + field);
         }
 
-        // ---------------------------------------------------------
-        // Step 2: Fetch works + client in one optimized query
-        // ---------------------------------------------------------
-        List<Long> ids = idPage.getContent();
-        log.debug("Fetching {} works with clients via join…", ids.size());
+        SeekCursor from = (cursor == null || cursor.isBlank()) ? null : SeekCursor.decode(cursor);
 
-        List<WorkEntity> entities =
-                workRepository.findAllWithClientByIdIn(ids);
+        if (from != null && (!from.getField().equals(field) || from.isAscending() != ascending)) {
+            throw new IllegalArgumentException("Cursor does not match sort=" + sortParam);
+        }
 
-        log.debug("Fetch query returned {} entities.", entities.size());
+        boolean backward = from != null && from.getDirection() == SeekCursor.Direction.PREV;
+        boolean readAscending = backward != ascending;
 
         // ---------------------------------------------------------
-        // Step 3: Preserve order
+        // Step 2: Filters + seek predicate, LIMIT size + 1
         // ---------------------------------------------------------
-        List<WorkModel> models = ids.stream()
-                .map(id -> entities.stream()
-                        .filter(w -> w.getId().equals(id))
-                        .findFirst().orElse(null))
-                .filter(Objects::nonNull)
+        Specification<WorkEntity> filters = filterSpec(typeCode, statusCode, clientId, familyCode, categories);
+
+        Specification<WorkEntity> spec = from == null
+                ? filters
+                : filters.and(seekAfter(field, readAscending,
+                        from.getKey() == null ? null : LocalDateTime.parse(from.getKey()), from.getId()));
+
+        Sort.Direction direction = readAscending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = "id".equals(field)
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, field).and(Sort.by(direction, "id"));
+
+        List<WorkListRow> rows = workRepository.findListRows(spec, sort, 0, size + 1);
+
+        boolean more = rows.size() > size;
+        List<WorkListRow> window = new ArrayList<>(rows.subList(0, Math.min(size, rows.size())));
+        if (backward) {
+            Collections.reverse(window);
+        }
+
+        List<WorkModel> models = window.stream()
                 .map(workAssembler::toModel)
                 .toList();
 
-        log.debug("Mapped {} entities → models, preserving order.", models.size());
-
         // ---------------------------------------------------------
-        // Return result
+        // Step 3: Cursors (the extra row tells whether more exist in
+        // the read direction; the other direction is where we came from)
         // ---------------------------------------------------------
-        log.info("Returning filtered+client page: page={} of {} ({} items)",
-                page + 1, idPage.getTotalPages(), models.size());
+        String next = null;
+        String prev = null;
+
+        if (!window.isEmpty()) {
+            WorkListRow first = window.get(0);
+            WorkListRow last = window.get(window.size() - 1);
 
-        return new PageImpl<>(models, pageable, idPage.getTotalElements());
+            if (backward || more) {
+                next = cursorAt(last, field, ascending, SeekCursor.Direction.NEXT);
+            }
+            if (backward ? more : from != null) {
+                prev = cursorAt(first, field, ascending, SeekCursor.Direction.PREV);
+            }
+        }
+
+        Long total = withCount ? workRepository.count(filters) : null;
+
+        log.info("Cursor work query: count={} sort={} direction={} more={} filters=[type={}, family={}, status={}, client={}, categories={}]",
+                models.size(), sortParam, backward ? "PREV" : "NEXT", more,
+                typeCode, familyCode, statusCode, clientId, categories);
+
+        return new CursorPage<>(models, size, next, prev, total);
     }
-    
+
+    private static Specification<WorkEntity> filterSpec(
+            String typeCode, String statusCode, Long clientId, String familyCode, List<String> categories) {
+
+        // Each spec yields no predicate for a blank filter, so no Specification.where needed
+        Specification<WorkEntity> spec = hasType(typeCode)
+                .and(hasStatus(statusCode))
+                .and(hasWorkFamily(familyCode))
+                .and(hasCategoryNames(categories));
+
+        if (clientId != null) {
+            spec = spec.and((root, query, cb) ->
+                    cb.equal(root.get("client").get("id"), clientId));
+        }
+        return spec;
+    }
+
+    private static String cursorAt(WorkListRow row, String field, boolean ascending, SeekCursor.Direction direction) {
+        LocalDateTime key = switch (field) {
+            case "createdAt" -> row.createdAt();
+            case "updatedAt" -> row.updatedAt();
+            default -> null;
+        };
+        return new SeekCursor(field, ascending, direction, row.id(), key == null ? null : key.toString())
+                .encode();
+    }
+
     @Transactional
     private void addInternalCodeToWork(WorkEntity work, ClientEntity client) {
 
         int year = LocalDate.now().getYear();
 
         // 1. Detect client profile & prefix (D / S / T)
-        String prefix;
-        Long profileId;
-
-        if (client.getDentistProfile() != null) {
-            prefix = "D";
-            profileId = client.getDentistProfile().getId();
-        } else if (client.getStudentProfile() != null) {
-            prefix = "S";
-            profileId = client.getStudentProfile().getId();
-        } else if (client.getTechnicianProfile() != null) {
-            prefix = "T";
-            profileId = client.getTechnicianProfile().getId();
-        } else {
-            throw new IllegalStateException("Client without profile should not exist.");
-        }
-
-        // 2. Get previous max seq for this profile & year
-        Integer maxSeq = workRepository
-                .findMaxSeqForProfileAndYear(profileId, year)
-                .orElse(0);
+        WorkCodeSequenceAllocator.CodeOwner owner = WorkCodeSequenceAllocator.ownerOf(client);
+        String prefix = owner.prefix();
+        Long profileId = owner.profileId();
 
-        int nextSeq = maxSeq + 1;
+        // 2. Next seq for this profile & year (row-locked sequence table,
+        //    race-free; see WorkCodeSequenceAllocator)
+        int nextSeq = codeSequenceAllocator.next(prefix, profileId, year);
 
         // 3. Assign metadata
         work.setProfilePrefix(prefix);
@@ -513,13 +605,7 @@ public class WorkServiceImpl implements WorkService {
         work.setInternalYear(year);
 
         // 4. Generate human-readable code
-        String internalCode = String.format(
-                "%s%d-%03d-%02d",
-                prefix,
-                profileId,
-                nextSeq,
-                year % 100
-        );
+        String internalCode = WorkCodeSequenceAllocator.format(owner, nextSeq, year);
 
         work.setInternalCode(internalCode);
 
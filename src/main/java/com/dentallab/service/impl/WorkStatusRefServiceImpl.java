@@ -11,6 +11,7 @@ import org.springframework.transaction.annotation.Transactional;
 import com.dentallab.persistence.entity.WorkStatusRefEntity;
 import com.dentallab.persistence.repository.WorkStatusRefRepository;
 import com.dentallab.service.WorkStatusRefService;
+import com.dentallab.service.cache.ReferenceDataCache;
 
 /**
  * Service responsible for managing the linear workflow status chain.
@@ -24,6 +25,8 @@ import com.dentallab.service.WorkStatusRefService;
  * Notes:
  *  - sequenceOrder is a continuous list: 1,2,3,4,...
  *  - When inserting a new status, the service shifts other entries accordingly
+ *  - Every change evicts the cached statuses (ReferenceDataCache), now and
+ *    again when the transaction completes
  *  - This service should NOT be used inside assemblers or lookup helpers
  */
 @Service
@@ -33,9 +36,11 @@ public class WorkStatusRefServiceImpl implements WorkStatusRefService {
     private static final Logger log = LoggerFactory.getLogger(WorkStatusRefServiceImpl.class);
 
     private final WorkStatusRefRepository statusRepo;
+    private final ReferenceDataCache referenceCache;
 
-    public WorkStatusRefServiceImpl(WorkStatusRefRepository statusRepo) {
+    public WorkStatusRefServiceImpl(WorkStatusRefRepository statusRepo, ReferenceDataCache referenceCache) {
         this.statusRepo = statusRepo;
+        this.referenceCache = referenceCache;
     }
 
     // ================================================================
@@ -68,6 +73,7 @@ public class WorkStatusRefServiceImpl implements WorkStatusRefService {
         newEntity.setSequenceOrder(insertPos);
 
         statusRepo.save(newEntity);
+        referenceCache.evictAfterCompletion(ReferenceDataCache.Table.STATUS);
 
         log.info("Inserted status '{}' at position {}", newCode, insertPos);
 
@@ -103,6 +109,7 @@ public class WorkStatusRefServiceImpl implements WorkStatusRefService {
         newEntity.setSequenceOrder(insertPos);
 
         statusRepo.save(newEntity);
+        referenceCache.evictAfterCompletion(ReferenceDataCache.Table.STATUS);
 
         log.info("Inserted status '{}' at position {}", newCode, insertPos);
 
@@ -142,6 +149,8 @@ public class WorkStatusRefServiceImpl implements WorkStatusRefService {
             statusRepo.save(st);
         });
 
+        referenceCache.evictAfterCompletion(ReferenceDataCache.Table.STATUS);
+
         log.info("Status reorder completed successfully");
     }
 
@@ -0,0 +1,101 @@
+package com.dentallab.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Opaque cursor of keyset (seek) pagination.
+ *
+ * <p>
+ * Encodes the sort field and direction, the sort key and id of the row the
+ * page starts after, and whether the cursor moves forward ({@code NEXT})
+ * or backward ({@code PREV}). Clients only pass it back; its content is
+ * URL-safe Base64 and may change between versions ({@code v1}).
+ * </p>
+ *
+ * <p>
+ * A {@code null} key means the row's sort key was NULL.
+ * </p>
+ */
+public final class SeekCursor {
+
+    public enum Direction { NEXT, PREV }
+
+    private static final String VERSION = "v1";
+
+    private final String field;
+    private final boolean ascending;
+    private final Direction direction;
+    private final long id;
+    private final String key;
+
+    public SeekCursor(String field, boolean ascending, Direction direction, long id, String key) {
+        this.field = Objects.requireNonNull(field, "field must not be null");
+        this.ascending = ascending;
+        this.direction = Objects.requireNonNull(direction, "direction must not be null");
+        this.id = id;
+        this.key = key;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String encode() {
+        // The key goes last: it is the only part that may contain separators
+        String raw = String.join("|",
+                VERSION, field, ascending ? "asc" : "desc", direction.name(), Long.toString(id),
+                key == null ? "" : key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException when the cursor was not produced by
+     *         {@link #encode()}
+     */
+    public static SeekCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 6);
+            if (parts.length != 6 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("unsupported cursor version");
+            }
+            return new SeekCursor(
+                    parts[1],
+                    "asc".equals(parts[2]),
+                    Direction.valueOf(parts[3]),
+                    Long.parseLong(parts[4]),
+                    parts[5].isEmpty() ? null : parts[5]);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SeekCursor{" +
+                "field='" + field + '\'' +
+                ", ascending=" + ascending +
+                ", direction=" + direction +
+                ", id=" + id +
+                ", key='" + key + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,74 @@
+package com.dentallab.util;
+
+import java.util.Collection;
+
+/**
+ * Helpers to encode a set of teeth as a compact span bitmask.
+ *
+ * <p>
+ * Only FDI two-digit notation is supported: quadrant {@code 1..8}
+ * (permanent 1-4, deciduous 5-8) and position {@code 1..8}.
+ * Each tooth maps to one bit:
+ * </p>
+ *
+ * <pre>
+ *   bit = (quadrant - 1) * 8 + (position - 1)      // 0..63
+ * </pre>
+ *
+ * <p>
+ * so a whole dentition fits in a single {@code long}
+ * (e.g. tooth 11 → bit 0, tooth 48 → bit 31).
+ * </p>
+ */
+public final class ToothSpanUtils {
+
+    private ToothSpanUtils() { }
+
+    /**
+     * Returns the span bit of a single FDI tooth number, or {@code -1}
+     * if the value is not a valid FDI tooth number.
+     */
+    public static int bitOf(String toothNumber) {
+
+        if (toothNumber == null) {
+            return -1;
+        }
+
+        String value = toothNumber.trim();
+        if (value.length() != 2
+                || !Character.isDigit(value.charAt(0))
+                || !Character.isDigit(value.charAt(1))) {
+            return -1;
+        }
+
+        int quadrant = value.charAt(0) - '0';
+        int position = value.charAt(1) - '0';
+
+        if (quadrant < 1 || quadrant > 8 || position < 1 || position > 8) {
+            return -1;
+        }
+
+        return (quadrant - 1) * 8 + (position - 1);
+    }
+
+    /**
+     * Builds the span bitmask of the given FDI tooth numbers.
+     *
+     * @return the mask, or {@code null} if any tooth cannot be mapped
+     *         (e.g. Universal notation) — an unknown span rather than a wrong one
+     */
+    public static Long spanMask(Collection<String> toothNumbers) {
+
+        long mask = 0L;
+
+        for (String toothNumber : toothNumbers) {
+            int bit = bitOf(toothNumber);
+            if (bit < 0) {
+                return null;
+            }
+            mask |= 1L << bit;
+        }
+
+        return mask;
+    }
+}
@@ -0,0 +1,146 @@
+package com.dentallab.domain.payment.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dentallab.domain.payment.persistence.ClientBalanceCheckpointJob;
+import com.dentallab.domain.payment.service.ClientBalanceService;
+import com.dentallab.persistence.entity.ClientEntity;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Ledger checkpoints: balance = checkpoint + tail, advanced only once the
+ * tail is long enough, and verified against the full ledger scan.
+ */
+@SpringBootTest(properties = {
+        "payment.ledger-checkpoints.batch-size=1",
+        "payment.ledger-checkpoints.min-tail=2"
+})
+@ActiveProfiles("test")
+@Transactional
+class ClientBalanceCheckpointIntegrationTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ClientBalanceService balanceService;
+
+    @Autowired
+    private ClientBalanceCheckpointJob checkpointJob;
+
+    @Test
+    void checkpoint_coversHistory_andTailKeepsBalanceExact() {
+
+        Long clientId = persistClient("checkpoint.a@lab.local");
+        Long shortTailClientId = persistClient("checkpoint.b@lab.local");
+
+        credit(clientId, "100.00", "50.00", "25.00");
+        credit(shortTailClientId, "40.00");
+
+        ClientBalanceCheckpointJob.Report run = runCheckpoints();
+        assertEquals(2, run.scanned());
+        assertEquals(1, run.checkpointed());
+
+        assertEquals(3L, checkpointColumn(clientId, "movement_count", Long.class));
+        assertAmount("175.00", checkpointColumn(clientId, "balance", BigDecimal.class));
+
+        // One more movement: below min-tail, read as checkpoint + tail
+        credit(clientId, "10.00");
+        assertEquals(0, runCheckpoints().checkpointed());
+
+        assertAmount("185.00", balanceService.getLedgerBalance(clientId));
+        assertAmount("40.00", balanceService.getLedgerBalance(shortTailClientId));
+
+        // Second one: the checkpoint advances over the tail
+        credit(clientId, "5.00");
+        assertEquals(1, runCheckpoints().checkpointed());
+
+        assertEquals(5L, checkpointColumn(clientId, "movement_count", Long.class));
+        assertAmount("190.00", checkpointColumn(clientId, "balance", BigDecimal.class));
+        assertAmount("190.00", balanceService.getLedgerBalance(clientId));
+
+        ClientBalanceCheckpointJob.Report verify = checkpointJob.verify();
+        assertEquals(1, verify.scanned());
+        assertEquals(0, verify.mismatched());
+    }
+
+    @Test
+    void verify_detectsDriftedCheckpoint_andRepairFallsBackToFullScan() {
+
+        Long clientId = persistClient("checkpoint.c@lab.local");
+        credit(clientId, "100.00", "20.00");
+
+        runCheckpoints();
+
+        // Simulate a checkpoint that no longer matches the ledger
+        jdbcTemplate.update(
+                "UPDATE client_balance_checkpoint SET balance = 999 WHERE client_id = ?", clientId);
+
+        assertAmount("999.00", balanceService.getLedgerBalance(clientId));
+
+        ClientBalanceCheckpointJob.Report verify = checkpointJob.verify();
+        assertEquals(1, verify.mismatched());
+        assertEquals(0, verify.repaired());
+        assertEquals(List.of(clientId), verify.mismatchedClientIds());
+
+        ClientBalanceCheckpointJob.Report repair = checkpointJob.repair();
+        assertEquals(1, repair.repaired());
+
+        assertAmount("120.00", balanceService.getLedgerBalance(clientId));
+        assertEquals(0, checkpointJob.verify().scanned());
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    private ClientBalanceCheckpointJob.Report runCheckpoints() {
+        ClientBalanceCheckpointJob.Report report = checkpointJob.checkpoint();
+        entityManager.flush();
+        return report;
+    }
+
+    private void credit(Long clientId, String... amounts) {
+        for (String amount : amounts) {
+            balanceService.creditBalance(clientId, new BigDecimal(amount), "PROMO", null, null, null);
+        }
+        entityManager.flush();
+    }
+
+    private <T> T checkpointColumn(Long clientId, String column, Class<T> type) {
+        return jdbcTemplate.queryForObject(
+                "SELECT " + column + " FROM client_balance_checkpoint WHERE client_id = ?", type, clientId);
+    }
+
+    private static void assertAmount(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual),
+                () -> "expected " + expected + " but was " + actual);
+    }
+
+    private Long persistClient(String email) {
+
+        ClientEntity client = new ClientEntity();
+        client.setDisplayName("Test Client");
+        client.setFirstName("Test");
+        client.setLastName("Client");
+        client.setPrimaryEmail(email);
+        entityManager.persist(client);
+        entityManager.flush();
+
+        return client.getId();
+    }
+}
@@ -0,0 +1,146 @@
+package com.dentallab.domain.payment.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dentallab.domain.payment.service.ClientBalanceService;
+import com.dentallab.persistence.entity.ClientEntity;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * OPTIMISTIC balance locking under contention: many threads write the same
+ * client's balance concurrently (each call owns its transaction, so
+ * conflicts are retried), and the cached balance still matches the ledger.
+ *
+ * Not {@code @Transactional}: every write must commit for the threads to
+ * race; the rows are removed afterwards.
+ */
+@SpringBootTest(properties = {
+        "payment.balance.locking=OPTIMISTIC",
+        "payment.balance.optimistic.max-attempts=100",
+        "payment.balance.optimistic.backoff-ms=2"
+})
+@ActiveProfiles("test")
+class ClientBalanceConcurrencyStressTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 25;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ClientBalanceService balanceService;
+
+    private Long clientId;
+
+    @AfterEach
+    void cleanUp() {
+        if (clientId != null) {
+            jdbcTemplate.update("DELETE FROM client_balance_movement WHERE client_id = ?", clientId);
+            jdbcTemplate.update("DELETE FROM client_balance WHERE client_id = ?", clientId);
+            jdbcTemplate.update("DELETE FROM client WHERE client_id = ?", clientId);
+        }
+    }
+
+    @Test
+    void concurrentCreditsAndRecomputes_keepCacheEqualToLedger() throws Exception {
+
+        clientId = new TransactionTemplate(transactionManager).execute(status -> {
+            ClientEntity client = new ClientEntity();
+            client.setDisplayName("Busy Clinic");
+            client.setFirstName("Busy");
+            client.setLastName("Clinic");
+            client.setPrimaryEmail("busy.clinic@lab.local");
+            entityManager.persist(client);
+            return client.getId();
+        });
+
+        // ----------------------------------------------------
+        // All threads start together; the balance row does not exist yet
+        // ----------------------------------------------------
+        AtomicInteger credits = new AtomicInteger();
+        List<Throwable> unexpected = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    try {
+                        if (i % 5 == 4) {
+                            balanceService.recomputeBalanceCache(clientId);
+                        } else {
+                            balanceService.creditBalance(
+                                    clientId, new BigDecimal("10.00"), "PROMO", null, null, "stress");
+                            credits.incrementAndGet();
+                        }
+                    } catch (ConcurrencyFailureException e) {
+                        // Retries exhausted: allowed, the write rolled back as a whole
+                    } catch (Throwable e) {
+                        unexpected.add(e);
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        // ----------------------------------------------------
+        // Then: cache == ledger == committed credits
+        // ----------------------------------------------------
+        assertTrue(unexpected.isEmpty(), () -> "unexpected failures: " + unexpected);
+        assertTrue(credits.get() > 0);
+
+        BigDecimal expected = new BigDecimal("10.00").multiply(BigDecimal.valueOf(credits.get()));
+
+        Integer movements = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM client_balance_movement WHERE client_id = ?", Integer.class, clientId);
+        BigDecimal ledger = jdbcTemplate.queryForObject(
+                "SELECT SUM(amount_change) FROM client_balance_movement WHERE client_id = ?",
+                BigDecimal.class, clientId);
+        BigDecimal cache = jdbcTemplate.queryForObject(
+                "SELECT amount FROM client_balance WHERE client_id = ?", BigDecimal.class, clientId);
+
+        assertEquals(credits.get(), movements);
+        assertEquals(0, expected.compareTo(ledger), () -> "ledger " + ledger + " != " + expected);
+        assertEquals(0, ledger.compareTo(cache), () -> "cache " + cache + " != ledger " + ledger);
+        assertEquals(0, ledger.compareTo(balanceService.getLedgerBalance(clientId)));
+    }
+}
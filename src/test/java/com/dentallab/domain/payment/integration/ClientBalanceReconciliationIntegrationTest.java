@@ -0,0 +1,119 @@
+package com.dentallab.domain.payment.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dentallab.domain.payment.persistence.ClientBalanceReconciliationJob;
+import com.dentallab.domain.payment.service.ClientBalanceService;
+import com.dentallab.persistence.entity.ClientEntity;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Reconciliation of client_balance.amount with the ledger, chunked over a
+ * worker pool.
+ *
+ * Not {@code @Transactional}: the workers run on their own threads and
+ * only see committed rows; the rows are removed afterwards.
+ */
+@SpringBootTest(properties = {
+        "payment.reconciliation.chunk-size=2",
+        "payment.reconciliation.parallelism=2"
+})
+@ActiveProfiles("test")
+class ClientBalanceReconciliationIntegrationTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ClientBalanceService balanceService;
+
+    @Autowired
+    private ClientBalanceReconciliationJob reconciliationJob;
+
+    private final List<Long> clientIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        for (Long clientId : clientIds) {
+            jdbcTemplate.update("DELETE FROM client_balance_movement WHERE client_id = ?", clientId);
+            jdbcTemplate.update("DELETE FROM client_balance WHERE client_id = ?", clientId);
+            jdbcTemplate.update("DELETE FROM client WHERE client_id = ?", clientId);
+        }
+    }
+
+    @Test
+    void reconciliation_reportsDriftAcrossChunks_andRepairsOnlyDriftingCaches() {
+
+        for (int i = 1; i <= 3; i++) {
+            Long clientId = persistClient("reconcile." + i + "@lab.local");
+            balanceService.creditBalance(clientId, new BigDecimal("10.00").multiply(BigDecimal.valueOf(i)),
+                    "PROMO", null, null, null);
+            clientIds.add(clientId);
+        }
+        Long drifting = clientIds.get(1);
+
+        // Simulate a cache write that bypassed the ledger
+        jdbcTemplate.update("UPDATE client_balance SET amount = 5 WHERE client_id = ?", drifting);
+
+        ClientBalanceReconciliationJob.Report verify = reconciliationJob.verify();
+        assertEquals(3, verify.scanned());
+        assertEquals(1, verify.drifted());
+        assertEquals(0, verify.repaired());
+
+        ClientBalanceReconciliationJob.Drift drift = verify.drifts().get(0);
+        assertEquals(drifting, drift.clientId());
+        assertAmount("20.00", drift.ledgerAmount());
+        assertAmount("-15.00", drift.difference());
+        assertFalse(drift.repaired());
+
+        ClientBalanceReconciliationJob.Report repair = reconciliationJob.repair();
+        assertEquals(1, repair.repaired());
+        assertEquals(0, repair.failed());
+
+        assertAmount("20.00", jdbcTemplate.queryForObject(
+                "SELECT amount FROM client_balance WHERE client_id = ?", BigDecimal.class, drifting));
+        assertEquals(0, reconciliationJob.verify().drifted());
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    private static void assertAmount(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual),
+                () -> "expected " + expected + " but was " + actual);
+    }
+
+    private Long persistClient(String email) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            ClientEntity client = new ClientEntity();
+            client.setDisplayName("Test Client");
+            client.setFirstName("Test");
+            client.setLastName("Client");
+            client.setPrimaryEmail(email);
+            entityManager.persist(client);
+            return client.getId();
+        });
+    }
+}
@@ -0,0 +1,182 @@
+package com.dentallab.domain.payment.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dentallab.domain.payment.dto.PaymentAllocationCommand;
+import com.dentallab.domain.payment.dto.RegisterPaymentRequest;
+import com.dentallab.domain.payment.service.ClientBalanceService;
+import com.dentallab.domain.payment.service.ClientStatementExporter;
+import com.dentallab.domain.payment.service.ClientStatementExporter.Format;
+import com.dentallab.domain.payment.service.PaymentService;
+import com.dentallab.domain.pricing.model.BasePriceResult;
+import com.dentallab.domain.pricing.service.WorkBasePriceService;
+import com.dentallab.persistence.entity.ClientEntity;
+import com.dentallab.persistence.entity.WorkEntity;
+import com.dentallab.persistence.entity.WorkFamilyRefEntity;
+import com.dentallab.persistence.entity.WorkOrderEntity;
+import com.dentallab.persistence.entity.WorkTypeRefEntity;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Streamed client statement: charges, payments, allocations and balance
+ * movements in date order with a running balance, read through a cursor
+ * smaller than the statement.
+ */
+@SpringBootTest(properties = "payment.statement.fetch-size=2")
+@ActiveProfiles("test")
+@Transactional
+class ClientStatementExporterIntegrationTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private WorkBasePriceService basePriceService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ClientBalanceService balanceService;
+
+    @Autowired
+    private ClientStatementExporter exporter;
+
+    @Test
+    void export_csv_listsEntriesInDateOrder_withRunningBalance() {
+
+        Long clientId = givenStatementHistory();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exporter.export(clientId, Format.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+
+        assertEquals(4, written);
+        assertEquals(5, lines.size());
+        assertEquals(
+                "date,type,entry_id,payment_id,work_id,detail,amount,balance_effect,running_balance",
+                lines.get(0));
+
+        // Charge 100, payment 60 (allocated to the work), promo credit 10
+        assertEquals(List.of("WORK_CHARGE", "PAYMENT", "ALLOCATION", "BALANCE_MOVEMENT"),
+                lines.subList(1, 5).stream().map(l -> l.split(",")[1]).toList());
+        assertEquals(List.of("100.00", "40.00", "40.00", "30.00"),
+                lines.subList(1, 5).stream().map(l -> l.substring(l.lastIndexOf(',') + 1)).toList());
+        assertEquals("CASH", lines.get(2).split(",")[5]);
+    }
+
+    @Test
+    void export_ndjson_writesOneJsonObjectPerLine() throws Exception {
+
+        Long clientId = givenStatementHistory();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(clientId, Format.NDJSON, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(4, lines.size());
+
+        JsonNode charge = objectMapper.readTree(lines.get(0));
+        assertEquals("WORK_CHARGE", charge.get("type").asText());
+        assertAmount("100.00", charge.get("runningBalance").decimalValue());
+
+        JsonNode promo = objectMapper.readTree(lines.get(3));
+        assertEquals("PROMO", promo.get("detail").asText());
+        assertAmount("-10.00", promo.get("balanceEffect").decimalValue());
+        assertAmount("30.00", promo.get("runningBalance").decimalValue());
+    }
+
+    @Test
+    void parseFormat_rejectsUnknownFormats() {
+        assertEquals(Format.NDJSON, ClientStatementExporter.parseFormat(" ndjson "));
+        assertThrows(IllegalArgumentException.class, () -> ClientStatementExporter.parseFormat("xml"));
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    private static void assertAmount(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual),
+                () -> "expected " + expected + " but was " + actual);
+    }
+
+    /**
+     * A 100.00 work from 2025, a 60.00 payment allocated to it and a 10.00
+     * promotion credit.
+     */
+    private Long givenStatementHistory() {
+
+        WorkFamilyRefEntity family = new WorkFamilyRefEntity();
+        family.setCode("FIXED_PROSTHESIS");
+        family.setLabel("Fixed Prosthesis");
+        entityManager.persist(family);
+
+        WorkTypeRefEntity type = new WorkTypeRefEntity();
+        type.setCode("CROWN");
+        type.setLabel("Crown");
+        type.setFamily(family);
+        entityManager.persist(type);
+
+        ClientEntity client = new ClientEntity();
+        client.setDisplayName("Test Client");
+        client.setFirstName("Test");
+        client.setLastName("Client");
+        client.setPrimaryEmail("statement.client@lab.local");
+        entityManager.persist(client);
+
+        WorkOrderEntity order = new WorkOrderEntity();
+        order.setClient(client);
+        order.setDueDate(LocalDateTime.now());
+        entityManager.persist(order);
+
+        WorkEntity work = new WorkEntity();
+        work.setWorkFamily(family);
+        work.setType(type);
+        work.setClient(client);
+        work.setOrder(order);
+        work.setCreatedAt(LocalDateTime.of(2025, 1, 1, 9, 0));
+        entityManager.persist(work);
+        entityManager.flush();
+
+        basePriceService.fixBasePrice(work.getId(),
+                new BasePriceResult(new BigDecimal("100.00"), "MXN", "DEFAULT", null));
+
+        PaymentAllocationCommand allocation = new PaymentAllocationCommand();
+        allocation.setWorkId(work.getId());
+        allocation.setAllocatedAmount(new BigDecimal("60.00"));
+
+        RegisterPaymentRequest request = new RegisterPaymentRequest();
+        request.setClientId(client.getId());
+        request.setPaymentAmount(new BigDecimal("60.00"));
+        request.setMethod("CASH");
+        request.setAllocations(List.of(allocation));
+        request.setIdempotencyKey("key-statement-1");
+        paymentService.registerPayment(request);
+
+        balanceService.creditBalance(client.getId(), new BigDecimal("10.00"), "PROMO", null, null, "promo");
+        entityManager.flush();
+
+        return client.getId();
+    }
+}
@@ -0,0 +1,148 @@
+package com.dentallab.domain.payment.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dentallab.domain.enums.PaymentStatus;
+import com.dentallab.domain.payment.persistence.JpaWorkPaymentStatusQuery;
+import com.dentallab.persistence.entity.ClientBalanceMovementEntity;
+import com.dentallab.persistence.entity.ClientEntity;
+import com.dentallab.persistence.entity.PaymentAllocationEntity;
+import com.dentallab.persistence.entity.PaymentEntity;
+import com.dentallab.persistence.entity.WorkEntity;
+import com.dentallab.persistence.entity.WorkFamilyRefEntity;
+import com.dentallab.persistence.entity.WorkOrderEntity;
+import com.dentallab.persistence.entity.WorkTypeRefEntity;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Ledger aggregation behind the payment summary rebuild: cash paid counts
+ * only allocations of RECEIVED payments, balance paid only APPLY_WORK
+ * movements.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class JpaWorkPaymentStatusQueryIntegrationTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JpaWorkPaymentStatusQuery ledgerQuery;
+
+    @Test
+    void sums_onlyReceivedPaymentsAndAppliedBalance() {
+
+        ClientEntity client = persistClient();
+        Long workId = persistWork(client);
+        Long untouchedId = persistWork(client);
+
+        allocate(persistPayment(client, PaymentStatus.RECEIVED, "k-ledger-1"), workId, "30.00");
+        allocate(persistPayment(client, PaymentStatus.RECEIVED, "k-ledger-2"), workId, "20.00");
+        allocate(persistPayment(client, PaymentStatus.CANCELLED, "k-ledger-3"), workId, "100.00");
+
+        movement(client, workId, "APPLY_WORK", "-15.00");
+        movement(client, workId, "CREDIT", "40.00");
+        entityManager.flush();
+
+        Map<Long, BigDecimal> cash = ledgerQuery.findCashPaidAmountsByWorkIds(List.of(workId, untouchedId));
+        Map<Long, BigDecimal> balance = ledgerQuery.findBalancePaidAmountsByWorkIds(List.of(workId, untouchedId));
+
+        assertEquals(0, new BigDecimal("50.00").compareTo(cash.get(workId)));
+        assertEquals(0, new BigDecimal("15.00").compareTo(balance.get(workId)));
+        assertFalse(cash.containsKey(untouchedId));
+        assertFalse(balance.containsKey(untouchedId));
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    private Long persistPayment(ClientEntity client, PaymentStatus status, String key) {
+
+        PaymentEntity payment = new PaymentEntity();
+        payment.setClientId(client.getId());
+        payment.setReceivedAt(Instant.now());
+        payment.setMethod("CASH");
+        payment.setAmountTotal(new BigDecimal("100.00"));
+        payment.setStatus(status);
+        payment.setIdempotencyKey(key);
+        entityManager.persist(payment);
+        return payment.getId();
+    }
+
+    private void allocate(Long paymentId, Long workId, String amount) {
+
+        PaymentAllocationEntity allocation = new PaymentAllocationEntity();
+        allocation.setPaymentId(paymentId);
+        allocation.setWorkId(workId);
+        allocation.setAmountApplied(new BigDecimal(amount));
+        allocation.setCreatedAt(Instant.now());
+        entityManager.persist(allocation);
+    }
+
+    private void movement(ClientEntity client, Long workId, String type, String amount) {
+
+        ClientBalanceMovementEntity movement = new ClientBalanceMovementEntity();
+        movement.setClientId(client.getId());
+        movement.setWorkId(workId);
+        movement.setType(type);
+        movement.setAmountChange(new BigDecimal(amount));
+        movement.setCreatedAt(Instant.now());
+        entityManager.persist(movement);
+    }
+
+    private WorkTypeRefEntity type;
+
+    private ClientEntity persistClient() {
+
+        WorkFamilyRefEntity family = new WorkFamilyRefEntity();
+        family.setCode("FIXED_PROSTHESIS");
+        family.setLabel("Fixed Prosthesis");
+        entityManager.persist(family);
+
+        type = new WorkTypeRefEntity();
+        type.setCode("CROWN");
+        type.setLabel("Crown");
+        type.setFamily(family);
+        entityManager.persist(type);
+
+        ClientEntity client = new ClientEntity();
+        client.setDisplayName("Ledger Client");
+        client.setFirstName("Ledger");
+        client.setLastName("Client");
+        client.setPrimaryEmail("ledger.client@lab.local");
+        entityManager.persist(client);
+        return client;
+    }
+
+    private Long persistWork(ClientEntity client) {
+
+        WorkOrderEntity order = new WorkOrderEntity();
+        order.setClient(client);
+        order.setDueDate(LocalDateTime.now());
+        entityManager.persist(order);
+
+        WorkEntity work = new WorkEntity();
+        work.setWorkFamily(type.getFamily());
+        work.setType(type);
+        work.setClient(client);
+        work.setOrder(order);
+        entityManager.persist(work);
+        return work.getId();
+    }
+}
@@ -0,0 +1,182 @@
+package com.dentallab.domain.payment.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dentallab.domain.payment.dto.PaymentImportResult;
+import com.dentallab.domain.payment.dto.PaymentImportRowResult;
+import com.dentallab.domain.payment.dto.PaymentImportRowResult.Status;
+import com.dentallab.domain.payment.service.PaymentImportPipeline;
+import com.dentallab.domain.pricing.model.BasePriceResult;
+import com.dentallab.domain.pricing.service.WorkBasePriceService;
+import com.dentallab.persistence.entity.ClientEntity;
+import com.dentallab.persistence.entity.WorkEntity;
+import com.dentallab.persistence.entity.WorkFamilyRefEntity;
+import com.dentallab.persistence.entity.WorkOrderEntity;
+import com.dentallab.persistence.entity.WorkTypeRefEntity;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Bulk payment import: per-row results, running unpaid amounts across
+ * rows of the same file, oldest-unpaid allocation and idempotent
+ * re-imports.
+ */
+@SpringBootTest(properties = "payment.import.batch-size=2")
+@ActiveProfiles("test")
+@Transactional
+class PaymentImportPipelineIntegrationTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private WorkBasePriceService basePriceService;
+
+    @Autowired
+    private PaymentImportPipeline importPipeline;
+
+    @Test
+    void importCsv_reportsEachRow_andNeverOverpaysAcrossRows() {
+
+        Long clientId = persistClient();
+        Long newer = persistWork(LocalDateTime.of(2025, 3, 1, 9, 0), "100.00");
+        Long older = persistWork(LocalDateTime.of(2024, 3, 1, 9, 0), "100.00");
+
+        String csv = String.join("\n",
+                "client_id,amount,method,reference,idempotency_key,allocations,move_remainder_to_balance",
+                clientId + ",60.00,TRANSFER,TRX-1,import-key-0001," + newer + ":60.00,",
+                // Only 40.00 of the newer work is left after the row above
+                clientId + ",50.00,TRANSFER,TRX-2,import-key-0002," + newer + ":50.00,",
+                // No allocations: oldest unpaid work first, rest to balance
+                clientId + ",120.00,TRANSFER,TRX-3,import-key-0003,,true",
+                clientId + ",10.00,TRANSFER,TRX-4,import-key-0001,,true",
+                "999999,10.00,TRANSFER,TRX-5,import-key-0005,,true",
+                clientId + ",abc,TRANSFER,TRX-6,import-key-0006,,true",
+                clientId + ",40.00,TRANSFER,\"TRX, 7\",import-key-0007," + newer + ":40.00,");
+
+        PaymentImportResult result = importPipeline.importCsv(csv);
+
+        assertEquals(7, result.getTotal());
+        assertEquals(3, result.getImported());
+        assertEquals(4, result.getRejected());
+        assertEquals(0, result.getFailed());
+
+        List<PaymentImportRowResult> rows = result.getRows();
+        assertEquals(List.of(Status.IMPORTED, Status.REJECTED, Status.IMPORTED, Status.REJECTED,
+                        Status.REJECTED, Status.REJECTED, Status.IMPORTED),
+                rows.stream().map(PaymentImportRowResult::getStatus).toList());
+
+        assertEquals(3, rows.get(1).getLine());
+        assertTrue(rows.get(1).getMessage().startsWith("Allocation exceeds unpaid amount"));
+        assertTrue(rows.get(3).getMessage().contains("line 2"));
+        assertTrue(rows.get(4).getMessage().startsWith("Client not found"));
+
+        assertAmount("100.00", rows.get(2).getAllocatedAmount());
+        assertAmount("20.00", rows.get(2).getRemainderToBalance());
+        assertNotNull(rows.get(6).getPaymentId());
+
+        entityManager.flush();
+
+        assertAmount("0.00", unpaid(newer));
+        assertAmount("0.00", unpaid(older));
+        assertEquals("TRX, 7", jdbcTemplate.queryForObject(
+                "SELECT reference FROM payment WHERE payment_id = ?", String.class, rows.get(6).getPaymentId()));
+        assertAmount("20.00", jdbcTemplate.queryForObject(
+                "SELECT SUM(amount_change) FROM client_balance_movement WHERE client_id = ?",
+                BigDecimal.class, clientId));
+
+        // ----------------------------------------------------
+        // Re-importing the same file writes nothing
+        // ----------------------------------------------------
+        PaymentImportResult replay = importPipeline.importCsv(csv);
+
+        assertEquals(0, replay.getImported());
+        assertEquals(3, replay.getDuplicates());
+        assertEquals(rows.get(0).getPaymentId(), replay.getRows().get(0).getPaymentId());
+    }
+
+    @Test
+    void importCsv_rejectsFilesWithoutRequiredColumns() {
+        assertThrows(IllegalArgumentException.class,
+                () -> importPipeline.importCsv("client_id,amount\n1,10.00"));
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    private static void assertAmount(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual),
+                () -> "expected " + expected + " but was " + actual);
+    }
+
+    private BigDecimal unpaid(Long workId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT unpaid FROM work_payment_summary WHERE work_id = ?", BigDecimal.class, workId);
+    }
+
+    private WorkTypeRefEntity type;
+    private WorkOrderEntity order;
+
+    private Long persistClient() {
+
+        WorkFamilyRefEntity family = new WorkFamilyRefEntity();
+        family.setCode("FIXED_PROSTHESIS");
+        family.setLabel("Fixed Prosthesis");
+        entityManager.persist(family);
+
+        type = new WorkTypeRefEntity();
+        type.setCode("CROWN");
+        type.setLabel("Crown");
+        type.setFamily(family);
+        entityManager.persist(type);
+
+        ClientEntity client = new ClientEntity();
+        client.setDisplayName("Test Client");
+        client.setFirstName("Test");
+        client.setLastName("Client");
+        client.setPrimaryEmail("import.client@lab.local");
+        entityManager.persist(client);
+
+        order = new WorkOrderEntity();
+        order.setClient(client);
+        order.setDueDate(LocalDateTime.now());
+        entityManager.persist(order);
+
+        return client.getId();
+    }
+
+    private Long persistWork(LocalDateTime createdAt, String price) {
+
+        WorkEntity work = new WorkEntity();
+        work.setWorkFamily(type.getFamily());
+        work.setType(type);
+        work.setClient(order.getClient());
+        work.setOrder(order);
+        work.setCreatedAt(createdAt);
+        entityManager.persist(work);
+        entityManager.flush();
+
+        basePriceService.fixBasePrice(work.getId(),
+                new BasePriceResult(new BigDecimal(price), "MXN", "DEFAULT", null));
+
+        return work.getId();
+    }
+}
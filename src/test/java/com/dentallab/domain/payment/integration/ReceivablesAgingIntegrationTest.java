@@ -0,0 +1,190 @@
+package com.dentallab.domain.payment.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dentallab.domain.payment.dto.PaymentAllocationCommand;
+import com.dentallab.domain.payment.dto.RegisterPaymentRequest;
+import com.dentallab.domain.payment.service.PaymentService;
+import com.dentallab.domain.payment.service.ReceivablesAgingService;
+import com.dentallab.domain.payment.service.ReceivablesAgingService.AgingPage;
+import com.dentallab.domain.payment.service.ReceivablesAgingService.AgingRow;
+import com.dentallab.domain.payment.service.ReceivablesAgingService.AgingTotals;
+import com.dentallab.domain.payment.service.ReceivablesAgingService.Source;
+import com.dentallab.domain.pricing.model.BasePriceResult;
+import com.dentallab.domain.pricing.service.WorkBasePriceService;
+import com.dentallab.persistence.entity.ClientEntity;
+import com.dentallab.persistence.entity.WorkEntity;
+import com.dentallab.persistence.entity.WorkFamilyRefEntity;
+import com.dentallab.persistence.entity.WorkOrderEntity;
+import com.dentallab.persistence.entity.WorkTypeRefEntity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Receivables aging: buckets by work age from the unpaid projection,
+ * keyset pages by client, lab-wide totals and the stored daily snapshot.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ReceivablesAgingIntegrationTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2025, 6, 30);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private WorkBasePriceService basePriceService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ReceivablesAgingService agingService;
+
+    @Test
+    void aging_bucketsUnpaidAmountsByWorkAge_pagedByClient() {
+
+        ClientEntity first = persistClient("aging.first@lab.local");
+        persistWork(first, LocalDateTime.of(2025, 6, 20, 9, 0), "100.00");     // 10 days
+        Long partlyPaid = persistWork(first, LocalDateTime.of(2025, 5, 15, 9, 0), "100.00"); // 46 days
+        persistWork(first, LocalDateTime.of(2025, 4, 10, 9, 0), "100.00");     // 81 days
+        persistWork(first, LocalDateTime.of(2025, 1, 2, 9, 0), "100.00");      // 179 days
+
+        ClientEntity second = persistClient("aging.second@lab.local");
+        persistWork(second, LocalDateTime.of(2025, 6, 1, 9, 0), "50.00");      // 29 days
+
+        paymentService.registerPayment(payment(first.getId(), partlyPaid, "30.00"));
+        entityManager.flush();
+
+        // ----------------------------------------------------
+        // Live, one client per page
+        // ----------------------------------------------------
+        AgingPage page1 = agingService.livePage(AS_OF, 0L, 1);
+        assertEquals(1, page1.rows().size());
+        assertEquals(first.getId(), page1.nextAfterClientId());
+
+        AgingRow row = page1.rows().get(0);
+        assertEquals(first.getId(), row.clientId());
+        assertAmount("100.00", row.current());
+        assertAmount("70.00", row.days31To60());
+        assertAmount("100.00", row.days61To90());
+        assertAmount("100.00", row.over90());
+        assertAmount("370.00", row.total());
+
+        AgingPage page2 = agingService.livePage(AS_OF, page1.nextAfterClientId(), 1);
+        assertEquals(second.getId(), page2.rows().get(0).clientId());
+        assertAmount("50.00", page2.rows().get(0).current());
+
+        AgingTotals totals = agingService.liveTotals(AS_OF);
+        assertEquals(2, totals.clients());
+        assertAmount("150.00", totals.current());
+        assertAmount("420.00", totals.total());
+
+        // ----------------------------------------------------
+        // Snapshot: same report, read back without recomputing
+        // ----------------------------------------------------
+        assertEquals(2, agingService.takeSnapshot(AS_OF));
+        assertEquals(2, agingService.takeSnapshot(AS_OF)); // replaces the day's rows
+
+        AgingPage snapshot = agingService.snapshotPage(null, 0L, 10);
+        assertEquals(Source.SNAPSHOT, snapshot.source());
+        assertEquals(AS_OF, snapshot.asOf());
+        assertEquals(page1.rows().get(0), snapshot.rows().get(0));
+        assertNull(snapshot.nextAfterClientId());
+
+        AgingTotals snapshotTotals = agingService.snapshotTotals(AS_OF);
+        assertEquals(2, snapshotTotals.clients());
+        assertAmount("420.00", snapshotTotals.total());
+
+        assertThrows(EntityNotFoundException.class,
+                () -> agingService.snapshotPage(AS_OF.minusDays(1), 0L, 10));
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    private static void assertAmount(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual),
+                () -> "expected " + expected + " but was " + actual);
+    }
+
+    private static RegisterPaymentRequest payment(Long clientId, Long workId, String amount) {
+
+        PaymentAllocationCommand allocation = new PaymentAllocationCommand();
+        allocation.setWorkId(workId);
+        allocation.setAllocatedAmount(new BigDecimal(amount));
+
+        RegisterPaymentRequest request = new RegisterPaymentRequest();
+        request.setClientId(clientId);
+        request.setPaymentAmount(new BigDecimal(amount));
+        request.setMethod("CASH");
+        request.setAllocations(List.of(allocation));
+        request.setIdempotencyKey("key-aging-1");
+        return request;
+    }
+
+    private WorkTypeRefEntity type;
+
+    private ClientEntity persistClient(String email) {
+
+        if (type == null) {
+            WorkFamilyRefEntity family = new WorkFamilyRefEntity();
+            family.setCode("FIXED_PROSTHESIS");
+            family.setLabel("Fixed Prosthesis");
+            entityManager.persist(family);
+
+            type = new WorkTypeRefEntity();
+            type.setCode("CROWN");
+            type.setLabel("Crown");
+            type.setFamily(family);
+            entityManager.persist(type);
+        }
+
+        ClientEntity client = new ClientEntity();
+        client.setDisplayName("Test Client");
+        client.setFirstName("Test");
+        client.setLastName("Client");
+        client.setPrimaryEmail(email);
+        entityManager.persist(client);
+        return client;
+    }
+
+    private Long persistWork(ClientEntity client, LocalDateTime createdAt, String price) {
+
+        WorkOrderEntity order = new WorkOrderEntity();
+        order.setClient(client);
+        order.setDueDate(LocalDateTime.now());
+        entityManager.persist(order);
+
+        WorkEntity work = new WorkEntity();
+        work.setWorkFamily(type.getFamily());
+        work.setType(type);
+        work.setClient(client);
+        work.setOrder(order);
+        work.setCreatedAt(createdAt);
+        entityManager.persist(work);
+        entityManager.flush();
+
+        basePriceService.fixBasePrice(work.getId(),
+                new BasePriceResult(new BigDecimal(price), "MXN", "DEFAULT", null));
+
+        return work.getId();
+    }
+}
@@ -0,0 +1,193 @@
+package com.dentallab.domain.payment.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dentallab.domain.payment.dto.PaymentAllocationCommand;
+import com.dentallab.domain.payment.dto.RegisterPaymentRequest;
+import com.dentallab.domain.payment.dto.WorkSuggestion;
+import com.dentallab.domain.payment.service.PaymentService;
+import com.dentallab.domain.payment.service.UnpaidWorkSuggestionEngine;
+import com.dentallab.domain.pricing.model.BasePriceResult;
+import com.dentallab.domain.pricing.service.WorkBasePriceService;
+import com.dentallab.persistence.entity.ClientEntity;
+import com.dentallab.persistence.entity.WorkEntity;
+import com.dentallab.persistence.entity.WorkFamilyRefEntity;
+import com.dentallab.persistence.entity.WorkOrderEntity;
+import com.dentallab.persistence.entity.WorkTypeRefEntity;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Remainder suggestions: oldest unpaid works first, greedy fill,
+ * scanned in several keyset pages; legacy works without creation date
+ * come first.
+ */
+@SpringBootTest(properties = "payment.suggestions.page-size=2")
+@ActiveProfiles("test")
+@Transactional
+class UnpaidWorkSuggestionEngineIntegrationTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private WorkBasePriceService basePriceService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private UnpaidWorkSuggestionEngine suggestionEngine;
+
+    @Test
+    void suggest_fillsRemainderWithOldestUnpaidWorks_andStopsWhenCovered() {
+
+        // Five works of 100.00; ids ascend while creation dates descend
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 9, 0);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Long workId = persistWork(base.plusDays(4 - i)).getId();
+            basePriceService.fixBasePrice(workId,
+                    new BasePriceResult(new BigDecimal("100.00"), "MXN", "DEFAULT", null));
+            ids.add(workId);
+        }
+        Long clientId = order.getClient().getId();
+
+        // 30.00 already paid on the third work
+        paymentService.registerPayment(payment(clientId, ids.get(2), "30.00"));
+        entityManager.flush();
+
+        // Oldest first: 4, 3 (excluded: already in the preview), 2, 1, 0
+        List<WorkSuggestion> suggestions = suggestionEngine.suggest(
+                clientId, new BigDecimal("250.00"), Set.of(ids.get(3)));
+
+        assertEquals(List.of(ids.get(4), ids.get(2), ids.get(1)),
+                suggestions.stream().map(WorkSuggestion::getWorkId).toList());
+
+        assertAmount("100.00", suggestions.get(0).getSuggestedAmount());
+        assertAmount("70.00", suggestions.get(1).getUnpaidAmount());
+        assertAmount("70.00", suggestions.get(1).getSuggestedAmount());
+        assertAmount("100.00", suggestions.get(2).getUnpaidAmount());
+        assertAmount("80.00", suggestions.get(2).getSuggestedAmount());
+    }
+
+    @Test
+    void suggest_scansUndatedWorksFirst_thenDatedOnesAcrossPages() {
+
+        // Two dated works (newest first by id), then three legacy undated ones
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 9, 0);
+        Long newer = pricedWork(base.plusDays(1));
+        Long older = pricedWork(base);
+        List<Long> undated = List.of(
+                pricedWork(base.plusDays(5)), pricedWork(base.plusDays(6)), pricedWork(base.plusDays(7)));
+
+        for (Long workId : undated) {
+            jdbcTemplate.update("UPDATE work SET created_at = NULL WHERE work_id = ?", workId);
+        }
+        entityManager.clear();
+
+        // Page size 2: undated [0, 1], [2] (segment ends), dated [older, newer]
+        List<WorkSuggestion> suggestions = suggestionEngine.suggest(
+                order.getClient().getId(), new BigDecimal("450.00"), Set.of());
+
+        assertEquals(List.of(undated.get(0), undated.get(1), undated.get(2), older, newer),
+                suggestions.stream().map(WorkSuggestion::getWorkId).toList());
+        assertAmount("50.00", suggestions.get(4).getSuggestedAmount());
+    }
+
+    @Test
+    void suggest_returnsNothingWithoutRemainder() {
+        assertTrue(suggestionEngine.suggest(1L, BigDecimal.ZERO, Set.of()).isEmpty());
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    private static void assertAmount(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual),
+                () -> "expected " + expected + " but was " + actual);
+    }
+
+    private static RegisterPaymentRequest payment(Long clientId, Long workId, String amount) {
+
+        PaymentAllocationCommand allocation = new PaymentAllocationCommand();
+        allocation.setWorkId(workId);
+        allocation.setAllocatedAmount(new BigDecimal(amount));
+
+        RegisterPaymentRequest request = new RegisterPaymentRequest();
+        request.setClientId(clientId);
+        request.setPaymentAmount(new BigDecimal(amount));
+        request.setMethod("CASH");
+        request.setAllocations(List.of(allocation));
+        request.setIdempotencyKey("key-suggestions-1");
+        return request;
+    }
+
+    private Long pricedWork(LocalDateTime createdAt) {
+        Long workId = persistWork(createdAt).getId();
+        basePriceService.fixBasePrice(workId,
+                new BasePriceResult(new BigDecimal("100.00"), "MXN", "DEFAULT", null));
+        return workId;
+    }
+
+    /** Shared reference data, created by the first {@link #persistWork} of a test. */
+    private WorkTypeRefEntity type;
+    private WorkOrderEntity order;
+
+    private WorkEntity persistWork(LocalDateTime createdAt) {
+
+        if (order == null) {
+            WorkFamilyRefEntity family = new WorkFamilyRefEntity();
+            family.setCode("FIXED_PROSTHESIS");
+            family.setLabel("Fixed Prosthesis");
+            entityManager.persist(family);
+
+            type = new WorkTypeRefEntity();
+            type.setCode("CROWN");
+            type.setLabel("Crown");
+            type.setFamily(family);
+            entityManager.persist(type);
+
+            ClientEntity client = new ClientEntity();
+            client.setDisplayName("Test Client");
+            client.setFirstName("Test");
+            client.setLastName("Client");
+            client.setPrimaryEmail("test.client@lab.local");
+            entityManager.persist(client);
+
+            order = new WorkOrderEntity();
+            order.setClient(client);
+            order.setDueDate(LocalDateTime.now());
+            entityManager.persist(order);
+        }
+
+        WorkEntity work = new WorkEntity();
+        work.setWorkFamily(type.getFamily());
+        work.setType(type);
+        work.setClient(order.getClient());
+        work.setOrder(order);
+        work.setCreatedAt(createdAt);
+        entityManager.persist(work);
+        entityManager.flush();
+
+        return work;
+    }
+}
@@ -0,0 +1,206 @@
+package com.dentallab.domain.payment.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dentallab.domain.payment.dto.PaymentAllocationCommand;
+import com.dentallab.domain.payment.dto.RegisterPaymentRequest;
+import com.dentallab.domain.payment.persistence.WorkPaymentSummaryJob;
+import com.dentallab.domain.payment.query.WorkPaymentStatusQuery;
+import com.dentallab.domain.payment.service.PaymentService;
+import com.dentallab.domain.pricing.model.BasePriceResult;
+import com.dentallab.domain.pricing.service.WorkBasePriceService;
+import com.dentallab.domain.pricing.service.WorkPriceOverrideService;
+import com.dentallab.persistence.entity.ClientEntity;
+import com.dentallab.persistence.entity.WorkEntity;
+import com.dentallab.persistence.entity.WorkFamilyRefEntity;
+import com.dentallab.persistence.entity.WorkOrderEntity;
+import com.dentallab.persistence.entity.WorkTypeRefEntity;
+import com.dentallab.persistence.repository.WorkRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * {@code work_payment_summary}: maintained with the fixed price, overrides
+ * and payments, read by the payment status queries, and rebuilt from the
+ * ledgers when it drifts.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class WorkPaymentSummaryIntegrationTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private WorkBasePriceService basePriceService;
+
+    @Autowired
+    private WorkPriceOverrideService overrideService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private WorkPaymentStatusQuery paymentStatusQuery;
+
+    @Autowired
+    private WorkRepository workRepository;
+
+    @Autowired
+    private WorkPaymentSummaryJob summaryJob;
+
+    @Test
+    void summary_followsFixedPriceOverridesAndPayments() {
+
+        WorkEntity work = persistWork();
+        Long workId = work.getId();
+        Long clientId = work.getClient().getId();
+
+        basePriceService.fixBasePrice(workId,
+                new BasePriceResult(new BigDecimal("100.00"), "MXN", "DEFAULT", null));
+        assertAmount("100.00", unpaid(workId));
+
+        overrideService.addOverride(workId, new BigDecimal("10.00"), "Urgent case", null);
+        entityManager.flush();
+        assertAmount("110.00", unpaid(workId));
+
+        paymentService.registerPayment(payment(clientId, workId, "60.00", "key-summary-1"));
+        entityManager.flush();
+
+        assertAmount("50.00", unpaid(workId));
+        assertAmount("60.00", paymentStatusQuery.findCashPaidAmountsByWorkIds(List.of(workId)).get(workId));
+        assertEquals(Map.of(), paymentStatusQuery.findBalancePaidAmountsByWorkIds(List.of(workId)));
+
+        assertEquals(List.of(workId),
+                workRepository.findUnpaidWorksByClientId(clientId).stream().map(WorkEntity::getId).toList());
+
+        // Paying the rest removes the work from the unpaid list
+        paymentService.registerPayment(payment(clientId, workId, "50.00", "key-summary-2"));
+        entityManager.flush();
+
+        assertAmount("0.00", unpaid(workId));
+        assertTrue(workRepository.findUnpaidWorksByClientId(clientId).isEmpty());
+
+        assertEquals(0, summaryJob.verify().mismatched());
+    }
+
+    @Test
+    void rebuild_regeneratesStaleAndMissingRowsFromLedgers() {
+
+        WorkEntity work = persistWork();
+        Long workId = work.getId();
+
+        basePriceService.fixBasePrice(workId,
+                new BasePriceResult(new BigDecimal("100.00"), "MXN", "DEFAULT", null));
+        paymentService.registerPayment(payment(work.getClient().getId(), workId, "40.00", "key-summary-3"));
+
+        // A work without a price has no row until the rebuild projects it
+        Long unpricedId = persistWork().getId();
+
+        // Simulate a write that bypassed the projection
+        jdbcTemplate.update(
+                "UPDATE work_payment_summary SET cash_paid = 0, unpaid = 100 WHERE work_id = ?", workId);
+
+        WorkPaymentSummaryJob.Report verify = summaryJob.verify();
+        assertEquals(2, verify.mismatched());
+        assertEquals(0, verify.repaired());
+        assertEquals(List.of(workId, unpricedId), verify.mismatchedWorkIds());
+
+        WorkPaymentSummaryJob.Report rebuild = summaryJob.rebuild();
+        assertEquals(2, rebuild.repaired());
+        entityManager.flush();
+
+        assertAmount("60.00", unpaid(workId));
+        assertNull(unpaid(unpricedId));
+        assertEquals(0, summaryJob.verify().mismatched());
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    private BigDecimal unpaid(Long workId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT unpaid FROM work_payment_summary WHERE work_id = ?", BigDecimal.class, workId);
+    }
+
+    private static void assertAmount(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual),
+                () -> "expected " + expected + " but was " + actual);
+    }
+
+    private static RegisterPaymentRequest payment(Long clientId, Long workId, String amount, String key) {
+
+        PaymentAllocationCommand allocation = new PaymentAllocationCommand();
+        allocation.setWorkId(workId);
+        allocation.setAllocatedAmount(new BigDecimal(amount));
+
+        RegisterPaymentRequest request = new RegisterPaymentRequest();
+        request.setClientId(clientId);
+        request.setPaymentAmount(new BigDecimal(amount));
+        request.setMethod("CASH");
+        request.setAllocations(List.of(allocation));
+        request.setIdempotencyKey(key);
+        return request;
+    }
+
+    /** Shared reference data, created by the first {@link #persistWork()} of a test. */
+    private WorkTypeRefEntity type;
+    private WorkOrderEntity order;
+
+    private WorkEntity persistWork() {
+
+        if (order == null) {
+            WorkFamilyRefEntity family = new WorkFamilyRefEntity();
+            family.setCode("FIXED_PROSTHESIS");
+            family.setLabel("Fixed Prosthesis");
+            entityManager.persist(family);
+
+            type = new WorkTypeRefEntity();
+            type.setCode("CROWN");
+            type.setLabel("Crown");
+            type.setFamily(family);
+            entityManager.persist(type);
+
+            ClientEntity client = new ClientEntity();
+            client.setDisplayName("Test Client");
+            client.setFirstName("Test");
+            client.setLastName("Client");
+            client.setPrimaryEmail("test.client@lab.local");
+            entityManager.persist(client);
+
+            order = new WorkOrderEntity();
+            order.setClient(client);
+            order.setDueDate(LocalDateTime.now());
+            entityManager.persist(order);
+        }
+
+        WorkEntity work = new WorkEntity();
+        work.setWorkFamily(type.getFamily());
+        work.setType(type);
+        work.setClient(order.getClient());
+        work.setOrder(order);
+        entityManager.persist(work);
+        entityManager.flush();
+
+        return work;
+    }
+}
@@ -0,0 +1,231 @@
+package com.dentallab.domain.payment.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dentallab.domain.payment.dto.PaymentAllocationCommand;
+import com.dentallab.domain.payment.dto.RegisterPaymentRequest;
+import com.dentallab.domain.payment.persistence.WorkPaymentSummaryJob;
+import com.dentallab.domain.payment.service.PaymentService;
+import com.dentallab.domain.pricing.model.BasePriceResult;
+import com.dentallab.domain.pricing.service.WorkBasePriceService;
+import com.dentallab.persistence.entity.ClientEntity;
+import com.dentallab.persistence.entity.WorkEntity;
+import com.dentallab.persistence.entity.WorkFamilyRefEntity;
+import com.dentallab.persistence.entity.WorkOrderEntity;
+import com.dentallab.persistence.entity.WorkTypeRefEntity;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Rebuild racing payments on the same work: the rebuild locks the summary
+ * rows before reading the ledgers, so no committed payment is overwritten
+ * by an older ledger total.
+ *
+ * Not {@code @Transactional}: payments and rebuild pages must commit for
+ * them to race; the rows are removed afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class WorkPaymentSummaryRebuildConcurrencyTest {
+
+    private static final int PAYER_THREADS = 4;
+    private static final int PAYMENTS_PER_THREAD = 10;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private WorkBasePriceService basePriceService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private WorkPaymentSummaryJob summaryJob;
+
+    private Long clientId;
+    private Long workId;
+
+    @AfterEach
+    void cleanUp() {
+        if (workId != null) {
+            jdbcTemplate.update("DELETE FROM payment_allocation WHERE work_id = ?", workId);
+            jdbcTemplate.update("DELETE FROM work_payment_summary WHERE work_id = ?", workId);
+            jdbcTemplate.update("DELETE FROM work_price WHERE work_id = ?", workId);
+            jdbcTemplate.update("DELETE FROM work WHERE work_id = ?", workId);
+        }
+        if (clientId != null) {
+            jdbcTemplate.update("DELETE FROM payment WHERE client_id = ?", clientId);
+            jdbcTemplate.update("DELETE FROM work_order WHERE client_id = ?", clientId);
+            jdbcTemplate.update("DELETE FROM client WHERE client_id = ?", clientId);
+        }
+        jdbcTemplate.update("DELETE FROM work_type_ref WHERE code = 'REBUILD_RACE'");
+        jdbcTemplate.update("DELETE FROM work_family_ref WHERE code = 'REBUILD_RACE'");
+    }
+
+    @Test
+    void rebuildDuringPayments_losesNoPayment() throws Exception {
+
+        persistPricedWork("200.00");
+
+        // ----------------------------------------------------
+        // Payers and one thread rebuilding in a loop, started together
+        // ----------------------------------------------------
+        AtomicInteger paid = new AtomicInteger();
+        AtomicBoolean paying = new AtomicBoolean(true);
+        List<Throwable> unexpected = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(PAYER_THREADS + 1);
+        List<Future<?>> payers = new ArrayList<>();
+
+        for (int t = 0; t < PAYER_THREADS; t++) {
+            payers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < PAYMENTS_PER_THREAD; i++) {
+                    try {
+                        paymentService.registerPayment(payment("1.00"));
+                        paid.incrementAndGet();
+                    } catch (ConcurrencyFailureException e) {
+                        // Lock wait timed out: allowed, the payment rolled back as a whole
+                    } catch (Throwable e) {
+                        unexpected.add(e);
+                    }
+                }
+                return null;
+            }));
+        }
+
+        Future<?> rebuilder = pool.submit(() -> {
+            start.await();
+            while (paying.get()) {
+                try {
+                    summaryJob.rebuild();
+                } catch (ConcurrencyFailureException e) {
+                    // Lock wait timed out: the page rolled back, next loop retries
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                }
+            }
+            return null;
+        });
+
+        start.countDown();
+        for (Future<?> f : payers) {
+            f.get(2, TimeUnit.MINUTES);
+        }
+        paying.set(false);
+        rebuilder.get(2, TimeUnit.MINUTES);
+        pool.shutdown();
+
+        // ----------------------------------------------------
+        // Then: summary == ledger == committed payments
+        // ----------------------------------------------------
+        assertTrue(unexpected.isEmpty(), () -> "unexpected failures: " + unexpected);
+        assertTrue(paid.get() > 0);
+
+        BigDecimal expectedPaid = BigDecimal.valueOf(paid.get());
+
+        BigDecimal cashPaid = jdbcTemplate.queryForObject(
+                "SELECT cash_paid FROM work_payment_summary WHERE work_id = ?", BigDecimal.class, workId);
+        BigDecimal unpaid = jdbcTemplate.queryForObject(
+                "SELECT unpaid FROM work_payment_summary WHERE work_id = ?", BigDecimal.class, workId);
+
+        assertEquals(0, expectedPaid.compareTo(cashPaid), () -> "cash_paid " + cashPaid + " != " + expectedPaid);
+        assertEquals(0, new BigDecimal("200.00").subtract(expectedPaid).compareTo(unpaid));
+        assertEquals(0, summaryJob.verify().mismatched());
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    private RegisterPaymentRequest payment(String amount) {
+
+        PaymentAllocationCommand allocation = new PaymentAllocationCommand();
+        allocation.setWorkId(workId);
+        allocation.setAllocatedAmount(new BigDecimal(amount));
+
+        RegisterPaymentRequest request = new RegisterPaymentRequest();
+        request.setClientId(clientId);
+        request.setPaymentAmount(new BigDecimal(amount));
+        request.setMethod("CASH");
+        request.setAllocations(List.of(allocation));
+        request.setIdempotencyKey("rebuild-race-" + UUID.randomUUID());
+        return request;
+    }
+
+    private void persistPricedWork(String price) {
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+
+            WorkFamilyRefEntity family = new WorkFamilyRefEntity();
+            family.setCode("REBUILD_RACE");
+            family.setLabel("Rebuild Race");
+            entityManager.persist(family);
+
+            WorkTypeRefEntity type = new WorkTypeRefEntity();
+            type.setCode("REBUILD_RACE");
+            type.setLabel("Rebuild Race");
+            type.setFamily(family);
+            entityManager.persist(type);
+
+            ClientEntity client = new ClientEntity();
+            client.setDisplayName("Race Clinic");
+            client.setFirstName("Race");
+            client.setLastName("Clinic");
+            client.setPrimaryEmail("race.clinic@lab.local");
+            entityManager.persist(client);
+
+            WorkOrderEntity order = new WorkOrderEntity();
+            order.setClient(client);
+            order.setDueDate(LocalDateTime.now());
+            entityManager.persist(order);
+
+            WorkEntity work = new WorkEntity();
+            work.setWorkFamily(family);
+            work.setType(type);
+            work.setClient(client);
+            work.setOrder(order);
+            entityManager.persist(work);
+            entityManager.flush();
+
+            clientId = client.getId();
+            workId = work.getId();
+        });
+
+        basePriceService.fixBasePrice(workId,
+                new BasePriceResult(new BigDecimal(price), "MXN", "DEFAULT", null));
+    }
+}
@@ -0,0 +1,61 @@
+package com.dentallab.domain.payment.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class PaymentIdempotencyCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void findPaymentId_expiresAfterTtl() {
+
+        PaymentIdempotencyCache cache = new PaymentIdempotencyCache(10, 60, 100, nanos::get);
+        cache.record("key-1", 5L);
+
+        nanos.addAndGet(59_000_000_000L);
+        assertThat(cache.findPaymentId("key-1")).isEqualTo(5L);
+
+        nanos.addAndGet(1_000_000_000L);
+        assertThat(cache.findPaymentId("key-1")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void record_evictsLeastRecentlyUsedBeyondMaxEntries() {
+
+        PaymentIdempotencyCache cache = new PaymentIdempotencyCache(2, 60, 100, nanos::get);
+        cache.record("key-1", 1L);
+        cache.record("key-2", 2L);
+        cache.findPaymentId("key-1");
+        cache.record("key-3", 3L);
+
+        assertThat(cache.findPaymentId("key-1")).isEqualTo(1L);
+        assertThat(cache.findPaymentId("key-2")).isNull();
+        assertThat(cache.findPaymentId("key-3")).isEqualTo(3L);
+    }
+
+    @Test
+    void isDefinitelyNew_isFalseForEveryRecordedKey() {
+
+        PaymentIdempotencyCache cache = new PaymentIdempotencyCache(0, 60, 1000, nanos::get);
+
+        for (int i = 0; i < 1000; i++) {
+            cache.record("key-" + i, (long) i);
+        }
+
+        // No false negatives, even once the positive cache holds nothing
+        for (int i = 0; i < 1000; i++) {
+            assertThat(cache.isDefinitelyNew("key-" + i)).isFalse();
+        }
+
+        long fresh = 0;
+        for (int i = 1000; i < 2000; i++) {
+            if (cache.isDefinitelyNew("key-" + i)) fresh++;
+        }
+        assertThat(fresh).isGreaterThan(900);
+    }
+}
@@ -1,9 +1,14 @@
 package com.dentallab.domain.payment.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -17,10 +22,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.dentallab.domain.payment.dto.PaymentPreviewRequest;
 import com.dentallab.domain.payment.dto.PaymentPreviewResult;
+import com.dentallab.domain.payment.dto.WorkSuggestion;
 import com.dentallab.domain.payment.query.WorkPaymentStatusQuery;
 import com.dentallab.domain.payment.service.impl.PaymentPreviewServiceImpl;
 import com.dentallab.domain.pricing.model.PriceResolution;
-import com.dentallab.domain.pricing.model.PriceResolutionRequest;
 import com.dentallab.domain.pricing.service.WorkPricingService;
 import com.dentallab.persistence.entity.WorkEntity;
 import com.dentallab.persistence.repository.WorkRepository;
@@ -37,6 +42,9 @@ class PaymentPreviewServiceTest {
     @Mock
     private WorkPaymentStatusQuery paymentStatusQuery;
 
+    @Mock
+    private UnpaidWorkSuggestionEngine suggestionEngine;
+
     @InjectMocks
     private PaymentPreviewServiceImpl service;
 
@@ -67,31 +75,29 @@ class PaymentPreviewServiceTest {
 
         when(workRepository.findByIdInAndClient_Id(
                 List.of(1L, 2L), clientId))
-            .thenReturn(List.of(work1, work2));
-
-        // Prices (real constructor)
-        when(workPricingService.resolveFinalPrice(
-                PriceResolutionRequest.forWork(1L)))
-            .thenReturn(new PriceResolution(
-                    new BigDecimal("100.00"),   // basePrice
-                    BigDecimal.ZERO,            // totalOverrides
-                    new BigDecimal("100.00"),   // finalPrice
-                    "MXN",
-                    null,
-                    null,
-                    List.of()
-            ));
+            .thenReturn(new ArrayList<>(List.of(work1, work2)));
 
-        when(workPricingService.resolveFinalPrice(
-                PriceResolutionRequest.forWork(2L)))
-            .thenReturn(new PriceResolution(
-                    new BigDecimal("200.00"),
-                    BigDecimal.ZERO,
-                    new BigDecimal("200.00"),
-                    "MXN",
-                    null,
-                    null,
-                    List.of()
+        // Prices (real constructor), resolved set-based
+        when(workPricingService.resolveFinalPrices(Set.of(1L, 2L)))
+            .thenReturn(Map.of(
+                    1L, new PriceResolution(
+                            new BigDecimal("100.00"),   // basePrice
+                            BigDecimal.ZERO,            // totalOverrides
+                            new BigDecimal("100.00"),   // finalPrice
+                            "MXN",
+                            null,
+                            null,
+                            List.of()
+                    ),
+                    2L, new PriceResolution(
+                            new BigDecimal("200.00"),
+                            BigDecimal.ZERO,
+                            new BigDecimal("200.00"),
+                            "MXN",
+                            null,
+                            null,
+                            List.of()
+                    )
             ));
 
         // Already paid
@@ -137,5 +143,74 @@ class PaymentPreviewServiceTest {
                 .isEqualTo(2L);
         assertThat(result.getWorkAllocations().get(1).getAllocatedAmount())
                 .isEqualByComparingTo("70.00"); // remainder
+
+        // Nothing left: no suggestion lookup
+        assertThat(result.getSuggestedAdditionalWorks()).isEmpty();
+        verify(suggestionEngine, never()).suggest(anyLong(), any(), any());
+    }
+
+    @Test
+    void preview_suggests_other_unpaid_works_for_the_remainder() {
+
+        // ----------------------------------------------------
+        // Given: 250 paid against a single 100 work
+        // ----------------------------------------------------
+        Long clientId = 10L;
+
+        PaymentPreviewRequest request = new PaymentPreviewRequest();
+        request.setClientId(clientId);
+        request.setPaymentAmount(new BigDecimal("250.00"));
+        request.setSelectedWorkIds(List.of(1L));
+
+        when(workRepository.findByIdInAndClient_Id(List.of(1L), clientId))
+            .thenReturn(new ArrayList<>(List.of(work1)));
+
+        when(workPricingService.resolveFinalPrices(Set.of(1L)))
+            .thenReturn(Map.of(
+                    1L, new PriceResolution(
+                            new BigDecimal("100.00"),
+                            BigDecimal.ZERO,
+                            new BigDecimal("100.00"),
+                            "MXN",
+                            null,
+                            null,
+                            List.of()
+                    )
+            ));
+
+        when(paymentStatusQuery.findCashPaidAmountsByWorkIds(Set.of(1L)))
+            .thenReturn(Map.of());
+        when(paymentStatusQuery.findBalancePaidAmountsByWorkIds(Set.of(1L)))
+            .thenReturn(Map.of());
+
+        WorkSuggestion suggestion = new WorkSuggestion();
+        suggestion.setWorkId(7L);
+        suggestion.setUnpaidAmount(new BigDecimal("300.00"));
+        suggestion.setSuggestedAmount(new BigDecimal("150.00"));
+        List<WorkSuggestion> suggestions = List.of(suggestion);
+
+        when(suggestionEngine.suggest(clientId, new BigDecimal("150.00"), Set.of(1L)))
+            .thenReturn(suggestions);
+
+        // ----------------------------------------------------
+        // When
+        // ----------------------------------------------------
+        PaymentPreviewResult result = service.preview(request);
+
+        // ----------------------------------------------------
+        // Then
+        // ----------------------------------------------------
+        assertThat(result.getRemainingUnallocated())
+                .isEqualByComparingTo("150.00");
+        assertThat(result.isRequiresBalanceConfirmation())
+                .isTrue();
+
+        assertThat(result.getSuggestedAdditionalWorks()).hasSize(1);
+        assertThat(result.getSuggestedAdditionalWorks().get(0).getWorkId())
+                .isEqualTo(7L);
+        assertThat(result.getSuggestedAdditionalWorks().get(0).getWorkLabel())
+                .isEqualTo("Work 7");
+        assertThat(result.getSuggestedAdditionalWorks().get(0).getSuggestedAmount())
+                .isEqualByComparingTo("150.00");
     }
 }
@@ -0,0 +1,248 @@
+package com.dentallab.domain.payment.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.dentallab.domain.payment.dto.PaymentAllocationCommand;
+import com.dentallab.domain.payment.dto.RegisterPaymentRequest;
+import com.dentallab.domain.payment.persistence.PaymentAllocationBatchWriter;
+import com.dentallab.domain.payment.persistence.WorkPaymentSummaryWriter;
+import com.dentallab.domain.payment.query.WorkPaymentStatusQuery;
+import com.dentallab.domain.payment.service.impl.PaymentServiceImpl;
+import com.dentallab.domain.pricing.model.PriceResolution;
+import com.dentallab.domain.pricing.service.WorkPricingService;
+import com.dentallab.persistence.entity.PaymentEntity;
+import com.dentallab.persistence.entity.WorkEntity;
+import com.dentallab.persistence.repository.PaymentRepository;
+import com.dentallab.persistence.repository.WorkRepository;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentServiceImplTest {
+
+    private static final Long CLIENT_ID = 10L;
+
+    @Mock
+    private WorkRepository workRepository;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private PaymentAllocationBatchWriter allocationBatchWriter;
+
+    @Mock
+    private WorkPaymentSummaryWriter summaryWriter;
+
+    @Mock
+    private WorkPricingService workPricingService;
+
+    @Mock
+    private WorkPaymentStatusQuery paymentStatusQuery;
+
+    @Mock
+    private ClientBalanceService clientBalanceService;
+
+    @Mock
+    private BalanceWriteExecutor writeExecutor;
+
+    @Mock
+    private PaymentIdempotencyCache idempotencyCache;
+
+    @InjectMocks
+    private PaymentServiceImpl service;
+
+    /** Runs the transactional work directly, as the executor would. */
+    private void runWritesInline() {
+        doAnswer(inv -> inv.<Supplier<?>>getArgument(1).get())
+                .when(writeExecutor).execute(anyString(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void registerPayment_validatesAllWorksWithGroupedQueries_andInsertsOneBatch() {
+
+        // ----------------------------------------------------
+        // Given: 50 works of 100.00, 10.00 already paid on each
+        // ----------------------------------------------------
+        int count = 50;
+        List<Long> workIds = new ArrayList<>();
+        List<WorkEntity> works = new ArrayList<>();
+        List<PaymentAllocationCommand> commands = new ArrayList<>();
+
+        for (long id = 1; id <= count; id++) {
+            workIds.add(id);
+            WorkEntity work = new WorkEntity();
+            work.setId(id);
+            works.add(work);
+            commands.add(allocation(id, "90.00"));
+        }
+
+        Map<Long, PriceResolution> prices = new HashMap<>();
+        Map<Long, BigDecimal> cashPaid = new HashMap<>();
+        for (Long id : workIds) {
+            prices.put(id, price("100.00"));
+            cashPaid.put(id, new BigDecimal("10.00"));
+        }
+
+        RegisterPaymentRequest request = request("4500.00", commands);
+
+        runWritesInline();
+        when(paymentRepository.findByIdempotencyKey("key-1")).thenReturn(Optional.empty());
+        when(workRepository.findByIdInAndClient_Id(workIds, CLIENT_ID)).thenReturn(works);
+        when(workPricingService.resolveFinalPrices(Set.copyOf(workIds))).thenReturn(prices);
+        when(paymentStatusQuery.findCashPaidAmountsByWorkIds(Set.copyOf(workIds))).thenReturn(cashPaid);
+        when(paymentStatusQuery.findBalancePaidAmountsByWorkIds(Set.copyOf(workIds))).thenReturn(Map.of());
+        when(paymentRepository.save(any(PaymentEntity.class))).thenAnswer(inv -> {
+            PaymentEntity payment = inv.getArgument(0);
+            payment.setId(99L);
+            return payment;
+        });
+
+        // ----------------------------------------------------
+        // When
+        // ----------------------------------------------------
+        Long paymentId = service.registerPayment(request);
+
+        // ----------------------------------------------------
+        // Then: one query of each kind, one batch
+        // ----------------------------------------------------
+        assertThat(paymentId).isEqualTo(99L);
+        verify(idempotencyCache).record("key-1", 99L);
+
+        verify(workPricingService, times(1)).resolveFinalPrices(any());
+        verify(paymentStatusQuery, times(1)).findCashPaidAmountsByWorkIds(any());
+        verify(paymentStatusQuery, times(1)).findBalancePaidAmountsByWorkIds(any());
+
+        ArgumentCaptor<Map<Long, BigDecimal>> rows = ArgumentCaptor.forClass(Map.class);
+        verify(allocationBatchWriter, times(1)).insertAll(eq(99L), rows.capture());
+
+        assertThat(rows.getValue()).hasSize(count);
+        assertThat(rows.getValue().get(1L)).isEqualByComparingTo("90.00");
+
+        verify(summaryWriter, times(1)).recordCashPaid(rows.getValue());
+    }
+
+    @Test
+    void registerPayment_rejectsOverAllocation_beforeWritingAnything() {
+
+        WorkEntity work = new WorkEntity();
+        work.setId(1L);
+
+        // Two commands for the same work: 60 + 60 > 100 unpaid
+        RegisterPaymentRequest request = request("120.00",
+                List.of(allocation(1L, "60.00"), allocation(1L, "60.00")));
+
+        runWritesInline();
+        when(paymentRepository.findByIdempotencyKey("key-1")).thenReturn(Optional.empty());
+        when(workRepository.findByIdInAndClient_Id(List.of(1L, 1L), CLIENT_ID)).thenReturn(List.of(work));
+        when(workPricingService.resolveFinalPrices(Set.of(1L))).thenReturn(Map.of(1L, price("100.00")));
+        when(paymentStatusQuery.findCashPaidAmountsByWorkIds(Set.of(1L))).thenReturn(Map.of());
+        when(paymentStatusQuery.findBalancePaidAmountsByWorkIds(Set.of(1L))).thenReturn(Map.of());
+
+        assertThatThrownBy(() -> service.registerPayment(request))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("workId=1");
+
+        verify(paymentRepository, never()).save(any());
+        verify(allocationBatchWriter, never()).insertAll(anyLong(), anyMap());
+        verify(summaryWriter, never()).recordCashPaid(anyMap());
+    }
+
+    @Test
+    void registerPayment_answersCachedReplay_withoutDatabase() {
+
+        when(idempotencyCache.findPaymentId("key-1")).thenReturn(42L);
+
+        Long paymentId = service.registerPayment(request("100.00", List.of(allocation(1L, "100.00"))));
+
+        assertThat(paymentId).isEqualTo(42L);
+        verifyNoInteractions(paymentRepository, workRepository, writeExecutor);
+    }
+
+    @Test
+    void registerPayment_skipsLookupForNewKey_andResolvesDuplicateOnUniqueViolation() {
+
+        WorkEntity work = new WorkEntity();
+        work.setId(1L);
+
+        PaymentEntity existing = new PaymentEntity();
+        existing.setId(7L);
+
+        runWritesInline();
+        when(idempotencyCache.isDefinitelyNew("key-1")).thenReturn(true);
+        when(workRepository.findByIdInAndClient_Id(List.of(1L), CLIENT_ID)).thenReturn(List.of(work));
+        when(workPricingService.resolveFinalPrices(Set.of(1L))).thenReturn(Map.of(1L, price("100.00")));
+        when(paymentStatusQuery.findCashPaidAmountsByWorkIds(Set.of(1L))).thenReturn(Map.of());
+        when(paymentStatusQuery.findBalancePaidAmountsByWorkIds(Set.of(1L))).thenReturn(Map.of());
+        when(paymentRepository.save(any(PaymentEntity.class)))
+                .thenThrow(new DataIntegrityViolationException("uq_payment_idempotency_key"));
+        when(paymentRepository.findByIdempotencyKey("key-1")).thenReturn(Optional.of(existing));
+
+        Long paymentId = service.registerPayment(request("50.00", List.of(allocation(1L, "50.00"))));
+
+        // Looked up only once: after the unique violation, not before
+        assertThat(paymentId).isEqualTo(7L);
+        verify(paymentRepository, times(1)).findByIdempotencyKey("key-1");
+        verify(idempotencyCache).record("key-1", 7L);
+        verify(allocationBatchWriter, never()).insertAll(anyLong(), anyMap());
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    private static RegisterPaymentRequest request(String amount, List<PaymentAllocationCommand> allocations) {
+        RegisterPaymentRequest request = new RegisterPaymentRequest();
+        request.setClientId(CLIENT_ID);
+        request.setPaymentAmount(new BigDecimal(amount));
+        request.setAllocations(allocations);
+        request.setIdempotencyKey("key-1");
+        return request;
+    }
+
+    private static PaymentAllocationCommand allocation(Long workId, String amount) {
+        PaymentAllocationCommand cmd = new PaymentAllocationCommand();
+        cmd.setWorkId(workId);
+        cmd.setAllocatedAmount(new BigDecimal(amount));
+        return cmd;
+    }
+
+    private static PriceResolution price(String finalPrice) {
+        return new PriceResolution(
+                new BigDecimal(finalPrice),
+                BigDecimal.ZERO,
+                new BigDecimal(finalPrice),
+                "MXN",
+                null,
+                null,
+                List.of());
+    }
+}
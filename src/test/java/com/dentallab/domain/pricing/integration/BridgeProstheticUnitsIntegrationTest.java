@@ -0,0 +1,189 @@
+package com.dentallab.domain.pricing.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dentallab.api.dto.BridgeToothRequest;
+import com.dentallab.api.dto.BridgeWorkUpsertRequest;
+import com.dentallab.api.enums.BuildingTechnique;
+import com.dentallab.domain.enums.FixProstheticConstitution;
+import com.dentallab.domain.pricing.model.WorkPricingView;
+import com.dentallab.domain.pricing.persistence.BridgeProstheticUnitsBackfillJob;
+import com.dentallab.domain.pricing.persistence.FixedProsthesisPricingQuery;
+import com.dentallab.persistence.entity.BridgeToothEntity;
+import com.dentallab.persistence.entity.BridgeWorkEntity;
+import com.dentallab.persistence.entity.ClientEntity;
+import com.dentallab.persistence.entity.ToothRefEntity;
+import com.dentallab.persistence.entity.WorkEntity;
+import com.dentallab.persistence.entity.WorkFamilyRefEntity;
+import com.dentallab.persistence.entity.WorkOrderEntity;
+import com.dentallab.persistence.entity.WorkTypeRefEntity;
+import com.dentallab.service.BridgeWorkService;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Denormalized bridge span data: maintained by the upsert, read by pricing,
+ * verified and backfilled against {@code bridge_tooth}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class BridgeProstheticUnitsIntegrationTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private BridgeWorkService bridgeWorkService;
+
+    @Autowired
+    private FixedProsthesisPricingQuery pricingQuery;
+
+    @Autowired
+    private BridgeProstheticUnitsBackfillJob backfillJob;
+
+    @Test
+    void upsert_storesUnitsAndSpanMask_andPricingReadsThem() {
+
+        WorkEntity work = persistBridgeWork();
+        persistTeeth("11", "12", "13", "21", "22", "23", "24");
+
+        BridgeWorkUpsertRequest req = new BridgeWorkUpsertRequest();
+        req.setConstitution("MONOLITHIC");
+        req.setBuildingTechnique("DIGITAL");
+        req.setCoreMaterialId(1L);
+        req.setTeeth(List.of(
+                new BridgeToothRequest(11L, "ABUTMENT", 1),
+                new BridgeToothRequest(12L, "PONTIC", 2),
+                new BridgeToothRequest(13L, "ABUTMENT", 3)
+        ));
+
+        BridgeWorkEntity bridge = bridgeWorkService.upsertBridgeWork(work.getId(), req);
+
+        assertEquals(3, bridge.getProstheticUnits());
+        assertEquals(0b111L, bridge.getTeethSpanMask());
+
+        entityManager.flush();
+
+        // Re-upsert with a different span: derived columns follow the teeth
+        req.setTeeth(List.of(
+                new BridgeToothRequest(21L, "ABUTMENT", 1),
+                new BridgeToothRequest(22L, "PONTIC", 2),
+                new BridgeToothRequest(23L, "PONTIC", 3),
+                new BridgeToothRequest(24L, "ABUTMENT", 4)
+        ));
+        bridge = bridgeWorkService.upsertBridgeWork(work.getId(), req);
+        entityManager.flush();
+
+        assertEquals(4, bridge.getProstheticUnits());
+        assertEquals(0b1111L << 8, bridge.getTeethSpanMask());
+
+        WorkPricingView view = pricingQuery.findFixedPricing(work.getId());
+        assertEquals(4, view.getProstheticUnits());
+        assertEquals("CROWN", view.getWorkType());
+    }
+
+    @Test
+    void pricing_fallsBackToCount_andBackfillRepairsLegacyRows() {
+
+        WorkEntity work = persistBridgeWork();
+        List<ToothRefEntity> teeth = persistTeeth("34", "35", "36");
+
+        // Legacy row: teeth written directly, derived columns left NULL
+        BridgeWorkEntity bridge = new BridgeWorkEntity();
+        bridge.setWork(work);
+        bridge.setConstitution(FixProstheticConstitution.MONOLITHIC);
+        bridge.setBuildingTechnique(BuildingTechnique.DIGITAL);
+        bridge.setCoreMaterialId(1L);
+        entityManager.persist(bridge);
+
+        int position = 1;
+        for (ToothRefEntity tooth : teeth) {
+            entityManager.persist(new BridgeToothEntity(
+                    bridge, tooth, BridgeToothEntity.Role.ABUTMENT, position++));
+        }
+        entityManager.flush();
+
+        assertNull(bridge.getProstheticUnits());
+        assertEquals(3, pricingQuery.findFixedPricing(work.getId()).getProstheticUnits());
+
+        // ------------------------------------------------------------
+        // Verify reports, backfill repairs, verify is then clean
+        // ------------------------------------------------------------
+        BridgeProstheticUnitsBackfillJob.Report before = backfillJob.verify();
+        assertEquals(1, before.mismatched());
+        assertEquals(0, before.repaired());
+        assertEquals(List.of(work.getId()), before.mismatchedWorkIds());
+
+        BridgeProstheticUnitsBackfillJob.Report repaired = backfillJob.backfill();
+        assertEquals(1, repaired.repaired());
+
+        entityManager.clear();
+        BridgeWorkEntity reloaded = entityManager.find(BridgeWorkEntity.class, work.getId());
+        assertEquals(3, reloaded.getProstheticUnits());
+        assertEquals((1L << 19) | (1L << 20) | (1L << 21), reloaded.getTeethSpanMask());
+
+        assertEquals(0, backfillJob.verify().mismatched());
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    private WorkEntity persistBridgeWork() {
+
+        WorkFamilyRefEntity family = new WorkFamilyRefEntity();
+        family.setCode("FIXED_PROSTHESIS");
+        family.setLabel("Fixed Prosthesis");
+        entityManager.persist(family);
+
+        WorkTypeRefEntity type = new WorkTypeRefEntity();
+        type.setCode("BRIDGE");
+        type.setLabel("Bridge");
+        type.setFamily(family);
+        entityManager.persist(type);
+
+        ClientEntity client = new ClientEntity();
+        client.setDisplayName("Test Client");
+        client.setFirstName("Test");
+        client.setLastName("Client");
+        client.setPrimaryEmail("test.client@lab.local");
+        entityManager.persist(client);
+
+        WorkOrderEntity order = new WorkOrderEntity();
+        order.setClient(client);
+        order.setDueDate(LocalDateTime.now());
+        entityManager.persist(order);
+
+        WorkEntity work = new WorkEntity();
+        work.setWorkFamily(family);
+        work.setType(type);
+        work.setClient(client);
+        work.setOrder(order);
+        entityManager.persist(work);
+        entityManager.flush();
+
+        return work;
+    }
+
+    private List<ToothRefEntity> persistTeeth(String... numbers) {
+        return Arrays.stream(numbers).map(number -> {
+            ToothRefEntity tooth = new ToothRefEntity();
+            tooth.setId(Long.valueOf(number));
+            tooth.setToothNumber(number);
+            entityManager.persist(tooth);
+            return tooth;
+        }).toList();
+    }
+}
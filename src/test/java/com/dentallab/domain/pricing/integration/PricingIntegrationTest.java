@@ -18,6 +18,7 @@ import com.dentallab.domain.pricing.model.BasePriceResult;
 import com.dentallab.domain.pricing.model.PriceResolution;
 import com.dentallab.domain.pricing.model.PriceResolutionRequest;
 import com.dentallab.domain.pricing.service.WorkBasePriceService;
+import com.dentallab.domain.pricing.service.WorkPriceOverrideService;
 import com.dentallab.domain.pricing.service.WorkPricingService;
 import com.dentallab.persistence.entity.BridgeToothEntity;
 import com.dentallab.persistence.entity.BridgeWorkEntity;
@@ -26,9 +27,7 @@ import com.dentallab.persistence.entity.CrownWorkEntity;
 import com.dentallab.persistence.entity.ToothRefEntity;
 import com.dentallab.persistence.entity.WorkEntity;
 import com.dentallab.persistence.entity.WorkFamilyRefEntity;
-import com.dentallab.persistence.entity.WorkItemPriceOverrideEntity;
 import com.dentallab.persistence.entity.WorkOrderEntity;
-import com.dentallab.persistence.entity.WorkPriceEntity;
 import com.dentallab.persistence.entity.WorkTypePriceEntity;
 import com.dentallab.persistence.entity.WorkTypeRefEntity;
 
@@ -48,6 +47,9 @@ class PricingIntegrationTest {
     @Autowired
     private WorkPricingService pricingService;
 
+    @Autowired
+    private WorkPriceOverrideService overrideService;
+
     @Test
     void fullPricingLifecycle_worksEndToEnd() {
 
@@ -134,17 +136,7 @@ class PricingIntegrationTest {
         // ------------------------------------------------------------
         // 7. Override
         // ------------------------------------------------------------
-        WorkPriceEntity workPrice = entityManager.createQuery(
-                "select wp from WorkPriceEntity wp where wp.work.id = :id",
-                WorkPriceEntity.class
-        ).setParameter("id", workId)
-         .getSingleResult();
-
-        WorkItemPriceOverrideEntity override = new WorkItemPriceOverrideEntity();
-        override.setWorkPriceId(workPrice.getPriceId());
-        override.setAdjustment(new BigDecimal("25.00"));
-        override.setReason("Urgent case");
-        entityManager.persist(override);
+        overrideService.addOverride(workId, new BigDecimal("25.00"), "Urgent case", null);
 
         // ------------------------------------------------------------
         // 8. Final price
@@ -275,17 +267,7 @@ class PricingIntegrationTest {
         // ------------------------------------------------------------
         // 8. Override
         // ------------------------------------------------------------
-        WorkPriceEntity workPrice = entityManager.createQuery(
-                "select wp from WorkPriceEntity wp where wp.work.id = :id",
-                WorkPriceEntity.class
-        ).setParameter("id", workId)
-         .getSingleResult();
-
-        WorkItemPriceOverrideEntity override = new WorkItemPriceOverrideEntity();
-        override.setWorkPriceId(workPrice.getPriceId());
-        override.setAdjustment(new BigDecimal("25.00"));
-        override.setReason("Urgent case");
-        entityManager.persist(override);
+        overrideService.addOverride(workId, new BigDecimal("25.00"), "Urgent case", null);
 
         // ------------------------------------------------------------
         // 9. Final price
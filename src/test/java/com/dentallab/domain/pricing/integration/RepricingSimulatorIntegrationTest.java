@@ -0,0 +1,162 @@
+package com.dentallab.domain.pricing.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dentallab.api.enums.BuildingTechnique;
+import com.dentallab.domain.enums.FixProstheticConstitution;
+import com.dentallab.domain.pricing.service.RepricingSimulator;
+import com.dentallab.domain.pricing.service.RepricingSimulator.CandidateRule;
+import com.dentallab.domain.pricing.service.RepricingSimulator.GroupTypeDelta;
+import com.dentallab.persistence.entity.ClientEntity;
+import com.dentallab.persistence.entity.CrownWorkEntity;
+import com.dentallab.persistence.entity.WorkEntity;
+import com.dentallab.persistence.entity.WorkFamilyRefEntity;
+import com.dentallab.persistence.entity.WorkOrderEntity;
+import com.dentallab.persistence.entity.WorkTypePriceEntity;
+import com.dentallab.persistence.entity.WorkTypeRefEntity;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * What-if repricing: current vs candidate rules over every work,
+ * scanned in several pages, without touching work_price.
+ */
+@SpringBootTest(properties = "pricing.simulation.page-size=2")
+@ActiveProfiles("test")
+@Transactional
+class RepricingSimulatorIntegrationTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private RepricingSimulator simulator;
+
+    @Test
+    void simulate_reportsDeltasPerGroupAndType_andUnmatchedWorks() {
+
+        persistCrowns(3);
+
+        WorkTypePriceEntity rule = new WorkTypePriceEntity();
+        rule.setWorkFamily("FIXED_PROSTHESIS");
+        rule.setWorkType("CROWN");
+        rule.setPriceGroup("DEFAULT");
+        rule.setBasePrice(new BigDecimal("100.00"));
+        rule.setCurrency("MXN");
+        rule.setValidFrom(LocalDate.of(2020, 1, 1));
+        entityManager.persist(rule);
+        entityManager.flush();
+
+        // Same identity as the current rule: supersedes it
+        CandidateRule candidate = new CandidateRule(
+                "FIXED_PROSTHESIS", "CROWN", "DEFAULT",
+                null, null, null,
+                new BigDecimal("120.00"), null, "MXN",
+                LocalDate.of(2020, 1, 1));
+
+        RepricingSimulator.Report report = simulator.simulate(new RepricingSimulator.Request(
+                List.of(candidate), false, List.of("DEFAULT", "VIP"), LocalDate.of(2025, 6, 1)));
+
+        assertEquals(3, report.worksScanned());
+        assertEquals(6, report.evaluations());
+        assertEquals(0, report.invalid());
+
+        // DEFAULT: 3 x (120 - 100)
+        GroupTypeDelta defaults = report.deltas().stream()
+                .filter(d -> d.priceGroup().equals("DEFAULT"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(3, defaults.works());
+        assertEquals(3, defaults.changed());
+        assertEquals(0, defaults.currentTotal().compareTo(new BigDecimal("300.00")));
+        assertEquals(0, defaults.candidateTotal().compareTo(new BigDecimal("360.00")));
+        assertEquals(0, defaults.delta().compareTo(new BigDecimal("60.00")));
+
+        // VIP: no rule at all
+        assertEquals(3, report.unmatched());
+        assertEquals(3, report.unmatchedWorks().size());
+        assertEquals("VIP", report.unmatchedWorks().get(0).priceGroup());
+
+        // Nothing was fixed, candidate rules were not persisted
+        assertEquals(0L, entityManager.createQuery(
+                "select count(wp) from WorkPriceEntity wp", Long.class).getSingleResult());
+        assertEquals(1L, entityManager.createQuery(
+                "select count(r) from WorkTypePriceEntity r", Long.class).getSingleResult());
+    }
+
+    @Test
+    void simulate_rejectsIncompleteCandidateRules() {
+
+        CandidateRule noPrice = new CandidateRule(
+                "FIXED_PROSTHESIS", "CROWN", "DEFAULT",
+                null, null, null,
+                null, null, "MXN",
+                LocalDate.of(2020, 1, 1));
+
+        assertThrows(IllegalArgumentException.class, () -> simulator.simulate(
+                new RepricingSimulator.Request(List.of(noPrice), false, List.of(), null)));
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    private void persistCrowns(int count) {
+
+        WorkFamilyRefEntity family = new WorkFamilyRefEntity();
+        family.setCode("FIXED_PROSTHESIS");
+        family.setLabel("Fixed Prosthesis");
+        entityManager.persist(family);
+
+        WorkTypeRefEntity type = new WorkTypeRefEntity();
+        type.setCode("CROWN");
+        type.setLabel("Crown");
+        type.setFamily(family);
+        entityManager.persist(type);
+
+        ClientEntity client = new ClientEntity();
+        client.setDisplayName("Test Client");
+        client.setFirstName("Test");
+        client.setLastName("Client");
+        client.setPrimaryEmail("test.client@lab.local");
+        entityManager.persist(client);
+
+        WorkOrderEntity order = new WorkOrderEntity();
+        order.setClient(client);
+        order.setDueDate(LocalDateTime.now());
+        entityManager.persist(order);
+
+        for (int i = 0; i < count; i++) {
+
+            WorkEntity work = new WorkEntity();
+            work.setWorkFamily(family);
+            work.setType(type);
+            work.setClient(client);
+            work.setOrder(order);
+            entityManager.persist(work);
+            entityManager.flush();
+
+            CrownWorkEntity crown = new CrownWorkEntity();
+            crown.setWork(work);
+            crown.setToothNumber(String.valueOf(11 + i));
+            crown.setConstitution(FixProstheticConstitution.MONOLITHIC);
+            crown.setBuildingTechnique(BuildingTechnique.DIGITAL);
+            crown.setCoreMaterialId(1L);
+            entityManager.persist(crown);
+        }
+
+        entityManager.flush();
+    }
+}
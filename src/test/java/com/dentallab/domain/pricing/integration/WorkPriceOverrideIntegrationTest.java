@@ -0,0 +1,251 @@
+package com.dentallab.domain.pricing.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dentallab.domain.pricing.model.BasePriceResult;
+import com.dentallab.domain.pricing.model.PriceResolution;
+import com.dentallab.domain.pricing.model.PriceResolutionRequest;
+import com.dentallab.domain.pricing.service.WorkBasePriceService;
+import com.dentallab.domain.pricing.service.WorkPriceConsistencyChecker;
+import com.dentallab.domain.pricing.service.WorkPriceOverrideService;
+import com.dentallab.domain.pricing.service.WorkPricingService;
+import com.dentallab.persistence.entity.ClientEntity;
+import com.dentallab.persistence.entity.WorkEntity;
+import com.dentallab.persistence.entity.WorkFamilyRefEntity;
+import com.dentallab.persistence.entity.WorkItemPriceOverrideEntity;
+import com.dentallab.persistence.entity.WorkOrderEntity;
+import com.dentallab.persistence.entity.WorkPriceEntity;
+import com.dentallab.persistence.entity.WorkTypeRefEntity;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Materialized {@code work_price.override_total / final_price}:
+ * maintained by the override service, read by final price resolution,
+ * checked and repaired in bulk.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class WorkPriceOverrideIntegrationTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private WorkBasePriceService basePriceService;
+
+    @Autowired
+    private WorkPricingService pricingService;
+
+    @Autowired
+    private WorkPriceOverrideService overrideService;
+
+    @Autowired
+    private WorkPriceConsistencyChecker consistencyChecker;
+
+    /** Shared reference data, created by the first {@link #persistWork()} of a test. */
+    private WorkTypeRefEntity type;
+    private WorkOrderEntity order;
+
+    @Test
+    void overrides_updateMaterializedTotals_andDetailsOnlyWhenRequested() {
+
+        Long workId = persistWork().getId();
+        basePriceService.fixBasePrice(workId,
+                new BasePriceResult(new BigDecimal("100.00"), "MXN", "DEFAULT", null));
+
+        WorkItemPriceOverrideEntity surcharge =
+                overrideService.addOverride(workId, new BigDecimal("30.00"), "Urgent case", null);
+        overrideService.addOverride(workId, new BigDecimal("-10.00"), "Loyalty discount", null);
+        overrideService.removeOverride(workId, surcharge.getOverrideId());
+        entityManager.flush();
+
+        WorkPriceEntity row = loadWorkPrice(workId);
+        assertEquals(0, row.getOverrideTotal().compareTo(new BigDecimal("-10.00")));
+        assertEquals(0, row.getFinalPrice().compareTo(new BigDecimal("90.00")));
+
+        PriceResolution totalsOnly =
+                pricingService.resolveFinalPrice(PriceResolutionRequest.forWork(workId));
+        assertEquals(0, totalsOnly.getFinalPrice().compareTo(new BigDecimal("90.00")));
+        assertTrue(totalsOnly.getOverrides().isEmpty());
+
+        PriceResolution detailed = pricingService.resolveFinalPrice(
+                PriceResolutionRequest.forWork(workId).withOverrideDetails());
+        assertEquals(0, detailed.getFinalPrice().compareTo(new BigDecimal("90.00")));
+        assertEquals(1, detailed.getOverrides().size());
+
+        assertEquals(0, consistencyChecker.check().mismatched());
+    }
+
+    @Test
+    void addOverride_rejectsZeroAdjustment_andUnpricedWork() {
+
+        Long workId = persistWork().getId();
+
+        assertThrows(IllegalStateException.class,
+                () -> overrideService.addOverride(workId, new BigDecimal("5.00"), null, null));
+
+        basePriceService.fixBasePrice(workId,
+                new BasePriceResult(new BigDecimal("100.00"), "MXN", "DEFAULT", null));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> overrideService.addOverride(workId, BigDecimal.ZERO, null, null));
+    }
+
+    @Test
+    void consistencyChecker_detectsLegacyAndDriftedRows_andRepairsThem() {
+
+        // ------------------------------------------------------------
+        // Legacy row: totals NULL, overrides written directly
+        // ------------------------------------------------------------
+        WorkEntity legacyWork = persistWork();
+
+        WorkPriceEntity legacy = new WorkPriceEntity();
+        legacy.setWork(legacyWork);
+        legacy.setPrice(new BigDecimal("200.00"));
+        entityManager.persist(legacy);
+
+        WorkItemPriceOverrideEntity override = new WorkItemPriceOverrideEntity();
+        override.setWorkPriceId(legacy.getPriceId());
+        override.setAdjustment(new BigDecimal("15.00"));
+        entityManager.persist(override);
+
+        // ------------------------------------------------------------
+        // Drifted row: materialized, then tampered with
+        // ------------------------------------------------------------
+        Long driftedWorkId = persistWork().getId();
+        basePriceService.fixBasePrice(driftedWorkId,
+                new BasePriceResult(new BigDecimal("50.00"), "MXN", "DEFAULT", null));
+        entityManager.flush();
+
+        entityManager.createQuery(
+                "update WorkPriceEntity wp set wp.finalPrice = :tampered where wp.work.id = :workId")
+                .setParameter("tampered", new BigDecimal("999.00"))
+                .setParameter("workId", driftedWorkId)
+                .executeUpdate();
+        entityManager.clear();
+
+        // Legacy rows still resolve correctly through aggregation
+        assertEquals(0, pricingService.resolveFinalPrices(List.of(legacyWork.getId()))
+                .get(legacyWork.getId()).getFinalPrice().compareTo(new BigDecimal("215.00")));
+
+        // ------------------------------------------------------------
+        // Check, repair, check again
+        // ------------------------------------------------------------
+        WorkPriceConsistencyChecker.Report before = consistencyChecker.check();
+        assertEquals(2, before.mismatched());
+        assertEquals(0, before.repaired());
+
+        assertEquals(2, consistencyChecker.checkAndRepair().repaired());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(0, loadWorkPrice(legacyWork.getId()).getFinalPrice().compareTo(new BigDecimal("215.00")));
+        assertEquals(0, loadWorkPrice(driftedWorkId).getFinalPrice().compareTo(new BigDecimal("50.00")));
+        assertEquals(0, consistencyChecker.check().mismatched());
+    }
+
+    @Test
+    void fixOrderBasePrices_insertsAllRows_andKeepsFixOnceInvariant() {
+
+        Long first = persistWork().getId();
+        Long second = persistWork().getId();
+        Long orderId = order.getId();
+
+        basePriceService.fixOrderBasePrices(orderId, Map.of(
+                first, new BasePriceResult(new BigDecimal("100.00"), "MXN", "DEFAULT", null),
+                second, new BasePriceResult(new BigDecimal("80.00"), "MXN", "DEFAULT", null)));
+
+        WorkPriceEntity row = loadWorkPrice(second);
+        assertEquals(0, row.getPrice().compareTo(new BigDecimal("80.00")));
+        assertEquals(0, row.getOverrideTotal().signum());
+        assertEquals(0, row.getFinalPrice().compareTo(new BigDecimal("80.00")));
+
+        // Re-fixing any work of the batch fails, nothing else is written
+        Long third = persistWork().getId();
+        assertThrows(IllegalStateException.class,
+                () -> basePriceService.fixOrderBasePrices(orderId, Map.of(
+                        first, new BasePriceResult(new BigDecimal("1.00"), "MXN", "DEFAULT", null),
+                        third, new BasePriceResult(new BigDecimal("1.00"), "MXN", "DEFAULT", null))));
+
+        // Works of another order are rejected
+        WorkOrderEntity otherOrder = new WorkOrderEntity();
+        otherOrder.setClient(order.getClient());
+        otherOrder.setDueDate(LocalDateTime.now());
+        entityManager.persist(otherOrder);
+        entityManager.flush();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> basePriceService.fixOrderBasePrices(otherOrder.getId(), Map.of(
+                        third, new BasePriceResult(new BigDecimal("1.00"), "MXN", "DEFAULT", null))));
+
+        assertEquals(0L, entityManager.createQuery(
+                "select count(wp) from WorkPriceEntity wp where wp.work.id = :id", Long.class)
+                .setParameter("id", third)
+                .getSingleResult());
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    private WorkPriceEntity loadWorkPrice(Long workId) {
+        return entityManager.createQuery(
+                "select wp from WorkPriceEntity wp where wp.work.id = :id",
+                WorkPriceEntity.class
+        ).setParameter("id", workId)
+         .getSingleResult();
+    }
+
+    private WorkEntity persistWork() {
+
+        if (order == null) {
+            WorkFamilyRefEntity family = new WorkFamilyRefEntity();
+            family.setCode("FIXED_PROSTHESIS");
+            family.setLabel("Fixed Prosthesis");
+            entityManager.persist(family);
+
+            type = new WorkTypeRefEntity();
+            type.setCode("CROWN");
+            type.setLabel("Crown");
+            type.setFamily(family);
+            entityManager.persist(type);
+
+            ClientEntity client = new ClientEntity();
+            client.setDisplayName("Test Client");
+            client.setFirstName("Test");
+            client.setLastName("Client");
+            client.setPrimaryEmail("test.client@lab.local");
+            entityManager.persist(client);
+
+            order = new WorkOrderEntity();
+            order.setClient(client);
+            order.setDueDate(LocalDateTime.now());
+            entityManager.persist(order);
+        }
+
+        WorkEntity work = new WorkEntity();
+        work.setWorkFamily(type.getFamily());
+        work.setType(type);
+        work.setClient(order.getClient());
+        work.setOrder(order);
+        entityManager.persist(work);
+        entityManager.flush();
+
+        return work;
+    }
+}
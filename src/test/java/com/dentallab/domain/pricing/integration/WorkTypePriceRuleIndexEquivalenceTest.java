@@ -0,0 +1,261 @@
+package com.dentallab.domain.pricing.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dentallab.domain.pricing.persistence.IndexedWorkTypePriceQuery;
+import com.dentallab.domain.pricing.persistence.JpaWorkTypePriceQuery;
+import com.dentallab.domain.pricing.persistence.WorkTypePriceRuleIndex;
+import com.dentallab.domain.pricing.persistence.WorkTypePriceRuleSnapshots;
+import com.dentallab.domain.pricing.query.WorkTypePriceQuery;
+import com.dentallab.persistence.entity.WorkTypePriceEntity;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Equivalence suite: the in-memory rule index must select exactly the same
+ * {@code work_type_price} row as the reference SQL policy
+ * ({@link JpaWorkTypePriceQuery#findBestMatch}) for every input.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class WorkTypePriceRuleIndexEquivalenceTest {
+
+    private static final String FAMILY = "FIXED_PROSTHESIS";
+
+    private static final String[] TYPES = { "CROWN", "INLAY" };
+    private static final String[] GROUPS = { "DEFAULT", "UNIVERSITY" };
+    private static final String[] CONSTITUTIONS = { null, "MONOLITHIC", "STRATIFIED" };
+    private static final String[] TECHNIQUES = { null, "DIGITAL", "CONVENTIONAL" };
+    private static final Long[] CORE_MATERIALS = { null, 1L, 2L };
+    private static final LocalDate[] VALID_FROM = {
+            LocalDate.of(2020, 1, 1),
+            LocalDate.of(2022, 6, 1),
+            LocalDate.of(2024, 1, 1)
+    };
+
+    private static final LocalDate[] PRICING_DATES = {
+            LocalDate.of(2019, 12, 31),
+            LocalDate.of(2020, 1, 1),
+            LocalDate.of(2023, 3, 15),
+            LocalDate.of(2024, 1, 1),
+            LocalDate.of(2030, 1, 1)
+    };
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JpaWorkTypePriceQuery sqlQuery;
+
+    @Autowired
+    private IndexedWorkTypePriceQuery indexedQuery;
+
+    @Test
+    void compiledIndex_selectsSameRuleAsSql_forRandomRuleSets() {
+
+        Random random = new Random(20240101L);
+
+        for (int round = 0; round < 5; round++) {
+
+            entityManager.createQuery("delete from WorkTypePriceEntity").executeUpdate();
+
+            for (int i = 0; i < 60; i++) {
+                entityManager.persist(rule(
+                        pick(random, TYPES),
+                        pick(random, GROUPS),
+                        pick(random, CONSTITUTIONS),
+                        pick(random, TECHNIQUES),
+                        pick(random, CORE_MATERIALS),
+                        pick(random, VALID_FROM)
+                ));
+            }
+            entityManager.flush();
+
+            assertEquivalentForAllInputs(compileFromDatabase()::findBestMatch);
+        }
+    }
+
+    @Test
+    void compiledSnapshots_selectSameRuleAsSql_forRandomRuleSets() {
+
+        Random random = new Random(20250101L);
+
+        for (int round = 0; round < 5; round++) {
+
+            entityManager.createQuery("delete from WorkTypePriceEntity").executeUpdate();
+
+            for (int i = 0; i < 60; i++) {
+                entityManager.persist(rule(
+                        pick(random, TYPES),
+                        pick(random, GROUPS),
+                        pick(random, CONSTITUTIONS),
+                        pick(random, TECHNIQUES),
+                        pick(random, CORE_MATERIALS),
+                        pick(random, VALID_FROM)
+                ));
+            }
+            entityManager.flush();
+
+            WorkTypePriceRuleSnapshots snapshots =
+                    WorkTypePriceRuleSnapshots.compile(loadRules(), round);
+
+            assertTrue(snapshots.getSnapshotCount() <= VALID_FROM.length);
+            assertEquivalentForAllInputs(snapshots::findBestMatch);
+        }
+    }
+
+    @Test
+    void indexedQuery_servesSameSnapshotsUntilInvalidated() {
+
+        WorkTypePriceRuleSnapshots first = indexedQuery.currentSnapshots();
+        assertSame(first, indexedQuery.currentSnapshots());
+
+        indexedQuery.invalidate();
+
+        WorkTypePriceRuleSnapshots second = indexedQuery.currentSnapshots();
+        assertTrue(second.getVersion() > first.getVersion());
+        assertSame(second, indexedQuery.currentSnapshots());
+    }
+
+    @Test
+    void compiledIndex_prefersConstitutionOverTwoOtherAttributes() {
+
+        // Lexicographic specificity: constitution outranks technique + material
+        WorkTypePriceEntity constitutionOnly =
+                rule("CROWN", "DEFAULT", "MONOLITHIC", null, null, VALID_FROM[0]);
+        WorkTypePriceEntity techniqueAndMaterial =
+                rule("CROWN", "DEFAULT", null, "DIGITAL", 1L, VALID_FROM[2]);
+
+        entityManager.persist(constitutionOnly);
+        entityManager.persist(techniqueAndMaterial);
+        entityManager.flush();
+
+        WorkTypePriceRuleIndex index = compileFromDatabase();
+
+        Optional<WorkTypePriceEntity> fromIndex = index.findBestMatch(
+                FAMILY, "CROWN", "DEFAULT", "MONOLITHIC", "DIGITAL", 1L, PRICING_DATES[4]);
+
+        assertEquals(constitutionOnly.getPriceId(), fromIndex.map(WorkTypePriceEntity::getPriceId).orElse(null));
+        assertEquivalentForAllInputs(index::findBestMatch);
+    }
+
+    @Test
+    void compiledIndex_breaksFullTiesByNewestPriceId() {
+
+        WorkTypePriceEntity older = rule("CROWN", "DEFAULT", null, null, null, VALID_FROM[1]);
+        WorkTypePriceEntity newer = rule("CROWN", "DEFAULT", null, null, null, VALID_FROM[1]);
+
+        entityManager.persist(older);
+        entityManager.persist(newer);
+        entityManager.flush();
+
+        WorkTypePriceRuleIndex index = compileFromDatabase();
+
+        Optional<WorkTypePriceEntity> fromIndex = index.findBestMatch(
+                FAMILY, "CROWN", "DEFAULT", null, null, null, PRICING_DATES[4]);
+
+        assertEquals(newer.getPriceId(), fromIndex.map(WorkTypePriceEntity::getPriceId).orElse(null));
+        assertEquivalentForAllInputs(index::findBestMatch);
+
+        // Snapshots keep only the preferred rule of the tie
+        assertEquals(newer.getPriceId(), WorkTypePriceRuleSnapshots.compile(loadRules(), 1L)
+                .findBestMatch(FAMILY, "CROWN", "DEFAULT", null, null, null, PRICING_DATES[4])
+                .map(WorkTypePriceEntity::getPriceId).orElse(null));
+    }
+
+    @Test
+    void indexedQuery_seesRulesWrittenInCurrentTransaction() {
+
+        WorkTypePriceEntity rule = rule("CROWN", "DEFAULT", null, null, null, VALID_FROM[0]);
+        entityManager.persist(rule);
+        entityManager.flush();
+
+        Optional<WorkTypePriceEntity> match = indexedQuery.findBestMatch(
+                FAMILY, "CROWN", "DEFAULT", null, null, null, PRICING_DATES[2]);
+
+        assertEquals(rule.getPriceId(), match.map(WorkTypePriceEntity::getPriceId).orElse(null));
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    private void assertEquivalentForAllInputs(WorkTypePriceQuery index) {
+
+        for (String type : TYPES) {
+            for (String group : GROUPS) {
+                for (String constitution : CONSTITUTIONS) {
+                    for (String technique : TECHNIQUES) {
+                        for (Long core : CORE_MATERIALS) {
+                            for (LocalDate date : PRICING_DATES) {
+
+                                Long expected = sqlQuery.findBestMatch(
+                                        FAMILY, type, group, constitution, technique, core, date
+                                ).map(WorkTypePriceEntity::getPriceId).orElse(null);
+
+                                Long actual = index.findBestMatch(
+                                        FAMILY, type, group, constitution, technique, core, date
+                                ).map(WorkTypePriceEntity::getPriceId).orElse(null);
+
+                                assertEquals(expected, actual, () -> "Mismatch for input "
+                                        + Arrays.asList(type, group, constitution, technique, core, date));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private WorkTypePriceRuleIndex compileFromDatabase() {
+        return WorkTypePriceRuleIndex.compile(loadRules());
+    }
+
+    private List<WorkTypePriceEntity> loadRules() {
+        return new ArrayList<>(entityManager
+                .createQuery("select r from WorkTypePriceEntity r", WorkTypePriceEntity.class)
+                .getResultList());
+    }
+
+    private static WorkTypePriceEntity rule(
+            String type,
+            String group,
+            String constitution,
+            String technique,
+            Long coreMaterialId,
+            LocalDate validFrom) {
+
+        WorkTypePriceEntity rule = new WorkTypePriceEntity();
+        rule.setWorkFamily(FAMILY);
+        rule.setWorkType(type);
+        rule.setPriceGroup(group);
+        rule.setConstitution(constitution);
+        rule.setBuildingTechnique(technique);
+        rule.setCoreMaterialId(coreMaterialId);
+        rule.setBasePrice(new BigDecimal("100.00"));
+        rule.setCurrency("MXN");
+        rule.setValidFrom(validFrom);
+        return rule;
+    }
+
+    private static <T> T pick(Random random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
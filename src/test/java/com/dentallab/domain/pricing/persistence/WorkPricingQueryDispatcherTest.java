@@ -0,0 +1,142 @@
+package com.dentallab.domain.pricing.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.dentallab.domain.pricing.model.WorkPricingView;
+import com.dentallab.domain.pricing.query.FamilyPricingQuery;
+import com.dentallab.domain.pricing.query.WorkFamilyLookupQuery;
+import com.dentallab.persistence.entity.WorkFamilyRefEntity;
+
+class WorkPricingQueryDispatcherTest {
+
+    @Mock
+    private FamilyPricingQuery fixedQuery;
+
+    @Mock
+    private WorkFamilyLookupQuery familyLookup;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(fixedQuery.getFamilyCode()).thenReturn("FIXED_PROSTHESIS");
+    }
+
+    @Test
+    void singleStatement_resolvesWithoutFamilyLookup_andCachesFamily() {
+
+        WorkPricingQueryDispatcher dispatcher = dispatcher(true);
+        WorkPricingView view = view(1L);
+
+        when(fixedQuery.findByWorkId(1L)).thenReturn(view);
+
+        assertSame(view, dispatcher.findByWorkId(1L));
+        assertSame(view, dispatcher.findByWorkId(1L));
+
+        verify(fixedQuery, times(2)).findByWorkId(1L);
+        verify(familyLookup, never()).findFamilyByWorkId(any());
+    }
+
+    @Test
+    void singleStatement_fallsBackToLookup_toReportMissingWork() {
+
+        WorkPricingQueryDispatcher dispatcher = dispatcher(true);
+
+        when(fixedQuery.findByWorkId(99L)).thenReturn(null);
+        when(familyLookup.findFamilyByWorkId(99L)).thenReturn(null);
+
+        IllegalStateException ex = assertThrows(
+                IllegalStateException.class,
+                () -> dispatcher.findByWorkId(99L)
+        );
+
+        assertEquals("Cannot resolve pricing parameters: work not found (id=99)", ex.getMessage());
+    }
+
+    @Test
+    void singleStatement_failsFast_forUnsupportedFamily() {
+
+        WorkPricingQueryDispatcher dispatcher = dispatcher(true);
+
+        WorkFamilyRefEntity removable = new WorkFamilyRefEntity();
+        removable.setCode("REMOVABLE_PROSTHESIS");
+
+        when(fixedQuery.findByWorkId(5L)).thenReturn(null);
+        when(familyLookup.findFamilyByWorkId(5L)).thenReturn(removable);
+
+        assertThrows(IllegalStateException.class, () -> dispatcher.findByWorkId(5L));
+    }
+
+    @Test
+    void lookupMode_resolvesFamilyOnce_thenUsesCache() {
+
+        WorkPricingQueryDispatcher dispatcher = dispatcher(false);
+        WorkPricingView view = view(1L);
+
+        WorkFamilyRefEntity fixed = new WorkFamilyRefEntity();
+        fixed.setCode("FIXED_PROSTHESIS");
+
+        when(familyLookup.findFamilyByWorkId(1L)).thenReturn(fixed);
+        when(fixedQuery.findByWorkId(1L)).thenReturn(view);
+
+        dispatcher.findByWorkId(1L);
+        dispatcher.findByWorkId(1L);
+
+        verify(familyLookup, times(1)).findFamilyByWorkId(1L);
+    }
+
+    @Test
+    void batch_singleStatement_usesOneStrategyQuery() {
+
+        WorkPricingQueryDispatcher dispatcher = dispatcher(true);
+
+        when(fixedQuery.findByWorkIds(anyCollection()))
+                .thenReturn(List.of(view(2L), view(1L)));
+
+        Map<Long, WorkPricingView> result = dispatcher.findByWorkIds(List.of(1L, 2L));
+
+        assertEquals(List.of(1L, 2L), List.copyOf(result.keySet()));
+        verify(fixedQuery, times(1)).findByWorkIds(anyCollection());
+        verify(familyLookup, never()).findFamilyCodesByWorkIds(anyCollection());
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    private WorkPricingQueryDispatcher dispatcher(boolean singleStatement) {
+        return new WorkPricingQueryDispatcher(
+                List.of(fixedQuery),
+                familyLookup,
+                singleStatement,
+                100
+        );
+    }
+
+    private WorkPricingView view(Long workId) {
+        return new WorkPricingView() {
+            @Override public Long getWorkId() { return workId; }
+            @Override public String getWorkFamily() { return "FIXED_PROSTHESIS"; }
+            @Override public String getWorkType() { return "CROWN"; }
+            @Override public String getConstitution() { return "MONOLITHIC"; }
+            @Override public String getBuildingTechnique() { return "DIGITAL"; }
+            @Override public Long getCoreMaterialId() { return 1L; }
+            @Override public Integer getProstheticUnits() { return 1; }
+        };
+    }
+}
@@ -2,10 +2,16 @@ package com.dentallab.domain.pricing.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -19,6 +25,7 @@ import com.dentallab.domain.pricing.model.WorkPricingView;
 import com.dentallab.domain.pricing.query.WorkPriceOverrideQuery;
 import com.dentallab.domain.pricing.query.WorkPriceQuery;
 import com.dentallab.domain.pricing.query.WorkPricingQuery;
+import com.dentallab.persistence.entity.WorkEntity;
 import com.dentallab.persistence.entity.WorkItemPriceOverrideEntity;
 import com.dentallab.persistence.entity.WorkPriceEntity;
 
@@ -190,5 +197,107 @@ class FinalWorkPriceResolverImplTest {
                 () -> resolver.resolve(request));
     }
 
+    @Test
+    void resolveAll_resolvesManyWorks_withGroupedQueries() {
+
+        // --- Given ---
+        WorkPriceEntity price1 = basePrice(1L, 10L, "100.00");
+        WorkPriceEntity price2 = basePrice(2L, 20L, "200.00");
+
+        when(workPriceQuery.findByWorkIds(anyCollection()))
+                .thenReturn(List.of(price2, price1));
+
+        WorkItemPriceOverrideEntity override = new WorkItemPriceOverrideEntity();
+        override.setWorkPriceId(20L);
+        override.setAdjustment(new BigDecimal("-50.00"));
+
+        when(overrideQuery.findByWorkPriceIds(anyCollection()))
+                .thenReturn(List.of(override));
+
+        // --- When ---
+        Map<Long, PriceResolution> result = resolver.resolveAll(List.of(1L, 2L));
+
+        // --- Then ---
+        assertEquals(List.of(1L, 2L), List.copyOf(result.keySet()));
+        assertEquals(0, result.get(1L).getFinalPrice().compareTo(new BigDecimal("100.00")));
+        assertEquals(0, result.get(2L).getTotalOverrides().compareTo(new BigDecimal("-50.00")));
+        assertEquals(0, result.get(2L).getFinalPrice().compareTo(new BigDecimal("150.00")));
+    }
+
+    @Test
+    void resolveAll_throws_whenAnyBasePriceMissing() {
+
+        when(workPriceQuery.findByWorkIds(anyCollection()))
+                .thenReturn(List.of(basePrice(1L, 10L, "100.00")));
+
+        assertThrows(IllegalStateException.class,
+                () -> resolver.resolveAll(List.of(1L, 2L)));
+    }
+
+    @Test
+    void resolve_readsMaterializedTotals_withoutLoadingOverrides() {
+
+        WorkPriceEntity basePrice = basePrice(1L, 10L, "100.00");
+        basePrice.setOverrideTotal(new BigDecimal("-15.00"));
+        basePrice.setFinalPrice(new BigDecimal("85.00"));
+
+        when(workPriceQuery.findByWorkId(1L)).thenReturn(Optional.of(basePrice));
 
+        PriceResolution result = resolver.resolve(PriceResolutionRequest.forWork(1L));
+
+        assertEquals(0, result.getTotalOverrides().compareTo(new BigDecimal("-15.00")));
+        assertEquals(0, result.getFinalPrice().compareTo(new BigDecimal("85.00")));
+        assertTrue(result.getOverrides().isEmpty());
+        verify(overrideQuery, never()).findByWorkPriceId(any());
+        verify(pricingQuery, never()).findByWorkId(any());
+    }
+
+    @Test
+    void resolve_loadsOverrides_whenDetailsRequested() {
+
+        WorkPriceEntity basePrice = basePrice(1L, 10L, "100.00");
+        basePrice.setOverrideTotal(new BigDecimal("20.00"));
+        basePrice.setFinalPrice(new BigDecimal("120.00"));
+
+        WorkItemPriceOverrideEntity override = new WorkItemPriceOverrideEntity();
+        override.setWorkPriceId(10L);
+        override.setAdjustment(new BigDecimal("20.00"));
+
+        when(workPriceQuery.findByWorkId(1L)).thenReturn(Optional.of(basePrice));
+        when(overrideQuery.findByWorkPriceId(10L)).thenReturn(List.of(override));
+
+        PriceResolution result = resolver.resolve(
+                PriceResolutionRequest.forWork(1L).withOverrideDetails());
+
+        assertEquals(0, result.getFinalPrice().compareTo(new BigDecimal("120.00")));
+        assertEquals(1, result.getOverrides().size());
+    }
+
+    @Test
+    void resolveAll_skipsOverrideQuery_whenAllRowsMaterialized() {
+
+        WorkPriceEntity price1 = basePrice(1L, 10L, "100.00");
+        price1.setOverrideTotal(BigDecimal.ZERO);
+        price1.setFinalPrice(new BigDecimal("100.00"));
+
+        when(workPriceQuery.findByWorkIds(anyCollection())).thenReturn(List.of(price1));
+
+        Map<Long, PriceResolution> result = resolver.resolveAll(List.of(1L));
+
+        assertEquals(0, result.get(1L).getFinalPrice().compareTo(new BigDecimal("100.00")));
+        verify(overrideQuery, never()).findByWorkPriceIds(anyCollection());
+    }
+
+    private WorkPriceEntity basePrice(Long workId, Long priceId, String amount) {
+        WorkEntity work = new WorkEntity();
+        work.setId(workId);
+
+        WorkPriceEntity price = new WorkPriceEntity();
+        price.setWork(work);
+        price.setPriceId(priceId);
+        price.setPrice(new BigDecimal(amount));
+        price.setCurrency("MXN");
+        price.setPriceGroup("DEFAULT");
+        return price;
+    }
 }
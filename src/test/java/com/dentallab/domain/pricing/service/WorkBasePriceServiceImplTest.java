@@ -4,24 +4,31 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import com.dentallab.domain.pricing.model.BasePriceResult;
 import com.dentallab.domain.pricing.model.PriceResolutionRequest;
+import com.dentallab.domain.pricing.model.WorkFinalPricesChangedEvent;
+import com.dentallab.domain.pricing.persistence.WorkPriceBatchWriter;
 import com.dentallab.persistence.entity.WorkEntity;
 import com.dentallab.persistence.repository.WorkPriceRepository;
+import com.dentallab.persistence.repository.WorkPriceRepository.WorkPriceFixState;
 
 import jakarta.persistence.EntityManager;
 
@@ -36,6 +43,12 @@ class WorkBasePriceServiceImplTest {
     @Mock
     private WorkPriceRepository workPriceRepository;
     
+    @Mock
+    private WorkPriceBatchWriter workPriceBatchWriter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @Mock
     private EntityManager entityManager;
 
@@ -129,4 +142,55 @@ class WorkBasePriceServiceImplTest {
         verify(workPriceRepository, never()).save(any());
     }
 
-}
\ No newline at end of file
+    @Test
+    void fixOrderBasePrices_insertsAllInOneBatch() {
+
+        Map<Long, BasePriceResult> prices = Map.of(
+                1L, new BasePriceResult(new BigDecimal("150.00"), "MXN", "DEFAULT", 10L),
+                2L, new BasePriceResult(new BigDecimal("90.00"), "MXN", "DEFAULT", 11L)
+        );
+
+        List<WorkPriceFixState> states = List.of(fixState(1L, 7L, null), fixState(2L, 7L, null));
+        when(workPriceRepository.findFixStateByWorkIds(prices.keySet()))
+                .thenReturn(states);
+
+        service.fixOrderBasePrices(7L, prices);
+
+        verify(workPriceBatchWriter).insertAll(prices);
+        verify(workPriceRepository, never()).save(any());
+        verify(eventPublisher).publishEvent(new WorkFinalPricesChangedEvent(Map.of(
+                1L, new BigDecimal("150.00"),
+                2L, new BigDecimal("90.00"))));
+    }
+
+    @Test
+    void fixOrderBasePrices_rejectsAlreadyFixedAndForeignWorks() {
+
+        Map<Long, BasePriceResult> prices = Map.of(
+                1L, new BasePriceResult(new BigDecimal("150.00"), "MXN", "DEFAULT", 10L)
+        );
+
+        List<WorkPriceFixState> states = List.of(fixState(1L, 7L, 100L));
+        when(workPriceRepository.findFixStateByWorkIds(prices.keySet()))
+                .thenReturn(states);
+
+        assertThrows(
+                IllegalStateException.class,
+                () -> service.fixOrderBasePrices(7L, prices)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> service.fixOrderBasePrices(8L, prices)
+        );
+
+        verifyNoInteractions(workPriceBatchWriter);
+    }
+
+    private static WorkPriceFixState fixState(Long workId, Long orderId, Long priceId) {
+        WorkPriceFixState state = mock(WorkPriceFixState.class);
+        when(state.getWorkId()).thenReturn(workId);
+        when(state.getOrderId()).thenReturn(orderId);
+        when(state.getPriceId()).thenReturn(priceId);
+        return state;
+    }
+}
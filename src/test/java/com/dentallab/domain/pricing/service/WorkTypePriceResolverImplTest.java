@@ -3,10 +3,15 @@ package com.dentallab.domain.pricing.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -219,6 +224,74 @@ class WorkTypePriceResolverImplTest {
         assertTrue(ex.getMessage().contains("Invalid"));
     }
 
+    @Test
+    void resolvesBasePrices_forManyWorks_withSingleViewLookup() {
+
+        LocalDate pricingDate = LocalDate.of(2024, 1, 1);
+
+        WorkPricingView view1 = mockPricingView(1L);
+        WorkPricingView view2 = mockPricingView(2L);
+
+        when(workPricingQuery.findByWorkIds(anyCollection()))
+                .thenReturn(Map.of(1L, view1, 2L, view2));
+
+        WorkTypePriceEntity rule = new WorkTypePriceEntity();
+        rule.setPriceId(100L);
+        rule.setBasePrice(new BigDecimal("150.00"));
+        rule.setCurrency("MXN");
+        rule.setPriceGroup("DEFAULT");
+
+        when(workTypePriceQuery.findBestMatch(
+                "FIXED_PROSTHESIS", "CROWN", "DEFAULT",
+                "MONOLITHIC", "DIGITAL", 1L,
+                pricingDate
+        )).thenReturn(Optional.of(rule));
+
+        Map<Long, BasePriceResult> results = resolver.resolveBasePrices(List.of(
+                new PriceResolutionRequest(2L, pricingDate, "DEFAULT"),
+                new PriceResolutionRequest(1L, pricingDate, "DEFAULT")
+        ));
+
+        assertEquals(List.of(2L, 1L), List.copyOf(results.keySet()));
+        assertEquals(0, results.get(1L).getBasePrice().compareTo(new BigDecimal("150.00")));
+        assertEquals(0, results.get(2L).getBasePrice().compareTo(new BigDecimal("150.00")));
+        verify(workPricingQuery, never()).findByWorkId(1L);
+        verify(workPricingQuery, never()).findByWorkId(2L);
+    }
+
+    @Test
+    void resolveBasePrices_throws_whenAnyWorkIsMissing() {
+
+        LocalDate pricingDate = LocalDate.of(2024, 1, 1);
+
+        when(workPricingQuery.findByWorkIds(anyCollection()))
+                .thenReturn(Map.of(1L, mockPricingView(1L)));
+
+        IllegalStateException ex = assertThrows(
+                IllegalStateException.class,
+                () -> resolver.resolveBasePrices(List.of(
+                        new PriceResolutionRequest(1L, pricingDate, "DEFAULT"),
+                        new PriceResolutionRequest(99L, pricingDate, "DEFAULT")
+                ))
+        );
+
+        assertTrue(ex.getMessage().contains("work not found"));
+    }
+
+    @Test
+    void resolveBasePrices_rejectsDuplicateWorkIds() {
+
+        LocalDate pricingDate = LocalDate.of(2024, 1, 1);
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> resolver.resolveBasePrices(List.of(
+                        new PriceResolutionRequest(1L, pricingDate, "DEFAULT"),
+                        new PriceResolutionRequest(1L, pricingDate, "UNIVERSITY")
+                ))
+        );
+    }
+
     // ---------------------------------------------------------------------
     // Helpers
     // ---------------------------------------------------------------------
@@ -0,0 +1,100 @@
+package com.dentallab.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dentallab.persistence.entity.WorkStatusRefEntity;
+import com.dentallab.service.LookupService.StatusRef;
+import com.dentallab.service.cache.ReferenceDataCache;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Reference data is served from the cache and evicted by the status
+ * chain operations.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class LookupServiceCacheIntegrationTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private LookupService lookupService;
+
+    @Autowired
+    private WorkStatusRefService statusService;
+
+    @Autowired
+    private ReferenceDataCache referenceCache;
+
+    @BeforeEach
+    void setUp() {
+        referenceCache.evictAll();
+
+        persistStatus("RECEIVED", "Received", 1);
+        persistStatus("DELIVERED", "Delivered", 2);
+        entityManager.flush();
+    }
+
+    @Test
+    void statuses_areCached_andEvictedByInsertAndReorder() {
+
+        List<StatusRef> before = lookupService.getAllStatuses();
+        long hits = referenceCache.stats().hits();
+
+        assertEquals(before, lookupService.getAllStatuses());
+        assertEquals("Received", lookupService.getStatusLabel("RECEIVED"));
+        assertEquals(hits + 1, referenceCache.stats().hits());
+
+        // ----------------------------------------------------
+        // insertAfter evicts the list and the single lookups
+        // ----------------------------------------------------
+        statusService.insertAfter("IN_PROGRESS", "In progress", "RECEIVED");
+        entityManager.flush();
+
+        assertEquals(List.of("RECEIVED", "IN_PROGRESS", "DELIVERED"), codes(lookupService.getAllStatuses()));
+        assertEquals("In progress", lookupService.getStatusLabel("IN_PROGRESS"));
+
+        // ----------------------------------------------------
+        // reorder evicts as well
+        // ----------------------------------------------------
+        statusService.reorder(List.of("IN_PROGRESS", "RECEIVED", "DELIVERED"));
+        entityManager.flush();
+
+        assertEquals(List.of("IN_PROGRESS", "RECEIVED", "DELIVERED"), codes(lookupService.getAllStatuses()));
+    }
+
+    @Test
+    void getStatusEntity_rejectsUnknownCodes() {
+        assertThrows(IllegalArgumentException.class, () -> lookupService.getStatusEntity("NOPE"));
+        assertEquals("RECEIVED", lookupService.getStatusEntity("RECEIVED").getCode());
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    private static List<String> codes(List<StatusRef> statuses) {
+        return statuses.stream().map(StatusRef::code).toList();
+    }
+
+    private void persistStatus(String code, String label, int order) {
+        WorkStatusRefEntity status = new WorkStatusRefEntity();
+        status.setCode(code);
+        status.setLabel(label);
+        status.setSequenceOrder(order);
+        entityManager.persist(status);
+    }
+}
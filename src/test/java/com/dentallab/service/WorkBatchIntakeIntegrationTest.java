@@ -0,0 +1,234 @@
+package com.dentallab.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dentallab.api.dto.WorkBatchItemResult;
+import com.dentallab.api.dto.WorkBatchItemResult.Status;
+import com.dentallab.api.dto.WorkBatchResult;
+import com.dentallab.api.enums.BuildingTechnique;
+import com.dentallab.api.model.BridgeWorkModel;
+import com.dentallab.api.model.CrownWorkModel;
+import com.dentallab.api.model.FullWorkModel;
+import com.dentallab.api.model.WorkExtensionModel;
+import com.dentallab.api.model.WorkModel;
+import com.dentallab.domain.enums.FixProstheticConstitution;
+import com.dentallab.persistence.entity.ClientEntity;
+import com.dentallab.persistence.entity.DentistProfileEntity;
+import com.dentallab.persistence.entity.MaterialEntity;
+import com.dentallab.persistence.entity.WorkFamilyRefEntity;
+import com.dentallab.persistence.entity.WorkOrderEntity;
+import com.dentallab.persistence.entity.WorkStatusRefEntity;
+import com.dentallab.persistence.entity.WorkTypeRefEntity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Bulk intake into an order: per-item validation (lookups, extension
+ * fields, materials), consecutive internal codes, batched work / crown /
+ * bridge rows.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class WorkBatchIntakeIntegrationTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private WorkBatchIntakeService batchIntakeService;
+
+    private Long orderId;
+    private Long clientId;
+    private Long zirconia;
+    private Long ceramic;
+
+    @BeforeEach
+    void setUp() {
+
+        WorkFamilyRefEntity family = new WorkFamilyRefEntity();
+        family.setCode("FIXED_PROSTHESIS");
+        family.setLabel("Fixed Prosthesis");
+        entityManager.persist(family);
+
+        for (String code : List.of("CROWN", "BRIDGE")) {
+            WorkTypeRefEntity type = new WorkTypeRefEntity();
+            type.setCode(code);
+            type.setLabel(code);
+            type.setFamily(family);
+            entityManager.persist(type);
+        }
+
+        WorkStatusRefEntity status = new WorkStatusRefEntity();
+        status.setCode("RECEIVED");
+        status.setLabel("Received");
+        status.setSequenceOrder(1);
+        entityManager.persist(status);
+
+        ClientEntity client = new ClientEntity();
+        client.setDisplayName("Batch Client");
+        client.setFirstName("Batch");
+        client.setLastName("Client");
+        client.setPrimaryEmail("batch.client@lab.local");
+        entityManager.persist(client);
+
+        DentistProfileEntity profile = new DentistProfileEntity();
+        profile.setClient(client);
+        profile.setClinicName("Batch Clinic");
+        client.setDentistProfile(profile);
+        entityManager.persist(profile);
+
+        zirconia = persistMaterial("Zirconia");
+        ceramic = persistMaterial("Feldspathic ceramic");
+
+        WorkOrderEntity order = new WorkOrderEntity();
+        order.setClient(client);
+        order.setDueDate(LocalDateTime.now());
+        entityManager.persist(order);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        orderId = order.getId();
+        clientId = client.getId();
+    }
+
+    @Test
+    void batch_createsValidItems_andReportsRejectedOnes() {
+
+        List<FullWorkModel> items = new ArrayList<>();
+        items.add(work("CROWN", crown("16", zirconia)));
+        items.add(work("CROWN", crown(null, zirconia)));          // missing tooth number
+        items.add(work("BRIDGE", bridge()));
+        items.add(work("VENEER", null));                          // unknown type
+        items.add(work("CROWN", crown("26", zirconia)));
+        items.add(work("CROWN", crown("36", null)));              // missing core material
+        items.add(work("CROWN", veneered(crown("46", zirconia)))); // monolithic with veneering
+        items.add(work("CROWN", crown("11", -1L)));               // unknown material
+
+        WorkBatchResult result = batchIntakeService.createBatch(orderId, items);
+
+        assertEquals(8, result.getTotal());
+        assertEquals(3, result.getCreated());
+        assertEquals(5, result.getRejected());
+
+        List<WorkBatchItemResult> results = result.getItems();
+        assertEquals(List.of(Status.CREATED, Status.REJECTED, Status.CREATED, Status.REJECTED, Status.CREATED,
+                        Status.REJECTED, Status.REJECTED, Status.REJECTED),
+                results.stream().map(WorkBatchItemResult::getStatus).toList());
+        assertEquals("Material not found: -1", results.get(7).getMessage());
+        assertNull(results.get(1).getWorkId());
+        assertNotNull(results.get(3).getMessage());
+
+        // ----------------------------------------------------
+        // Consecutive codes, in request order
+        // ----------------------------------------------------
+        int firstSeq = seqOf(results.get(0).getWorkId());
+        assertEquals(firstSeq + 1, seqOf(results.get(2).getWorkId()));
+        assertEquals(firstSeq + 2, seqOf(results.get(4).getWorkId()));
+        assertEquals(results.get(4).getInternalCode(), jdbcTemplate.queryForObject(
+                "SELECT internal_code FROM work WHERE work_id = ?", String.class, results.get(4).getWorkId()));
+
+        // ----------------------------------------------------
+        // Rows: works with default status, extensions
+        // ----------------------------------------------------
+        assertEquals(3, count("SELECT COUNT(*) FROM work WHERE order_id = ? AND client_id = ? AND status = 'RECEIVED'",
+                orderId, clientId));
+        assertEquals("26", jdbcTemplate.queryForObject(
+                "SELECT tooth_number FROM crown_work WHERE work_id = ?", String.class, results.get(4).getWorkId()));
+        assertEquals(zirconia, jdbcTemplate.queryForObject(
+                "SELECT core_material_id FROM crown_work WHERE work_id = ?", Long.class, results.get(0).getWorkId()));
+        assertEquals(1, count("SELECT COUNT(*) FROM bridge_work WHERE work_id = ? AND connector_type = 'Round'"
+                + " AND core_material_id = ? AND veneering_material_id = ?",
+                results.get(2).getWorkId(), zirconia, ceramic));
+    }
+
+    @Test
+    void batch_rejectsMissingOrderAndEmptyBatch() {
+
+        assertThrows(EntityNotFoundException.class,
+                () -> batchIntakeService.createBatch(-1L, List.of(work("CROWN", crown("11", zirconia)))));
+        assertThrows(IllegalArgumentException.class,
+                () -> batchIntakeService.createBatch(orderId, List.of()));
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    private int count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, args);
+    }
+
+    private int seqOf(Long workId) {
+        return jdbcTemplate.queryForObject("SELECT internal_seq FROM work WHERE work_id = ?", Integer.class, workId);
+    }
+
+    private FullWorkModel work(String type, WorkExtensionModel extension) {
+
+        WorkModel base = new WorkModel();
+        base.setWorkFamily("FIXED_PROSTHESIS");
+        base.setType(type);
+        base.setClientId(clientId);
+        base.setDescription("Batch " + type);
+
+        return new FullWorkModel(base, extension);
+    }
+
+    private Long persistMaterial(String name) {
+
+        MaterialEntity material = new MaterialEntity();
+        material.setName(name);
+        material.setPricePerUnit(new BigDecimal("10.00"));
+        entityManager.persist(material);
+        return material.getId();
+    }
+
+    private static CrownWorkModel crown(String toothNumber, Long coreMaterialId) {
+
+        CrownWorkModel crown = new CrownWorkModel();
+        crown.setType("CROWN");
+        crown.setToothNumber(toothNumber);
+        crown.setConstitution(FixProstheticConstitution.MONOLITHIC);
+        crown.setBuildingTechnique(BuildingTechnique.DIGITAL);
+        crown.setCoreMaterialId(coreMaterialId);
+        return crown;
+    }
+
+    private CrownWorkModel veneered(CrownWorkModel crown) {
+        crown.setVeneeringMaterialId(ceramic);
+        return crown;
+    }
+
+    private BridgeWorkModel bridge() {
+
+        BridgeWorkModel bridge = new BridgeWorkModel();
+        bridge.setType("BRIDGE");
+        bridge.setConstitution(FixProstheticConstitution.STRATIFIED);
+        bridge.setBuildingTechnique(BuildingTechnique.HYBRID);
+        bridge.setCoreMaterialId(zirconia);
+        bridge.setVeneeringMaterialId(ceramic);
+        bridge.setConnectorType("Round");
+        return bridge;
+    }
+}
@@ -0,0 +1,100 @@
+package com.dentallab.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.dentallab.service.impl.WorkCodeSequenceAllocator;
+import com.dentallab.service.impl.WorkCodeSequenceAllocator.Range;
+
+/**
+ * Internal code sequences: unique under concurrency, block reservation in
+ * memory, and never going backwards after a restart.
+ *
+ * Not transactional: the allocator commits in its own transactions, so
+ * every test uses its own profile id.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class WorkCodeSequenceAllocatorIntegrationTest {
+
+    @Autowired
+    private WorkCodeSequenceAllocator allocator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void next_isUniqueAcrossConcurrentCreations() throws Exception {
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        Set<Integer> seen = ConcurrentHashMap.newKeySet();
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 25; i++) {
+                        seen.add(allocator.next("D", 9001L, 2025));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(IntStream.rangeClosed(1, 200).boxed().collect(Collectors.toSet()), seen);
+        assertEquals(201, nextSeq("D", 9001L, 2025));
+    }
+
+    @Test
+    void blocks_areServedFromMemory_andRestartsContinueForward() {
+
+        WorkCodeSequenceAllocator bulk = new WorkCodeSequenceAllocator(jdbcTemplate, transactionManager, 10, 5);
+
+        assertEquals(1, bulk.next("S", 9002L, 2025));
+        assertEquals(new Range(2, 5), bulk.reserve("S", 9002L, 2025, 5));
+        assertEquals(7, bulk.next("S", 9002L, 2025));
+
+        // One round trip reserved 1..10
+        assertEquals(11, nextSeq("S", 9002L, 2025));
+
+        // Larger than the block: reserved as one consecutive range
+        assertEquals(new Range(11, 25), bulk.reserve("S", 9002L, 2025, 25));
+
+        // "Restart": the unused 8..10 are skipped, numbers keep growing
+        WorkCodeSequenceAllocator restarted = new WorkCodeSequenceAllocator(jdbcTemplate, transactionManager, 10, 5);
+        assertEquals(36, restarted.next("S", 9002L, 2025));
+
+        // Separate sequences per prefix and year
+        assertEquals(1, restarted.next("T", 9002L, 2025));
+        assertEquals(1, restarted.next("S", 9002L, 2026));
+    }
+
+    private int nextSeq(String prefix, Long profileId, int year) {
+        return jdbcTemplate.queryForObject(
+                "SELECT next_seq FROM work_code_sequence WHERE profile_prefix = ? AND client_profile_id = ? AND seq_year = ?",
+                Integer.class, prefix, profileId, year);
+    }
+}
@@ -0,0 +1,160 @@
+package com.dentallab.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dentallab.api.model.CursorPage;
+import com.dentallab.api.model.WorkModel;
+import com.dentallab.persistence.entity.ClientEntity;
+import com.dentallab.persistence.entity.WorkEntity;
+import com.dentallab.persistence.entity.WorkFamilyRefEntity;
+import com.dentallab.persistence.entity.WorkOrderEntity;
+import com.dentallab.persistence.entity.WorkTypeRefEntity;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Keyset pagination of works: forward and backward through a filtered
+ * listing, ties on the sort key broken by work id, optional count.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class WorkCursorPaginationIntegrationTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private WorkService workService;
+
+    @Test
+    void cursor_pagesForwardAndBack_withinClientFilter() {
+
+        ClientEntity client = persistClient("cursor.first@lab.local");
+        ClientEntity other = persistClient("cursor.other@lab.local");
+
+        Long w1 = persistWork(client, LocalDateTime.of(2025, 1, 1, 9, 0));
+        Long w2 = persistWork(client, LocalDateTime.of(2025, 2, 1, 9, 0));
+        Long w3 = persistWork(client, LocalDateTime.of(2025, 2, 1, 9, 0)); // same key as w2
+        Long w4 = persistWork(client, LocalDateTime.of(2025, 3, 1, 9, 0));
+        Long w5 = persistWork(client, LocalDateTime.of(2025, 4, 1, 9, 0));
+        persistWork(other, LocalDateTime.of(2025, 5, 1, 9, 0));
+        entityManager.flush();
+        entityManager.clear();
+
+        // ----------------------------------------------------
+        // Forward: newest first, two per page
+        // ----------------------------------------------------
+        CursorPage<WorkModel> page1 = page(null, client.getId(), true);
+        assertEquals(List.of(w5, w4), ids(page1));
+        assertEquals(5L, page1.getTotalElements());
+        assertNull(page1.getPrevCursor());
+        assertNotNull(page1.getNextCursor());
+
+        CursorPage<WorkModel> page2 = page(page1.getNextCursor(), client.getId(), false);
+        assertEquals(List.of(w3, w2), ids(page2));
+        assertNull(page2.getTotalElements());
+
+        CursorPage<WorkModel> page3 = page(page2.getNextCursor(), client.getId(), false);
+        assertEquals(List.of(w1), ids(page3));
+        assertNull(page3.getNextCursor());
+
+        // ----------------------------------------------------
+        // Backward from the last page
+        // ----------------------------------------------------
+        CursorPage<WorkModel> back2 = page(page3.getPrevCursor(), client.getId(), false);
+        assertEquals(List.of(w3, w2), ids(back2));
+        assertNotNull(back2.getNextCursor());
+
+        CursorPage<WorkModel> back1 = page(back2.getPrevCursor(), client.getId(), false);
+        assertEquals(List.of(w5, w4), ids(back1));
+        assertNull(back1.getPrevCursor());
+    }
+
+    @Test
+    void cursor_rejectsForeignOrMalformedCursors() {
+
+        ClientEntity client = persistClient("cursor.reject@lab.local");
+        persistWork(client, LocalDateTime.of(2025, 1, 1, 9, 0));
+        persistWork(client, LocalDateTime.of(2025, 2, 1, 9, 0));
+        entityManager.flush();
+
+        String next = workService.getFilteredByCursor(
+                null, 1, "createdAt,desc", false, null, null, null, null, null).getNextCursor();
+
+        assertThrows(IllegalArgumentException.class, () -> workService.getFilteredByCursor(
+                next, 1, "createdAt,asc", false, null, null, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> workService.getFilteredByCursor(
+                "not-a-cursor", 1, "createdAt,desc", false, null, null, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> workService.getFilteredByCursor(
+                null, 1, "description,desc", false, null, null, null, null, null));
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    private CursorPage<WorkModel> page(String cursor, Long clientId, boolean withCount) {
+        return workService.getFilteredByCursor(
+                cursor, 2, "createdAt,desc", withCount, null, null, clientId, null, null);
+    }
+
+    private static List<Long> ids(CursorPage<WorkModel> page) {
+        return page.getContent().stream().map(WorkModel::getId).toList();
+    }
+
+    private WorkTypeRefEntity type;
+
+    private ClientEntity persistClient(String email) {
+
+        if (type == null) {
+            WorkFamilyRefEntity family = new WorkFamilyRefEntity();
+            family.setCode("FIXED_PROSTHESIS");
+            family.setLabel("Fixed Prosthesis");
+            entityManager.persist(family);
+
+            type = new WorkTypeRefEntity();
+            type.setCode("CROWN");
+            type.setLabel("Crown");
+            type.setFamily(family);
+            entityManager.persist(type);
+        }
+
+        ClientEntity client = new ClientEntity();
+        client.setDisplayName("Test Client");
+        client.setFirstName("Test");
+        client.setLastName("Client");
+        client.setPrimaryEmail(email);
+        entityManager.persist(client);
+        return client;
+    }
+
+    private Long persistWork(ClientEntity client, LocalDateTime createdAt) {
+
+        WorkOrderEntity order = new WorkOrderEntity();
+        order.setClient(client);
+        order.setDueDate(LocalDateTime.now());
+        entityManager.persist(order);
+
+        WorkEntity work = new WorkEntity();
+        work.setWorkFamily(type.getFamily());
+        work.setType(type);
+        work.setClient(client);
+        work.setOrder(order);
+        work.setCreatedAt(createdAt);
+        entityManager.persist(work);
+        return work.getId();
+    }
+}
@@ -0,0 +1,139 @@
+package com.dentallab.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dentallab.api.model.WorkModel;
+import com.dentallab.persistence.entity.ClientEntity;
+import com.dentallab.persistence.entity.WorkCategoryEntity;
+import com.dentallab.persistence.entity.WorkEntity;
+import com.dentallab.persistence.entity.WorkFamilyRefEntity;
+import com.dentallab.persistence.entity.WorkOrderEntity;
+import com.dentallab.persistence.entity.WorkStatusRefEntity;
+import com.dentallab.persistence.entity.WorkTypeRefEntity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Work list pages come from one projection statement (plus the COUNT only
+ * when the page cannot tell the total), whatever the page size.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+class WorkListProjectionIntegrationTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private WorkService workService;
+
+    private Statistics statistics;
+    private ClientEntity client;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        WorkFamilyRefEntity family = new WorkFamilyRefEntity();
+        family.setCode("FIXED_PROSTHESIS");
+        family.setLabel("Fixed Prosthesis");
+        entityManager.persist(family);
+
+        WorkTypeRefEntity type = new WorkTypeRefEntity();
+        type.setCode("CROWN");
+        type.setLabel("Crown");
+        type.setFamily(family);
+        entityManager.persist(type);
+
+        WorkStatusRefEntity status = new WorkStatusRefEntity();
+        status.setCode("RECEIVED");
+        status.setLabel("Received");
+        status.setSequenceOrder(1);
+        entityManager.persist(status);
+
+        WorkCategoryEntity category = new WorkCategoryEntity("ZIRCONIA");
+        entityManager.persist(category);
+
+        client = new ClientEntity();
+        client.setDisplayName("Projection Client");
+        client.setFirstName("Projection");
+        client.setLastName("Client");
+        client.setPrimaryEmail("projection.client@lab.local");
+        entityManager.persist(client);
+
+        for (int i = 0; i < 5; i++) {
+            // A new order per work: lazy loading would cost one select each
+            WorkOrderEntity order = new WorkOrderEntity();
+            order.setClient(client);
+            order.setDueDate(LocalDateTime.now());
+            entityManager.persist(order);
+
+            WorkEntity work = new WorkEntity();
+            work.setWorkFamily(family);
+            work.setType(type);
+            work.setStatus(status);
+            work.setClient(client);
+            work.setOrder(order);
+            work.setCreatedAt(LocalDateTime.of(2025, 1, 1 + i, 9, 0));
+            work.setCategories(new ArrayList<>(List.of(category)));
+            entityManager.persist(work);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void filteredWithClients_partialFirstPage_isOneStatement() {
+
+        statistics.clear();
+
+        Page<WorkModel> page = workService.getFilteredWithClients(
+                0, 50, new String[] { "createdAt,desc" }, "CROWN", "RECEIVED", client.getId(),
+                "FIXED_PROSTHESIS", List.of("ZIRCONIA"));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(5, page.getTotalElements());
+
+        WorkModel newest = page.getContent().get(0);
+        assertEquals(LocalDateTime.of(2025, 1, 5, 9, 0), newest.getCreatedAt());
+        assertEquals("Crown", newest.getTypeLabel());
+        assertEquals("Fixed Prosthesis", newest.getFamilyLabel());
+        assertEquals("Received", newest.getStatusLabel());
+        assertNotNull(newest.getOrderId());
+        assertEquals("Projection Client", newest.getClient().getDisplayName());
+    }
+
+    @Test
+    void filtered_fullPage_addsOnlyTheCount() {
+
+        statistics.clear();
+
+        Page<WorkModel> page = workService.getFiltered(
+                0, 2, new String[] { "createdAt,asc" }, null, null, client.getId(), null, null);
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(5, page.getTotalElements());
+        assertEquals(LocalDateTime.of(2025, 1, 1, 9, 0), page.getContent().get(0).getCreatedAt());
+    }
+}
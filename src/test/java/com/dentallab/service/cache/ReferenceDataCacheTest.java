@@ -0,0 +1,104 @@
+package com.dentallab.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.dentallab.service.cache.ReferenceDataCache.Table;
+
+class ReferenceDataCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_loadsOnce_andCountsHitsAndMisses() {
+
+        ReferenceDataCache cache = new ReferenceDataCache(10);
+
+        assertThat(cache.get(Table.FAMILY, "code", "FIXED", () -> load("Fixed"))).isEqualTo("Fixed");
+        assertThat(cache.get(Table.FAMILY, "code", "FIXED", () -> load("Other"))).isEqualTo("Fixed");
+
+        // Absent values are not cached
+        assertThat(cache.get(Table.FAMILY, "code", "NOPE", () -> load(null))).isNull();
+        assertThat(cache.get(Table.FAMILY, "code", "NOPE", () -> load(null))).isNull();
+
+        assertThat(loads).hasValue(3);
+        assertThat(cache.stats().hits()).isEqualTo(1);
+        assertThat(cache.stats().misses()).isEqualTo(3);
+        assertThat(cache.stats().size()).isEqualTo(1);
+    }
+
+    @Test
+    void get_dropsLeastRecentlyUsedBeyondMaxEntries() {
+
+        ReferenceDataCache cache = new ReferenceDataCache(2);
+        cache.get(Table.TYPE, "code", "A", () -> load("a"));
+        cache.get(Table.TYPE, "code", "B", () -> load("b"));
+        cache.get(Table.TYPE, "code", "A", () -> load("a"));
+        cache.get(Table.TYPE, "code", "C", () -> load("c"));
+
+        loads.set(0);
+        cache.get(Table.TYPE, "code", "A", () -> load("a"));
+        cache.get(Table.TYPE, "code", "B", () -> load("b"));
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.stats().evictions()).isEqualTo(2);
+        assertThat(cache.stats().size()).isEqualTo(2);
+    }
+
+    @Test
+    void evict_dropsOnlyThatTable_andDiscardsValuesLoadedMeanwhile() {
+
+        ReferenceDataCache cache = new ReferenceDataCache(10);
+        cache.get(Table.STATUS, "all", null, () -> load(List.of("RECEIVED")));
+        cache.get(Table.FAMILY, "code", "FIXED", () -> load("Fixed"));
+
+        // A reader that started before the eviction must not store its value
+        cache.get(Table.STATUS, "code", "RECEIVED", () -> {
+            cache.evict(Table.STATUS);
+            return load("stale");
+        });
+
+        assertThat(cache.stats().size()).isEqualTo(1);
+
+        loads.set(0);
+        assertThat(cache.get(Table.STATUS, "code", "RECEIVED", () -> load("fresh"))).isEqualTo("fresh");
+        assertThat(cache.get(Table.FAMILY, "code", "FIXED", () -> load("reloaded"))).isEqualTo("Fixed");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void getAll_loadsOnlyMissingIds_inOneCall() {
+
+        ReferenceDataCache cache = new ReferenceDataCache(10);
+        cache.getAll(Table.TOOTH, "id", List.of(11L, 12L), this::loadTeeth);
+
+        Map<Long, String> teeth = cache.getAll(Table.TOOTH, "id", List.of(11L, 12L, 13L, 99L), this::loadTeeth);
+
+        assertThat(teeth).containsOnlyKeys(11L, 12L, 13L);
+        assertThat(loads).hasValue(2);
+        assertThat(cache.stats().hits()).isEqualTo(2);
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    private <V> V load(V value) {
+        loads.incrementAndGet();
+        return value;
+    }
+
+    private Map<Long, String> loadTeeth(Set<Long> ids) {
+        loads.incrementAndGet();
+        return ids.stream()
+                .filter(id -> id < 50)
+                .collect(Collectors.toMap(id -> id, id -> String.valueOf(id)));
+    }
+}